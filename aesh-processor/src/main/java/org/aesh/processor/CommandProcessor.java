@@ -0,0 +1,140 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.processor;
+
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.GroupCommandDefinition;
+import org.aesh.command.container.CommandContainerFactory;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates a {@link CommandContainerFactory} for every class annotated with
+ * {@link CommandDefinition} or {@link GroupCommandDefinition}, and registers them as services.
+ * With the factories in place the commands are modelled without reading annotations at
+ * runtime, and options are injected and helper classes created without reflection.
+ * Private fields without an accessible setter and classes without an accessible no-arg
+ * constructor are still handled with reflection, with the -Aaesh.verbose=true option
+ * a note lists them for every command.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+@SupportedAnnotationTypes({"org.aesh.command.CommandDefinition", "org.aesh.command.GroupCommandDefinition"})
+@SupportedOptions(CommandProcessor.VERBOSE)
+public class CommandProcessor extends AbstractProcessor {
+
+    static final String SERVICE_FILE = "META-INF/services/" + CommandContainerFactory.class.getName();
+    static final String VERBOSE = "aesh.verbose";
+
+    private final Set<String> factories = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<Element> commands = new TreeSet<>((a, b) -> a.toString().compareTo(b.toString()));
+        commands.addAll(roundEnv.getElementsAnnotatedWith(CommandDefinition.class));
+        commands.addAll(roundEnv.getElementsAnnotatedWith(GroupCommandDefinition.class));
+
+        for(Element element : commands) {
+            if(element.getKind() != ElementKind.CLASS)
+                continue;
+            FactoryGenerator generator = new FactoryGenerator(processingEnv, (TypeElement) element);
+            String reason = generator.unsupported();
+            if(reason != null) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        "No command factory generated, the command will be built with reflection: "+reason, element);
+                continue;
+            }
+            //private fields are the normal idiom, only list them when asked for
+            if(!generator.reflective().isEmpty() && isVerbose())
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                        "The command factory uses reflection for: "+String.join(", ", generator.reflective()), element);
+            try {
+                factories.add(generator.write());
+            }
+            catch(IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Could not write the command factory: "+e.getMessage(), element);
+            }
+        }
+
+        if(roundEnv.processingOver() && !factories.isEmpty())
+            writeServiceFile();
+
+        return false;
+    }
+
+    private boolean isVerbose() {
+        return Boolean.parseBoolean(processingEnv.getOptions().get(VERBOSE));
+    }
+
+    private void writeServiceFile() {
+        //keep the factories from an earlier, incremental, compilation
+        try {
+            FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try(BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if(line.length() > 0 && !line.startsWith("#") &&
+                            processingEnv.getElementUtils().getTypeElement(line) != null)
+                        factories.add(line);
+                }
+            }
+        }
+        catch(IOException | IllegalArgumentException e) {
+            //no earlier service file
+        }
+
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try(Writer writer = file.openWriter()) {
+                for(String factory : factories)
+                    writer.write(factory + "\n");
+            }
+        }
+        catch(IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Could not write "+SERVICE_FILE+": "+e.getMessage());
+        }
+    }
+}
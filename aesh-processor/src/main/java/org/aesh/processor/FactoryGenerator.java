@@ -0,0 +1,547 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.processor;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the command container factory of one command class.
+ * The generated code mirrors AeshCommandContainerBuilder, so a command gets the same
+ * model whether it is created by a factory or with reflection.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+class FactoryGenerator {
+
+    static final String SUFFIX = "_AeshCommandContainerFactory";
+
+    private static final String COMMAND_DEFINITION = "org.aesh.command.CommandDefinition";
+    private static final String GROUP_COMMAND_DEFINITION = "org.aesh.command.GroupCommandDefinition";
+    private static final String OPTION = "org.aesh.command.option.Option";
+    private static final String OPTION_LIST = "org.aesh.command.option.OptionList";
+    private static final String OPTION_GROUP = "org.aesh.command.option.OptionGroup";
+    private static final String ARGUMENTS = "org.aesh.command.option.Arguments";
+    private static final String ARGUMENT = "org.aesh.command.option.Argument";
+
+    private static final String OPTION_BUILDER = "org.aesh.command.impl.internal.ProcessedOptionBuilder";
+    private static final String OPTION_TYPE = "org.aesh.command.impl.internal.OptionType";
+
+    //the default values of the annotations, the builders resolve them without reflection
+    private static final List<String> DEFAULTS = Arrays.asList(
+            "org.aesh.command.impl.activator.NullCommandActivator",
+            "org.aesh.command.impl.validator.NullCommandValidator",
+            "org.aesh.command.impl.result.NullResultHandler",
+            "org.aesh.command.impl.converter.NullConverter",
+            "org.aesh.command.impl.completer.NullOptionCompleter",
+            "org.aesh.command.impl.validator.NullValidator",
+            "org.aesh.command.impl.activator.NullActivator",
+            "org.aesh.command.impl.renderer.NullOptionRenderer");
+
+    private final ProcessingEnvironment env;
+    private final TypeElement command;
+    private final String packageName;
+    private final String factoryName;
+
+    private final StringBuilder options = new StringBuilder();
+    private final List<String> reflective = new ArrayList<>();
+    private boolean hasArgument;
+    private boolean hasArguments;
+    private String unsupported;
+    private String source;
+
+    FactoryGenerator(ProcessingEnvironment env, TypeElement command) {
+        this.env = env;
+        this.command = command;
+        packageName = env.getElementUtils().getPackageOf(command).getQualifiedName().toString();
+        StringBuilder name = new StringBuilder(command.getSimpleName());
+        for(Element e = command.getEnclosingElement(); e instanceof TypeElement; e = e.getEnclosingElement())
+            name.insert(0, '_').insert(0, e.getSimpleName());
+        factoryName = name.append(SUFFIX).toString();
+    }
+
+    /**
+     * Check if a factory can be generated, the command options are processed as well.
+     *
+     * @return null if supported, otherwise the reason why not
+     */
+    String unsupported() {
+        if(command.getModifiers().contains(Modifier.ABSTRACT))
+            return "the command class is abstract";
+        if(command.getNestingKind() == NestingKind.LOCAL || command.getNestingKind() == NestingKind.ANONYMOUS)
+            return "the command class is not a top level or member class";
+        if(!isAccessible(command))
+            return "the command class is not accessible from its package";
+        for(TypeElement type = command; type != null; type = superclass(type)) {
+            for(VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                processField(field);
+                if(unsupported != null)
+                    return field.getSimpleName() + ", " + unsupported;
+            }
+        }
+        source = generate();
+        return unsupported;
+    }
+
+    /**
+     * Write the factory, only valid if {@link #unsupported()} returned null.
+     *
+     * @return the qualified name of the written factory
+     */
+    String write() throws IOException {
+        String qualifiedName = packageName.isEmpty() ? factoryName : packageName + "." + factoryName;
+        try(Writer writer = env.getFiler().createSourceFile(qualifiedName, command).openWriter()) {
+            writer.write(source);
+        }
+        return qualifiedName;
+    }
+
+    /**
+     * @return the fields and classes the generated factory still access with reflection, empty if none
+     */
+    List<String> reflective() {
+        return reflective;
+    }
+
+    private String generate() {
+        String type = command.getQualifiedName().toString();
+        StringBuilder out = new StringBuilder();
+        if(!packageName.isEmpty())
+            out.append("package ").append(packageName).append(";\n\n");
+        out.append("/**\n * Generated by org.aesh.processor.CommandProcessor for ").append(type).append(".\n */\n")
+                .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+                .append("public final class ").append(factoryName)
+                .append(" implements org.aesh.command.container.CommandContainerFactory {\n\n")
+                .append("    @Override\n")
+                .append("    public Class<? extends org.aesh.command.Command> commandType() {\n")
+                .append("        return ").append(type).append(".class;\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public org.aesh.command.Command newCommand() {\n")
+                .append("        return ").append(newInstance(command)).append(";\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public org.aesh.command.container.CommandContainer create(org.aesh.command.Command command)\n")
+                .append("            throws org.aesh.command.parser.CommandLineParserException {\n");
+
+        AnnotationMirror definition = annotation(command, COMMAND_DEFINITION);
+        boolean group = definition == null;
+        if(group)
+            definition = annotation(command, GROUP_COMMAND_DEFINITION);
+
+        out.append("        org.aesh.command.impl.internal.ProcessedCommand processedCommand =\n")
+                .append("                org.aesh.command.impl.internal.ProcessedCommandBuilder.builder()\n")
+                .append("                .name(").append(string(definition, "name")).append(")\n")
+                .append("                .activator(").append(instance(definition, "activator", "org.aesh.command.activator.CommandActivator")).append(")\n")
+                .append("                .aliases(java.util.Arrays.asList(").append(strings(definition, "aliases")).append("))\n")
+                .append("                .description(").append(string(definition, "description")).append(")\n")
+                .append("                .validator(").append(instance(definition, "validator", "org.aesh.command.validator.CommandValidator")).append(")\n")
+                .append("                .command(command)\n")
+                .append("                .resultHandler(").append(instance(definition, "resultHandler", "org.aesh.command.result.ResultHandler")).append(")\n")
+                .append("                .generateHelp(").append(value(definition, "generateHelp")).append(")\n");
+        if(!group)
+            out.append("                .disableParsing(").append(value(definition, "disableParsing")).append(")\n");
+        out.append("                .version(").append(string(definition, "version")).append(")\n")
+                .append("                .create();\n")
+                .append(options)
+                .append("        org.aesh.command.impl.container.AeshCommandContainer container =\n")
+                .append("                new org.aesh.command.impl.container.AeshCommandContainer(\n")
+                .append("                        org.aesh.command.impl.parser.CommandLineParserBuilder.builder()\n")
+                .append("                                .processedCommand(processedCommand).create());\n");
+
+        if(group) {
+            out.append("        new org.aesh.command.impl.container.AeshCommandContainerBuilder()\n")
+                    .append("                .addGroupCommands(container, command, ");
+            TypeMirror groupCommand = env.getTypeUtils().erasure(
+                    env.getElementUtils().getTypeElement("org.aesh.command.GroupCommand").asType());
+            if(env.getTypeUtils().isAssignable(env.getTypeUtils().erasure(command.asType()), groupCommand))
+                out.append("java.util.Collections.emptyList()");
+            else {
+                out.append("java.util.Arrays.asList(");
+                List<?> subs = (List<?>) value(definition, "groupCommands");
+                for(int i = 0; i < subs.size(); i++) {
+                    TypeMirror sub = (TypeMirror) ((AnnotationValue) subs.get(i)).getValue();
+                    if(!isAccessible(sub))
+                        unsupported = "the group command " + sub + " is not accessible from the package of the command";
+                    if(i > 0)
+                        out.append(", ");
+                    out.append("(org.aesh.command.Command) ").append(newInstance((TypeElement) env.getTypeUtils().asElement(sub)));
+                }
+                out.append(")");
+            }
+            out.append(");\n");
+        }
+
+        out.append("        return container;\n")
+                .append("    }\n")
+                .append("}\n");
+        return out.toString();
+    }
+
+    private void processField(VariableElement field) {
+        AnnotationMirror a;
+        if((a = annotation(field, OPTION)) != null) {
+            boolean hasValue = (Boolean) value(a, "hasValue");
+            addOption(field, a, fieldType(field), hasValue ? "NORMAL" : "BOOLEAN", ' ', false, true, true);
+        }
+        else if((a = annotation(field, OPTION_LIST)) != null) {
+            if(!isSubtype(field.asType(), "java.util.Collection")) {
+                unsupported = "OptionList field must be instance of Collection";
+                return;
+            }
+            addOption(field, a, typeArgument(field, 0), "LIST", null, true, true, false);
+        }
+        else if((a = annotation(field, OPTION_GROUP)) != null) {
+            if(!isSubtype(field.asType(), "java.util.Map")) {
+                unsupported = "OptionGroup field must be instance of Map";
+                return;
+            }
+            addOption(field, a, typeArgument(field, 1), "GROUP", ',', false, true, false);
+        }
+        else if((a = annotation(field, ARGUMENTS)) != null) {
+            if(!isSubtype(field.asType(), "java.util.Collection")) {
+                unsupported = "Arguments field must be instance of Collection";
+                return;
+            }
+            if(hasArgument) {
+                unsupported = "Arguments can not be defined with an Argument type";
+                return;
+            }
+            hasArguments = true;
+            addOption(field, a, typeArgument(field, 0), "ARGUMENTS", null, true, false, false);
+        }
+        else if((a = annotation(field, ARGUMENT)) != null) {
+            if(hasArgument || hasArguments || isSubtype(field.asType(), "java.util.Collection")) {
+                unsupported = "invalid Argument definition";
+                return;
+            }
+            hasArgument = true;
+            addOption(field, a, fieldType(field), "ARGUMENT", ' ', true, true, true);
+        }
+    }
+
+    /**
+     * Append the builder of one option, the calls are in the same order as in AeshCommandContainerBuilder.
+     *
+     * @param separator value separator, null to read it from the annotation
+     * @param selector if the annotation has a selector
+     * @param renderer if the annotation has a renderer
+     * @param overrideRequired if the annotation has overrideRequired
+     */
+    private void addOption(VariableElement field, AnnotationMirror a, String type, String optionType,
+                           Character separator, boolean selector, boolean renderer, boolean overrideRequired) {
+        if(unsupported != null)
+            return;
+        boolean argument = optionType.startsWith("ARGUMENT");
+        StringBuilder option = new StringBuilder();
+        option.append("                ").append(OPTION_BUILDER).append(".builder()\n");
+        if(argument)
+            option.append("                .shortName('\\u0000')\n")
+                    .append("                .name(\"\")\n");
+        else {
+            String name = (String) value(a, "name");
+            option.append("                .shortName(").append(charLiteral((Character) value(a, "shortName"))).append(")\n")
+                    .append("                .name(").append(stringLiteral(name.length() < 1 ? field.getSimpleName().toString() : name)).append(")\n");
+        }
+        option.append("                .description(").append(string(a, "description")).append(")\n")
+                .append("                .required(").append(value(a, "required")).append(")\n")
+                .append("                .valueSeparator(")
+                .append(charLiteral(separator != null ? separator : (Character) value(a, "valueSeparator"))).append(")\n");
+        //Arguments sets the selector before askIfNotSet
+        if(selector && optionType.equals("ARGUMENTS"))
+            option.append("                .selector(").append(enumConstant(a, "selector")).append(")\n");
+        option.append("                .askIfNotSet(").append(value(a, "askIfNotSet")).append(")\n");
+        if(selector && !optionType.equals("ARGUMENTS"))
+            option.append("                .selector(").append(enumConstant(a, "selector")).append(")\n");
+        option.append("                .addAllDefaultValues(new String[] {").append(strings(a, "defaultValue")).append("})\n")
+                .append("                .type(").append(type).append(")\n")
+                .append("                .").append(fieldSetter(field)).append("\n")
+                .append("                .optionType(").append(OPTION_TYPE).append('.').append(optionType).append(")\n")
+                .append("                .converter(").append(instance(a, "converter", "org.aesh.command.converter.Converter")).append(")\n")
+                .append("                .completer(").append(instance(a, "completer", "org.aesh.command.completer.OptionCompleter")).append(")\n")
+                .append("                .validator(").append(instance(a, "validator", "org.aesh.command.validator.OptionValidator")).append(")\n")
+                .append("                .activator(").append(instance(a, "activator", "org.aesh.command.activator.OptionActivator")).append(")\n");
+        if(renderer)
+            option.append("                .renderer(").append(instance(a, "renderer", "org.aesh.command.renderer.OptionRenderer")).append(")\n");
+        option.append("                .parser(").append(instance(a, "parser", "org.aesh.command.parser.OptionParser")).append(")\n");
+        if(overrideRequired)
+            option.append("                .overrideRequired(").append(value(a, "overrideRequired")).append(")\n");
+        option.append("                .build()");
+
+        if(unsupported != null)
+            return;
+        if(optionType.equals("ARGUMENTS"))
+            options.append("        processedCommand.setArguments(\n").append(option).append(");\n");
+        else if(optionType.equals("ARGUMENT"))
+            options.append("        processedCommand.setArgument(\n").append(option).append(");\n");
+        else
+            options.append("        processedCommand.addOption(\n").append(option).append(");\n");
+    }
+
+    /**
+     * Fields that can be written from the package of the command get a generated setter.
+     * Private fields are written with their setter, set + the capitalized field name, if it
+     * is accessible from the package of the command. The other fields are resolved by name
+     * and written through a method handle.
+     */
+    private String fieldSetter(VariableElement field) {
+        String name = field.getSimpleName().toString();
+        TypeElement owner = (TypeElement) field.getEnclosingElement();
+        TypeMirror type = field.asType();
+        if(field.getModifiers().contains(Modifier.STATIC) || type.getKind() == TypeKind.TYPEVAR ||
+                !isAccessible(owner) || !isAccessible(type))
+            return fieldName(owner, name);
+
+        String assignment;
+        if(field.getModifiers().contains(Modifier.PRIVATE) || field.getModifiers().contains(Modifier.FINAL) ||
+                (!field.getModifiers().contains(Modifier.PUBLIC) && !samePackage(owner))) {
+            ExecutableElement setter = setter(owner, field);
+            if(setter == null)
+                return fieldName(owner, name);
+            assignment = setter.getSimpleName() + "(%s)";
+        }
+        else
+            assignment = name + " = %s";
+
+        String erasure = env.getTypeUtils().erasure(type).toString();
+        String cast = type.getKind().isPrimitive() ?
+                env.getTypeUtils().boxedClass(env.getTypeUtils().getPrimitiveType(type.getKind())).getQualifiedName().toString() :
+                erasure;
+        String ownerName = owner.getQualifiedName().toString();
+        return "field(org.aesh.command.impl.internal.FieldAccessor.of(" + ownerName + ".class, " + stringLiteral(name) +
+                ", " + erasure + ".class,\n                        (instance, value) -> ((" + ownerName + ") instance)." +
+                String.format(assignment, "(" + cast + ") value") + "))";
+    }
+
+    private String fieldName(TypeElement owner, String name) {
+        reflective.add("field " + owner.getSimpleName() + "." + name);
+        return "fieldName(" + stringLiteral(name) + ")";
+    }
+
+    /**
+     * @return the instance method set + capitalized field name taking the field type, null if
+     * there is none that is accessible from the package of the command
+     */
+    private ExecutableElement setter(TypeElement owner, VariableElement field) {
+        String name = field.getSimpleName().toString();
+        String setter = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for(ExecutableElement method : ElementFilter.methodsIn(owner.getEnclosedElements())) {
+            if(method.getSimpleName().contentEquals(setter) && method.getParameters().size() == 1 &&
+                    env.getTypeUtils().isSameType(method.getParameters().get(0).asType(), field.asType()) &&
+                    method.getThrownTypes().isEmpty() && !method.getModifiers().contains(Modifier.STATIC) &&
+                    !method.getModifiers().contains(Modifier.PRIVATE) &&
+                    (method.getModifiers().contains(Modifier.PUBLIC) || samePackage(owner)))
+                return method;
+        }
+        return null;
+    }
+
+    private String fieldType(VariableElement field) {
+        TypeMirror erasure = env.getTypeUtils().erasure(field.asType());
+        if(!isAccessible(erasure))
+            unsupported = "the field type is not accessible from the package of the command";
+        return erasure + ".class";
+    }
+
+    /**
+     * The option type of a collection or map is its (raw) type argument.
+     */
+    private String typeArgument(VariableElement field, int index) {
+        if(field.asType().getKind() == TypeKind.DECLARED) {
+            List<? extends TypeMirror> arguments = ((DeclaredType) field.asType()).getTypeArguments();
+            if(arguments.size() > index && arguments.get(index).getKind() == TypeKind.DECLARED) {
+                TypeMirror erasure = env.getTypeUtils().erasure(arguments.get(index));
+                if(isAccessible(erasure))
+                    return erasure + ".class";
+            }
+        }
+        unsupported = "the type argument of the field must be an accessible class";
+        return null;
+    }
+
+    private String classLiteral(AnnotationMirror mirror, String name) {
+        TypeMirror type = (TypeMirror) value(mirror, name);
+        if(!isAccessible(type))
+            unsupported = env.getTypeUtils().erasure(type) + " is not accessible from the package of the command";
+        return env.getTypeUtils().erasure(type) + ".class";
+    }
+
+    /**
+     * Activators, validators, converters etc are created by the generated code, the default
+     * values are left to the builders and classes that can not be created from the package
+     * of the command are given as class literals.
+     *
+     * @param api interface the instance is cast to, the builders take the raw type
+     */
+    private String instance(AnnotationMirror mirror, String name, String api) {
+        String literal = classLiteral(mirror, name);
+        TypeMirror type = env.getTypeUtils().erasure((TypeMirror) value(mirror, name));
+        if(DEFAULTS.contains(type.toString()) || type.getKind() != TypeKind.DECLARED)
+            return literal;
+        String instance = constructor((TypeElement) env.getTypeUtils().asElement(type));
+        if(instance != null)
+            return "(" + api + ") " + instance;
+        reflective.add(name + " " + type);
+        return literal;
+    }
+
+    private String newInstance(TypeElement type) {
+        String instance = constructor(type);
+        if(instance != null)
+            return instance;
+        reflective.add("constructor of " + type.getQualifiedName());
+        return "org.aesh.util.ReflectionUtil.newInstance(" + type.getQualifiedName() + ".class)";
+    }
+
+    /**
+     * @return a call to the no-arg constructor, null if it can not be called from the package of the command
+     */
+    private String constructor(TypeElement type) {
+        if(!type.getModifiers().contains(Modifier.ABSTRACT) && isAccessible(type) &&
+                (type.getNestingKind() == NestingKind.TOP_LEVEL || type.getModifiers().contains(Modifier.STATIC))) {
+            for(ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+                if(constructor.getParameters().isEmpty() && constructor.getThrownTypes().isEmpty() &&
+                        (constructor.getModifiers().contains(Modifier.PUBLIC) ||
+                                (!constructor.getModifiers().contains(Modifier.PRIVATE) && samePackage(type))))
+                    return "new " + type.getQualifiedName() + "()";
+            }
+        }
+        return null;
+    }
+
+    private boolean isAccessible(TypeMirror type) {
+        if(type.getKind() == TypeKind.ARRAY)
+            return isAccessible(((ArrayType) type).getComponentType());
+        if(type.getKind() == TypeKind.DECLARED)
+            return isAccessible((TypeElement) ((DeclaredType) type).asElement());
+        return type.getKind().isPrimitive();
+    }
+
+    /**
+     * @return true if the type can be referenced from the package of the command
+     */
+    private boolean isAccessible(TypeElement type) {
+        for(Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if(e.getModifiers().contains(Modifier.PRIVATE))
+                return false;
+            if(!e.getModifiers().contains(Modifier.PUBLIC) && !samePackage(e))
+                return false;
+        }
+        return true;
+    }
+
+    private boolean samePackage(Element element) {
+        PackageElement pkg = env.getElementUtils().getPackageOf(element);
+        return pkg.getQualifiedName().contentEquals(packageName);
+    }
+
+    private boolean isSubtype(TypeMirror type, String superType) {
+        TypeElement element = env.getElementUtils().getTypeElement(superType);
+        return env.getTypeUtils().isAssignable(env.getTypeUtils().erasure(type), env.getTypeUtils().erasure(element.asType()));
+    }
+
+    private TypeElement superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if(superclass.getKind() != TypeKind.DECLARED)
+            return null;
+        return (TypeElement) ((DeclaredType) superclass).asElement();
+    }
+
+    private static AnnotationMirror annotation(Element element, String annotation) {
+        for(AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+            if(type.getQualifiedName().contentEquals(annotation))
+                return mirror;
+        }
+        return null;
+    }
+
+    private Object value(AnnotationMirror mirror, String name) {
+        for(Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+                env.getElementUtils().getElementValuesWithDefaults(mirror).entrySet()) {
+            if(entry.getKey().getSimpleName().contentEquals(name))
+                return entry.getValue().getValue();
+        }
+        throw new IllegalArgumentException(name + " is not a member of " + mirror.getAnnotationType());
+    }
+
+    private String string(AnnotationMirror mirror, String name) {
+        return stringLiteral((String) value(mirror, name));
+    }
+
+    private String strings(AnnotationMirror mirror, String name) {
+        StringBuilder builder = new StringBuilder();
+        for(Object value : (List<?>) value(mirror, name)) {
+            if(builder.length() > 0)
+                builder.append(", ");
+            builder.append(stringLiteral((String) ((AnnotationValue) value).getValue()));
+        }
+        return builder.toString();
+    }
+
+    private String enumConstant(AnnotationMirror mirror, String name) {
+        VariableElement constant = (VariableElement) value(mirror, name);
+        return ((TypeElement) constant.getEnclosingElement()).getQualifiedName() + "." + constant.getSimpleName();
+    }
+
+    static String stringLiteral(String value) {
+        StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+        for(int i = 0; i < value.length(); i++)
+            appendEscaped(builder, value.charAt(i), '"');
+        return builder.append('"').toString();
+    }
+
+    static String charLiteral(char c) {
+        return appendEscaped(new StringBuilder("'"), c, '\'').append('\'').toString();
+    }
+
+    private static StringBuilder appendEscaped(StringBuilder builder, char c, char quote) {
+        if(c == quote || c == '\\')
+            return builder.append('\\').append(c);
+        if(c == '\n')
+            return builder.append("\\n");
+        if(c == '\t')
+            return builder.append("\\t");
+        if(c == '\r')
+            return builder.append("\\r");
+        if(c < 0x20 || c > 0x7e)
+            return builder.append(String.format("\\u%04x", (int) c));
+        return builder.append(c);
+    }
+}
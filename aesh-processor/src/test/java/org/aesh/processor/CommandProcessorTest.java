@@ -0,0 +1,237 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.processor;
+
+import org.aesh.command.Command;
+import org.aesh.command.container.CommandContainer;
+import org.aesh.command.container.CommandContainerFactory;
+import org.aesh.command.impl.internal.ProcessedCommand;
+import org.aesh.command.impl.internal.ProcessedOption;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public class CommandProcessorTest {
+
+    private static final String SAMPLE =
+            "package foo;\n" +
+            "import org.aesh.command.*;\n" +
+            "import org.aesh.command.option.*;\n" +
+            "import org.aesh.command.invocation.CommandInvocation;\n" +
+            "import org.aesh.command.completer.*;\n" +
+            "import java.util.List;\n" +
+            "@CommandDefinition(name = \"sample\", description = \"a \\\"quoted\\\" sample\", aliases = {\"s\"})\n" +
+            "public class Sample implements Command<CommandInvocation> {\n" +
+            "    @Option(shortName = 'v', hasValue = false) boolean verbose;\n" +
+            "    @Option(defaultValue = \"3\") private int count;\n" +
+            "    @OptionList(valueSeparator = ';', completer = Sample.Items.class) public List<String> items;\n" +
+            "    @Arguments List<java.io.File> files;\n" +
+            "    public CommandResult execute(CommandInvocation ci) { return CommandResult.SUCCESS; }\n" +
+            "    public boolean verbose() { return verbose; }\n" +
+            "    public int count() { return count; }\n" +
+            "    void setCount(int count) { this.count = count; }\n" +
+            "    public static class Items implements OptionCompleter<CompleterInvocation> {\n" +
+            "        public void complete(CompleterInvocation ci) { ci.addCompleterValue(\"a\"); }\n" +
+            "    }\n" +
+            "    @GroupCommandDefinition(name = \"grp\", description = \"\", groupCommands = {Sample.class})\n" +
+            "    public static class Grp implements Command<CommandInvocation> {\n" +
+            "        public CommandResult execute(CommandInvocation ci) { return CommandResult.SUCCESS; }\n" +
+            "    }\n" +
+            "}\n";
+
+    private static final String REFLECTIVE =
+            "package foo;\n" +
+            "import org.aesh.command.*;\n" +
+            "import org.aesh.command.option.*;\n" +
+            "import org.aesh.command.invocation.CommandInvocation;\n" +
+            "@CommandDefinition(name = \"reflective\", description = \"\")\n" +
+            "public class Reflective implements Command<CommandInvocation> {\n" +
+            "    @Option private String name;\n" +
+            "    public CommandResult execute(CommandInvocation ci) { return CommandResult.SUCCESS; }\n" +
+            "}\n";
+
+    private static final String INVALID =
+            "package foo;\n" +
+            "import org.aesh.command.*;\n" +
+            "import org.aesh.command.option.*;\n" +
+            "import org.aesh.command.invocation.CommandInvocation;\n" +
+            "@CommandDefinition(name = \"invalid\", description = \"\")\n" +
+            "public class Invalid implements Command<CommandInvocation> {\n" +
+            "    @OptionList String items;\n" +
+            "    public CommandResult execute(CommandInvocation ci) { return CommandResult.SUCCESS; }\n" +
+            "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testGeneratedSources() throws Exception {
+        File out = folder.newFolder();
+        assertTrue(warnings(compile(out, source("foo.Sample", SAMPLE))).isEmpty());
+
+        String factory = read(new File(out, "foo/Sample_AeshCommandContainerFactory.java"));
+        assertTrue(factory.contains(".description(\"a \\\"quoted\\\" sample\")"));
+        //package private fields are written by the generated setter, private fields by their setter method
+        assertTrue(factory.contains("((foo.Sample) instance).verbose = (java.lang.Boolean) value"));
+        assertTrue(factory.contains("((foo.Sample) instance).setCount((java.lang.Integer) value)"));
+        assertFalse(factory.contains(".fieldName("));
+        //helpers are created by the factory, defaults are left to the builder
+        assertTrue(factory.contains(".completer((org.aesh.command.completer.OptionCompleter) new foo.Sample.Items())"));
+        assertTrue(factory.contains(".parser((org.aesh.command.parser.OptionParser) new org.aesh.command.impl.parser.AeshOptionParser())"));
+        assertTrue(factory.contains(".converter(org.aesh.command.impl.converter.NullConverter.class)"));
+        assertTrue(factory.contains(".type(java.lang.String.class)"));
+        assertTrue(factory.contains(".type(java.io.File.class)"));
+
+        assertTrue(new File(out, "foo/Sample_Grp_AeshCommandContainerFactory.java").isFile());
+        assertEquals(Arrays.asList("foo.Sample_AeshCommandContainerFactory", "foo.Sample_Grp_AeshCommandContainerFactory"),
+                Files.readAllLines(new File(out, CommandProcessor.SERVICE_FILE).toPath()));
+    }
+
+    @Test
+    public void testGeneratedFactory() throws Exception {
+        File out = folder.newFolder();
+        assertTrue(warnings(compile(out, source("foo.Sample", SAMPLE))).isEmpty());
+
+        try(URLClassLoader loader = new URLClassLoader(new URL[] {out.toURI().toURL()}, getClass().getClassLoader())) {
+            CommandContainerFactory factory = (CommandContainerFactory)
+                    loader.loadClass("foo.Sample_AeshCommandContainerFactory").getDeclaredConstructor().newInstance();
+            Command command = factory.newCommand();
+            assertEquals(loader.loadClass("foo.Sample"), factory.commandType());
+
+            CommandContainer container = factory.create(command);
+            ProcessedCommand processedCommand = container.getParser().getProcessedCommand();
+            assertEquals("sample", processedCommand.name());
+            assertEquals(Collections.singletonList("s"), processedCommand.getAliases());
+            assertNotNull(processedCommand.getArguments());
+
+            ProcessedOption verbose = processedCommand.findLongOption("verbose");
+            verbose.getFieldAccessor(command).set(command, true);
+            assertEquals("Items", processedCommand.findLongOption("items").completer().getClass().getSimpleName());
+            ProcessedOption count = processedCommand.findLongOption("count");
+            assertEquals("3", count.getDefaultValues().get(0));
+            count.getFieldAccessor(command).set(command, 42);
+            assertEquals(true, command.getClass().getMethod("verbose").invoke(command));
+            assertEquals(42, command.getClass().getMethod("count").invoke(command));
+
+            CommandContainerFactory groupFactory = (CommandContainerFactory)
+                    loader.loadClass("foo.Sample_Grp_AeshCommandContainerFactory").getDeclaredConstructor().newInstance();
+            CommandContainer group = groupFactory.create(groupFactory.newCommand());
+            assertEquals(1, group.getParser().getAllChildParsers().size());
+        }
+    }
+
+    @Test
+    public void testReflectionIsReported() throws Exception {
+        File out = folder.newFolder();
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(out, source("foo.Reflective", REFLECTIVE));
+        //private fields are normal, nothing is reported by default
+        assertTrue(diagnostics.toString(), reflectionNotes(diagnostics).isEmpty());
+        assertTrue(warnings(diagnostics).isEmpty());
+        assertTrue(read(new File(out, "foo/Reflective_AeshCommandContainerFactory.java")).contains(".fieldName(\"name\")"));
+
+        diagnostics = compile(folder.newFolder(), source("foo.Reflective", REFLECTIVE), "-A" + CommandProcessor.VERBOSE + "=true");
+        List<Diagnostic<? extends JavaFileObject>> notes = reflectionNotes(diagnostics);
+        assertEquals(1, notes.size());
+        assertTrue(notes.get(0).getMessage(null).contains("field Reflective.name"));
+        assertTrue(warnings(diagnostics).isEmpty());
+    }
+
+    @Test
+    public void testInvalidCommandIsSkipped() throws Exception {
+        File out = folder.newFolder();
+        List<Diagnostic<? extends JavaFileObject>> warnings = warnings(compile(out, source("foo.Invalid", INVALID)));
+        assertEquals(1, warnings.size());
+        assertEquals(Diagnostic.Kind.WARNING, warnings.get(0).getKind());
+        assertFalse(new File(out, "foo/Invalid_AeshCommandContainerFactory.java").exists());
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> compile(File out, JavaFileObject source, String... options) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        List<String> arguments = new ArrayList<>(Arrays.asList("-d", out.getPath(), "-s", out.getPath(),
+                "-classpath", System.getProperty("java.class.path")));
+        arguments.addAll(Arrays.asList(options));
+        try(StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    arguments, null, Collections.singletonList(source));
+            task.setProcessors(Collections.singletonList(new CommandProcessor()));
+            assertTrue(diagnostics.getDiagnostics().toString(), task.call());
+        }
+        return diagnostics.getDiagnostics();
+    }
+
+    private static List<Diagnostic<? extends JavaFileObject>> warnings(List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+        List<Diagnostic<? extends JavaFileObject>> warnings = new ArrayList<>();
+        for(Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+            if(diagnostic.getKind() != Diagnostic.Kind.NOTE)
+                warnings.add(diagnostic);
+        }
+        return warnings;
+    }
+
+    private static List<Diagnostic<? extends JavaFileObject>> reflectionNotes(List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+        List<Diagnostic<? extends JavaFileObject>> notes = new ArrayList<>();
+        for(Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+            if(diagnostic.getKind() == Diagnostic.Kind.NOTE && diagnostic.getMessage(null).contains("uses reflection"))
+                notes.add(diagnostic);
+        }
+        return notes;
+    }
+
+    private static JavaFileObject source(String name, String code) {
+        return new SimpleJavaFileObject(URI.create("string:///" + name.replace('.', '/') + ".java"),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+
+    private static String read(File file) throws Exception {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
@@ -120,27 +120,20 @@ public class AeshRuntimeRunner {
                 throw new RuntimeException("Only one command can be added to the registry.");
 
             final String commandName = commandNames.iterator().next();
-            StringBuilder sb = new StringBuilder(commandName);
+            String[] commandArgs;
             if (args != null && args.length > 0) {
-                sb.append(" ");
-                if (args.length == 1) {
-                    sb.append(args[0]);
-                } else {
-                    for (String arg : args) {
-                        if (arg.indexOf(' ') >= 0) {
-                            sb.append('"').append(arg).append("\" ");
-                        } else {
-                            sb.append(arg).append(' ');
-                        }
-                    }
-                }
+                commandArgs = new String[args.length + 1];
+                System.arraycopy(args, 0, commandArgs, 1, args.length);
             }
+            else
+                commandArgs = new String[1];
+            commandArgs[0] = commandName;
 
             CommandResult result = null;
             try {
-                result = runtime.executeCommand(sb.toString());
+                result = runtime.executeCommandArgs(commandArgs);
             } catch (CommandNotFoundException e) {
-                System.err.println("Command not found: " + sb.toString());
+                System.err.println("Command not found: " + String.join(" ", commandArgs));
             } catch (CommandException | CommandLineParserException | CommandValidatorException | OptionValidatorException e) {
                 showHelpIfNeeded(runtime, commandName, e);
             } catch (InterruptedException | IOException e) {
@@ -26,6 +26,7 @@ import org.aesh.command.activator.OptionActivator;
 import org.aesh.command.completer.CompleterInvocation;
 import org.aesh.command.converter.ConverterInvocation;
 import org.aesh.command.impl.AeshCommandRuntime;
+import org.aesh.command.impl.RuntimeOptions;
 import org.aesh.command.impl.invocation.DefaultCommandInvocationBuilder;
 import org.aesh.command.invocation.CommandInvocation;
 import org.aesh.command.invocation.CommandInvocationBuilder;
@@ -76,6 +77,7 @@ public class AeshCommandRuntimeBuilder<CI extends CommandInvocation> {
 
     private boolean parseBrackets;
     private EnumSet<OperatorType> operators;
+    private final RuntimeOptions options = new RuntimeOptions();
 
     private AeshCommandRuntimeBuilder() {
     }
@@ -94,6 +96,60 @@ public class AeshCommandRuntimeBuilder<CI extends CommandInvocation> {
         return this;
     }
 
+    /**
+     * If the size is larger than 0, the commands on each side of a pipe are executed
+     * concurrently and the output is streamed through a buffer of the given size.
+     */
+    public AeshCommandRuntimeBuilder<CI> pipeBufferSize(int pipeBufferSize) {
+        options.pipeBufferSize(pipeBufferSize);
+        return this;
+    }
+
+    /**
+     * If true, the runtime can be shared by several threads calling executeCommand at the same time.
+     * Each invocation parses and executes a private copy of the command, the copies are pooled and reused.
+     */
+    public AeshCommandRuntimeBuilder<CI> concurrent(boolean concurrent) {
+        options.concurrent(concurrent);
+        return this;
+    }
+
+    /**
+     * If true, the result of the last completion is reused when tab is pressed again
+     * on the same buffer or after typing more chars of the completed word. Default is false.
+     */
+    public AeshCommandRuntimeBuilder<CI> completionCache(boolean completionCache) {
+        options.completionCache(completionCache);
+        return this;
+    }
+
+    /**
+     * How many milliseconds to wait for an async completer before the values it has
+     * found so far are shown, 0 (default) waits until it is done.
+     */
+    public AeshCommandRuntimeBuilder<CI> completerTimeout(long completerTimeout) {
+        options.completerTimeout(completerTimeout);
+        return this;
+    }
+
+    /**
+     * If true, the command is not populated when completing, completers read the values
+     * they need through {@link org.aesh.command.completer.CompleterInvocation#getOptionValues()}.
+     */
+    public AeshCommandRuntimeBuilder<CI> lazyCompletion(boolean lazyCompletion) {
+        options.lazyCompletion(lazyCompletion);
+        return this;
+    }
+
+    /**
+     * The executor used to run the commands of a streaming pipeline, see {@link #pipeBufferSize(int)}.
+     * If not set, every command that streams its output is run on a new thread.
+     */
+    public AeshCommandRuntimeBuilder<CI> processExecutor(java.util.concurrent.Executor processExecutor) {
+        options.processExecutor(processExecutor);
+        return this;
+    }
+
     public AeshCommandRuntimeBuilder<CI> commandRegistry(CommandRegistry<CI> registry) {
         this.registry = registry;
         return this;
@@ -160,6 +216,11 @@ public class AeshCommandRuntimeBuilder<CI extends CommandInvocation> {
             c.registry = (CommandRegistry<CI>) settings.commandRegistry();
             c.ctx = settings.aeshContext();
             c.operators = settings.operatorParserEnabled() ? EnumSet.allOf(OperatorType.class) : null;
+            c.options.pipeBufferSize(settings.pipeBufferSize())
+                    .completionCache(settings.completionCache())
+                    .completerTimeout(settings.completerTimeout())
+                    .lazyCompletion(settings.lazyCompletion())
+                    .processExecutor(settings.processExecutor());
         });
     }
 
@@ -207,6 +268,6 @@ public class AeshCommandRuntimeBuilder<CI extends CommandInvocation> {
         return new AeshCommandRuntime<>(ctx, registry, commandInvocationProvider,
                         commandNotFoundHandler, completerInvocationProvider, converterInvocationProvider,
                 validatorInvocationProvider, optionActivatorProvider, commandActivatorProvider,
-                commandInvocationBuilder, parseBrackets, operators);
+                commandInvocationBuilder, parseBrackets, operators, options);
     }
 }
@@ -27,6 +27,7 @@ import org.aesh.command.validator.CommandValidatorException;
 import org.aesh.command.validator.OptionValidatorException;
 import org.aesh.command.invocation.CommandInvocation;
 import org.aesh.complete.AeshCompleteOperation;
+import org.aesh.parser.LineParser;
 import org.aesh.readline.AeshContext;
 import org.aesh.command.registry.CommandRegistry;
 import org.aesh.readline.util.Parser;
@@ -103,6 +104,34 @@ public interface CommandRuntime<CI extends CommandInvocation> {
             InterruptedException,
             IOException;
 
+    /**
+     * Execute a command given as separate arguments, eg the arguments given to a main method.
+     * The first argument is the command name.
+     * The arguments are used as they are, they are not parsed for quotes, escapes or operators.
+     * By default the arguments are quoted and joined into a line that is given to
+     * {@link #executeCommand(String)}.
+     *
+     * @param args command name followed by its arguments
+     * @throws CommandNotFoundException
+     * @throws CommandLineParserException
+     * @throws OptionValidatorException
+     * @throws CommandValidatorException
+     * @throws CommandException
+     * @throws java.lang.InterruptedException
+     * @throws java.io.IOException
+     */
+    default CommandResult executeCommandArgs(String... args) throws CommandNotFoundException,
+            CommandLineParserException,
+            OptionValidatorException,
+            CommandValidatorException,
+            CommandException,
+            InterruptedException,
+            IOException {
+        if(args == null || args.length == 0)
+            throw new CommandException("No input arguments");
+        return executeCommand(LineParser.joinArguments(args));
+    }
+
     /**
      * Returns the aesh context.
      *
@@ -33,4 +33,12 @@ public interface Executable<T extends CommandInvocation> {
     default boolean canExecuteNext(CommandResult result) {
         return true;
     }
+
+    /**
+     * @return true if the output of this executable is streamed to the next
+     * execution while it runs, in which case both must be executed concurrently.
+     */
+    default boolean streamsToNext() {
+        return false;
+    }
 }
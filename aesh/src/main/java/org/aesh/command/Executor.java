@@ -19,10 +19,10 @@
  */
 package org.aesh.command;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import org.aesh.command.invocation.CommandInvocation;
 import org.aesh.command.parser.CommandLineParserException;
 import org.aesh.command.validator.CommandValidatorException;
@@ -32,22 +32,50 @@ import org.aesh.command.validator.OptionValidatorException;
  * Contains the list of Execution to execute and the logic to deal with
  * operators.
  *
+ * The executor keeps a cursor pointing at the next execution to run. The cursor
+ * only moves forward, past executions that have a result and past executions that
+ * are skipped because of the operator in front of them, so each call is O(1)
+ * amortized regardless of the number of executions.
+ *
  * @author jdenise@redhat.com
  */
 public class Executor<T extends CommandInvocation> {
 
     private final List<Execution<T>> executions;
 
-    private final Set<Execution<T>> skip = new HashSet<>();
+    // index of the first execution that has not finished
+    private int cursor;
+    // result of the last finished execution
+    private CommandResult lastResult;
+    private final BitSet skip = new BitSet();
+    private final java.util.concurrent.Executor stageExecutor;
+
     public Executor(List<Execution<T>> executions) {
+        this(executions, null);
+    }
+
+    /**
+     * @param stageExecutor used to run the stages of a streaming pipeline, if null each stage is run on a new thread
+     */
+    public Executor(List<Execution<T>> executions, java.util.concurrent.Executor stageExecutor) {
         this.executions = Collections.unmodifiableList(executions);
+        this.stageExecutor = stageExecutor;
     }
 
     public void execute() throws CommandException, CommandValidatorException, InterruptedException, RuntimeException,
                                          CommandLineParserException, OptionValidatorException {
-        Execution<T> exec;
-        while ((exec = getNextExecution()) != null) {
-            exec.execute();
+        Pipeline<T> pipeline;
+        while ((pipeline = getNextPipeline()) != null) {
+            pipeline.start();
+            boolean completed = false;
+            try {
+                pipeline.getLastStage().execute();
+                completed = true;
+            }
+            finally {
+                pipeline.finish(completed);
+            }
+            pipeline.rethrowFailure();
         }
     }
 
@@ -59,57 +87,72 @@ public class Executor<T extends CommandInvocation> {
         return getNextExecution() != null;
     }
 
+    /**
+     * Returns the next execution to run. Calling this method several times without
+     * running the returned execution returns the same execution.
+     *
+     * @return the next execution, or null if there is nothing more to execute
+     */
     public Execution<T> getNextExecution() {
-        if (executions.isEmpty()) {
-            return null;
-        }
+        advance();
+        return cursor < executions.size() ? executions.get(cursor) : null;
+    }
 
-        int index = 0;
-        // Retrieve the first non executed non skip execution.
-        for (Execution<T> execution : executions) {
-            if (execution.getResult() == null && !skip.contains(execution)) {
-                break;
+    private void advance() {
+        while (cursor < executions.size()) {
+            CommandResult result = executions.get(cursor).getResult();
+            if (result == null) {
+                return;
             }
-            index += 1;
+            // the result of the last executed command is conveyed to the operators
+            // that follow it until one of them let us execute the next command.
+            lastResult = result;
+            int next = cursor + 1;
+            while (next < executions.size() &&
+                    !executions.get(next - 1).getExecutable().canExecuteNext(lastResult)) {
+                skip.set(next);
+                next += 1;
+            }
+            cursor = next;
         }
+    }
 
-        //that is the first one, just return it
-        if (index == 0) {
-            return executions.get(index);
-        }
-        // no more to execute
-        if (index == executions.size()) {
+    /**
+     * Returns the next execution together with the executions it streams its output to.
+     * Every execution in the returned pipeline must be executed concurrently.
+     *
+     * @return the next pipeline, or null if there is nothing more to execute
+     */
+    public Pipeline<T> getNextPipeline() {
+        Execution<T> first = getNextExecution();
+        if (first == null) {
             return null;
         }
-        // We need the result of the last executed command. It will be conveyed
-        // to the next command to execute.
-        //The last executed one is at index - n; n being the number of skip.
-        int n = 1;
-        while (executions.get(index - n).getResult() == null) {
-            n += 1;
-        }
-        int i = index - 1;
-        CommandResult lastResult = executions.get(index - n).getResult();
-        while (i < executions.size() - 1) {
-            Execution exec = executions.get(i);
-            if (exec.getExecutable().canExecuteNext(lastResult)) {
-                return executions.get(i + 1);
-            } else {
-                i += 1;
-                skip.add(executions.get(i));
-            }
+        List<Execution<T>> stages = new ArrayList<>();
+        stages.add(first);
+        int index = cursor;
+        while (executions.get(index).getExecutable().streamsToNext() && index < executions.size() - 1) {
+            index += 1;
+            stages.add(executions.get(index));
         }
-        return null;
+        return new Pipeline<>(stages, stageExecutor);
+    }
+
+    /**
+     * @return the result of the last finished execution, or null if nothing has been executed
+     */
+    public CommandResult getLastResult() {
+        advance();
+        return lastResult;
     }
 
     public void clearSkippedListData() {
-       if(skip.size() > 0)
-           for(Execution<T> execution : skip) {
-               execution.clearQueuedLine();
-           }
+        for (int i = skip.nextSetBit(0); i >= 0; i = skip.nextSetBit(i + 1)) {
+            executions.get(i).clearQueuedLine();
+        }
     }
 
     public boolean hasSkipped() {
-        return skip.size() > 0;
+        return !skip.isEmpty();
     }
 }
@@ -0,0 +1,214 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.parser.CommandLineParserException;
+import org.aesh.command.validator.CommandValidatorException;
+import org.aesh.command.validator.OptionValidatorException;
+
+/**
+ * A group of executions connected through streaming pipes.
+ * All stages except the last are started on the given executor, or on a new daemon thread
+ * each if there is none, the last stage is executed by the caller.
+ * The stages must run at the same time, so the executor should not limit the number of threads.
+ *
+ * Completion and failures travel along the pipes: a stage that ends, for any reason,
+ * closes its output so the next stage reads end of stream, and releases its input so
+ * writes from the previous stage fail. When the last stage fails or the pipeline is
+ * cancelled (eg by Ctrl-C), every stage that is still running is interrupted.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public class Pipeline<T extends CommandInvocation> {
+
+    @FunctionalInterface
+    public interface StageRunner<T extends CommandInvocation> {
+        CommandResult run(Execution<T> stage) throws Exception;
+    }
+
+    private final List<Execution<T>> stages;
+    private final java.util.concurrent.Executor executor;
+    //the threads currently running a stage, guarded by this
+    private final Set<Thread> workers = new HashSet<>();
+    private volatile CountDownLatch running = new CountDownLatch(0);
+    private volatile Exception failure;
+    private volatile boolean cancelled;
+
+    public Pipeline(List<Execution<T>> stages) {
+        this(stages, null);
+    }
+
+    /**
+     * @param executor used to run all stages but the last, if null each stage is run on a new thread
+     */
+    public Pipeline(List<Execution<T>> stages, java.util.concurrent.Executor executor) {
+        if(stages.isEmpty())
+            throw new IllegalArgumentException("A pipeline must contain at least one execution");
+        this.stages = Collections.unmodifiableList(stages);
+        this.executor = executor;
+    }
+
+    public List<Execution<T>> getStages() {
+        return stages;
+    }
+
+    public Execution<T> getLastStage() {
+        return stages.get(stages.size() - 1);
+    }
+
+    public boolean isConcurrent() {
+        return stages.size() > 1;
+    }
+
+    public void start() throws CommandLineParserException, OptionValidatorException {
+        start(Execution::execute);
+    }
+
+    /**
+     * Populate all stages and start all but the last.
+     * The stages are populated in order before anything is started since several
+     * stages might share the same command container.
+     */
+    public void start(StageRunner<T> runner) throws CommandLineParserException, OptionValidatorException {
+        if(!isConcurrent())
+            return;
+        for(Execution<T> stage : stages)
+            stage.populateCommand();
+
+        running = new CountDownLatch(stages.size() - 1);
+        for(int i = 0; i < stages.size() - 1; i++) {
+            final Execution<T> stage = stages.get(i);
+            Runnable task = () -> runStage(runner, stage);
+            if(executor != null) {
+                try {
+                    executor.execute(task);
+                    continue;
+                }
+                catch (RejectedExecutionException e) {
+                    //eg: the executor is shut down, use a thread of our own
+                }
+            }
+            Thread worker = new Thread(task, "aesh-pipe-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    private void runStage(StageRunner<T> runner, Execution<T> stage) {
+        Thread current = Thread.currentThread();
+        synchronized (this) {
+            workers.add(current);
+            //we might have been cancelled while starting
+            if(cancelled)
+                current.interrupt();
+        }
+        try {
+            runner.run(stage);
+        }
+        catch (Exception e) {
+            if(stage.getResult() == null)
+                stage.setResut(CommandResult.FAILURE);
+            //failures caused by cancelling the pipeline are not interesting
+            if(failure == null && !cancelled)
+                failure = e;
+        }
+        finally {
+            synchronized (this) {
+                workers.remove(current);
+            }
+            //the thread might be reused, don't let a late cancel leak into it
+            Thread.interrupted();
+            running.countDown();
+        }
+    }
+
+    /**
+     * Wait until all stages started by this pipeline have finished.
+     * If the last stage did not complete, the other stages are cancelled first.
+     */
+    public void finish(boolean lastStageCompleted) {
+        if(!lastStageCompleted)
+            cancel();
+        awaitUninterruptibly();
+    }
+
+    /**
+     * Interrupt all stages started by this pipeline that are still running.
+     */
+    public synchronized void cancel() {
+        cancelled = true;
+        for(Thread worker : workers)
+            worker.interrupt();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    private void awaitUninterruptibly() {
+        boolean interrupted = false;
+        while(running.getCount() > 0) {
+            try {
+                running.await();
+            }
+            catch (InterruptedException e) {
+                interrupted = true;
+                cancel();
+            }
+        }
+        if(interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    /**
+     * @return the first exception thrown by a stage that was started by this pipeline, or null
+     */
+    public Exception getFailure() {
+        return failure;
+    }
+
+    /**
+     * Throw the failure of a stage that was started by this pipeline, if any.
+     * Should be called after {@link #finish(boolean)}.
+     */
+    public void rethrowFailure() throws CommandException, CommandValidatorException,
+            CommandLineParserException, InterruptedException {
+        if(failure == null)
+            return;
+        if(failure instanceof CommandException)
+            throw (CommandException) failure;
+        if(failure instanceof CommandValidatorException)
+            throw (CommandValidatorException) failure;
+        if(failure instanceof CommandLineParserException)
+            throw (CommandLineParserException) failure;
+        if(failure instanceof InterruptedException)
+            throw (InterruptedException) failure;
+        if(failure instanceof RuntimeException)
+            throw (RuntimeException) failure;
+        throw new RuntimeException(failure);
+    }
+}
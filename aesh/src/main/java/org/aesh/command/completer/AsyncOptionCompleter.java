@@ -0,0 +1,57 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.completer;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A completer that finds its values in the background, eg: by querying a database.
+ *
+ * The values can be added to the invocation from any thread until the returned stage
+ * is completed. If the completer is not done within the timeout, the values added so
+ * far are shown and the completion continues in the background. Pressing tab again on
+ * the same input waits for it again, changing the input cancels the returned stage.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public interface AsyncOptionCompleter<T extends CompleterInvocation> extends OptionCompleter<T> {
+
+    /**
+     * Start to complete the given input for an option value.
+     * The current value to be completed is completerInvocation.getGivenCompleteValue()
+     *
+     * @param completerInvocation invocation the values are added to
+     * @return stage that is completed when all the values are added
+     */
+    CompletionStage<?> completeAsync(T completerInvocation);
+
+    /**
+     * @return how many milliseconds to wait for the values,
+     * a negative value uses the completer timeout in the settings
+     */
+    default long timeout() {
+        return -1;
+    }
+
+    @Override
+    default void complete(T completerInvocation) {
+        completeAsync(completerInvocation).toCompletableFuture().join();
+    }
+}
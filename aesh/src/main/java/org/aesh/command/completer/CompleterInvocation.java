@@ -73,4 +73,35 @@ public interface CompleterInvocation {
     boolean isIgnoreStartsWith();
 
     AeshContext getAeshContext();
+
+    /**
+     * Set to true if the values are only some of the matching values, eg when there
+     * were too many. A truncated result is completed again when more chars are typed.
+     */
+    default void setTruncated(boolean truncated) {
+    }
+
+    default boolean isTruncated() {
+        return false;
+    }
+
+    /**
+     * Set to false if the values can change between two completions of the same value,
+     * eg files or values read from a database. They are then never reused by the completion cache.
+     */
+    default void setCacheable(boolean cacheable) {
+    }
+
+    default boolean isCacheable() {
+        return true;
+    }
+
+    /**
+     * @return a read-only view of the values given to the command, converted on demand.
+     * With lazy completion the command instance is not populated, use this view instead.
+     * Null if the invocation was not created by the completion parser.
+     */
+    default OptionValues getOptionValues() {
+        return null;
+    }
 }
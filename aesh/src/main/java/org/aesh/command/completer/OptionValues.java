@@ -0,0 +1,56 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.completer;
+
+/**
+ * A read-only view of the values given to the command that is completed.
+ *
+ * The values are converted when they are asked for, so a completer only pays for
+ * the conversion of the values it needs. The command instance is not changed.
+ * If an option has no value its default value is used. A value that can not be
+ * converted is returned as null.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public interface OptionValues {
+
+    /**
+     * @param name long name of the option
+     * @return the converted value, a List for list options, a Map for group options
+     * or null if the option is not found or has no value
+     */
+    Object option(String name);
+
+    /**
+     * @param name long name of the option
+     * @return the value as it was typed, or null
+     */
+    String rawOption(String name);
+
+    /**
+     * @return the converted value of the argument, or null
+     */
+    Object argument();
+
+    /**
+     * @return the converted values of the arguments as a List, or null
+     */
+    Object arguments();
+}
@@ -0,0 +1,51 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.container;
+
+import org.aesh.command.Command;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.parser.CommandLineParserException;
+
+/**
+ * Creates the container of one command class without reading its annotations at runtime.
+ * Implementations are generated by the aesh-processor annotation processor and registered
+ * as a service, {@link org.aesh.command.impl.container.AeshCommandContainerBuilder} use them
+ * when they are found.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public interface CommandContainerFactory<CI extends CommandInvocation> {
+
+    /**
+     * @return the command class this factory is generated for
+     */
+    Class<? extends Command> commandType();
+
+    /**
+     * @return a new instance of the command
+     */
+    Command<CI> newCommand();
+
+    /**
+     * @param command instance of {@link #commandType()}
+     * @return container for the given command
+     */
+    CommandContainer<CI> create(Command<CI> command) throws CommandLineParserException;
+}
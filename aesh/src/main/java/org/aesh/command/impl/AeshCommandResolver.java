@@ -84,13 +84,10 @@ public class AeshCommandResolver<CI extends CommandInvocation> implements Comman
      * @throws CommandNotFoundException
      */
     private CommandContainer<CI> getCommand(String commandName, String line) throws CommandNotFoundException {
-        try {
-            return registry.getCommand(commandName, line);
-        }
-        catch (CommandNotFoundException e) {
-            // Lookup in aliases
-            return registry.getCommandByAlias(commandName);
-        }
+        CommandContainer<CI> container = registry.findCommand(commandName, line);
+        if(container == null)
+            throw new CommandNotFoundException("Command: " + commandName + " was not found.", commandName);
+        return container;
     }
 
 }
@@ -28,6 +28,7 @@ import org.aesh.command.CommandResult;
 import org.aesh.command.CommandRuntime;
 import org.aesh.command.Execution;
 import org.aesh.command.Executor;
+import org.aesh.command.Pipeline;
 import org.aesh.command.activator.CommandActivatorProvider;
 import org.aesh.command.activator.OptionActivatorProvider;
 import org.aesh.command.completer.CompleterInvocation;
@@ -42,6 +43,7 @@ import org.aesh.command.impl.internal.ProcessedOption;
 import org.aesh.command.impl.invocation.AeshInvocationProviders;
 import org.aesh.command.impl.parser.AeshCommandLineCompletionParser;
 import org.aesh.command.impl.parser.CommandLineParser;
+import org.aesh.command.impl.registry.MutableCommandRegistryImpl;
 import org.aesh.command.invocation.CommandInvocation;
 import org.aesh.command.invocation.CommandInvocationBuilder;
 import org.aesh.command.invocation.CommandInvocationConfiguration;
@@ -60,6 +62,8 @@ import org.aesh.parser.ParserStatus;
 import org.aesh.readline.AeshContext;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.logging.Level;
@@ -86,6 +90,10 @@ public class AeshCommandRuntime<CI extends CommandInvocation>
 
     private final boolean parseBrackets;
     private final EnumSet<OperatorType> operators;
+    private final int pipeBufferSize;
+    private final java.util.concurrent.Executor processExecutor;
+    private final CommandContainerPool<CI> containerPool;
+    private final CompletionCache completionCache;
 
     public AeshCommandRuntime(AeshContext ctx,
             CommandRegistry<CI> registry,
@@ -99,6 +107,27 @@ public class AeshCommandRuntime<CI extends CommandInvocation>
             CommandInvocationBuilder<CI> commandInvocationBuilder,
             boolean parseBrackets,
             EnumSet<OperatorType> operators) {
+        this(ctx, registry, commandInvocationProvider, commandNotFoundHandler, completerInvocationProvider,
+                converterInvocationProvider, validatorInvocationProvider, optionActivatorProvider,
+                commandActivatorProvider, commandInvocationBuilder, parseBrackets, operators, new RuntimeOptions());
+    }
+
+    /**
+     * @param options execution and completion options, see {@link RuntimeOptions}
+     */
+    public AeshCommandRuntime(AeshContext ctx,
+            CommandRegistry<CI> registry,
+            CommandInvocationProvider<CI> commandInvocationProvider,
+            CommandNotFoundHandler commandNotFoundHandler,
+            CompleterInvocationProvider completerInvocationProvider,
+            ConverterInvocationProvider converterInvocationProvider,
+            ValidatorInvocationProvider validatorInvocationProvider,
+            OptionActivatorProvider optionActivatorProvider,
+            CommandActivatorProvider commandActivatorProvider,
+            CommandInvocationBuilder<CI> commandInvocationBuilder,
+            boolean parseBrackets,
+            EnumSet<OperatorType> operators,
+            RuntimeOptions options) {
         this.ctx = ctx;
         this.registry = registry;
         commandResolver = new AeshCommandResolver<>(registry);
@@ -107,11 +136,16 @@ public class AeshCommandRuntime<CI extends CommandInvocation>
         this.commandInvocationBuilder = commandInvocationBuilder;
         this.invocationProviders
                 = new AeshInvocationProviders(converterInvocationProvider, completerInvocationProvider,
-                        validatorInvocationProvider, optionActivatorProvider, commandActivatorProvider);
+                        validatorInvocationProvider, optionActivatorProvider, commandActivatorProvider,
+                        options.completerTimeout(), options.lazyCompletion());
         processAfterInit();
         registry.addRegistrationListener(this);
         this.parseBrackets = parseBrackets;
         this.operators = operators;
+        this.pipeBufferSize = options.pipeBufferSize();
+        this.processExecutor = options.processExecutor();
+        this.containerPool = options.concurrent() ? new CommandContainerPool<>(this::updateCommand) : null;
+        this.completionCache = options.completionCache() ? new CompletionCache() : null;
     }
 
     @Override
@@ -141,10 +175,66 @@ public class AeshCommandRuntime<CI extends CommandInvocation>
             CommandException,
             InterruptedException,
             IOException {
+        LOGGER.fine("Command: " + line);
+        return executeLines(line, LineParser.threadLocal().parseLine(line, -1, parseBrackets, operators));
+    }
+
+    @Override
+    public CommandResult executeCommandArgs(String... args) throws CommandNotFoundException,
+            CommandLineParserException,
+            CommandValidatorException,
+            CommandException,
+            InterruptedException,
+            IOException {
+        if(args == null || args.length == 0)
+            throw new CommandException("No input arguments");
+        //the arguments are already split, no need to join and parse them again
+        ParsedLine parsedLine = LineParser.parseArguments(args);
+        LOGGER.fine("Command: " + parsedLine.line());
+        return executeLines(parsedLine.line(), Collections.singletonList(parsedLine));
+    }
+
+    private CommandResult executeLines(String line, List<ParsedLine> lines) throws CommandNotFoundException,
+            CommandLineParserException, CommandValidatorException,
+            CommandException, InterruptedException, IOException {
+        if(containerPool == null)
+            return executeLines(line, lines, null);
+        CommandContainerPool<CI>.Lease lease = containerPool.lease();
+        try {
+            lease.prepare(commandContainers(lines));
+            return executeLines(line, lines, lease);
+        }
+        finally {
+            lease.release();
+        }
+    }
 
+    /**
+     * @return the registered containers of the commands in the lines, unknown names are ignored
+     */
+    private List<CommandContainer<CI>> commandContainers(List<ParsedLine> lines) {
+        List<CommandContainer<CI>> containers = new ArrayList<>(lines.size());
+        for(ParsedLine parsedLine : lines) {
+            if(parsedLine.words().isEmpty())
+                continue;
+            try {
+                CommandContainer<CI> container = registry.findCommand(parsedLine.firstWord().word(), parsedLine.line());
+                if(container != null)
+                    containers.add(container);
+            }
+            catch(CommandNotFoundException e) {
+                //reported when the line is executed
+            }
+        }
+        return containers;
+    }
+
+    private CommandResult executeLines(String line, List<ParsedLine> lines, CommandContainerPool<CI>.Lease lease)
+            throws CommandNotFoundException, CommandLineParserException, CommandValidatorException,
+            CommandException, InterruptedException, IOException {
         Executor<CI> executor;
         try {
-            executor = buildExecutor(line);
+            executor = buildExecutor(lines, lease);
         }
         catch (CommandLineParserException e) {
             throw e;
@@ -155,33 +245,24 @@ public class AeshCommandRuntime<CI extends CommandInvocation>
             }
             throw cmd;
         }
-        Execution exec;
+        Pipeline<CI> pipeline;
         CommandResult result = null;
-        while ((exec = executor.getNextExecution()) != null) {
+        while ((pipeline = executor.getNextPipeline()) != null) {
             try {
-                result = exec.execute();
-            } catch (CommandException cmd) {
-                if (exec.getResultHandler() != null) {
-                    exec.getResultHandler().onExecutionFailure(CommandResult.FAILURE, cmd);
-                }
-                throw cmd;
-            } catch (CommandValidatorException | CommandLineParserException e) {
-                if (exec.getResultHandler() != null) {
-                    exec.getResultHandler().onValidationFailure(CommandResult.FAILURE, e);
-                }
-                throw e;
-            } catch (InterruptedException ex) {
-                Thread.currentThread().interrupt();
-                if (exec.getResultHandler() != null) {
-                    exec.getResultHandler().onValidationFailure(CommandResult.FAILURE, ex);
-                }
-                throw ex;
-            } catch (Exception e) {
-                if (exec.getResultHandler() != null) {
-                    exec.getResultHandler().onValidationFailure(CommandResult.FAILURE, e);
-                }
+                pipeline.start(this::executeStage);
+            }
+            catch (OptionValidatorException e) {
                 throw new RuntimeException(e);
             }
+            boolean completed = false;
+            try {
+                result = executeStage(pipeline.getLastStage());
+                completed = true;
+            }
+            finally {
+                pipeline.finish(completed);
+            }
+            pipeline.rethrowFailure();
         }
         if(result != null)
             return result;
@@ -189,6 +270,34 @@ public class AeshCommandRuntime<CI extends CommandInvocation>
             return CommandResult.FAILURE;
     }
 
+    private CommandResult executeStage(Execution<CI> exec) throws CommandException, CommandValidatorException,
+            CommandLineParserException, InterruptedException {
+        try {
+            return exec.execute();
+        } catch (CommandException cmd) {
+            if (exec.getResultHandler() != null) {
+                exec.getResultHandler().onExecutionFailure(CommandResult.FAILURE, cmd);
+            }
+            throw cmd;
+        } catch (CommandValidatorException | CommandLineParserException e) {
+            if (exec.getResultHandler() != null) {
+                exec.getResultHandler().onValidationFailure(CommandResult.FAILURE, e);
+            }
+            throw e;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            if (exec.getResultHandler() != null) {
+                exec.getResultHandler().onValidationFailure(CommandResult.FAILURE, ex);
+            }
+            throw ex;
+        } catch (Exception e) {
+            if (exec.getResultHandler() != null) {
+                exec.getResultHandler().onValidationFailure(CommandResult.FAILURE, e);
+            }
+            throw new RuntimeException(e);
+        }
+    }
+
     @Override
     public CommandResult executeCommand(String... lines) throws CommandNotFoundException, CommandLineParserException, OptionValidatorException, CommandValidatorException, CommandException, InterruptedException, IOException {
         if(lines == null || lines.length == 0)
@@ -203,18 +312,35 @@ public class AeshCommandRuntime<CI extends CommandInvocation>
     }
 
     private void processAfterInit() {
-        try {
-            for (String commandName : registry.getAllCommandNames()) {
+        for (String commandName : registry.getAllCommandNames()) {
+            //a command that can not be built should not stop the update of the others
+            try {
                 updateCommand(commandName);
+            } catch (Exception e) {
+                LOGGER.log(Level.FINER, "Exception while updating command: " + commandName, e);
             }
-        } catch (Exception e) {
-            LOGGER.log(Level.FINER, "Exception while iterating commands.", e);
         }
     }
 
+    @SuppressWarnings("unchecked")
     private void updateCommand(String commandName) throws CommandNotFoundException {
-        ProcessedCommand<Command<CI>, CI> cmd = registry.getCommand(commandName, "").getParser().getProcessedCommand();
-        List<CommandLineParser<CI>> childParsers = registry.getChildCommandParsers(commandName);
+        //only a custom OptionActivatorProvider needs to be set on the commands,
+        //with the default provider the command is not looked up, so it is not built either
+        if (invocationProviders.getOptionActivatorProvider() instanceof AeshOptionActivatorProvider)
+            return;
+        //a lazy command is updated when it is built
+        if (registry instanceof MutableCommandRegistryImpl)
+            ((MutableCommandRegistryImpl<CI>) registry).whenBuilt(commandName, this::updateCommand);
+        else
+            updateCommand(registry.getCommand(commandName, "").getParser().getProcessedCommand(),
+                    registry.getChildCommandParsers(commandName));
+    }
+
+    private void updateCommand(CommandContainer<CI> container) {
+        updateCommand(container.getParser().getProcessedCommand(), container.getParser().getAllChildParsers());
+    }
+
+    private void updateCommand(ProcessedCommand<Command<CI>, CI> cmd, List<CommandLineParser<CI>> childParsers) {
         if (!(invocationProviders.getOptionActivatorProvider() instanceof AeshOptionActivatorProvider)) {
             //we have a custom OptionActivatorProvider, and need to process all options
             cmd.updateInvocationProviders(invocationProviders);
@@ -227,10 +353,21 @@ public class AeshCommandRuntime<CI extends CommandInvocation>
     @Override
     public Executor<CI> buildExecutor(String line) throws CommandNotFoundException,
             CommandLineParserException, IOException {
-        LOGGER.fine("Command: " + line);
-        List<ParsedLine> lines = new LineParser().parseLine(line, -1, parseBrackets, operators);
-        List<Execution<CI>> executions = Executions.buildExecution(lines, this);
-        return new Executor<>(executions);
+        try {
+            LOGGER.fine("Command: " + line);
+            return buildExecutor(LineParser.threadLocal().parseLine(line, -1, parseBrackets, operators), null);
+        }
+        catch (InterruptedException e) {
+            //only a lease can block
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Executor<CI> buildExecutor(List<ParsedLine> lines, CommandContainerPool<CI>.Lease lease)
+            throws CommandNotFoundException, CommandLineParserException, IOException, InterruptedException {
+        List<Execution<CI>> executions = Executions.buildExecution(lines, this, lease);
+        return new Executor<>(executions, processExecutor);
     }
 
     CI buildCommandInvocation(CommandInvocationConfiguration config, CommandContainer<CI> commandContainer) {
@@ -238,7 +375,8 @@ public class AeshCommandRuntime<CI extends CommandInvocation>
                 enhanceCommandInvocation(commandInvocationBuilder.build(this, config, commandContainer));
     }
 
-    CommandContainer<CI> findCommandContainer(ParsedLine aeshLine) throws CommandNotFoundException {
+    CommandContainer<CI> findCommandContainer(ParsedLine aeshLine, CommandContainerPool<CI>.Lease lease)
+            throws CommandNotFoundException, InterruptedException {
         if (aeshLine.words().isEmpty()) {
             return null;
         }
@@ -248,10 +386,17 @@ public class AeshCommandRuntime<CI extends CommandInvocation>
         if (container == null) {
             throw new CommandNotFoundException("No command handler for '"+name+ "'.",name);
         }
+        if (lease != null) {
+            container = lease.get(container);
+        }
         container.addLine(aeshLine);
         return container;
     }
 
+    int pipeBufferSize() {
+        return pipeBufferSize;
+    }
+
     void populateAskedOption(ProcessedOption option) {
         try {
             option.injectValueIntoField(option.parent().getCommand(), invocationProviders, getAeshContext(), false);
@@ -263,6 +408,8 @@ public class AeshCommandRuntime<CI extends CommandInvocation>
 
     @Override
     public void registrationAction(String commandName, CommandRegistry.REGISTRATION_ACTION action) {
+        if(completionCache != null)
+            completionCache.clear();
         if (action == CommandRegistry.REGISTRATION_ACTION.ADDED) {
             try {
                 updateCommand(commandName);
@@ -270,19 +417,40 @@ public class AeshCommandRuntime<CI extends CommandInvocation>
                 LOGGER.log(Level.FINER, "Exception while iterating commands.", e);
             }
         }
+        else if(containerPool != null)
+            containerPool.remove(commandName);
     }
 
     @Override
     public void complete(AeshCompleteOperation completeOperation) {
+        AeshContext context = completeOperation.getContext() != null ? completeOperation.getContext() : ctx;
+        String cwd = context.getCurrentWorkingDirectory() != null ?
+                context.getCurrentWorkingDirectory().getAbsolutePath() : "";
+        if(completionCache != null && completionCache.complete(completeOperation, context, cwd))
+            return;
+
         if(operators.isEmpty())
             simpleComplete(completeOperation);
         else {
             completeWithOperators(completeOperation);
         }
+
+        //a completer that was not done in time must be asked again
+        if(completionCache != null && !completeOperation.isIncomplete())
+            completionCache.store(completeOperation, context, cwd);
+    }
+
+    /**
+     * Forget the result of the last completion, eg: if the values a completer
+     * returns have changed.
+     */
+    public void clearCompletionCache() {
+        if(completionCache != null)
+            completionCache.clear();
     }
 
     private void completeWithOperators(AeshCompleteOperation completeOperation) {
-        List<ParsedLine> lines = new LineParser()
+        List<ParsedLine> lines = LineParser.threadLocal()
                 .input(completeOperation.getBuffer())
                 .cursor(completeOperation.getCursor())
                 .parseBrackets(true)
@@ -328,7 +496,7 @@ public class AeshCommandRuntime<CI extends CommandInvocation>
     }
 
     private void simpleComplete(AeshCompleteOperation completeOperation) {
-        ParsedLine parsedLine = new LineParser()
+        ParsedLine parsedLine = LineParser.threadLocal()
                 .input(completeOperation.getBuffer())
                 .cursor(completeOperation.getCursor())
                 .parseBrackets(true)
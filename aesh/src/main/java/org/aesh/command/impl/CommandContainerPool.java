@@ -0,0 +1,276 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.GroupCommandDefinition;
+import org.aesh.command.container.CommandContainer;
+import org.aesh.command.impl.container.AeshCommandContainer;
+import org.aesh.command.impl.container.AeshCommandContainerBuilder;
+import org.aesh.command.impl.container.LazyCommandContainer;
+import org.aesh.command.impl.parser.CommandLineParser;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.parser.CommandLineParserException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hands out private copies of the registered command containers so that several threads
+ * can parse, populate and execute the same command at the same time.
+ *
+ * The containers in the registry are used as immutable prototypes. A copy is built from the
+ * class the command was registered with and recycled when the invocation is done. Commands
+ * that can not be copied (registered as an instance, not annotated, no usable constructor or
+ * sharing their sub commands) fall back to the prototype itself, guarded by a lock per prototype.
+ * The locks needed by a line are taken up front in a fixed order, see {@link Lease#prepare(Collection)}.
+ * A command executing another command on the same thread gets a nested lease that reuses the
+ * containers of the outer lease.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+final class CommandContainerPool<CI extends CommandInvocation> {
+
+    private static final Logger LOGGER = Logger.getLogger(CommandContainerPool.class.getName());
+
+    private final Map<CommandContainer<CI>, Pool> pools = new IdentityHashMap<>();
+    private final Consumer<CommandContainer<CI>> initializer;
+    //the lease of the invocation running on the current thread
+    private final ThreadLocal<Lease> current = new ThreadLocal<>();
+    private int poolCount;
+
+    /**
+     * @param initializer applied to every new copy before it is handed out
+     */
+    CommandContainerPool(Consumer<CommandContainer<CI>> initializer) {
+        this.initializer = initializer;
+    }
+
+    /**
+     * @return a new lease, all containers borrowed through it are returned by {@link Lease#release()}
+     */
+    Lease lease() {
+        Lease lease = new Lease(current.get());
+        current.set(lease);
+        return lease;
+    }
+
+    private synchronized Pool pool(CommandContainer<CI> prototype) {
+        return pools.computeIfAbsent(prototype, p -> new Pool(p, poolCount++));
+    }
+
+    /**
+     * Drop the pools of a removed command so they do not keep the prototype and its copies.
+     */
+    synchronized void remove(String name) {
+        Iterator<Pool> iterator = pools.values().iterator();
+        while(iterator.hasNext()) {
+            CommandContainer<CI> prototype = iterator.next().prototype;
+            if(prototype.getParser() != null &&
+                    name.equals(prototype.getParser().getProcessedCommand().name()))
+                iterator.remove();
+        }
+    }
+
+    /**
+     * The containers used by one invocation. A command that occurs several times in the same
+     * line (eg: foo | foo) gets the same container, like it does without the pool.
+     */
+    final class Lease {
+
+        private final Lease outer;
+        private final Map<CommandContainer<CI>, CommandContainer<CI>> borrowed = new IdentityHashMap<>();
+        private final Map<CommandContainer<CI>, Pool> borrowedFrom = new IdentityHashMap<>();
+        private final List<ReentrantLock> locks = new ArrayList<>();
+
+        private Lease(Lease outer) {
+            this.outer = outer;
+        }
+
+        /**
+         * Borrow the containers of all the commands in a line before any of them is used.
+         * The prototypes that can not be copied are locked in the order their pools were
+         * created, so two lines using the same commands in a different order can not deadlock.
+         */
+        void prepare(Collection<CommandContainer<CI>> prototypes) throws InterruptedException {
+            List<Pool> exclusive = new ArrayList<>();
+            for(CommandContainer<CI> prototype : prototypes) {
+                if(find(prototype) != null)
+                    continue;
+                Pool pool = pool(prototype);
+                CommandContainer<CI> container = pool.borrow();
+                if(container == null) {
+                    if(!exclusive.contains(pool))
+                        exclusive.add(pool);
+                }
+                else
+                    borrow(prototype, container, pool);
+            }
+            exclusive.sort(Comparator.comparingInt(pool -> pool.order));
+            for(Pool pool : exclusive) {
+                lock(pool);
+                borrow(pool.prototype, pool.prototype, pool);
+            }
+        }
+
+        CommandContainer<CI> get(CommandContainer<CI> prototype) throws InterruptedException {
+            CommandContainer<CI> container = find(prototype);
+            if(container == null) {
+                Pool pool = pool(prototype);
+                container = pool.borrow();
+                if(container == null) {
+                    lock(pool);
+                    container = prototype;
+                }
+                borrow(prototype, container, pool);
+            }
+            return container;
+        }
+
+        private CommandContainer<CI> find(CommandContainer<CI> prototype) {
+            for(Lease lease = this; lease != null; lease = lease.outer) {
+                CommandContainer<CI> container = lease.borrowed.get(prototype);
+                if(container != null)
+                    return container;
+            }
+            return null;
+        }
+
+        private void borrow(CommandContainer<CI> prototype, CommandContainer<CI> container, Pool pool) {
+            borrowed.put(prototype, container);
+            borrowedFrom.put(prototype, pool);
+        }
+
+        private void lock(Pool pool) throws InterruptedException {
+            pool.lock.lockInterruptibly();
+            locks.add(pool.lock);
+        }
+
+        void release() {
+            for(Map.Entry<CommandContainer<CI>, CommandContainer<CI>> entry : borrowed.entrySet()) {
+                entry.getValue().emptyLine();
+                if(entry.getValue() != entry.getKey())
+                    borrowedFrom.get(entry.getKey()).idle.offer(entry.getValue());
+            }
+            borrowed.clear();
+            borrowedFrom.clear();
+            for(int i = locks.size() - 1; i >= 0; i--)
+                locks.get(i).unlock();
+            locks.clear();
+            if(outer != null)
+                current.set(outer);
+            else
+                current.remove();
+        }
+    }
+
+    private final class Pool {
+
+        private final CommandContainer<CI> prototype;
+        private final int order;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ConcurrentLinkedQueue<CommandContainer<CI>> idle = new ConcurrentLinkedQueue<>();
+        private volatile boolean copyable;
+
+        Pool(CommandContainer<CI> prototype, int order) {
+            this.prototype = prototype;
+            this.order = order;
+            copyable = commandType(prototype) != null;
+        }
+        /**
+         * @return a private copy, or null if the prototype has to be used
+         */
+        CommandContainer<CI> borrow() {
+            if(!copyable)
+                return null;
+            CommandContainer<CI> container = idle.poll();
+            return container != null ? container : copy();
+        }
+
+        private CommandContainer<CI> copy() {
+            try {
+                CommandContainer<CI> container =
+                        new AeshCommandContainerBuilder<CI>().create(commandType(prototype));
+                if(container.haveBuildError() || shares(prototype.getParser(), container.getParser())) {
+                    copyable = false;
+                    return null;
+                }
+                initializer.accept(container);
+                return container;
+            }
+            catch(CommandLineParserException | RuntimeException e) {
+                LOGGER.log(Level.FINE, "Could not copy "+prototype.getParser().getProcessedCommand().name()+
+                        ", invocations will be serialized", e);
+                copyable = false;
+                return null;
+            }
+        }
+    }
+
+    private static <CI extends CommandInvocation> Class<? extends Command> commandType(CommandContainer<CI> container) {
+        if(container instanceof LazyCommandContainer)
+            container = ((LazyCommandContainer<CI>) container).getContainer();
+        if(!(container instanceof AeshCommandContainer) || container.haveBuildError() || container.getParser() == null)
+            return null;
+        //a command registered as an instance can have state that a new instance would not have
+        Class<? extends Command> type = ((AeshCommandContainer<CI>) container).getCommandClass();
+        if(type == null || type.isAnonymousClass() ||
+                (!type.isAnnotationPresent(CommandDefinition.class) &&
+                        !type.isAnnotationPresent(GroupCommandDefinition.class)))
+            return null;
+        return type;
+    }
+
+    /**
+     * A group command can hand out the same sub command instances to every container,
+     * those copies would not be private to the invocation.
+     */
+    private static boolean shares(CommandLineParser<?> prototype, CommandLineParser<?> copy) {
+        List<Object> commands = new ArrayList<>();
+        collectCommands(prototype, commands);
+        List<Object> copies = new ArrayList<>();
+        collectCommands(copy, copies);
+        for(Object command : copies) {
+            for(Object existing : commands)
+                if(existing == command)
+                    return true;
+        }
+        return false;
+    }
+
+    private static void collectCommands(CommandLineParser<?> parser, List<Object> commands) {
+        commands.add(parser.getProcessedCommand().getCommand());
+        if(parser.isGroupCommand() && parser.getAllChildParsers() != null) {
+            for(CommandLineParser<?> child : parser.getAllChildParsers())
+                collectCommands(child, commands);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl;
+
+import org.aesh.complete.AeshCompleteOperation;
+import org.aesh.readline.AeshContext;
+import org.aesh.readline.terminal.formatting.TerminalString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Remembers the result of the last completion. Pressing tab again on the same
+ * buffer, or after typing a few more chars of the completed word, reuses the
+ * result instead of parsing the line, resolving the command and calling the
+ * completers again.
+ *
+ * The result is only narrowed if all the candidates started with the word that
+ * was completed, otherwise the completer is not a plain prefix match and the
+ * completion is done again. A truncated result is never narrowed and a result
+ * marked as not cacheable is never stored.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+final class CompletionCache {
+
+    //chars that can be typed without changing which word or completer is used
+    private static final String WORD_CHARS = "-_.";
+
+    private String buffer;
+    private int cursor;
+    private AeshContext context;
+    private String cwd;
+    private List<TerminalString> candidates;
+    private int offset;
+    private boolean ignoreOffset;
+    private boolean ignoreStartsWith;
+    private boolean appendSeparator;
+    private char separator;
+    private boolean truncated;
+
+    /**
+     * Fill in the operation from the cached result
+     *
+     * @param co operation
+     * @param context the context the completion is done in
+     * @param cwd current working directory
+     * @return true if the cached result could be used
+     */
+    synchronized boolean complete(AeshCompleteOperation co, AeshContext context, String cwd) {
+        if(buffer == null || this.context != context || !this.cwd.equals(cwd))
+            return false;
+        if(co.getCursor() == cursor && co.getBuffer().equals(buffer)) {
+            fill(co, candidates);
+            return true;
+        }
+        List<TerminalString> narrowed = narrow(co.getBuffer(), co.getCursor());
+        if(narrowed == null)
+            return false;
+        buffer = co.getBuffer();
+        cursor = co.getCursor();
+        candidates = narrowed;
+        fill(co, candidates);
+        return true;
+    }
+
+    private List<TerminalString> narrow(String current, int currentCursor) {
+        //only chars typed at the end of the buffer
+        if(cursor != buffer.length() || currentCursor != current.length() ||
+                !current.startsWith(buffer) || ignoreOffset || ignoreStartsWith || truncated ||
+                candidates.size() < 2 || offset < 0 || offset > cursor)
+            return null;
+        for(int i = buffer.length(); i < current.length(); i++) {
+            char c = current.charAt(i);
+            if(!Character.isLetterOrDigit(c) && WORD_CHARS.indexOf(c) < 0)
+                return null;
+        }
+        String word = buffer.substring(offset, cursor);
+        String typed = current.substring(offset, currentCursor);
+        List<TerminalString> narrowed = new ArrayList<>();
+        for(TerminalString candidate : candidates) {
+            if(!candidate.getCharacters().startsWith(word))
+                return null;
+            if(candidate.getCharacters().startsWith(typed))
+                narrowed.add(candidate);
+        }
+        return narrowed.isEmpty() ? null : narrowed;
+    }
+
+    private void fill(AeshCompleteOperation co, List<TerminalString> values) {
+        co.addCompletionCandidatesTerminalString(new ArrayList<>(values));
+        co.setOffset(offset);
+        co.setIgnoreOffset(ignoreOffset);
+        co.setIgnoreStartsWith(ignoreStartsWith);
+        co.doAppendSeparator(appendSeparator);
+        co.setSeparator(separator);
+    }
+
+    /**
+     * Remember the result of a completion
+     *
+     * @param co completed operation
+     * @param context the context the completion was done in
+     * @param cwd current working directory
+     */
+    synchronized void store(AeshCompleteOperation co, AeshContext context, String cwd) {
+        if(!co.isCacheable()) {
+            clear();
+            return;
+        }
+        buffer = co.getBuffer();
+        cursor = co.getCursor();
+        this.context = context;
+        this.cwd = cwd;
+        candidates = new ArrayList<>(co.getCompletionCandidates());
+        offset = co.getOffset();
+        ignoreOffset = co.doIgnoreOffset();
+        ignoreStartsWith = co.isIgnoreStartsWith();
+        appendSeparator = co.hasAppendSeparator();
+        separator = co.getSeparator();
+        truncated = co.isTruncated();
+    }
+
+    synchronized void clear() {
+        buffer = null;
+        context = null;
+        cwd = null;
+        candidates = null;
+    }
+}
@@ -29,7 +29,6 @@ import org.aesh.command.container.CommandContainer;
 import org.aesh.command.impl.completer.CompleterData;
 import org.aesh.command.impl.completer.NullOptionCompleter;
 import org.aesh.command.impl.internal.OptionType;
-import org.aesh.command.impl.internal.ParsedCommand;
 import org.aesh.command.impl.internal.ProcessedCommand;
 import org.aesh.command.impl.internal.ProcessedOption;
 import org.aesh.command.impl.operator.AndOperator;
@@ -61,8 +60,10 @@ import org.aesh.selector.Selector;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  *
@@ -128,6 +129,26 @@ class Executions {
         @Override
         public CommandResult execute() throws CommandException, InterruptedException, CommandValidatorException,
                                                               CommandLineParserException, OptionValidatorException {
+            try {
+                return doExecute();
+            }
+            finally {
+                //the other stages of a pipeline wait for us, so they must be notified even
+                //if we fail before the command is executed
+                invocationConfiguration.releasePipedData();
+                if (invocationConfiguration.getOutputRedirection() != null) {
+                    try {
+                        invocationConfiguration.getOutputRedirection().close();
+                    }
+                    catch (IOException ex) {
+                        throw new CommandException(ex);
+                    }
+                }
+            }
+        }
+
+        private CommandResult doExecute() throws CommandException, InterruptedException, CommandValidatorException,
+                                                              CommandLineParserException, OptionValidatorException {
             //first we need to parse and populate the command line
             populateCommand();
             //finally we set the command that should be executed
@@ -137,7 +158,7 @@ class Executions {
                 cmd.validator().validate(getCommand());
             }
             if (cmd.getActivator() != null) {
-                if (!cmd.getActivator().isActivated(new ParsedCommand(cmd))) {
+                if (!cmd.getActivator().isActivated(cmd.getParsedCommand())) {
                     result = CommandResult.FAILURE;
                     throw new CommandException("The command is not available in the current context.");
                 }
@@ -191,7 +212,7 @@ class Executions {
 
 
                         option.addValues(new Selector(option.selectorType(),
-                                completerMock.getCompleterValues().stream().map(TerminalString::getCharacters).collect(Collectors.toList()),
+                                completerMock.getCompleterValues().stream().map(TerminalString::getCharacters).iterator(),
                                 option.description()).doSelect(getCommandInvocation().getShell()));
 
                     }
@@ -245,16 +266,6 @@ class Executions {
                 result = CommandResult.FAILURE;
                 throw new RuntimeException(e);
             }
-            finally {
-                if (invocationConfiguration.getOutputRedirection() != null) {
-                    try {
-                        invocationConfiguration.getOutputRedirection().close();
-                    }
-                    catch (IOException ex) {
-                        throw new CommandException(ex);
-                    }
-                }
-            }
             return result;
         }
 
@@ -314,8 +325,8 @@ class Executions {
     }
 
     static <CI extends CommandInvocation> List<Execution<CI>> buildExecution(List<ParsedLine> fullLine,
-            AeshCommandRuntime<CI> runtime)
-            throws CommandNotFoundException, CommandLineParserException, IOException {
+            AeshCommandRuntime<CI> runtime, CommandContainerPool<CI>.Lease lease)
+            throws CommandNotFoundException, CommandLineParserException, IOException, InterruptedException {
         State state = State.NEED_COMMAND;
         CommandContainer<CI> processedCommand = null;
         boolean newParsedLine;
@@ -331,7 +342,7 @@ class Executions {
             while (!newParsedLine) {
                 switch (state) {
                     case NEED_COMMAND: {
-                        processedCommand = runtime.findCommandContainer(pl);
+                        processedCommand = runtime.findCommandContainer(pl, lease);
                         state = State.NEED_OPERATOR;
                         break;
                     }
@@ -345,7 +356,7 @@ class Executions {
                     }
                     case NEED_OPERATOR: {
                         OperatorType ot = pl.operator();
-                        Operator op = buildOperator(pl.operator(), runtime.getAeshContext());
+                        Operator op = buildOperator(pl.operator(), runtime.getAeshContext(), runtime.pipeBufferSize());
                         if (ot.isConfiguration()) {
                             if (config != null) { // input provider prior to an output consumer.
                                 if(config.getConfiguration().getInputRedirection() == null) {
@@ -394,17 +405,40 @@ class Executions {
         if (state == State.NEED_OPERATOR) {
             // The implicit execution operator is missing.
             ExecutableOperator exec = (ExecutableOperator) buildOperator(OperatorType.NONE,
-                    runtime.getAeshContext());
+                    runtime.getAeshContext(), runtime.pipeBufferSize());
             invocationConfiguration = config == null
                     ? new CommandInvocationConfiguration(runtime.getAeshContext(), dataProvider)
                     : config.getConfiguration();
             Execution<CI> execution = new ExecutionImpl<CI>(exec, runtime, invocationConfiguration, processedCommand);
             executions.add(execution);
         }
+        if (runtime.pipeBufferSize() > 0) {
+            disableStreamingForSharedContainers(executions);
+        }
         return executions;
     }
 
-    private static Operator buildOperator(OperatorType op, AeshContext context) {
+    /**
+     * The stages of a streaming pipeline are executed concurrently, which is not possible
+     * when several of them use the same command container. Fall back to a buffered pipe
+     * in front of every stage that reuses a container from the same pipeline.
+     */
+    private static <CI extends CommandInvocation> void disableStreamingForSharedContainers(List<Execution<CI>> executions) {
+        Set<CommandContainer<CI>> pipeline = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < executions.size(); i++) {
+            ExecutionImpl<CI> execution = (ExecutionImpl<CI>) executions.get(i);
+            if (!pipeline.add(execution.commandContainer)) {
+                ((PipeOperator) executions.get(i - 1).getExecutable()).disableStreaming();
+                pipeline.clear();
+                pipeline.add(execution.commandContainer);
+            }
+            if (!execution.getExecutable().streamsToNext()) {
+                pipeline.clear();
+            }
+        }
+    }
+
+    private static Operator buildOperator(OperatorType op, AeshContext context, int pipeBufferSize) {
         if (op == null) {
             return null;
         }
@@ -420,7 +454,7 @@ class Executions {
                 return new AppendOutputRedirectionOperator(context);
             }
             case PIPE: {
-                return new PipeOperator(context);
+                return new PipeOperator(context, pipeBufferSize);
             }
             case REDIRECT_IN: {
                 return new InputRedirectionOperator(context);
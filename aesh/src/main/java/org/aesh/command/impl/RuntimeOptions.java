@@ -0,0 +1,115 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl;
+
+import java.util.concurrent.Executor;
+
+/**
+ * The execution and completion options of an {@link AeshCommandRuntime}, the defaults
+ * are the behaviour of a runtime created without options.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public final class RuntimeOptions {
+
+    private int pipeBufferSize;
+    private boolean concurrent;
+    private boolean completionCache;
+    private long completerTimeout;
+    private boolean lazyCompletion;
+    private Executor processExecutor;
+
+    /**
+     * @param pipeBufferSize if larger than 0, the commands on each side of a pipe are executed
+     *                       concurrently and the output is streamed through a buffer of this size
+     */
+    public RuntimeOptions pipeBufferSize(int pipeBufferSize) {
+        this.pipeBufferSize = pipeBufferSize;
+        return this;
+    }
+
+    /**
+     * @param concurrent if true, executeCommand can be called from several threads at the same time,
+     *                   each invocation parses and executes its own copy of the command
+     */
+    public RuntimeOptions concurrent(boolean concurrent) {
+        this.concurrent = concurrent;
+        return this;
+    }
+
+    /**
+     * @param completionCache if true, the result of the last completion is reused when tab is pressed
+     *                        again on the same buffer or after typing more chars of the completed word
+     */
+    public RuntimeOptions completionCache(boolean completionCache) {
+        this.completionCache = completionCache;
+        return this;
+    }
+
+    /**
+     * @param completerTimeout how many milliseconds to wait for an async completer, 0 waits until it is done
+     */
+    public RuntimeOptions completerTimeout(long completerTimeout) {
+        this.completerTimeout = completerTimeout;
+        return this;
+    }
+
+    /**
+     * @param lazyCompletion if true, the command is not populated when completing,
+     *                       completers read the values they need through the completer invocation
+     */
+    public RuntimeOptions lazyCompletion(boolean lazyCompletion) {
+        this.lazyCompletion = lazyCompletion;
+        return this;
+    }
+
+    /**
+     * @param processExecutor used to run the commands of a streaming pipeline, if null every command
+     *                        that streams its output is run on a new thread
+     */
+    public RuntimeOptions processExecutor(Executor processExecutor) {
+        this.processExecutor = processExecutor;
+        return this;
+    }
+
+    public int pipeBufferSize() {
+        return pipeBufferSize;
+    }
+
+    public boolean concurrent() {
+        return concurrent;
+    }
+
+    public boolean completionCache() {
+        return completionCache;
+    }
+
+    public long completerTimeout() {
+        return completerTimeout;
+    }
+
+    public boolean lazyCompletion() {
+        return lazyCompletion;
+    }
+
+    public Executor processExecutor() {
+        return processExecutor;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl.completer;
+
+import org.aesh.command.completer.AsyncOptionCompleter;
+import org.aesh.command.completer.CompleterInvocation;
+import org.aesh.complete.AeshCompleteOperation;
+import org.aesh.readline.AeshContext;
+import org.aesh.readline.terminal.formatting.TerminalString;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs {@link AsyncOptionCompleter}s without blocking the input thread longer than their timeout.
+ *
+ * There is at most one outstanding request per context. If the completer is not done
+ * in time, the values found so far are returned and the request is kept, so completing
+ * the same input again continues to wait for it. Completing any other input cancels it.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public final class AsyncCompletions {
+
+    private static final Logger LOGGER = Logger.getLogger(AsyncCompletions.class.getName());
+
+    private static final Map<AeshContext, Request> REQUESTS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private AsyncCompletions() {
+    }
+
+    /**
+     * Complete the value with the given completer
+     *
+     * @param completer completer
+     * @param invocation invocation the completer add its values to
+     * @param completeOperation the operation, marked as incomplete if the completer was not done in time
+     * @param defaultTimeout timeout in milliseconds used if the completer do not specify one, 0 waits until it is done
+     * @return invocation holding the values that was found
+     */
+    @SuppressWarnings("unchecked")
+    public static CompleterInvocation complete(AsyncOptionCompleter completer, CompleterInvocation invocation,
+                                               AeshCompleteOperation completeOperation, long defaultTimeout) {
+        AeshContext context = completeOperation.getContext();
+        Request request;
+        synchronized(REQUESTS) {
+            request = REQUESTS.get(context);
+            if(request != null && !request.matches(completer, completeOperation)) {
+                //the input have changed, nobody is waiting for these values anymore
+                request.future.cancel(true);
+                request = null;
+            }
+            if(request == null) {
+                request = new Request(completer, completeOperation, invocation);
+                request.start();
+                REQUESTS.put(context, request);
+            }
+        }
+
+        long timeout = completer.timeout() >= 0 ? completer.timeout() : defaultTimeout;
+        try {
+            if(timeout > 0)
+                request.future.get(timeout, TimeUnit.MILLISECONDS);
+            else
+                request.future.get();
+        }
+        catch(TimeoutException e) {
+            completeOperation.setIncomplete(true);
+            return request.snapshot();
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            completeOperation.setIncomplete(true);
+            return request.snapshot();
+        }
+        catch(ExecutionException | CancellationException e) {
+            LOGGER.log(Level.FINE, "Completer failed: " + completer, e);
+        }
+        REQUESTS.remove(context, request);
+        return request.invocation;
+    }
+
+    private static class Request {
+        private final AsyncOptionCompleter completer;
+        private final String buffer;
+        private final int cursor;
+        private final CompleterInvocation invocation;
+        //the values the completer adds to the invocation, it can be read while the completer is running
+        private final List<TerminalString> collector = Collections.synchronizedList(new ArrayList<>());
+        private CompletableFuture<?> future;
+
+        Request(AsyncOptionCompleter completer, AeshCompleteOperation completeOperation,
+                CompleterInvocation invocation) {
+            this.completer = completer;
+            this.buffer = completeOperation.getBuffer();
+            this.cursor = completeOperation.getCursor();
+            this.invocation = invocation;
+        }
+
+        @SuppressWarnings("unchecked")
+        void start() {
+            collector.addAll(invocation.getCompleterValues());
+            invocation.setCompleterValuesTerminalString(collector);
+            try {
+                future = completer.completeAsync(invocation).toCompletableFuture();
+            }
+            catch(RuntimeException e) {
+                future = new CompletableFuture<>();
+                future.completeExceptionally(e);
+            }
+        }
+
+        boolean matches(AsyncOptionCompleter completer, AeshCompleteOperation completeOperation) {
+            return this.completer == completer && cursor == completeOperation.getCursor() &&
+                    buffer.equals(completeOperation.getBuffer());
+        }
+
+        /**
+         * @return a copy of the invocation with the values added so far
+         */
+        CompleterInvocation snapshot() {
+            CompleterData data = new CompleterData(invocation.getAeshContext(),
+                    invocation.getGivenCompleteValue(), invocation.getCommand(), invocation.getOptionValues());
+            //if the completer replaced the list its values are only shown when it is done
+            if(invocation.getCompleterValues() == collector) {
+                synchronized(collector) {
+                    data.setCompleterValuesTerminalString(new ArrayList<>(collector));
+                }
+            }
+            else
+                data.setCompleterValuesTerminalString(new ArrayList<>());
+            data.setOffset(invocation.getOffset());
+            data.setIgnoreOffset(invocation.doIgnoreOffset());
+            data.setIgnoreStartsWith(invocation.isIgnoreStartsWith());
+            data.setAppendSpace(invocation.isAppendSpace());
+            data.setTruncated(invocation.isTruncated());
+            data.setCacheable(invocation.isCacheable());
+            return data;
+        }
+    }
+}
@@ -23,10 +23,12 @@ package org.aesh.command.impl.completer;
 import org.aesh.readline.AeshContext;
 import org.aesh.command.Command;
 import org.aesh.command.completer.CompleterInvocation;
+import org.aesh.command.completer.OptionValues;
 import org.aesh.readline.terminal.formatting.TerminalString;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -45,15 +47,25 @@ public class CompleterData implements CompleterInvocation {
     private final String completeValue;
     private final Command command;
     private final AeshContext aeshContext;
+    private final OptionValues optionValues;
     private int offset = -1;
     private boolean ignoreOffset = false;
     private boolean ignoreStartsWith = false;
+    private boolean truncated = false;
+    private boolean cacheable = true;
 
     public CompleterData(AeshContext aeshContext, String completeValue, Command command) {
+        this(aeshContext, completeValue, command, null);
+    }
+
+    public CompleterData(AeshContext aeshContext, String completeValue, Command command,
+                         OptionValues optionValues) {
         this.aeshContext = aeshContext;
         this.completeValue = completeValue;
         this.command = command;
-        completerValues = new ArrayList<>();
+        this.optionValues = optionValues;
+        //async completers can add values from another thread
+        completerValues = Collections.synchronizedList(new ArrayList<>());
     }
 
     @Override
@@ -66,6 +78,11 @@ public class CompleterData implements CompleterInvocation {
         return command;
     }
 
+    @Override
+    public OptionValues getOptionValues() {
+        return optionValues;
+    }
+
     @Override
     public List<TerminalString> getCompleterValues() {
         return completerValues;
@@ -147,4 +164,24 @@ public class CompleterData implements CompleterInvocation {
     public AeshContext getAeshContext() {
         return aeshContext;
     }
+
+    @Override
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    @Override
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    @Override
+    public void setCacheable(boolean cacheable) {
+        this.cacheable = cacheable;
+    }
+
+    @Override
+    public boolean isCacheable() {
+        return cacheable;
+    }
 }
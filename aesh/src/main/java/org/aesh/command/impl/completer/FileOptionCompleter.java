@@ -52,9 +52,9 @@ public class FileOptionCompleter implements OptionCompleter<CompleterInvocation>
     @Override
     public void complete(CompleterInvocation completerInvocation) {
         List<String> candidates = new ArrayList<>();
-        int cursor = new FileLister(completerInvocation.getGivenCompleteValue(),
-                completerInvocation.getAeshContext().getCurrentWorkingDirectory()).
-                findMatchingDirectories(candidates);
+        FileLister lister = new FileLister(completerInvocation.getGivenCompleteValue(),
+                completerInvocation.getAeshContext().getCurrentWorkingDirectory(), filter);
+        int cursor = lister.findMatchingDirectories(candidates);
         boolean appendSpace = false;
         if (candidates.size() == 1) {
             if (completerInvocation.getGivenCompleteValue().endsWith(candidates.get(0))) {
@@ -64,6 +64,9 @@ public class FileOptionCompleter implements OptionCompleter<CompleterInvocation>
         completerInvocation.addAllCompleterValues(candidates);
         completerInvocation.setOffset(completerInvocation.getGivenCompleteValue().length() - cursor);
         completerInvocation.setAppendSpace(appendSpace);
+        completerInvocation.setTruncated(lister.isTruncated());
+        //files can be created or removed between two completions, the directory cache checks for that
+        completerInvocation.setCacheable(false);
     }
 
     public ResourceFilter getFilter() {
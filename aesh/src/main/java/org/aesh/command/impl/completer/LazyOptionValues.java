@@ -0,0 +1,89 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl.completer;
+
+import org.aesh.command.completer.OptionValues;
+import org.aesh.command.impl.internal.ProcessedCommand;
+import org.aesh.command.impl.internal.ProcessedOption;
+import org.aesh.command.invocation.InvocationProviders;
+import org.aesh.command.validator.OptionValidatorException;
+import org.aesh.readline.AeshContext;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Converts the values of a processed command when a completer asks for them.
+ * Every option is converted at most once.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public class LazyOptionValues implements OptionValues {
+
+    private final ProcessedCommand<?, ?> processedCommand;
+    private final InvocationProviders invocationProviders;
+    private final AeshContext context;
+    private final Map<ProcessedOption, Object> converted = new IdentityHashMap<>();
+
+    public LazyOptionValues(ProcessedCommand<?, ?> processedCommand, InvocationProviders invocationProviders,
+                            AeshContext context) {
+        this.processedCommand = processedCommand;
+        this.invocationProviders = invocationProviders;
+        this.context = context;
+    }
+
+    @Override
+    public Object option(String name) {
+        return convert(processedCommand.findLongOptionNoActivatorCheck(name));
+    }
+
+    @Override
+    public String rawOption(String name) {
+        ProcessedOption option = processedCommand.findLongOptionNoActivatorCheck(name);
+        return option != null ? option.getValue() : null;
+    }
+
+    @Override
+    public Object argument() {
+        return processedCommand.hasArgument() ? convert(processedCommand.getArgument()) : null;
+    }
+
+    @Override
+    public Object arguments() {
+        return processedCommand.hasArguments() ? convert(processedCommand.getArguments()) : null;
+    }
+
+    private synchronized Object convert(ProcessedOption option) {
+        if(option == null)
+            return null;
+        if(converted.containsKey(option))
+            return converted.get(option);
+        Object value;
+        try {
+            value = option.convertValue(invocationProviders, context);
+        }
+        //a partly typed value might not be valid yet
+        catch(OptionValidatorException | RuntimeException e) {
+            value = null;
+        }
+        converted.put(option, value);
+        return value;
+    }
+}
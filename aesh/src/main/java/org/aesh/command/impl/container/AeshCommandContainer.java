@@ -36,6 +36,8 @@ public class AeshCommandContainer<CI extends CommandInvocation> extends DefaultC
 
     private CommandLineParser<CI> parser;
     private String errorMessage;
+    //the class the command was created from, null if it was created from an instance
+    private Class<? extends Command> commandClass;
 
     public AeshCommandContainer(CommandLineParser<CI> parser) {
         super();
@@ -68,6 +70,18 @@ public class AeshCommandContainer<CI extends CommandInvocation> extends DefaultC
         return errorMessage;
     }
 
+    /**
+     * @return the class the command was created from, null if the container was created
+     * from a command instance
+     */
+    public Class<? extends Command> getCommandClass() {
+        return commandClass;
+    }
+
+    public void setCommandClass(Class<? extends Command> commandClass) {
+        this.commandClass = commandClass;
+    }
+
    @Override
     public void close() {
 
@@ -25,6 +25,7 @@ import org.aesh.command.GroupCommand;
 import org.aesh.command.GroupCommandDefinition;
 import org.aesh.command.container.CommandContainer;
 import org.aesh.command.container.CommandContainerBuilder;
+import org.aesh.command.container.CommandContainerFactory;
 import org.aesh.command.impl.activator.AeshCommandActivatorProvider;
 import org.aesh.command.impl.activator.AeshOptionActivatorProvider;
 import org.aesh.command.impl.completer.AeshCompleterInvocationProvider;
@@ -52,6 +53,7 @@ import org.aesh.util.ReflectionUtil;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -65,12 +67,49 @@ public class AeshCommandContainerBuilder<CI extends CommandInvocation> implement
 
     @Override
     public CommandContainer<CI> create(Command command) throws CommandLineParserException {
+        CommandContainerFactory<CI> factory = CommandContainerFactories.find(command.getClass());
+        if(factory != null)
+            return factory.create(command);
         return doGenerateCommandLineParser(command);
     }
 
     @Override
     public CommandContainer<CI> create(Class<? extends Command> command) throws CommandLineParserException {
-        return doGenerateCommandLineParser(ReflectionUtil.newInstance(command));
+        CommandContainerFactory<CI> factory = CommandContainerFactories.find(command);
+        CommandContainer<CI> container = factory != null ? factory.create(factory.newCommand()) :
+                doGenerateCommandLineParser(ReflectionUtil.newInstance(command));
+        if(container instanceof AeshCommandContainer)
+            ((AeshCommandContainer<CI>) container).setCommandClass(command);
+        return container;
+    }
+
+    /**
+     * Add the sub commands of a group command to its container. Used by the generated factories.
+     *
+     * @param groupContainer container of the group command
+     * @param command the group command
+     * @param groupCommands instances of the classes listed in the group definition,
+     *                      only used if the command is not a GroupCommand
+     */
+    public void addGroupCommands(AeshCommandContainer<CI> groupContainer, Command<CI> command,
+                                 List<Command<CI>> groupCommands) throws CommandLineParserException {
+        if (command instanceof GroupCommand) {
+            List<Command<CI>> commands = ((GroupCommand<CI>) command).getCommands();
+            if (commands != null) {
+                for (Command<CI> sub : commands) {
+                    groupContainer.addChild(create(sub));
+                }
+            }
+            List<CommandContainer<CI>> parsedCommands = ((GroupCommand<CI>) command).getParsedCommands();
+            if (parsedCommands != null) {
+                for (CommandContainer<CI> sub : parsedCommands) {
+                    groupContainer.addChild(sub);
+                }
+            }
+        } else {
+            for (Command<CI> sub : groupCommands)
+                groupContainer.addChild(create(sub));
+        }
     }
 
     private AeshCommandContainer<CI> doGenerateCommandLineParser(Command<CI> commandObject) throws CommandLineParserException {
@@ -121,25 +160,13 @@ public class AeshCommandContainerBuilder<CI extends CommandInvocation> implement
                             .processedCommand(processedGroupCommand)
                             .create());
 
-            if (commandObject instanceof GroupCommand) {
-                List<Command<CI>> commands = ((GroupCommand<CI>) commandObject).getCommands();
-                if (commands != null) {
-                    for (Command<CI> sub : commands) {
-                        groupContainer.addChild(doGenerateCommandLineParser(sub));
-                    }
-                }
-                List<CommandContainer<CI>> parsedCommands = ((GroupCommand<CI>) commandObject).getParsedCommands();
-                if (parsedCommands != null) {
-                    for (CommandContainer<CI> sub : parsedCommands) {
-                        groupContainer.addChild(sub);
-                    }
-                }
-            } else {
+            List<Command<CI>> groupCommands = new ArrayList<>();
+            if (!(commandObject instanceof GroupCommand)) {
                 for (Class<? extends Command> groupClazz : groupCommand.groupCommands()) {
-                    Command<CI> groupInstance = (Command<CI>) ReflectionUtil.newInstance(groupClazz);
-                    groupContainer.addChild(doGenerateCommandLineParser(groupInstance));
+                    groupCommands.add((Command<CI>) ReflectionUtil.newInstance(groupClazz));
                 }
             }
+            addGroupCommands(groupContainer, commandObject, groupCommands);
 
             return groupContainer;
         }
@@ -179,7 +206,7 @@ public class AeshCommandContainerBuilder<CI extends CommandInvocation> implement
                             .selector(o.selector())
                             .addAllDefaultValues(o.defaultValue())
                             .type(field.getType())
-                            .fieldName(field.getName())
+                            .field(field)
                             .optionType(optionType)
                             .converter(o.converter())
                             .completer(o.completer())
@@ -211,7 +238,7 @@ public class AeshCommandContainerBuilder<CI extends CommandInvocation> implement
                             .selector(ol.selector())
                             .addAllDefaultValues(ol.defaultValue())
                             .type(type)
-                            .fieldName(field.getName())
+                            .field(field)
                             .optionType(OptionType.LIST)
                             .converter(ol.converter())
                             .completer(ol.completer())
@@ -240,7 +267,7 @@ public class AeshCommandContainerBuilder<CI extends CommandInvocation> implement
                     .askIfNotSet(og.askIfNotSet())
                     .addAllDefaultValues(og.defaultValue())
                     .type(type)
-                    .fieldName(field.getName())
+                    .field(field)
                     .optionType(OptionType.GROUP)
                     .converter(og.converter())
                     .completer(og.completer())
@@ -271,7 +298,7 @@ public class AeshCommandContainerBuilder<CI extends CommandInvocation> implement
                     .askIfNotSet(a.askIfNotSet())
                     .addAllDefaultValues(a.defaultValue())
                     .type(type)
-                    .fieldName(field.getName())
+                    .field(field)
                     .optionType(OptionType.ARGUMENTS)
                     .converter(a.converter())
                     .completer(a.completer())
@@ -299,7 +326,7 @@ public class AeshCommandContainerBuilder<CI extends CommandInvocation> implement
                             .selector(arg.selector())
                             .addAllDefaultValues(arg.defaultValue())
                             .type(field.getType())
-                            .fieldName(field.getName())
+                            .field(field)
                             .optionType(optionType)
                             .converter(arg.converter())
                             .completer(arg.completer())
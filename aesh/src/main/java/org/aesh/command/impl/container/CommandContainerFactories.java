@@ -0,0 +1,76 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl.container;
+
+import org.aesh.command.Command;
+import org.aesh.command.container.CommandContainerFactory;
+import org.aesh.command.invocation.CommandInvocation;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Lookup of the generated {@link CommandContainerFactory} services.
+ * The services are loaded once for each class loader.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+final class CommandContainerFactories {
+
+    private static final Logger LOGGER = Logger.getLogger(CommandContainerFactories.class.getName());
+
+    private static final Map<ClassLoader, Map<Class<?>, CommandContainerFactory<?>>> FACTORIES = new WeakHashMap<>();
+
+    private CommandContainerFactories() {
+    }
+
+    /**
+     * @return the generated factory for the command class, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    static <CI extends CommandInvocation> CommandContainerFactory<CI> find(Class<? extends Command> commandType) {
+        ClassLoader loader = commandType.getClassLoader();
+        if(loader == null)
+            return null;
+        Map<Class<?>, CommandContainerFactory<?>> factories;
+        synchronized(FACTORIES) {
+            factories = FACTORIES.computeIfAbsent(loader, CommandContainerFactories::load);
+        }
+        return (CommandContainerFactory<CI>) factories.get(commandType);
+    }
+
+    private static Map<Class<?>, CommandContainerFactory<?>> load(ClassLoader loader) {
+        Map<Class<?>, CommandContainerFactory<?>> factories = new HashMap<>();
+        try {
+            for(CommandContainerFactory<?> factory : ServiceLoader.load(CommandContainerFactory.class, loader))
+                factories.put(factory.commandType(), factory);
+        }
+        catch(ServiceConfigurationError e) {
+            LOGGER.log(Level.WARNING, "Could not load the generated command factories, falling back to reflection", e);
+            factories.clear();
+        }
+        return factories;
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl.container;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandException;
+import org.aesh.command.GroupCommandDefinition;
+import org.aesh.command.container.CommandContainer;
+import org.aesh.command.container.CommandContainerBuilder;
+import org.aesh.command.container.CommandContainerResult;
+import org.aesh.command.impl.activator.NullCommandActivator;
+import org.aesh.command.impl.internal.ProcessedCommand;
+import org.aesh.command.impl.parser.CommandLineParser;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.invocation.InvocationProviders;
+import org.aesh.command.parser.CommandLineParserException;
+import org.aesh.command.validator.CommandValidatorException;
+import org.aesh.command.validator.OptionValidatorException;
+import org.aesh.parser.ParsedLine;
+import org.aesh.readline.AeshContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A CommandContainer that only knows the name, aliases and description of a command until it is used.
+ * The command, its parser and the child parsers are built the first time anything else is needed.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public class LazyCommandContainer<CI extends CommandInvocation> implements CommandContainer<CI> {
+
+    private static final Logger LOGGER = Logger.getLogger(LazyCommandContainer.class.getName());
+
+    private final Class<? extends Command> command;
+    private final CommandContainerBuilder<CI> builder;
+    private final String name;
+    private final List<String> aliases;
+    private final String description;
+    private final boolean hasActivator;
+
+    private volatile CommandContainer<CI> container;
+    //run when the container is built, guarded by this
+    private final List<Consumer<CommandContainer<CI>>> buildActions = new ArrayList<>();
+
+    private LazyCommandContainer(Class<? extends Command> command, CommandContainerBuilder<CI> builder,
+                                 String name, String[] aliases, String description, boolean hasActivator) {
+        this.command = command;
+        this.builder = builder;
+        this.name = name;
+        this.aliases = Collections.unmodifiableList(Arrays.asList(aliases));
+        this.description = description;
+        this.hasActivator = hasActivator;
+    }
+
+    /**
+     * @return a lazy container for the command or null if the command is not annotated
+     */
+    public static <T extends CommandInvocation> LazyCommandContainer<T> create(Class<? extends Command> command,
+                                                                               CommandContainerBuilder<T> builder) {
+        CommandDefinition definition = command.getAnnotation(CommandDefinition.class);
+        if(definition != null)
+            return new LazyCommandContainer<>(command, builder, definition.name(), definition.aliases(),
+                    definition.description(), definition.activator() != NullCommandActivator.class);
+        GroupCommandDefinition groupDefinition = command.getAnnotation(GroupCommandDefinition.class);
+        if(groupDefinition != null)
+            return new LazyCommandContainer<>(command, builder, groupDefinition.name(), groupDefinition.aliases(),
+                    groupDefinition.description(), groupDefinition.activator() != NullCommandActivator.class);
+        return null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getAliases() {
+        return aliases;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * @return true if the command has an activator, it must be built to check if it is activated
+     */
+    public boolean hasActivator() {
+        return hasActivator;
+    }
+
+    public boolean isBuilt() {
+        return container != null;
+    }
+
+    /**
+     * Run the action with the built container, now if it is already built, otherwise
+     * when it is built. The action is not run if the command can not be built.
+     */
+    public void whenBuilt(Consumer<CommandContainer<CI>> action) {
+        CommandContainer<CI> current;
+        synchronized(this) {
+            current = container;
+            if(current == null) {
+                buildActions.add(action);
+                return;
+            }
+        }
+        if(!current.haveBuildError())
+            action.accept(current);
+    }
+
+    /**
+     * @return the container of the command, it is built on the first call
+     */
+    public CommandContainer<CI> getContainer() {
+        CommandContainer<CI> current = container;
+        if(current == null) {
+            synchronized(this) {
+                current = container;
+                if(current == null) {
+                    current = build();
+                    //the actions are done before anyone else can use the container
+                    if(!current.haveBuildError())
+                        for(Consumer<CommandContainer<CI>> action : buildActions)
+                            action.accept(current);
+                    buildActions.clear();
+                    container = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private CommandContainer<CI> build() {
+        try {
+            return builder.create(command);
+        }
+        catch(CommandLineParserException | RuntimeException e) {
+            LOGGER.log(Level.FINE, "Could not build command "+name, e);
+            return new AeshCommandContainer<>(e.getMessage() != null ? e.getMessage() : e.toString());
+        }
+    }
+
+    @Override
+    public CommandLineParser<CI> getParser() {
+        return getContainer().getParser();
+    }
+
+    @Override
+    public boolean haveBuildError() {
+        return getContainer().haveBuildError();
+    }
+
+    @Override
+    public String printHelp(String childCommandName) {
+        return getContainer().printHelp(childCommandName);
+    }
+
+    @Override
+    public String getBuildErrorMessage() {
+        return getContainer().getBuildErrorMessage();
+    }
+
+    @Override
+    public ParsedLine pollLine() {
+        return getContainer().pollLine();
+    }
+
+    @Override
+    public void emptyLine() {
+        getContainer().emptyLine();
+    }
+
+    @Override
+    public ProcessedCommand<Command<CI>, CI> parseAndPopulate(InvocationProviders invocationProviders,
+                                                              AeshContext aeshContext)
+            throws CommandLineParserException, OptionValidatorException {
+        return getContainer().parseAndPopulate(invocationProviders, aeshContext);
+    }
+
+    @Override
+    public CommandContainerResult executeCommand(ParsedLine line, InvocationProviders invocationProviders,
+                                                 AeshContext aeshContext, CI commandInvocation)
+            throws CommandLineParserException, OptionValidatorException,
+            CommandValidatorException, CommandException, InterruptedException {
+        return getContainer().executeCommand(line, invocationProviders, aeshContext, commandInvocation);
+    }
+
+    @Override
+    public void addLine(ParsedLine aeshLine) {
+        getContainer().addLine(aeshLine);
+    }
+
+    @Override
+    public void close() throws Exception {
+        //nothing to close if it was never built
+        if(container != null)
+            container.close();
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl.internal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+
+/**
+ * Writes the value of an option into the field of a command.
+ * The field is resolved once and written through a method handle. There are no setters
+ * for primitive values, converters return boxed values and the method handle unboxes them
+ * without any further allocation.
+ * Generated command factories provide the setter as a function, no reflection is used then.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public final class FieldAccessor {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final Class<?> owner;
+    private final String name;
+    private final Class<?> type;
+    //only set for a resolved field
+    private final Field field;
+    //only set for a generated setter
+    private final BiConsumer<Object, Object> function;
+    //(Object, Object)void
+    private final MethodHandle setter;
+
+    private FieldAccessor(Class<?> owner, String name, Class<?> type, BiConsumer<Object, Object> function) {
+        this.owner = owner;
+        this.name = name;
+        this.type = type;
+        this.function = function;
+        field = null;
+        setter = null;
+    }
+
+    private FieldAccessor(Field field) {
+        this.field = field;
+        owner = field.getDeclaringClass();
+        name = field.getName();
+        type = field.getType();
+        function = null;
+        if(!Modifier.isPublic(field.getModifiers()) ||
+                !Modifier.isPublic(field.getDeclaringClass().getModifiers()))
+            field.setAccessible(true);
+        MethodHandle handle = null;
+        //static fields are rare, they are written with reflection
+        if(!Modifier.isStatic(field.getModifiers())) {
+            try {
+                handle = LOOKUP.unreflectSetter(field);
+            }
+            catch(IllegalAccessException e) {
+                //eg final fields, fall back to reflection
+            }
+        }
+        setter = handle != null ? handle.asType(MethodType.methodType(void.class, Object.class, Object.class)) : null;
+    }
+
+    /**
+     * @return accessor for the given field
+     */
+    public static FieldAccessor of(Field field) {
+        return new FieldAccessor(field);
+    }
+
+    /**
+     * Accessor for a field that is written by the given function.
+     *
+     * @param owner class declaring the field
+     * @param name field name
+     * @param type field type
+     * @param setter function setting the value on an instance of owner
+     */
+    public static FieldAccessor of(Class<?> owner, String name, Class<?> type, BiConsumer<Object, Object> setter) {
+        return new FieldAccessor(owner, name, type, setter);
+    }
+
+    /**
+     * Search for the field in the class and its super classes.
+     *
+     * @return accessor or null if no field with that name is found
+     */
+    public static FieldAccessor of(Class<?> clazz, String fieldName) {
+        if(fieldName == null)
+            return null;
+        for(Class<?> current = clazz; current != null; current = current.getSuperclass()) {
+            try {
+                return new FieldAccessor(current.getDeclaredField(fieldName));
+            }
+            catch(NoSuchFieldException e) {
+                //check the super class
+            }
+        }
+        return null;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return true if the field belongs to the instance
+     */
+    public boolean canAccess(Object instance) {
+        return owner.isInstance(instance);
+    }
+
+    public void set(Object instance, Object value) {
+        try {
+            if(function != null)
+                function.accept(instance, value);
+            else if(setter != null)
+                setter.invokeExact(instance, value);
+            else
+                setReflective(instance, value);
+        }
+        catch(ClassCastException | NullPointerException e) {
+            throw new IllegalArgumentException("Can not set "+type.getName()+" field "+name+" to "+value, e);
+        }
+        catch(RuntimeException | Error e) {
+            throw e;
+        }
+        catch(Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * Set the field back to the default value of its type.
+     *
+     * @param hasValue if false a Boolean field is set to false instead of null
+     */
+    public void reset(Object instance, boolean hasValue) {
+        if(type.isPrimitive())
+            set(instance, defaultValue(type));
+        else if(!hasValue && type.equals(Boolean.class))
+            set(instance, Boolean.FALSE);
+        else
+            set(instance, null);
+    }
+
+    private static Object defaultValue(Class<?> primitive) {
+        if(primitive == boolean.class)
+            return Boolean.FALSE;
+        else if(primitive == int.class)
+            return 0;
+        else if(primitive == long.class)
+            return 0L;
+        else if(primitive == short.class)
+            return (short) 0;
+        else if(primitive == byte.class)
+            return (byte) 0;
+        else if(primitive == char.class)
+            return '\u0000';
+        else if(primitive == float.class)
+            return 0.0f;
+        else
+            return 0.0d;
+    }
+
+    private void setReflective(Object instance, Object value) {
+        try {
+            field.set(instance, value);
+        }
+        catch(IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Lookup tables for the options of a command: short names, long names and a prefix trie
+ * of the long names. Options are matched in the order they were added to the command, so
+ * the result is the same as scanning the option list from the start.
+ *
+ * The index follows the list it was built from, options appended to it are indexed on
+ * the next lookup.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+final class OptionIndex {
+
+    private final List<ProcessedOption> options;
+    private int indexed;
+
+    private final Map<String, List<ProcessedOption>> shortNames = new HashMap<>();
+    private final Map<String, List<ProcessedOption>> longNames = new HashMap<>();
+    private final Map<ProcessedOption, Integer> order = new IdentityHashMap<>();
+    private final Node root = new Node();
+
+    OptionIndex(List<ProcessedOption> options) {
+        this.options = options;
+        sync();
+    }
+
+    /**
+     * @return true if this index can be used for the given list
+     */
+    boolean indexes(List<ProcessedOption> options) {
+        if(this.options == options)
+            return options.size() >= indexed;
+        //providers might return a new empty list every time
+        return indexed == 0 && this.options.isEmpty() && options.isEmpty();
+    }
+
+    /**
+     * Index the options that have been appended since the last lookup.
+     */
+    OptionIndex sync() {
+        while(indexed < options.size())
+            add(options.get(indexed++));
+        return this;
+    }
+
+    private void add(ProcessedOption option) {
+        order.put(option, order.size());
+        if(option.shortName() != null)
+            shortNames.computeIfAbsent(option.shortName(), k -> new ArrayList<>(1)).add(option);
+        if(option.name() != null) {
+            longNames.computeIfAbsent(option.name(), k -> new ArrayList<>(1)).add(option);
+            Node node = root;
+            for(int i = 0; i < option.name().length(); i++)
+                node = node.child(option.name().charAt(i), true);
+            node.options.add(option);
+        }
+    }
+
+    ProcessedOption findShort(String name, Predicate<ProcessedOption> filter) {
+        return first(shortNames.get(name), filter);
+    }
+
+    ProcessedOption findLong(String name, Predicate<ProcessedOption> filter) {
+        return first(longNames.get(name), filter);
+    }
+
+    boolean hasLong(String name) {
+        return longNames.containsKey(name);
+    }
+
+    /**
+     * @return the first option with a short name that the input starts with
+     */
+    ProcessedOption startsWithShort(String input, Predicate<ProcessedOption> filter) {
+        //short names are always one char
+        if(input.isEmpty())
+            return null;
+        return first(shortNames.get(input.substring(0, 1)), filter);
+    }
+
+    /**
+     * @return the first option, in the order they were added, with a long name that the input starts with
+     */
+    ProcessedOption startsWithLong(String input, Predicate<ProcessedOption> filter) {
+        return firstInOrder(prefixesOf(input), filter);
+    }
+
+    /**
+     * @return the option with the longest name that the input starts with, the first one added on a tie
+     */
+    ProcessedOption longestPrefixOf(String input) {
+        Node node = root;
+        ProcessedOption longest = node.options.isEmpty() ? null : node.options.get(0);
+        for(int i = 0; i < input.length() && node != null; i++) {
+            node = node.child(input.charAt(i), false);
+            if(node != null && !node.options.isEmpty())
+                longest = node.options.get(0);
+        }
+        return longest;
+    }
+
+    /**
+     * @return true if there is a long name that starts with, but is longer than the given name
+     */
+    boolean hasLongerName(String name) {
+        Node node = root;
+        for(int i = 0; i < name.length() && node != null; i++)
+            node = node.child(name.charAt(i), false);
+        return node != null && node.children != null;
+    }
+
+    private List<ProcessedOption> prefixesOf(String input) {
+        List<ProcessedOption> candidates = new ArrayList<>(root.options);
+        Node node = root;
+        for(int i = 0; i < input.length(); i++) {
+            node = node.child(input.charAt(i), false);
+            if(node == null)
+                break;
+            candidates.addAll(node.options);
+        }
+        return candidates;
+    }
+
+    private ProcessedOption firstInOrder(List<ProcessedOption> candidates, Predicate<ProcessedOption> filter) {
+        if(candidates.size() > 1)
+            candidates.sort((a, b) -> order.get(a) - order.get(b));
+        return first(candidates, filter);
+    }
+
+    private static ProcessedOption first(List<ProcessedOption> candidates, Predicate<ProcessedOption> filter) {
+        if(candidates != null) {
+            for(ProcessedOption option : candidates)
+                if(filter == null || filter.test(option))
+                    return option;
+        }
+        return null;
+    }
+
+    private static final class Node {
+        private Map<Character, Node> children;
+        private final List<ProcessedOption> options = new ArrayList<>(1);
+
+        Node child(char c, boolean create) {
+            if(children == null) {
+                if(!create)
+                    return null;
+                children = new HashMap<>();
+            }
+            return create ? children.computeIfAbsent(c, k -> new Node()) : children.get(c);
+        }
+    }
+}
@@ -40,6 +40,8 @@ import org.aesh.terminal.utils.Config;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
@@ -64,6 +66,11 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
     private List<CommandLineParserException> parserExceptions;
     private CompleteStatus completeStatus;
 
+    private OptionIndex optionIndex;
+    private OptionIndex dynamicOptionIndex;
+    private ParsedCommand parsedCommand;
+    private final Predicate<ProcessedOption> activated = option -> option.activator().isActivated(getParsedCommand());
+
     public ProcessedCommand(String name, List<String> aliases, C command,
                             String description, CommandValidator<C,CI> validator,
                             ResultHandler resultHandler,
@@ -125,6 +132,7 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
                 opt.completer(), opt.validator(), opt.activator(), opt.getRenderer(), opt.parser(), opt.doOverrideRequired()));
 
         options.get(options.size()-1).setParent(this);
+        options.get(options.size()-1).setFieldAccessor(opt.getFieldAccessor());
     }
 
     private void setOptions(List<ProcessedOption> options) throws OptionParserException {
@@ -136,6 +144,7 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
                     opt.parser(), opt.doOverrideRequired()));
 
             this.options.get(this.options.size()-1).setParent(this);
+            this.options.get(this.options.size()-1).setFieldAccessor(opt.getFieldAccessor());
         }
     }
 
@@ -219,23 +228,54 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
         throw new OptionParserException("All option names are taken, please specify a unique name");
     }
 
-    public ProcessedOption findOption(String name) {
-        for (ProcessedOption option : getOptions())
-            if(option.shortName() != null &&
-                    option.shortName().equals(name) &&
-                    option.activator().isActivated(new ParsedCommand(this)))
-                return option;
+    /**
+     * @return a view of this command used by the activators, it is created once
+     */
+    public ParsedCommand getParsedCommand() {
+        if(parsedCommand == null)
+            parsedCommand = new ParsedCommand(this);
+        return parsedCommand;
+    }
 
+    /**
+     * Options that are not part of the option list, they are searched after
+     * the other options. Returns null if there are none.
+     */
+    protected List<ProcessedOption> dynamicOptions() {
         return null;
     }
 
-    public ProcessedOption findOptionNoActivatorCheck(String name) {
-        for (ProcessedOption option : getOptions())
-            if(option.shortName() != null &&
-                    option.shortName().equals(name))
-                return option;
+    private OptionIndex optionIndex() {
+        if(optionIndex == null || !optionIndex.indexes(options))
+            optionIndex = new OptionIndex(options);
+        return optionIndex.sync();
+    }
 
-        return null;
+    private OptionIndex dynamicOptionIndex() {
+        List<ProcessedOption> dynamic = dynamicOptions();
+        if(dynamic == null)
+            return null;
+        if(dynamicOptionIndex == null || !dynamicOptionIndex.indexes(dynamic))
+            dynamicOptionIndex = new OptionIndex(dynamic);
+        return dynamicOptionIndex.sync();
+    }
+
+    private ProcessedOption lookup(Function<OptionIndex, ProcessedOption> search) {
+        ProcessedOption option = search.apply(optionIndex());
+        if(option == null) {
+            OptionIndex dynamic = dynamicOptionIndex();
+            if(dynamic != null)
+                option = search.apply(dynamic);
+        }
+        return option;
+    }
+
+    public ProcessedOption findOption(String name) {
+        return lookup(index -> index.findShort(name, activated));
+    }
+
+    public ProcessedOption findOptionNoActivatorCheck(String name) {
+        return lookup(index -> index.findShort(name, null));
     }
 
     /**
@@ -274,51 +314,28 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
     }
 
     public ProcessedOption findLongOption(String name) {
-        for (ProcessedOption option : getOptions())
-            if(option.name() != null &&
-                    option.name().equals(name) &&
-                    option.activator().isActivated(new ParsedCommand(this)))
-                return option;
-
-        return null;
+        return lookup(index -> index.findLong(name, activated));
     }
 
     public ProcessedOption findLongOptionNoActivatorCheck(String name) {
-        for (ProcessedOption option : getOptions())
-            if(option.name() != null && option.name().equals(name))
-                return option;
-
-        return null;
+        return lookup(index -> index.findLong(name, null));
     }
 
     public ProcessedOption startWithOption(String name) {
-        for (ProcessedOption option : getOptions())
-            if(option.shortName() != null && name.startsWith(option.shortName()) &&
-                    option.activator().isActivated(new ParsedCommand(this)))
-                return option;
-
-        return null;
+        return lookup(index -> index.startsWithShort(name, activated));
     }
 
     public ProcessedOption startWithLongOption(String name) {
-        for (ProcessedOption option : getOptions())
-            if(name.startsWith(option.name()) &&
-                    option.activator().isActivated(new ParsedCommand(this)))
-                return option;
-
-        return null;
+        return lookup(index -> index.startsWithLong(name, activated));
     }
 
     public ProcessedOption startWithLongOptionNoActivatorCheck(String name) {
-        ProcessedOption longestMatch = null;
-        for (ProcessedOption option : getOptions()) {
-            if (name.startsWith(option.name())) {
-                if (longestMatch == null) {
-                    longestMatch = option;
-                } else if (option.name().length() > longestMatch.name().length()) {
-                    longestMatch = option;
-                }
-            }
+        ProcessedOption longestMatch = optionIndex().longestPrefixOf(name);
+        OptionIndex dynamic = dynamicOptionIndex();
+        if(dynamic != null) {
+            ProcessedOption match = dynamic.longestPrefixOf(name);
+            if(match != null && (longestMatch == null || match.name().length() > longestMatch.name().length()))
+                longestMatch = match;
         }
         return longestMatch;
     }
@@ -409,7 +426,7 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
         List<TerminalString> names = new ArrayList<>(opts.size());
         for (ProcessedOption o : opts) {
             if(o.getValues().size() == 0 &&
-                    o.activator().isActivated(new ParsedCommand(this)))
+                    o.activator().isActivated(getParsedCommand()))
                 names.add(o.getRenderedNameWithDashes());
         }
 
@@ -423,7 +440,7 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
            if(((o.shortName() != null && o.shortName().equals(name) &&
                    !o.isLongNameUsed() && o.getValues().size() == 0) ||
                    (o.name().startsWith(name) && o.getValues().size() == 0)) &&
-                   o.activator().isActivated(new ParsedCommand(this)))
+                   o.activator().isActivated(getParsedCommand()))
                names.add(o.getRenderedNameWithDashes());
         }
         return names;
@@ -438,7 +455,7 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
            if(((o.shortName() != null && o.shortName().equals(name) &&
                    !o.isLongNameUsed() && o.getValues().size() == 0) ||
                    (o.name().startsWith(name) && o.getValues().size() == 0)) &&
-                   o.activator().isActivated(new ParsedCommand(this)))
+                   o.activator().isActivated(getParsedCommand()))
                names.add(o.name());
         }
         return names;
@@ -570,11 +587,10 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
     }
 
     public boolean hasLongOption(String optionName) {
-        for(ProcessedOption o : getOptions()) {
-            if (o.name().equals(optionName))
-                return true;
-        }
-        return false;
+        if(optionIndex().hasLong(optionName))
+            return true;
+        OptionIndex dynamic = dynamicOptionIndex();
+        return dynamic != null && dynamic.hasLong(optionName);
     }
 
     public boolean hasOptions() {
@@ -586,11 +602,9 @@ public class ProcessedCommand<C extends Command<CI>, CI extends CommandInvocatio
     //not start with another option name
     public boolean hasUniqueLongOption(String optionName) {
         if(hasLongOption(optionName)) {
-            for(ProcessedOption o : getOptions()) {
-                if(o.name().startsWith(optionName) && !o.name().equals(optionName))
-                    return false;
-            }
-            return true;
+            OptionIndex dynamic = dynamicOptionIndex();
+            return !optionIndex().hasLongerName(optionName) &&
+                    (dynamic == null || !dynamic.hasLongerName(optionName));
         }
         return false;
     }
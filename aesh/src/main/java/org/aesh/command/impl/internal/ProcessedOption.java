@@ -39,8 +39,6 @@ import org.aesh.selector.SelectorType;
 import org.aesh.terminal.utils.ANSI;
 
 import java.io.File;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -84,6 +82,8 @@ public final class ProcessedOption {
     private boolean cursorValue = false;
     private boolean askIfNotSet = false;
     private final SelectorType selectorType;
+    private FieldAccessor fieldAccessor;
+    private Class<?> fieldAccessorOwner;
 
     public ProcessedOption(char shortName, String name, String description,
                            String argument, boolean required, char valueSeparator, boolean askIfNotSet,
@@ -376,18 +376,11 @@ public final class ProcessedOption {
         if(converter == null || instance == null)
             return;
         try {
-            Field field = getField(instance.getClass(), fieldName);
+            FieldAccessor field = getFieldAccessor(instance);
             //for some options, the field might be null. eg generatedHelp
             //if so we ignore it
             if(field == null)
                 return;
-            if(!Modifier.isPublic(field.getModifiers()))
-                field.setAccessible(true);
-            if(!Modifier.isPublic(instance.getClass().getModifiers())) {
-                Constructor constructor = instance.getClass().getDeclaredConstructor();
-                if(constructor != null)
-                    constructor.setAccessible(true);
-            }
             if(optionType == OptionType.NORMAL || optionType == OptionType.BOOLEAN || optionType == OptionType.ARGUMENT) {
                 if(getValue() != null)
                     field.set(instance, doConvert(getValue(), invocationProviders, instance, aeshContext, doValidation));
@@ -396,7 +389,7 @@ public final class ProcessedOption {
                 }
             }
             else if(optionType == OptionType.LIST || optionType == OptionType.ARGUMENTS) {
-                Collection<Object> tmpSet = initializeCollection(field);
+                Collection<Object> tmpSet = initializeCollection(field.getType());
                 if(values.size() > 0) {
                     for(String in : values)
                         tmpSet.add(doConvert(in, invocationProviders, instance, aeshContext, doValidation));
@@ -423,41 +416,71 @@ public final class ProcessedOption {
                 }
             }
         }
-        catch (NoSuchFieldException | IllegalAccessException | NoSuchMethodException | InstantiationException e) {
+        catch (IllegalAccessException | InstantiationException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Convert the value(s) of this option without injecting them into a command, no validation is done.
+     *
+     * @return the converted value, a List for list options and a Map for group options
+     */
+    public Object convertValue(InvocationProviders invocationProviders, AeshContext aeshContext)
+            throws OptionValidatorException {
+        if(converter == null)
+            return null;
+        if(optionType == OptionType.NORMAL || optionType == OptionType.BOOLEAN || optionType == OptionType.ARGUMENT) {
+            if(getValue() != null)
+                return doConvert(getValue(), invocationProviders, null, aeshContext, false);
+            else if(defaultValues.size() > 0)
+                return doConvert(defaultValues.get(0), invocationProviders, null, aeshContext, false);
+        }
+        else if(optionType == OptionType.LIST || optionType == OptionType.ARGUMENTS) {
+            List<Object> converted = new ArrayList<>();
+            for(String in : values.size() > 0 ? values : defaultValues)
+                converted.add(doConvert(in, invocationProviders, null, aeshContext, false));
+            return converted;
+        }
+        else if(optionType == OptionType.GROUP) {
+            Map<String, Object> converted = newHashMap();
+            for(String propertyKey : properties.keySet())
+                converted.put(propertyKey, doConvert(properties.get(propertyKey), invocationProviders, null, aeshContext, false));
+            return converted;
+        }
+        return null;
+    }
+
     @SuppressWarnings("unchecked")
-    private Collection<Object> initializeCollection(Field field) throws IllegalAccessException, InstantiationException {
-        if(field.getType().isInterface() || Modifier.isAbstract(field.getType().getModifiers())) {
-            if(Set.class.isAssignableFrom(field.getType()))
+    private Collection<Object> initializeCollection(Class<?> type) throws IllegalAccessException, InstantiationException {
+        if(type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            if(Set.class.isAssignableFrom(type))
                 return  new HashSet<>();
-            else if(List.class.isAssignableFrom(field.getType()))
+            else if(List.class.isAssignableFrom(type))
                 return new ArrayList<>();
             else
                 return null;
         }
         else
-            return (Collection) field.getType().newInstance();
+            return (Collection) type.newInstance();
     }
 
     public void injectResource(PipelineResource resource, Object instance) {
         try {
-            Field field = getField(instance.getClass(), fieldName);
-            if(!Modifier.isPublic(field.getModifiers()))
-                field.setAccessible(true);
+            FieldAccessor field = getFieldAccessor(instance);
+            if(field == null)
+                return;
 
             if(optionType == OptionType.ARGUMENT) {
                 field.set(instance, resource);
             }
             else {
-                Collection<Object> set = initializeCollection(field);
+                Collection<Object> set = initializeCollection(field.getType());
                 if(set != null)
                     set.add(resource);
             }
 
-        } catch (NoSuchFieldException | IllegalAccessException | InstantiationException e) {
+        } catch (IllegalAccessException | InstantiationException e) {
             e.printStackTrace();
         }
     }
@@ -474,16 +497,23 @@ public final class ProcessedOption {
         return new HashMap<>();
     }
 
-    private Field getField(Class clazz, String fieldName) throws NoSuchFieldException {
-        try {
-            return clazz.getDeclaredField(fieldName);
-        }
-        catch(NoSuchFieldException nsfe) {
-            if(clazz.getSuperclass() != null)
-                return getField(clazz.getSuperclass(), fieldName);
-            else
-                return null;
+    /**
+     * @return the accessor of the field this option is injected into, or null if the instance has no such field
+     */
+    public FieldAccessor getFieldAccessor(Object instance) {
+        if(fieldAccessor != null ? !fieldAccessor.canAccess(instance) : fieldAccessorOwner != instance.getClass()) {
+            fieldAccessor = FieldAccessor.of(instance.getClass(), fieldName);
+            fieldAccessorOwner = instance.getClass();
         }
+        return fieldAccessor;
+    }
+
+    FieldAccessor getFieldAccessor() {
+        return fieldAccessor;
+    }
+
+    void setFieldAccessor(FieldAccessor fieldAccessor) {
+        this.fieldAccessor = fieldAccessor;
     }
 
     public boolean isCursorOption() {
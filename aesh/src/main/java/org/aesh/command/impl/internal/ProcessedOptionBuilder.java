@@ -40,6 +40,7 @@ import org.aesh.selector.SelectorType;
 import org.aesh.util.ReflectionUtil;
 
 import java.io.File;
+import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -65,6 +66,7 @@ public class ProcessedOptionBuilder {
     private OptionType optionType;
     private Converter converter;
     private String fieldName;
+    private FieldAccessor fieldAccessor;
     private OptionCompleter completer;
     private final List<String> defaultValues;
     private OptionValidator validator;
@@ -152,6 +154,24 @@ public class ProcessedOptionBuilder {
         return apply(c -> c.fieldName = fieldName);
     }
 
+    /**
+     * Set the field the option value is injected into, it is resolved once here
+     * instead of being looked up on every injection.
+     */
+    public ProcessedOptionBuilder field(Field field) {
+        return apply(c -> {
+            c.fieldName = field.getName();
+            c.fieldAccessor = FieldAccessor.of(field);
+        });
+    }
+
+    public ProcessedOptionBuilder field(FieldAccessor fieldAccessor) {
+        return apply(c -> {
+            c.fieldName = fieldAccessor.getName();
+            c.fieldAccessor = fieldAccessor;
+        });
+    }
+
     public ProcessedOptionBuilder hasValue(boolean hasValue) {
         return apply(c -> c.hasValue = hasValue);
     }
@@ -217,18 +237,12 @@ public class ProcessedOptionBuilder {
                 return ReflectionUtil.newInstance(completerClass);
         }
         else {
-            try {
-                if(type == Boolean.class || type == boolean.class)
-                    return BooleanOptionCompleter.class.newInstance();
-                else if(type == File.class || type == Resource.class)
-                    return FileOptionCompleter.class.newInstance();
-                else
-                    return null;
-
-            } catch (InstantiationException | IllegalAccessException e) {
-                e.printStackTrace();
-            }
-            return null;
+            if(type == Boolean.class || type == boolean.class)
+                return new BooleanOptionCompleter();
+            else if(type == File.class || type == Resource.class)
+                return new FileOptionCompleter();
+            else
+                return null;
         }
     }
 
@@ -342,8 +356,10 @@ public class ProcessedOptionBuilder {
         //if(renderer == null)
         //    renderer = new NullOptionRenderer();
 
-        return new ProcessedOption(shortName, name, description, argument, required,
+        ProcessedOption option = new ProcessedOption(shortName, name, description, argument, required,
                 valueSeparator, askIfNotSet, selectorType, defaultValues, type, fieldName, optionType, converter,
                 completer, validator, activator, renderer, parser, overrideRequired);
+        option.setFieldAccessor(fieldAccessor);
+        return option;
     }
 }
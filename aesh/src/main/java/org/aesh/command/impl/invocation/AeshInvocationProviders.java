@@ -38,6 +38,8 @@ public class AeshInvocationProviders implements InvocationProviders {
     private final ValidatorInvocationProvider validatorInvocationProvider;
     private final OptionActivatorProvider optionActivatorProvider;
     private final CommandActivatorProvider commandActivatorProvider;
+    private final long completerTimeout;
+    private final boolean lazyCompletion;
 
     public AeshInvocationProviders(Settings settings) {
         this.converterInvocationProvider = settings.converterInvocationProvider();
@@ -45,6 +47,8 @@ public class AeshInvocationProviders implements InvocationProviders {
         this.validatorInvocationProvider = settings.validatorInvocationProvider();
         this.optionActivatorProvider = settings.optionActivatorProvider();
         this.commandActivatorProvider = settings.commandActivatorProvider();
+        this.completerTimeout = settings.completerTimeout();
+        this.lazyCompletion = settings.lazyCompletion();
     }
 
     public AeshInvocationProviders(ConverterInvocationProvider converterInvocationProvider,
@@ -52,11 +56,34 @@ public class AeshInvocationProviders implements InvocationProviders {
                                    ValidatorInvocationProvider validatorInvocationProvider,
                                    OptionActivatorProvider optionActivatorProvider,
                                    CommandActivatorProvider commandActivatorProvider) {
+        this(converterInvocationProvider, completerInvocationProvider, validatorInvocationProvider,
+                optionActivatorProvider, commandActivatorProvider, 0);
+    }
+
+    public AeshInvocationProviders(ConverterInvocationProvider converterInvocationProvider,
+                                   CompleterInvocationProvider completerInvocationProvider,
+                                   ValidatorInvocationProvider validatorInvocationProvider,
+                                   OptionActivatorProvider optionActivatorProvider,
+                                   CommandActivatorProvider commandActivatorProvider,
+                                   long completerTimeout) {
+        this(converterInvocationProvider, completerInvocationProvider, validatorInvocationProvider,
+                optionActivatorProvider, commandActivatorProvider, completerTimeout, false);
+    }
+
+    public AeshInvocationProviders(ConverterInvocationProvider converterInvocationProvider,
+                                   CompleterInvocationProvider completerInvocationProvider,
+                                   ValidatorInvocationProvider validatorInvocationProvider,
+                                   OptionActivatorProvider optionActivatorProvider,
+                                   CommandActivatorProvider commandActivatorProvider,
+                                   long completerTimeout,
+                                   boolean lazyCompletion) {
         this.converterInvocationProvider = converterInvocationProvider;
         this.completerInvocationProvider = completerInvocationProvider;
         this.validatorInvocationProvider = validatorInvocationProvider;
         this.optionActivatorProvider = optionActivatorProvider;
         this.commandActivatorProvider = commandActivatorProvider;
+        this.completerTimeout = completerTimeout;
+        this.lazyCompletion = lazyCompletion;
     }
 
     @Override
@@ -83,4 +110,14 @@ public class AeshInvocationProviders implements InvocationProviders {
     public OptionActivatorProvider getOptionActivatorProvider() {
         return optionActivatorProvider;
     }
+
+    @Override
+    public long completerTimeout() {
+        return completerTimeout;
+    }
+
+    @Override
+    public boolean lazyCompletion() {
+        return lazyCompletion;
+    }
 }
@@ -0,0 +1,80 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2017 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl.operator;
+
+/**
+ * Removes ANSI control sequences in a single pass, without regular expressions.
+ * Removes the same sequences as Parser.stripAwayAnsiCodes: ESC [ followed by an optional '?',
+ * any number of digits and ';', and an optional letter.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+final class AnsiStripper {
+
+    private static final char ESCAPE = '\u001B';
+
+    private AnsiStripper() {
+    }
+
+    static String strip(String text) {
+        int start = text.indexOf(ESCAPE);
+        if(start < 0)
+            return text;
+        int length = text.length();
+        StringBuilder builder = new StringBuilder(length);
+        int copied = 0;
+        while(start > -1) {
+            int end = sequenceEnd(text, start, length);
+            if(end > start) {
+                builder.append(text, copied, start);
+                copied = end;
+                start = text.indexOf(ESCAPE, end);
+            }
+            else
+                start = text.indexOf(ESCAPE, start + 1);
+        }
+        return builder.append(text, copied, length).toString();
+    }
+
+    /**
+     * @return the index after the sequence starting at start, or start if it is not a sequence
+     */
+    private static int sequenceEnd(String text, int start, int length) {
+        int i = start + 1;
+        if(i >= length || text.charAt(i) != '[')
+            return start;
+        i++;
+        if(i < length && text.charAt(i) == '?')
+            i++;
+        while(i < length && (isDigit(text.charAt(i)) || text.charAt(i) == ';'))
+            i++;
+        if(i < length && isLetter(text.charAt(i)))
+            i++;
+        return i;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
@@ -19,11 +19,9 @@
  */
 package org.aesh.command.impl.operator;
 
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
+import java.nio.channels.FileChannel;
 import java.nio.file.StandardOpenOption;
 import org.aesh.command.invocation.CommandInvocationConfiguration;
 import org.aesh.readline.AeshContext;
@@ -45,9 +43,8 @@ public class AppendOutputRedirectionOperator implements ConfigurationOperator {
         }
 
         @Override
-        protected BufferedWriter buildWriter(File f) throws IOException {
-            return Files.newBufferedWriter(f.toPath(), StandardCharsets.UTF_8,
-                    StandardOpenOption.APPEND, StandardOpenOption.CREATE);
+        protected FileChannel openChannel(File f) throws IOException {
+            return FileChannel.open(f.toPath(), StandardOpenOption.APPEND, StandardOpenOption.CREATE);
         }
     }
 
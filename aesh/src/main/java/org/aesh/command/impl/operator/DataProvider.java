@@ -27,4 +27,10 @@ import java.io.BufferedInputStream;
  */
 public interface DataProvider {
     BufferedInputStream getData();
+
+    /**
+     * Called when the consumer will not read any more data.
+     */
+    default void release() {
+    }
 }
@@ -22,18 +22,40 @@ package org.aesh.command.impl.operator;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.Objects;
 import org.aesh.readline.AeshContext;
 
 /**
  * Output to a file.
+ * Text and binary output are written to the same {@link FileChannel}, the text is buffered and
+ * only flushed when the buffer is full and when the delegate is closed.
  *
  * @author jdenise@redhat.com
  */
 public abstract class FileOutputDelegate extends OutputDelegate {
+    /**
+     * Size of the buffer used by the file writers, and the default flush threshold.
+     */
+    public static final int BUFFER_SIZE = 64 * 1024;
+
     private final File outputFile;
+    private FileChannel channel;
 
     protected FileOutputDelegate(AeshContext context, String file) {
+        this(context, file, BUFFER_SIZE);
+    }
+
+    /**
+     * @param flushThreshold number of characters that are buffered before the output is flushed
+     */
+    protected FileOutputDelegate(AeshContext context, String file, int flushThreshold) {
+        super(flushThreshold);
         Objects.requireNonNull(file);
         File f = new File(file);
         if (!f.isAbsolute()) {
@@ -47,5 +69,50 @@ public abstract class FileOutputDelegate extends OutputDelegate {
         return buildWriter(outputFile);
     }
 
-    protected abstract BufferedWriter buildWriter(File f) throws IOException;
+    /**
+     * @return UTF-8 writer to the channel of the file
+     */
+    protected BufferedWriter buildWriter(File f) throws IOException {
+        return new BufferedWriter(Channels.newWriter(channel(f), StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE),
+                BUFFER_SIZE);
+    }
+
+    /**
+     * Open the output file, by default it is created or truncated.
+     */
+    protected FileChannel openChannel(File f) throws IOException {
+        return FileChannel.open(f.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+    }
+
+    @Override
+    protected OutputStream buildOutputStream() throws IOException {
+        return Channels.newOutputStream(channel(outputFile));
+    }
+
+    /**
+     * @return the channel of the output file, so FileChannel.transferTo/transferFrom can be used
+     */
+    @Override
+    public WritableByteChannel getChannel() throws IOException {
+        flushText();
+        return channel(outputFile);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        }
+        finally {
+            if(channel != null)
+                channel.close();
+        }
+    }
+
+    private FileChannel channel(File f) throws IOException {
+        if(channel == null)
+            channel = openChannel(f);
+        return channel;
+    }
 }
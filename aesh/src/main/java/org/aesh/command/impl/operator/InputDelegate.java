@@ -23,6 +23,10 @@ import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.StandardOpenOption;
 
 /**
  * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
@@ -48,4 +52,15 @@ public class InputDelegate {
         return null;
     }
 
+    /**
+     * @return channel to the input file, null if the file do not exist
+     * @throws IOException if the file exist but can not be opened
+     */
+    public ReadableByteChannel readChannel() throws IOException {
+        File file = new File(path);
+        if(file.isFile())
+            return FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        return null;
+    }
+
 }
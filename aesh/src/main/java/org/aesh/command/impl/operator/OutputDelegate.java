@@ -21,44 +21,194 @@ package org.aesh.command.impl.operator;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
-import org.aesh.readline.util.Parser;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 
 /**
+ * Writes the output of a command to a writer, ANSI escape sequences are removed.
+ * The writer is flushed when more than the flush threshold number of characters are
+ * buffered and when the delegate is closed, a threshold of 0 flush after every write.
+ * Binary output is written unchanged through {@link #getOutputStream()} or {@link #getChannel()}
+ * if the delegate supports it.
  *
  * @author jdenise@redhat.com
  */
 public abstract class OutputDelegate {
 
+    private final int flushThreshold;
     private BufferedWriter writer;
+    private OutputStream stream;
+    private OutputStream delegateStream;
     private IOException exception;
+    private int buffered;
+    private boolean closed;
 
     protected OutputDelegate() {
+        this(0);
+    }
+
+    protected OutputDelegate(int flushThreshold) {
+        this.flushThreshold = flushThreshold;
     }
 
     protected abstract BufferedWriter buildWriter() throws IOException;
 
+    /**
+     * @return stream to the same target as the writer, null if binary output is not supported
+     */
+    protected OutputStream buildOutputStream() throws IOException {
+        return null;
+    }
+
+    /**
+     * Stream for binary output, the bytes are written unchanged.
+     * Text written before is flushed first. Closing the stream has no effect,
+     * it is closed together with the delegate.
+     */
+    public OutputStream getOutputStream() {
+        if(delegateStream == null)
+            delegateStream = new DelegateOutputStream();
+        return delegateStream;
+    }
+
+    /**
+     * Channel for binary output, see {@link #getOutputStream()}.
+     */
+    public WritableByteChannel getChannel() throws IOException {
+        return Channels.newChannel(getOutputStream());
+    }
+
+    /**
+     * Flush the text written so far, must be called before the target is written to directly.
+     */
+    protected void flushText() throws IOException {
+        if(closed)
+            throw new IOException("Output is closed");
+        if(exception != null)
+            throw exception;
+        if(writer != null) {
+            writer.flush();
+            buffered = 0;
+        }
+    }
+
+    private OutputStream byteStream() throws IOException {
+        flushText();
+        if(stream == null) {
+            stream = buildOutputStream();
+            if(stream == null)
+                throw new IOException("Binary output is not supported by "+getClass().getName());
+        }
+        return stream;
+    }
+
     public void write(String msg) {
+        if(closed)
+            return;
         try {
-            msg = Parser.stripAwayAnsiCodes(msg);
+            msg = AnsiStripper.strip(msg);
             if (writer == null && exception == null) {
                 writer = buildWriter();
             }
             //if we have a writer, write
             if(writer != null) {
                 writer.append(msg);
-                writer.flush();
+                buffered += msg.length();
+                if(buffered > flushThreshold) {
+                    writer.flush();
+                    buffered = 0;
+                }
             }
         }
         catch (IOException e) {
             exception = e;
+            closeWriter();
+        }
+    }
+
+    /**
+     * Write all buffered output.
+     */
+    public void flush() throws IOException {
+        if(writer != null) {
+            try {
+                writer.flush();
+                buffered = 0;
+            }
+            catch (IOException e) {
+                exception = e;
+                closeWriter();
+            }
         }
+        if(exception != null)
+            throw exception;
     }
 
+    /**
+     * Flush and close the writer, output written after close is ignored.
+     */
     public void close() throws IOException {
-        //if(writer != null)
-        //    writer.close();
+        if(!closed) {
+            closed = true;
+            if(writer != null) {
+                try {
+                    writer.close();
+                }
+                catch (IOException e) {
+                    if(exception == null)
+                        exception = e;
+                }
+                writer = null;
+            }
+            if(stream != null) {
+                try {
+                    stream.close();
+                }
+                catch (IOException e) {
+                    if(exception == null)
+                        exception = e;
+                }
+                stream = null;
+            }
+        }
         if(exception != null)
             throw exception;
     }
 
+    private void closeWriter() {
+        if(writer != null) {
+            try {
+                writer.close();
+            }
+            catch (IOException e) {
+                //we already have an exception
+            }
+            writer = null;
+        }
+    }
+
+    private final class DelegateOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            byteStream().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            byteStream().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            byteStream().flush();
+        }
+
+        @Override
+        public void close() {
+            //closed by the delegate
+        }
+    }
+
 }
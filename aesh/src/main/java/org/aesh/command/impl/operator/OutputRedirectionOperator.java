@@ -19,11 +19,7 @@
  */
 package org.aesh.command.impl.operator;
 
-import java.io.BufferedWriter;
-import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import org.aesh.command.invocation.CommandInvocationConfiguration;
 import org.aesh.readline.AeshContext;
 
@@ -38,11 +34,6 @@ public class OutputRedirectionOperator implements ConfigurationOperator {
         private OutputDelegateImpl(String file) throws IOException {
             super(context, file);
         }
-
-        @Override
-        protected BufferedWriter buildWriter(File f) throws IOException {
-            return Files.newBufferedWriter(f.toPath(), StandardCharsets.UTF_8);
-        }
     }
 
     private CommandInvocationConfiguration config;
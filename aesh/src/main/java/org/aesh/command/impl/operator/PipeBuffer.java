@@ -0,0 +1,191 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2017 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl.operator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+
+/**
+ * A bounded ring buffer connecting the output of one command with the input of another.
+ * Writers block when the buffer is full and readers block when it is empty, so a pipe
+ * never holds more than the given capacity in memory.
+ *
+ * Closing the output stream signals end of stream to the reader once the remaining data
+ * have been consumed. Closing the input stream discards any buffered data and makes
+ * further writes fail, which lets a producer stop early when the consumer is done.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public class PipeBuffer {
+
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    private final byte[] buffer;
+    private int readPos;
+    private int count;
+    private boolean writerClosed;
+    private boolean readerClosed;
+
+    private final OutputStream outputStream = new PipeOutputStream();
+    private final InputStream inputStream = new PipeInputStream();
+
+    public PipeBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PipeBuffer(int capacity) {
+        if(capacity < 1)
+            throw new IllegalArgumentException("Pipe buffer capacity must be positive, was: "+capacity);
+        buffer = new byte[capacity];
+    }
+
+    public OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    public synchronized boolean isReaderClosed() {
+        return readerClosed;
+    }
+
+    public synchronized boolean isWriterClosed() {
+        return writerClosed;
+    }
+
+    public synchronized void closeWriter() {
+        writerClosed = true;
+        notifyAll();
+    }
+
+    public synchronized void closeReader() {
+        readerClosed = true;
+        count = 0;
+        notifyAll();
+    }
+
+    private synchronized void write(byte[] b, int off, int len) throws IOException {
+        while(len > 0) {
+            while(count == buffer.length && !readerClosed && !writerClosed)
+                waitForChange();
+            if(readerClosed || writerClosed)
+                throw new IOException("Pipe closed");
+
+            int writePos = (readPos + count) % buffer.length;
+            int chunk = Math.min(len, Math.min(buffer.length - count, buffer.length - writePos));
+            System.arraycopy(b, off, buffer, writePos, chunk);
+            count += chunk;
+            off += chunk;
+            len -= chunk;
+            notifyAll();
+        }
+    }
+
+    private synchronized int read(byte[] b, int off, int len) throws IOException {
+        if(len == 0)
+            return 0;
+        while(count == 0) {
+            if(readerClosed)
+                throw new IOException("Pipe closed");
+            if(writerClosed)
+                return -1;
+            waitForChange();
+        }
+        int read = 0;
+        while(read < len && count > 0) {
+            int chunk = Math.min(len - read, Math.min(count, buffer.length - readPos));
+            System.arraycopy(buffer, readPos, b, off + read, chunk);
+            readPos = (readPos + chunk) % buffer.length;
+            count -= chunk;
+            read += chunk;
+        }
+        notifyAll();
+        return read;
+    }
+
+    private synchronized int available() {
+        return count;
+    }
+
+    private void waitForChange() throws InterruptedIOException {
+        try {
+            wait();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting on pipe");
+        }
+    }
+
+    private class PipeOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            PipeBuffer.this.write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if(off < 0 || len < 0 || off + len > b.length)
+                throw new IndexOutOfBoundsException();
+            PipeBuffer.this.write(b, off, len);
+        }
+
+        @Override
+        public void close() {
+            closeWriter();
+        }
+    }
+
+    private class PipeInputStream extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int read = PipeBuffer.this.read(single, 0, 1);
+            return read < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if(off < 0 || len < 0 || off + len > b.length)
+                throw new IndexOutOfBoundsException();
+            return PipeBuffer.this.read(b, off, len);
+        }
+
+        @Override
+        public int available() {
+            return PipeBuffer.this.available();
+        }
+
+        @Override
+        public void close() {
+            closeReader();
+        }
+    }
+}
@@ -24,11 +24,19 @@ import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import org.aesh.command.invocation.CommandInvocationConfiguration;
 import org.aesh.readline.AeshContext;
 
 /**
+ * Feeds the output of the left hand command to the right hand command.
+ *
+ * By default the complete output is collected before it is handed over.
+ * When created with a buffer size larger than 0 the output is streamed through
+ * a bounded {@link PipeBuffer} instead, and both commands must be executed
+ * concurrently. Text is written to the pipe as UTF-8.
  *
  * @author jdenise@redhat.com
  */
@@ -39,16 +47,56 @@ public class PipeOperator extends EndOperator implements
 
         @Override
         protected BufferedWriter buildWriter() throws IOException {
-            return new BufferedWriter(new OutputStreamWriter(stream));
+            if(isStreaming())
+                return new BufferedWriter(new OutputStreamWriter(pipe.getOutputStream(), StandardCharsets.UTF_8));
+            else
+                return new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        protected OutputStream buildOutputStream() {
+            if(isStreaming())
+                return pipe.getOutputStream();
+            else
+                return stream;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if(isStreaming()) {
+                try {
+                    super.close();
+                }
+                catch (IOException e) {
+                    //the reader is allowed to stop reading before we're done
+                    if(!pipe.isReaderClosed())
+                        throw e;
+                }
+                finally {
+                    pipe.closeWriter();
+                }
+            }
+            else
+                super.close();
         }
     }
 
     private ByteArrayOutputStream stream = new ByteArrayOutputStream();
     private final AeshContext context;
     private CommandInvocationConfiguration config;
+    private PipeBuffer pipe;
+    private BufferedInputStream pipedData;
 
     public PipeOperator(AeshContext context) {
+        this(context, 0);
+    }
+
+    public PipeOperator(AeshContext context, int bufferSize) {
         this.context = context;
+        if(bufferSize > 0) {
+            pipe = new PipeBuffer(bufferSize);
+            stream = null;
+        }
     }
 
     @Override
@@ -64,8 +112,42 @@ public class PipeOperator extends EndOperator implements
         // NOOP
     }
 
+    public boolean isStreaming() {
+        return pipe != null;
+    }
+
+    /**
+     * Switch back to collecting the complete output before it is handed over.
+     * Must be called before the command writing to this pipe is executed.
+     */
+    public void disableStreaming() {
+        if(isStreaming()) {
+            pipe = null;
+            pipedData = null;
+            stream = new ByteArrayOutputStream();
+        }
+    }
+
     @Override
-    public BufferedInputStream getData() {
+    public boolean streamsToNext() {
+        return isStreaming();
+    }
+
+    @Override
+    public synchronized BufferedInputStream getData() {
+        if(isStreaming()) {
+            //the stream can only be read once, so every caller must get the same instance
+            if(pipedData == null)
+                pipedData = new BufferedInputStream(pipe.getInputStream());
+            return pipedData;
+        }
         return new BufferedInputStream(new ByteArrayInputStream(stream.toByteArray()));
     }
+
+    @Override
+    public void release() {
+        //let the writer know that nobody will read what it writes
+        if(isStreaming())
+            pipe.closeReader();
+    }
 }
@@ -19,11 +19,14 @@
  */
 package org.aesh.command.impl.parser;
 
+import org.aesh.command.completer.AsyncOptionCompleter;
 import org.aesh.command.completer.CompleterInvocation;
+import org.aesh.command.completer.OptionValues;
+import org.aesh.command.impl.completer.AsyncCompletions;
 import org.aesh.command.impl.completer.CompleterData;
 import org.aesh.command.impl.completer.DefaultValueOptionCompleter;
+import org.aesh.command.impl.completer.LazyOptionValues;
 import org.aesh.command.impl.internal.OptionType;
-import org.aesh.command.impl.internal.ParsedCommand;
 import org.aesh.command.impl.internal.ProcessedOption;
 import org.aesh.command.invocation.CommandInvocation;
 import org.aesh.command.invocation.InvocationProviders;
@@ -54,8 +57,9 @@ public class AeshCommandLineCompletionParser<CI extends CommandInvocation> imple
     @Override
     public void injectValuesAndComplete(AeshCompleteOperation completeOperation, InvocationProviders invocationProviders,
                                         ParsedLine line) {
-        //first inject values in command
-        doInjectValues(invocationProviders, completeOperation.getContext());
+        //first inject values in command, with lazy completion the completers convert the values they need
+        if(!invocationProviders.lazyCompletion())
+            doInjectValues(invocationProviders, completeOperation.getContext());
 
         //we have parsed one or more options and their values
         if(parser.getProcessedCommand().completeStatus().status().equals(CompleteStatus.Status.COMPLETE_OPTION)) {
@@ -172,7 +176,7 @@ public class AeshCommandLineCompletionParser<CI extends CommandInvocation> imple
     private void doProcessGroupCommand(AeshCompleteOperation completeOperation, String name, ParsedLine line) {
         if(name.length() == 0) {
             for (CommandLineParser clp : parser.getAllChildParsers()) {
-                if(clp.getProcessedCommand().getActivator().isActivated(new ParsedCommand(clp.getProcessedCommand())))
+                if(clp.getProcessedCommand().getActivator().isActivated(clp.getProcessedCommand().getParsedCommand()))
                     completeOperation.addCompletionCandidate(clp.getProcessedCommand().name());
             }
             if(completeOperation.getCompletionCandidates().size() == 1)
@@ -181,7 +185,7 @@ public class AeshCommandLineCompletionParser<CI extends CommandInvocation> imple
         else {
             for (CommandLineParser child : parser.getAllChildParsers()) {
                 if (child.getProcessedCommand().name().startsWith(name) &&
-                        child.getProcessedCommand().getActivator().isActivated(new ParsedCommand(child.getProcessedCommand()))) {
+                        child.getProcessedCommand().getActivator().isActivated(child.getProcessedCommand().getParsedCommand())) {
                     completeOperation.addCompletionCandidate(child.getProcessedCommand().name());
                     completeOperation.setOffset(completeOperation.getCursor()-name.length());
                 }
@@ -198,12 +202,12 @@ public class AeshCommandLineCompletionParser<CI extends CommandInvocation> imple
                             parser.getProcessedCommand().getArgument();
             //first check if arg is argument, if so check if it already have a value, if so to an option complete
             if(arg.getOptionType() == OptionType.ARGUMENT &&
-                    (arg.getValue() != null || !arg.activator().isActivated(new ParsedCommand(parser.getProcessedCommand())))) {
+                    (arg.getValue() != null || !arg.activator().isActivated(parser.getProcessedCommand().getParsedCommand()))) {
                 //list options
                 doListOptions(completeOperation, "");
             }
             //if arguments, but not activated
-            else if(arg.getOptionType() == OptionType.ARGUMENTS && !arg.activator().isActivated(new ParsedCommand(parser.getProcessedCommand())))
+            else if(arg.getOptionType() == OptionType.ARGUMENTS && !arg.activator().isActivated(parser.getProcessedCommand().getParsedCommand()))
                 //list options
                 doListOptions(completeOperation, "");
             //argument(s)
@@ -287,12 +291,17 @@ public class AeshCommandLineCompletionParser<CI extends CommandInvocation> imple
             value = "";
 
         if(currentOption.completer() != null && currentOption.hasValue() &&
-                currentOption.activator().isActivated(new ParsedCommand(parser.getProcessedCommand()))) {
+                currentOption.activator().isActivated(parser.getProcessedCommand().getParsedCommand())) {
             CompleterInvocation completions =
                     invocationProviders.getCompleterProvider().enhanceCompleterInvocation(
-                            new CompleterData(completeOperation.getContext(), value, parser.getCommand()));
+                            new CompleterData(completeOperation.getContext(), value, parser.getCommand(),
+                                    optionValues(invocationProviders, completeOperation)));
 
-            currentOption.completer().complete(completions);
+            if(currentOption.completer() instanceof AsyncOptionCompleter)
+                completions = AsyncCompletions.complete((AsyncOptionCompleter) currentOption.completer(),
+                        completions, completeOperation, invocationProviders.completerTimeout());
+            else
+                currentOption.completer().complete(completions);
             completeOperation.addCompletionCandidatesTerminalString(completions.getCompleterValues());
             verifyCompleteValue(completeOperation, completions, value, selectedWordStatus, currentOption);
         }
@@ -300,7 +309,8 @@ public class AeshCommandLineCompletionParser<CI extends CommandInvocation> imple
         else if(currentOption.getDefaultValues().size() > 0 && currentOption.selectorType() == SelectorType.NO_OP) {
             CompleterInvocation completions =
                     invocationProviders.getCompleterProvider().enhanceCompleterInvocation(
-                            new CompleterData(completeOperation.getContext(), value, parser.getCommand()));
+                            new CompleterData(completeOperation.getContext(), value, parser.getCommand(),
+                                    optionValues(invocationProviders, completeOperation)));
             new DefaultValueOptionCompleter(currentOption.getDefaultValues()).complete(completions);
             completeOperation.addCompletionCandidatesTerminalString(completions.getCompleterValues());
             verifyCompleteValue(completeOperation, completions, value, selectedWordStatus, currentOption);
@@ -312,6 +322,10 @@ public class AeshCommandLineCompletionParser<CI extends CommandInvocation> imple
         return completeOperation.getCompletionCandidates().size() > 0;
     }
 
+    private OptionValues optionValues(InvocationProviders invocationProviders, AeshCompleteOperation completeOperation) {
+        return new LazyOptionValues(parser.getProcessedCommand(), invocationProviders, completeOperation.getContext());
+    }
+
     public static void verifyCompleteValue(AeshCompleteOperation completeOperation,
             CompleterInvocation completions,
             String value, ParsedWord.Status selectedWordStatus, ProcessedOption currentOption) {
@@ -348,6 +362,10 @@ public class AeshCommandLineCompletionParser<CI extends CommandInvocation> imple
         //finally set flags
         completeOperation.setIgnoreOffset(completions.doIgnoreOffset());
         completeOperation.setIgnoreStartsWith(completions.isIgnoreStartsWith());
+        if(completions.isTruncated())
+            completeOperation.setTruncated(true);
+        if(!completions.isCacheable())
+            completeOperation.setCacheable(false);
     }
 
     private void doInjectValues(InvocationProviders invocationProviders, AeshContext context) {
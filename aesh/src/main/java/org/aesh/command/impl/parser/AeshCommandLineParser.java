@@ -114,7 +114,7 @@ public class AeshCommandLineParser<CI extends CommandInvocation> implements Comm
     public void complete(AeshCompleteOperation completeOperation, InvocationProviders invocationProviders) {
 
         complete(completeOperation,
-                new LineParser().parseLine(completeOperation.getBuffer(), completeOperation.getCursor(), true),
+                LineParser.threadLocal().parseLine(completeOperation.getBuffer(), completeOperation.getCursor(), true),
                 invocationProviders);
     }
 
@@ -19,6 +19,7 @@
  */
 package org.aesh.command.impl.populator;
 
+import org.aesh.command.impl.internal.FieldAccessor;
 import org.aesh.command.impl.internal.OptionType;
 import org.aesh.command.impl.internal.ProcessedCommand;
 import org.aesh.command.impl.internal.ProcessedOption;
@@ -32,9 +33,6 @@ import org.aesh.command.Command;
 import org.aesh.command.parser.CommandLineParserException;
 import org.aesh.selector.SelectorType;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-
 /**
  * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
  */
@@ -71,7 +69,7 @@ public class AeshCommandPopulator<O extends Object, CI extends CommandInvocation
                 option.injectValueIntoField(getObject(), invocationProviders, aeshContext,
                         mode == CommandLineParser.Mode.VALIDATE);
             else
-                resetField(getObject(), option.getFieldName(), option.hasValue());
+                resetField(getObject(), option, option.hasValue());
         }
         //arguments
         if(processedCommand.getArguments() != null &&
@@ -80,7 +78,7 @@ public class AeshCommandPopulator<O extends Object, CI extends CommandInvocation
             processedCommand.getArguments().injectValueIntoField(getObject(), invocationProviders, aeshContext,
                     mode == CommandLineParser.Mode.VALIDATE);
         else if(processedCommand.getArguments() != null)
-            resetField(getObject(), processedCommand.getArguments().getFieldName(), true);
+            resetField(getObject(), processedCommand.getArguments(), true);
         //argument
          if(processedCommand.getArgument() != null &&
                 (processedCommand.getArgument().getValues().size() > 0 ||
@@ -88,7 +86,7 @@ public class AeshCommandPopulator<O extends Object, CI extends CommandInvocation
             processedCommand.getArgument().injectValueIntoField(getObject(), invocationProviders, aeshContext,
                     mode == CommandLineParser.Mode.VALIDATE);
         else if(processedCommand.getArgument() != null)
-            resetField(getObject(), processedCommand.getArgument().getFieldName(), true);
+            resetField(getObject(), processedCommand.getArgument(), true);
     }
 
     /**
@@ -107,54 +105,12 @@ public class AeshCommandPopulator<O extends Object, CI extends CommandInvocation
     }
      */
 
-    private void resetField(Object instance, String fieldName, boolean hasValue) {
-        try {
-            Field field = getField(instance.getClass(), fieldName);
-            //for some options, the field might be null. eg generatedHelp
-            //if so we ignore it
-            if(field == null)
-                return;
-            if(!Modifier.isPublic(field.getModifiers()))
-                field.setAccessible(true);
-            if(field.getType().isPrimitive()) {
-                if(boolean.class.isAssignableFrom(field.getType()))
-                    field.set(instance, false);
-                else if(int.class.isAssignableFrom(field.getType()))
-                    field.set(instance, 0);
-                else if(short.class.isAssignableFrom(field.getType()))
-                    field.set(instance, 0);
-                else if(char.class.isAssignableFrom(field.getType()))
-                    field.set(instance, '\u0000');
-                else if(byte.class.isAssignableFrom(field.getType()))
-                    field.set(instance, 0);
-                else if(long.class.isAssignableFrom(field.getType()))
-                    field.set(instance, 0L);
-                else if(float.class.isAssignableFrom(field.getType()))
-                    field.set(instance, 0.0f);
-                else if(double.class.isAssignableFrom(field.getType()))
-                    field.set(instance, 0.0d);
-            }
-            else if(!hasValue && field.getType().equals(Boolean.class)) {
-               field.set(instance, Boolean.FALSE);
-            }
-            else
-                field.set(instance, null);
-        }
-        catch (NoSuchFieldException | IllegalAccessException e) {
-            e.printStackTrace();
-        }
-    }
-
-    private Field getField(Class clazz, String fieldName) throws NoSuchFieldException {
-        try {
-            return clazz.getDeclaredField(fieldName);
-        }
-        catch(NoSuchFieldException nsfe) {
-            if(clazz.getSuperclass() != null)
-                return getField(clazz.getSuperclass(), fieldName);
-            else
-                return null;
-        }
+    private void resetField(Object instance, ProcessedOption option, boolean hasValue) {
+        FieldAccessor field = option.getFieldAccessor(instance);
+        //for some options, the field might be null. eg generatedHelp
+        //if so we ignore it
+        if(field != null)
+            field.reset(instance, hasValue);
     }
 
     @Override
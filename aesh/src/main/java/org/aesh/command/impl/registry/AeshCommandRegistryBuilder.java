@@ -53,6 +53,16 @@ public class AeshCommandRegistryBuilder<CI extends CommandInvocation> {
         return this;
     }
 
+    /**
+     * Commands added by class after this is set are registered by name and aliases only,
+     * they are built the first time they are used.
+     * Note that a custom OptionActivatorProvider still builds all commands when the runtime is created.
+     */
+    public AeshCommandRegistryBuilder<CI> lazy(boolean lazy) {
+        commandRegistry.setLazy(lazy);
+        return this;
+    }
+
     public AeshCommandRegistryBuilder<CI> command(Class<? extends Command> command) throws CommandRegistryException {
         commandRegistry.addCommand((Class<Command>) command);
         return this;
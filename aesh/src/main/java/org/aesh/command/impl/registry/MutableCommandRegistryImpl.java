@@ -24,8 +24,9 @@ import org.aesh.command.Command;
 import org.aesh.command.CommandNotFoundException;
 import org.aesh.command.container.CommandContainer;
 import org.aesh.command.container.CommandContainerBuilder;
+import org.aesh.command.impl.activator.NullCommandActivator;
 import org.aesh.command.impl.container.AeshCommandContainerBuilder;
-import org.aesh.command.impl.internal.ParsedCommand;
+import org.aesh.command.impl.container.LazyCommandContainer;
 import org.aesh.command.impl.internal.ProcessedCommand;
 import org.aesh.command.impl.parser.CommandLineParser;
 import org.aesh.command.invocation.CommandInvocation;
@@ -40,7 +41,10 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 
 /**
  * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
@@ -49,29 +53,58 @@ public class MutableCommandRegistryImpl<CI extends CommandInvocation> implements
 
     private final Map<String, CommandContainer<CI>> registry = new HashMap<>();
     private final Map<String, CommandContainer<CI>> aliases = new HashMap<>();
+    //sorted index of the command names, used to find the names sharing a prefix
+    private final NavigableSet<String> names = new TreeSet<>();
 
     private CommandContainerBuilder<CI> containerBuilder;
 
+    private boolean lazy;
+
     private final List<CommandRegistrationListener> listeners = new ArrayList<>();
 
     public void setCommandContainerBuilder(CommandContainerBuilder<CI> containerBuilder) {
         this.containerBuilder = containerBuilder;
     }
 
+    /**
+     * If lazy, commands added by class are only built when they are used.
+     */
+    public void setLazy(boolean lazy) {
+        this.lazy = lazy;
+    }
+
     @Override
     public CommandContainer<CI> getCommand(String name, String line) throws CommandNotFoundException {
-        if(registry.containsKey(name))
-            return registry.get(name);
+        CommandContainer<CI> container = registry.get(name);
+        if(container != null)
+            return resolve(name, container);
         //group command
-        else if(name.contains(" ")) {
-            String[] names = name.split(" ");
-            if(registry.containsKey(names[0])) {
-                return registry.get(names[0]);
-            }
-            throw new CommandNotFoundException("Command: " + names[0] + " was not found.", names[0]);
+        int space = name.indexOf(' ');
+        if(space > -1)
+            name = name.substring(0, space);
+        container = registry.get(name);
+        if(container != null)
+            return resolve(name, container);
+        throw new CommandNotFoundException("Command: " + name + " was not found.", name);
+    }
+
+    @Override
+    public CommandContainer<CI> findCommand(String name, String line) throws CommandNotFoundException {
+        CommandContainer<CI> container = registry.get(name);
+        if(container != null)
+            return resolve(name, container);
+        container = aliases.get(name);
+        if(container != null)
+            return resolve(name, container);
+        //group command
+        int space = name.indexOf(' ');
+        if(space > -1) {
+            String groupName = name.substring(0, space);
+            container = registry.get(groupName);
+            if(container != null)
+                return resolve(groupName, container);
         }
-        else
-            throw new CommandNotFoundException("Command: " + name + " was not found.", name);
+        return null;
     }
 
     @Override
@@ -87,29 +120,49 @@ public class MutableCommandRegistryImpl<CI extends CommandInvocation> implements
     public void completeCommandName(CompleteOperation co, ParsedLine parsedLine) {
         if(parsedLine.words().size() == 0) {
             //add all
-            for(CommandContainer<CI> command : registry.values()) {
-                ProcessedCommand<? extends Command<CI>, CI> com = command.getParser().getProcessedCommand();
-                if (com.getActivator().isActivated(new ParsedCommand(com)))
-                    co.addCompletionCandidate(com.name());
+            for(String name : names) {
+                if (isActivated(registry.get(name)))
+                    co.addCompletionCandidate(name);
             }
         }
         else {
-            for(CommandContainer<CI> command : registry.values()) {
-                ProcessedCommand<? extends Command<CI>, CI> com = command.getParser().getProcessedCommand();
-                if(com.name().startsWith(parsedLine.selectedWord().word()) &&
-                        com.getActivator().isActivated(new ParsedCommand(com))) {
-                    co.addCompletionCandidate(com.name());
-                    co.setOffset(co.getCursor()-parsedLine.selectedWord().word().length());
-                    if(parsedLine.selectedIndex() < parsedLine.size()-1)
-                        co.doAppendSeparator(false);
+            String word = parsedLine.selectedWord().word();
+            boolean found = false;
+            //only the names starting with the word are visited
+            for(String name : names.tailSet(word, true)) {
+                if(!name.startsWith(word))
+                    break;
+                if(isActivated(registry.get(name))) {
+                    co.addCompletionCandidate(name);
+                    found = true;
                 }
             }
+            if(found) {
+                co.setOffset(co.getCursor() - word.length());
+                if(parsedLine.selectedIndex() < parsedLine.size()-1)
+                    co.doAppendSeparator(false);
+            }
+        }
+    }
+
+    private boolean isActivated(CommandContainer<CI> container) {
+        //a lazy command is only built if its activator must be checked
+        if(container instanceof LazyCommandContainer) {
+            LazyCommandContainer<CI> lazyContainer = (LazyCommandContainer<CI>) container;
+            if(!lazyContainer.hasActivator())
+                return true;
+            if(lazyContainer.haveBuildError())
+                return false;
         }
+        ProcessedCommand<? extends Command<CI>, CI> com = container.getParser().getProcessedCommand();
+        if(com.getActivator() instanceof NullCommandActivator)
+            return true;
+        return com.getActivator().isActivated(com.getParsedCommand());
     }
 
     @Override
     public Set<String> getAllCommandNames() {
-        return registry.keySet();
+        return Collections.unmodifiableSet(names);
     }
 
     @Override
@@ -129,6 +182,13 @@ public class MutableCommandRegistryImpl<CI extends CommandInvocation> implements
 
     @Override
     public void addCommand(Class<? extends Command> command) throws CommandRegistryException {
+        if(lazy) {
+            LazyCommandContainer<CI> container = LazyCommandContainer.create(command, getBuilder());
+            if(container != null) {
+                putIntoRegistry(container);
+                return;
+            }
+        }
         try {
             putIntoRegistry(getBuilder().create(command));
         }
@@ -160,25 +220,67 @@ public class MutableCommandRegistryImpl<CI extends CommandInvocation> implements
     }
 
     private void putIntoRegistry(CommandContainer<CI> commandContainer) {
-        if (!commandContainer.haveBuildError()
-                && !contains(commandContainer.getParser().getProcessedCommand())) {
-            registry.put(commandContainer.getParser().getProcessedCommand().name(),
-                    commandContainer);
-            ProcessedCommand<? extends Command<CI>, CI> command = commandContainer.getParser().
-                    getProcessedCommand();
-            for (String alias : command.getAliases()) {
+        //a lazy container is checked for build errors when it is used
+        if (commandContainer instanceof LazyCommandContainer || !commandContainer.haveBuildError()) {
+            String name = name(commandContainer);
+            List<String> commandAliases = aliases(commandContainer);
+            if (contains(name, commandAliases))
+                return;
+            registry.put(name, commandContainer);
+            names.add(name);
+            for (String alias : commandAliases) {
                 aliases.put(alias, commandContainer);
             }
-            emit(commandContainer.getParser().getProcessedCommand().name(),
-                    REGISTRATION_ACTION.ADDED);
+            emit(name, REGISTRATION_ACTION.ADDED);
+        }
+    }
+
+    private String name(CommandContainer<CI> container) {
+        if (container instanceof LazyCommandContainer)
+            return ((LazyCommandContainer<CI>) container).getName();
+        return container.getParser().getProcessedCommand().name();
+    }
+
+    private List<String> aliases(CommandContainer<CI> container) {
+        if (container instanceof LazyCommandContainer)
+            return ((LazyCommandContainer<CI>) container).getAliases();
+        return container.getParser().getProcessedCommand().getAliases();
+    }
+
+    /**
+     * Build a lazy container. A command that can not be built stays registered, lookups are
+     * read only, every lookup of it fails with the build error.
+     */
+    private CommandContainer<CI> resolve(String name, CommandContainer<CI> container) throws CommandNotFoundException {
+        if (container instanceof LazyCommandContainer && container.haveBuildError()) {
+            throw new CommandNotFoundException("Command: " + name + " could not be built: " +
+                    container.getBuildErrorMessage(), name);
         }
+        return container;
     }
 
-    private boolean contains(ProcessedCommand<? extends Command<CI>, CI> command) {
-        if (registry.containsKey(command.name())) {
+    /**
+     * Run the action with the container of the command once it is built.
+     * A lazy command is not built by this call, the action is run when it is first used.
+     */
+    public void whenBuilt(String name, Consumer<CommandContainer<CI>> action) throws CommandNotFoundException {
+        CommandContainer<CI> container = registry.get(name);
+        if (container == null) {
+            throw new CommandNotFoundException("Command: " + name + " was not found.", name);
+        }
+        if (container instanceof LazyCommandContainer) {
+            ((LazyCommandContainer<CI>) container).whenBuilt(action);
+        }
+        else {
+            action.accept(container);
+        }
+    }
+
+    private boolean contains(String name, List<String> commandAliases) {
+        if (registry.containsKey(name)) {
             return true;
         }
-        for (String alias : command.getAliases()) {
+        for (String alias : commandAliases) {
             if (aliases.containsKey(alias)) {
                 return true;
             }
@@ -192,8 +294,8 @@ public class MutableCommandRegistryImpl<CI extends CommandInvocation> implements
     public void removeCommand(String name) {
         if (registry.containsKey(name)) {
             CommandContainer<CI> container = registry.remove(name);
-            ProcessedCommand<? extends Command<CI>, CI> command = container.getParser().getProcessedCommand();
-            for (String alias : command.getAliases()) {
+            names.remove(name);
+            for (String alias : aliases(container)) {
                 aliases.remove(alias);
             }
             emit(name, REGISTRATION_ACTION.REMOVED);
@@ -209,7 +311,7 @@ public class MutableCommandRegistryImpl<CI extends CommandInvocation> implements
     @Override
     public CommandContainer<CI> getCommandByAlias(String alias) throws CommandNotFoundException {
         if (aliases.containsKey(alias)) {
-            return aliases.get(alias);
+            return resolve(alias, aliases.get(alias));
         } else {
             throw new CommandNotFoundException("Command: named " + alias + " was not found.", alias);
         }
@@ -0,0 +1,105 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl.shell;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+import org.aesh.command.shell.Shell;
+
+/**
+ * OutputStream that decodes the bytes as UTF-8 and writes the text to a shell.
+ * Multi-byte characters split between writes are kept until the rest of the bytes are written,
+ * malformed input is replaced.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public class ShellOutputStream extends OutputStream {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Shell shell;
+    private final CharsetDecoder decoder;
+    private final ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE);
+    private final CharBuffer out = CharBuffer.allocate(BUFFER_SIZE);
+    private boolean closed;
+
+    public ShellOutputStream(Shell shell) {
+        this.shell = shell;
+        decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if(closed)
+            throw new IOException("Stream is closed");
+        while(len > 0) {
+            int n = Math.min(len, in.remaining());
+            in.put(b, off, n);
+            off += n;
+            len -= n;
+            decode(false);
+        }
+    }
+
+    @Override
+    public void flush() {
+        writeOut();
+    }
+
+    @Override
+    public void close() {
+        if(!closed) {
+            closed = true;
+            decode(true);
+            while(decoder.flush(out).isOverflow())
+                writeOut();
+            writeOut();
+        }
+    }
+
+    private void decode(boolean endOfInput) {
+        in.flip();
+        while(decoder.decode(in, out, endOfInput).isOverflow())
+            writeOut();
+        in.compact();
+        writeOut();
+    }
+
+    private void writeOut() {
+        if(out.position() > 0) {
+            out.flip();
+            shell.write(out.toString());
+            out.clear();
+        }
+    }
+}
@@ -20,7 +20,15 @@
 
 package org.aesh.command.invocation;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.TimeUnit;
 
 import org.aesh.command.Executor;
@@ -30,6 +38,7 @@ import org.aesh.command.validator.OptionValidatorException;
 import org.aesh.command.shell.Shell;
 import org.aesh.command.CommandException;
 import org.aesh.command.CommandNotFoundException;
+import org.aesh.command.impl.shell.ShellOutputStream;
 import org.aesh.readline.Prompt;
 import org.aesh.readline.action.KeyAction;
 
@@ -164,4 +173,71 @@ public interface CommandInvocation {
      */
     void println(String msg, boolean paging);
 
+    /**
+     * Stream for binary output. If the output is redirected or piped the bytes
+     * are written unchanged to the target, otherwise they are decoded as UTF-8
+     * and written to the shell.
+     *
+     * @return output stream
+     */
+    default OutputStream getOutputStream() {
+        CommandInvocationConfiguration config = getConfiguration();
+        if(config != null && config.hasOutputRedirection())
+            return config.getOutputRedirection().getOutputStream();
+        return new ShellOutputStream(getShell());
+    }
+
+    /**
+     * Channel for binary output, see {@link #getOutputStream()}.
+     * When the output is redirected to a file this is a FileChannel.
+     *
+     * @return output channel
+     */
+    default WritableByteChannel getOutputChannel() throws IOException {
+        CommandInvocationConfiguration config = getConfiguration();
+        if(config != null && config.hasOutputRedirection())
+            return config.getOutputRedirection().getChannel();
+        return Channels.newChannel(getOutputStream());
+    }
+
+    /**
+     * @return stream of the redirected input or the piped data, null if there is none
+     */
+    default InputStream getInputStream() {
+        CommandInvocationConfiguration config = getConfiguration();
+        if(config == null)
+            return null;
+        if(config.hasInputRedirection())
+            return config.getInputRedirection().read();
+        return config.getPipedData();
+    }
+
+    /**
+     * Reader of the redirected input or the piped data, null if there is none.
+     * Text is written to pipes and files as UTF-8, so it is read as UTF-8.
+     *
+     * @return input reader
+     */
+    default BufferedReader getInputReader() {
+        InputStream in = getInputStream();
+        return in == null ? null : new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Channel of the redirected input or the piped data, null if there is none.
+     * When the input is redirected from a file this is a FileChannel.
+     *
+     * @return input channel
+     * @throws IOException if the redirected input file can not be opened
+     */
+    default ReadableByteChannel getInputChannel() throws IOException {
+        CommandInvocationConfiguration config = getConfiguration();
+        if(config == null)
+            return null;
+        if(config.hasInputRedirection())
+            return config.getInputRedirection().readChannel();
+        InputStream in = config.getPipedData();
+        return in == null ? null : Channels.newChannel(in);
+    }
+
 }
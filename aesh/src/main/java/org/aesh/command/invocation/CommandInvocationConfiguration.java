@@ -83,6 +83,11 @@ public class CommandInvocationConfiguration {
         return dataProvider == null ? null : dataProvider.getData();
     }
 
+    public void releasePipedData() {
+        if(dataProvider != null)
+            dataProvider.release();
+    }
+
     public boolean hasOutputRedirection() {
         return getOutputRedirection() != null;
     }
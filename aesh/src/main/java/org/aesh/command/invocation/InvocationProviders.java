@@ -46,4 +46,19 @@ public interface InvocationProviders<CA extends CommandActivator, CI extends Con
     OptionActivatorProvider<OA> getOptionActivatorProvider();
 
     CommandActivatorProvider<CA> getCommandActivatorProvider();
+
+    /**
+     * @return how many milliseconds to wait for an async completer, 0 waits until it is done
+     */
+    default long completerTimeout() {
+        return 0;
+    }
+
+    /**
+     * @return true if the command is not populated when completing, completers read
+     * the values they need through {@link org.aesh.command.completer.CompleterInvocation#getOptionValues()}
+     */
+    default boolean lazyCompletion() {
+        return false;
+    }
 }
@@ -27,10 +27,11 @@ import org.aesh.readline.terminal.Key;
 import org.aesh.terminal.utils.ANSI;
 import org.aesh.terminal.utils.Config;
 import org.aesh.readline.util.LoggerUtil;
+import org.aesh.util.PageSearch;
 
 import java.io.IOException;
-import java.util.List;
 import java.util.logging.Logger;
+import java.util.regex.PatternSyntaxException;
 
 /**
  * An abstract command used to display files
@@ -48,7 +49,8 @@ public abstract class AeshFileDisplayer implements Command {
     private StringBuilder number;
     private TerminalPage.Search search = TerminalPage.Search.NO_SEARCH;
     private StringBuilder searchBuilder;
-    private List<Integer> searchLines;
+    private PageSearch pageSearch;
+    private PageSearch.Mode searchMode = PageSearch.Mode.LITERAL;
     private static final Logger LOGGER = LoggerUtil.getLogger(AeshFileDisplayer.class.getName());
     private CommandInvocation commandInvocation;
     private boolean stop;
@@ -62,6 +64,13 @@ public abstract class AeshFileDisplayer implements Command {
         //setControlOperator(commandInvocation.getControlOperator());
     }
 
+    /**
+     * Set how the search word is matched, default is literal text.
+     */
+    protected void setSearchMode(PageSearch.Mode searchMode) {
+        this.searchMode = searchMode;
+    }
+
     protected CommandInvocation getCommandInvocation() {
         return commandInvocation;
     }
@@ -113,6 +122,7 @@ public abstract class AeshFileDisplayer implements Command {
         if(!commandInvocation.getConfiguration().hasOutputRedirection())
             getShell().write(ANSI.MAIN_BUFFER);
 
+        closeSearch();
         page.clear();
         topVisibleRow = 0;
     }
@@ -242,18 +252,13 @@ public abstract class AeshFileDisplayer implements Command {
                 displayBottom();
             }
             else if(search == TerminalPage.Search.RESULT) {
-                if(searchLines.size() > 0) {
-                    for(Integer i : searchLines) {
-                        if(i > topVisibleRow+1) {
-                            topVisibleRow = i-1;
-                            display();
-                            return;
-                        }
-                    }
-                    //we didnt find any more
-                    displayBottom();
+                int next = pageSearch.nextLine(topVisibleRow+1);
+                if(next >= 0) {
+                    topVisibleRow = next-1;
+                    display();
                 }
                 else {
+                    //we didnt find any more
                     displayBottom();
                 }
             }
@@ -264,16 +269,14 @@ public abstract class AeshFileDisplayer implements Command {
                 displayBottom();
             }
             else if(search == TerminalPage.Search.RESULT) {
-                if(searchLines.size() > 0) {
-                    for(int i=searchLines.size()-1; i >= 0; i--) {
-                        if(searchLines.get(i) < topVisibleRow) {
-                            topVisibleRow = searchLines.get(i)-1;
-                            if(topVisibleRow < 0)
-                                topVisibleRow = 0;
-                            display();
-                            return;
-                        }
-                    }
+                int previous = pageSearch.previousLine(topVisibleRow);
+                if(previous >= 0) {
+                    topVisibleRow = previous-1;
+                    if(topVisibleRow < 0)
+                        topVisibleRow = 0;
+                    display();
+                }
+                else if(pageSearch.hasMatches()) {
                     //we didnt find any more
                     displayBottom();
                 }
@@ -324,15 +327,11 @@ public abstract class AeshFileDisplayer implements Command {
     private void display() throws IOException {
         if(topVisibleRow != topVisibleRowCache) {
             getShell().clear();
-            if(search == TerminalPage.Search.RESULT && searchLines.size() > 0) {
-                String searchWord = searchBuilder.toString();
+            if(search == TerminalPage.Search.RESULT && pageSearch.hasMatches()) {
                 for(int i=topVisibleRow; i < (topVisibleRow+rows-1); i++) {
                     if(i < page.size()) {
-                        String line = page.getLine(i);
-                        if(line.contains(searchWord))
-                            displaySearchLine(line, searchWord);
-                        else
-                            getShell().write(line);
+                        getShell().write(pageSearch.highlight(i, page.getLine(i),
+                                ANSI.INVERT_BACKGROUND, ANSI.RESET));
                         getShell().write(Config.getLineSeparator());
                     }
                 }
@@ -350,18 +349,6 @@ public abstract class AeshFileDisplayer implements Command {
         }
     }
 
-    /**
-     * highlight the specific word thats found in the search
-     */
-    private void displaySearchLine(String line, String searchWord) throws IOException {
-        int start = line.indexOf(searchWord);
-        getShell().write(line.substring(0,start));
-        getShell().write(ANSI.INVERT_BACKGROUND);
-        getShell().write(searchWord);
-        getShell().write(ANSI.RESET);
-        getShell().write(line.substring(start + searchWord.length(), line.length()));
-    }
-
     public abstract FileParser getFileParser();
 
     public abstract void displayBottom() throws IOException;
@@ -397,15 +384,19 @@ public abstract class AeshFileDisplayer implements Command {
 
     private void findSearchWord(boolean forward) throws IOException {
         LOGGER.info("searching for: " + searchBuilder.toString());
-        searchLines = page.findWord(searchBuilder.toString());
-        LOGGER.info("found: "+searchLines);
-        if(searchLines.size() > 0) {
-            for(Integer i : searchLines)
-                if(i > topVisibleRow) {
-                    topVisibleRow = i-1;
-                    display();
-                    return;
-                }
+        closeSearch();
+        try {
+            pageSearch = page.search(searchBuilder.toString(), searchMode);
+        }
+        catch(PatternSyntaxException e) {
+            LOGGER.info("invalid pattern: "+e.getMessage());
+        }
+        if(pageSearch != null && pageSearch.hasMatches()) {
+            int next = pageSearch.nextLine(topVisibleRow);
+            if(next >= 0) {
+                topVisibleRow = next-1;
+                display();
+            }
         }
         else {
             search = TerminalPage.Search.NOT_FOUND;
@@ -413,6 +404,13 @@ public abstract class AeshFileDisplayer implements Command {
         }
     }
 
+    private void closeSearch() {
+        if(pageSearch != null) {
+            pageSearch.close();
+            pageSearch = null;
+        }
+    }
+
     /**
      * number written by the user (used to jump to specific commands)
      */
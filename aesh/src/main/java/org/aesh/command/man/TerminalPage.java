@@ -19,8 +19,9 @@
  */
 package org.aesh.command.man;
 
+import org.aesh.util.PageSearch;
+
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -46,12 +47,18 @@ public class TerminalPage {
     }
 
     public List<Integer> findWord(String word) {
-        List<Integer> wordLines = new ArrayList<Integer>();
-        for(int i=0; i < lines.size();i++) {
-            if(lines.get(i).contains(word))
-                wordLines.add(i);
+        try(PageSearch search = search(word, PageSearch.Mode.LITERAL)) {
+            return search.getMatchLines();
         }
-        return wordLines;
+    }
+
+    /**
+     * Start a search of the lines in the background
+     *
+     * @throws java.util.regex.PatternSyntaxException if the mode is a regex mode and the pattern is invalid
+     */
+    public PageSearch search(String pattern, PageSearch.Mode mode) {
+        return new PageSearch(pattern, mode, this::getLine, this::size);
     }
 
     public int size() {
@@ -20,7 +20,6 @@
 package org.aesh.command.map;
 
 import org.aesh.command.activator.CommandActivator;
-import org.aesh.command.impl.internal.ParsedCommand;
 import org.aesh.command.impl.internal.ProcessedCommand;
 import org.aesh.command.impl.internal.ProcessedOption;
 import org.aesh.command.impl.parser.CommandLineParser.Mode;
@@ -125,50 +124,31 @@ public class MapProcessedCommand<CI extends CommandInvocation> extends Processed
 
     @Override
     public ProcessedOption findLongOption(String name) {
-        if (!initialized) {
-            return super.findLongOption(name);
-        }
-        if (lookup && !Mode.COMPLETION.equals(mode)) {
+        if (initialized && lookup && !Mode.COMPLETION.equals(mode)) {
             return null;
         }
-        for (ProcessedOption option : getOptions(false)) {
-            if (option.name() != null
-                        && option.name().equals(name)
-                        && option.activator().isActivated(new ParsedCommand(this))) {
-                return option;
-            }
-        }
-        for (ProcessedOption option : getOptions(true)) {
-            if (option.name() != null
-                        && option.name().equals(name)
-                        && option.activator().isActivated(new ParsedCommand(this))) {
-                return option;
-            }
-        }
-        return null;
+        return super.findLongOption(name);
     }
+
     @Override
     public ProcessedOption findLongOptionNoActivatorCheck(String name) {
-        if (!initialized) {
-            return super.findLongOptionNoActivatorCheck(name);
-        }
-        if (lookup && !Mode.COMPLETION.equals(mode)) {
+        if (initialized && lookup && !Mode.COMPLETION.equals(mode)) {
             return null;
         }
-        // First check in parent (static options).
-        for (ProcessedOption option : getOptions(false)) {
-            if (option.name() != null && option.name().equals(name)) {
-                return option;
-            }
-        }
+        return super.findLongOptionNoActivatorCheck(name);
+    }
 
-        // Then in dynamics
-        for (ProcessedOption option : getOptions(true)) {
-            if (option.name() != null && option.name().equals(name)) {
-                return option;
-            }
+    @Override
+    protected List<ProcessedOption> dynamicOptions() {
+        // During super construction, properties are retrieved. In this case
+        // provider is not already set.
+        if (!initialized || provider == null) {
+            return null;
+        }
+        if (currentOptions == null || currentOptions.isEmpty()) {
+            currentOptions = provider.getOptions(currentOptions);
         }
-        return null;
+        return currentOptions;
     }
 
     @Override
@@ -188,13 +168,11 @@ public class MapProcessedCommand<CI extends CommandInvocation> extends Processed
 
     public List<ProcessedOption> getOptions(boolean dynamic) {
         List<ProcessedOption> allOptions = new ArrayList<>(super.getOptions());
-        // During super construction, properties are retrieved. In this case
-        // provider is not already set.
-        if (provider != null && dynamic) {
-            if (currentOptions == null || currentOptions.isEmpty()) {
-                currentOptions = provider.getOptions(currentOptions);
+        if (dynamic) {
+            List<ProcessedOption> dynamicOptions = dynamicOptions();
+            if (dynamicOptions != null) {
+                allOptions.addAll(dynamicOptions);
             }
-            allOptions.addAll(currentOptions);
         }
         return allOptions;
     }
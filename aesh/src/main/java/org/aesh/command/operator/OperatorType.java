@@ -41,6 +41,8 @@ public enum OperatorType {
     OR("||"),
     NONE("");
 
+    private static final String FIRST_CHARS = firstChars();
+
     private final String value;
     private final boolean hasArgument;
     private final boolean isConfiguration;
@@ -86,6 +88,22 @@ public enum OperatorType {
                 type == APPEND_OUT_ERROR;
     }
 
+    private static String firstChars() {
+        StringBuilder builder = new StringBuilder();
+        for(OperatorType operator : values())
+            if(operator.value.length() > 0 && builder.indexOf(operator.value.substring(0, 1)) < 0)
+                builder.append(operator.value.charAt(0));
+        return builder.toString();
+    }
+
+    /**
+     * @param c char
+     * @return true if any operator starts with the given char
+     */
+    public static boolean canStartOperator(char c) {
+        return FIRST_CHARS.indexOf(c) > -1;
+    }
+
     public static OperatorType matches(Set<OperatorType> operators, String text, int index) {
         OperatorType found = OperatorType.NONE;
         for(OperatorType operator : operators) {
@@ -73,6 +73,28 @@ public interface CommandRegistry<CI extends CommandInvocation> {
      */
     CommandContainer<CI> getCommand(String name, String line) throws CommandNotFoundException;
 
+    /**
+     * Look up a command by name or alias without using exceptions for a miss.
+     *
+     * @param name command name or alias
+     * @param line current terminal buffer line
+     * @return the matching CommandContainer, or null if there is none
+     * @throws CommandNotFoundException if the command is known but could not be built
+     */
+    default CommandContainer<CI> findCommand(String name, String line) throws CommandNotFoundException {
+        try {
+            return getCommand(name, line);
+        }
+        catch(CommandNotFoundException e) {
+            try {
+                return getCommandByAlias(name);
+            }
+            catch(CommandNotFoundException e2) {
+                return null;
+            }
+        }
+    }
+
     /**
      *
      * @param parent The name of the parent command
@@ -0,0 +1,94 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2017 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.script;
+
+import org.aesh.command.CommandResult;
+
+/**
+ * The outcome of one line of a script.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public class ScriptLineResult {
+
+    private final int lineNumber;
+    private final String line;
+    private final CommandResult result;
+    private final Exception failure;
+    private final long nanos;
+
+    ScriptLineResult(int lineNumber, String line, CommandResult result, Exception failure, long nanos) {
+        this.lineNumber = lineNumber;
+        this.line = line;
+        this.result = result;
+        this.failure = failure;
+        this.nanos = nanos;
+    }
+
+    /**
+     * @return the number of the first physical line, starting at 1
+     */
+    public int lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * @return the executed line, continued lines are joined
+     */
+    public String line() {
+        return line;
+    }
+
+    /**
+     * @return the command result, null if the line failed with an exception
+     */
+    public CommandResult result() {
+        return result;
+    }
+
+    /**
+     * @return the exception thrown while executing the line, or null
+     */
+    public Exception failure() {
+        return failure;
+    }
+
+    /**
+     * @return the time used to execute the line in nanoseconds
+     */
+    public long nanos() {
+        return nanos;
+    }
+
+    public boolean isSuccess() {
+        return failure == null && result != null && result.isSuccess();
+    }
+
+    @Override
+    public String toString() {
+        return "ScriptLineResult{" +
+                "lineNumber=" + lineNumber +
+                ", line='" + line + '\'' +
+                ", result=" + result +
+                ", failure=" + failure +
+                ", nanos=" + nanos +
+                '}';
+    }
+}
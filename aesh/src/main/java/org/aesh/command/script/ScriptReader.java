@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2017 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.script;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads a script one command line at the time. Blank lines and lines starting with #
+ * are skipped, a line ending with a backslash is continued on the next line.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public final class ScriptReader implements Closeable {
+
+    private static final char COMMENT = '#';
+    private static final char BACK_SLASH = '\\';
+
+    private final BufferedReader reader;
+    private final StringBuilder builder = new StringBuilder();
+    private int physicalLine;
+    private int lineNumber;
+
+    public ScriptReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+    /**
+     * @return the next command line, or null at the end of the script
+     */
+    public String readLine() throws IOException {
+        builder.setLength(0);
+        boolean continued = false;
+        String line;
+        while((line = reader.readLine()) != null) {
+            physicalLine++;
+            if(!continued) {
+                if(isBlankOrComment(line))
+                    continue;
+                lineNumber = physicalLine;
+            }
+            continued = isContinued(line);
+            if(continued)
+                builder.append(line, 0, line.length()-1);
+            else
+                return builder.append(line).toString();
+        }
+        //the last line ended with a backslash
+        if(continued && !isBlankOrComment(builder))
+            return builder.toString();
+        return null;
+    }
+
+    /**
+     * @return the number of the first physical line of the last command line
+     */
+    public int lineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static boolean isBlankOrComment(CharSequence line) {
+        for(int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if(!Character.isWhitespace(c))
+                return c == COMMENT;
+        }
+        return true;
+    }
+
+    private static boolean isContinued(String line) {
+        int count = 0;
+        for(int i = line.length()-1; i > -1 && line.charAt(i) == BACK_SLASH; i--)
+            count++;
+        return count % 2 == 1;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2017 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.script;
+
+import org.aesh.command.CommandResult;
+
+/**
+ * A summary of an executed script.
+ * The results of the lines are not kept, they are handed to the line handler of the
+ * {@link ScriptRunner} as they are done.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public class ScriptResult {
+
+    private int executedLines;
+    private int failedLines;
+    private long commandNanos;
+    private long nanos;
+    private ScriptLineResult firstFailure;
+
+    synchronized void add(ScriptLineResult result) {
+        executedLines++;
+        commandNanos += result.nanos();
+        if(!result.isSuccess()) {
+            failedLines++;
+            if(firstFailure == null || result.lineNumber() < firstFailure.lineNumber())
+                firstFailure = result;
+        }
+    }
+
+    synchronized void done(long nanos) {
+        this.nanos = nanos;
+    }
+
+    /**
+     * @return the number of executed lines, comments and blank lines are not counted
+     */
+    public synchronized int executedLines() {
+        return executedLines;
+    }
+
+    /**
+     * @return the number of lines that failed
+     */
+    public synchronized int failedLines() {
+        return failedLines;
+    }
+
+    /**
+     * @return the failed line closest to the start of the script, or null
+     */
+    public synchronized ScriptLineResult firstFailure() {
+        return firstFailure;
+    }
+
+    /**
+     * @return the time used by the commands in nanoseconds, when lines are
+     * executed in parallel it can be larger than the time of the script
+     */
+    public synchronized long commandNanos() {
+        return commandNanos;
+    }
+
+    /**
+     * @return the time used to read and execute the script in nanoseconds
+     */
+    public synchronized long nanos() {
+        return nanos;
+    }
+
+    /**
+     * @return SUCCESS if all the lines succeeded, otherwise FAILURE
+     */
+    public synchronized CommandResult result() {
+        return failedLines == 0 ? CommandResult.SUCCESS : CommandResult.FAILURE;
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2017 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.script;
+
+import org.aesh.command.CommandResult;
+import org.aesh.command.CommandRuntime;
+import org.aesh.command.operator.OperatorType;
+import org.aesh.io.Resource;
+import org.aesh.parser.LineParser;
+import org.aesh.parser.ParsedLine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Executes scripts line by line with a {@link CommandRuntime}.
+ *
+ * The script is read as it is executed, so only the lines that are executing are kept in memory.
+ * Blank lines and lines starting with # are ignored. A line ending with a backslash is continued
+ * on the next line.
+ *
+ * By default the lines are executed one by one and the script stops at the first line that fails.
+ * With a parallelism larger than 1 the lines are executed on a pool of threads, the runtime must
+ * then be built with {@link org.aesh.command.AeshCommandRuntimeBuilder#concurrent(boolean)}.
+ * Lines using one of the shared state commands are executed alone, after all the previous lines
+ * are done and before any of the following lines are started.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public class ScriptRunner {
+
+    private final CommandRuntime<?> runtime;
+    private final Set<String> sharedStateCommands = new HashSet<>();
+    private int parallelism = 1;
+    private boolean stopOnFailure = true;
+    private Consumer<ScriptLineResult> lineHandler;
+
+    public ScriptRunner(CommandRuntime<?> runtime) {
+        this.runtime = runtime;
+    }
+
+    /**
+     * @param parallelism number of lines that can be executed at the same time
+     */
+    public ScriptRunner parallelism(int parallelism) {
+        if(parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be at least 1, was: " + parallelism);
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * @param commands commands that depend on, or change, state used by other lines
+     */
+    public ScriptRunner sharedStateCommands(String... commands) {
+        sharedStateCommands.addAll(Arrays.asList(commands));
+        return this;
+    }
+
+    /**
+     * @param stopOnFailure if true no more lines are started after a line failed
+     */
+    public ScriptRunner stopOnFailure(boolean stopOnFailure) {
+        this.stopOnFailure = stopOnFailure;
+        return this;
+    }
+
+    /**
+     * @param lineHandler called with the result of every line, when lines are executed
+     *                    in parallel it is called from several threads
+     */
+    public ScriptRunner lineHandler(Consumer<ScriptLineResult> lineHandler) {
+        this.lineHandler = lineHandler;
+        return this;
+    }
+
+    public ScriptResult execute(Resource script) throws IOException {
+        try(InputStream in = script.read()) {
+            return execute(in);
+        }
+    }
+
+    public ScriptResult execute(InputStream script) throws IOException {
+        return execute(new InputStreamReader(script, Charset.defaultCharset()));
+    }
+
+    public ScriptResult execute(Reader script) throws IOException {
+        ScriptResult result = new ScriptResult();
+        long start = System.nanoTime();
+        ScriptReader reader = new ScriptReader(script);
+        if(parallelism > 1)
+            executeParallel(reader, result);
+        else
+            executeSequential(reader, result);
+        result.done(System.nanoTime() - start);
+        return result;
+    }
+
+    private void executeSequential(ScriptReader reader, ScriptResult result) throws IOException {
+        String line;
+        while((line = reader.readLine()) != null) {
+            ScriptLineResult lineResult = executeLine(reader.lineNumber(), line);
+            handle(result, lineResult);
+            if((stopOnFailure && !lineResult.isSuccess()) || Thread.currentThread().isInterrupted())
+                return;
+        }
+    }
+
+    private void executeParallel(ScriptReader reader, ScriptResult result) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        //bounds the number of lines that are read ahead
+        Semaphore running = new Semaphore(parallelism);
+        AtomicBoolean failed = new AtomicBoolean();
+        try {
+            String line;
+            while(!failed.get() && (line = reader.readLine()) != null) {
+                final int lineNumber = reader.lineNumber();
+                final String current = line;
+                if(sharesState(line)) {
+                    //wait for all the running lines
+                    running.acquire(parallelism);
+                    try {
+                        if(!failed.get() && !handle(result, executeLine(lineNumber, current)))
+                            failed.set(true);
+                    }
+                    finally {
+                        running.release(parallelism);
+                    }
+                }
+                else {
+                    running.acquire();
+                    executor.execute(() -> {
+                        try {
+                            if(!handle(result, executeLine(lineNumber, current)))
+                                failed.set(true);
+                        }
+                        finally {
+                            running.release();
+                        }
+                    });
+                }
+            }
+            //wait for the last lines
+            running.acquire(parallelism);
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @return false if the script should stop
+     */
+    private boolean handle(ScriptResult result, ScriptLineResult lineResult) {
+        result.add(lineResult);
+        if(lineHandler != null)
+            lineHandler.accept(lineResult);
+        return !stopOnFailure || lineResult.isSuccess();
+    }
+
+    private ScriptLineResult executeLine(int lineNumber, String line) {
+        long start = System.nanoTime();
+        CommandResult commandResult = null;
+        Exception failure = null;
+        try {
+            commandResult = runtime.executeCommand(line);
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = e;
+        }
+        catch(Exception e) {
+            failure = e;
+        }
+        return new ScriptLineResult(lineNumber, line, commandResult, failure, System.nanoTime() - start);
+    }
+
+    private boolean sharesState(String line) {
+        if(sharedStateCommands.isEmpty())
+            return false;
+        for(ParsedLine parsedLine : LineParser.threadLocal().parseLine(line, -1, false, EnumSet.allOf(OperatorType.class))) {
+            if(parsedLine.hasWords() && sharedStateCommands.contains(parsedLine.firstWord().word()))
+                return true;
+        }
+        return false;
+    }
+}
@@ -27,9 +27,12 @@ import org.aesh.command.invocation.CommandInvocation;
 import org.aesh.command.validator.ValidatorInvocation;
 import org.aesh.io.FileResource;
 import org.aesh.io.Resource;
+import org.aesh.readline.ProcessExecutors;
 import org.aesh.readline.editing.EditMode;
+import org.aesh.util.PageSearch;
 
 import java.io.File;
+import java.util.Locale;
 
 /**
  * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
@@ -109,6 +112,43 @@ public class RuntimeSettings {
                     builder.setExecuteFileAtStart(resourceFile);
             }
 
+            String scanIndexFile = System.getProperty("aesh.scanindexfile");
+            if(scanIndexFile != null && scanIndexFile.length() > 0)
+                builder.scanIndexFile(new File(scanIndexFile));
+
+            String pagingMemoryLimit = System.getProperty("aesh.pagingmemorylimit");
+            if(pagingMemoryLimit != null && pagingMemoryLimit.length() > 0)
+                builder.pagingMemoryLimit(Long.parseLong(pagingMemoryLimit));
+
+            String pagingSearchMode = System.getProperty("aesh.pagingsearchmode");
+            if(pagingSearchMode != null && pagingSearchMode.length() > 0)
+                builder.pagingSearchMode(PageSearch.Mode.valueOf(pagingSearchMode.toUpperCase(Locale.ENGLISH)));
+
+            String completerTimeout = System.getProperty("aesh.completertimeout");
+            if(completerTimeout != null && completerTimeout.length() > 0)
+                builder.completerTimeout(Long.parseLong(completerTimeout));
+
+            String completionCache = System.getProperty("aesh.completioncache");
+            if(completionCache != null && completionCache.length() > 0)
+                builder.completionCache(Boolean.parseBoolean(completionCache));
+
+            String lazyCompletion = System.getProperty("aesh.lazycompletion");
+            if(lazyCompletion != null && lazyCompletion.length() > 0)
+                builder.lazyCompletion(Boolean.parseBoolean(lazyCompletion));
+
+            String pipeBufferSize = System.getProperty("aesh.pipebuffersize");
+            if(pipeBufferSize != null && pipeBufferSize.length() > 0)
+                builder.pipeBufferSize(Integer.parseInt(pipeBufferSize));
+
+            String processExecutor = System.getProperty("aesh.processexecutor");
+            if(processExecutor != null && processExecutor.length() > 0) {
+                //created here, so it is shut down with the console
+                if(processExecutor.equalsIgnoreCase("pooled"))
+                    builder.processExecutor(ProcessExecutors.pooled(), true);
+                else if(processExecutor.equalsIgnoreCase("virtual"))
+                    builder.processExecutor(ProcessExecutors.virtualThreads(), true);
+            }
+
         return builder.build();
     }
 }
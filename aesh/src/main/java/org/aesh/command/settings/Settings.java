@@ -40,10 +40,12 @@ import org.aesh.readline.AeshContext;
 import org.aesh.readline.alias.AliasManager;
 import org.aesh.readline.editing.EditMode;
 import org.aesh.terminal.Connection;
+import org.aesh.util.PageSearch;
 
 import java.io.File;
 import java.io.InputStream;
 import java.io.PrintStream;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 /**
@@ -305,7 +307,119 @@ public interface Settings<CI extends CommandInvocation,
 
     String[] getScanForCommandPackages();
 
+    /**
+     * Set the file where the result of scanning the command packages is stored.
+     * On later starts only the jar files and directories that changed are scanned again.
+     * If not set, the command packages are scanned on every start.
+     */
+    void setScanIndexFile(File file);
+
+    /**
+     * @return the scan index file, null if the scan result is not stored
+     */
+    File scanIndexFile();
+
     void setEnableSearchInPaging(boolean enable);
 
     boolean enableSearchInPaging();
+
+    /**
+     * Set the number of characters of paged output that are kept in memory.
+     * Output larger than the limit is moved to a temp file while it is paged.
+     */
+    void setPagingMemoryLimit(long limit);
+
+    /**
+     * @return the number of characters of paged output kept in memory
+     */
+    long pagingMemoryLimit();
+
+    /**
+     * Set how the patterns searched for in the pager are matched, default is literal text.
+     */
+    void setPagingSearchMode(PageSearch.Mode mode);
+
+    /**
+     * @return how the patterns searched for in the pager are matched
+     */
+    PageSearch.Mode pagingSearchMode();
+
+    /**
+     * Set how many milliseconds to wait for an {@link org.aesh.command.completer.AsyncOptionCompleter}
+     * before the values it has found so far are shown. The completer can override it.
+     * 0 (default) waits until the completer is done.
+     */
+    void setCompleterTimeout(long timeout);
+
+    /**
+     * @return completer timeout in milliseconds, 0 if there is no timeout
+     */
+    long completerTimeout();
+
+    /**
+     * If true, the result of the last completion is reused when tab is pressed again
+     * on the same buffer or after typing more chars of the completed word. Default is false.
+     * Completers returning values that can change between two completions should call
+     * {@link org.aesh.command.completer.CompleterInvocation#setCacheable(boolean)}.
+     */
+    void setCompletionCache(boolean completionCache);
+
+    /**
+     * @return true if completion results are reused
+     */
+    boolean completionCache();
+
+    /**
+     * If true, the command is not populated with the values on the line when completing.
+     * Completers that need the values of other options read them through
+     * {@link org.aesh.command.completer.CompleterInvocation#getOptionValues()},
+     * they are only converted when asked for. Default is false.
+     */
+    void setLazyCompletion(boolean lazyCompletion);
+
+    /**
+     * @return true if the command is not populated when completing
+     */
+    boolean lazyCompletion();
+
+    /**
+     * Set the size of the buffer used by the pipe operator.
+     * If the size is larger than 0 the commands on each side of a pipe are executed
+     * concurrently and the output is streamed through a buffer of the given size.
+     * Otherwise the complete output of the left hand command is collected before the
+     * right hand command is executed.
+     */
+    void setPipeBufferSize(int size);
+
+    /**
+     * @return pipe buffer size, 0 if the pipe operator is not streaming
+     */
+    int pipeBufferSize();
+
+    /**
+     * Set the executor used to run commands in the console.
+     * If not set, every command is executed on a new thread.
+     *
+     * @see org.aesh.readline.ProcessExecutors
+     */
+    void setProcessExecutor(Executor executor);
+
+    /**
+     * Set the executor used to run commands in the console.
+     *
+     * @param executor executor
+     * @param shutdownOnStop if true and the executor is an {@link java.util.concurrent.ExecutorService}
+     *                       it is shut down when the console is stopped
+     */
+    void setProcessExecutor(Executor executor, boolean shutdownOnStop);
+
+    /**
+     * @return the executor used to run commands, null if every command is executed on a new thread
+     */
+    Executor processExecutor();
+
+    /**
+     * @return true if the process executor is shut down when the console is stopped
+     */
+    boolean shutdownProcessExecutor();
 }
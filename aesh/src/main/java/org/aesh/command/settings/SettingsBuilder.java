@@ -43,10 +43,12 @@ import org.aesh.readline.alias.AliasManager;
 import org.aesh.readline.editing.EditMode;
 import org.aesh.terminal.Connection;
 import org.aesh.readline.util.LoggerUtil;
+import org.aesh.util.PageSearch;
 
 import java.io.File;
 import java.io.InputStream;
 import java.io.PrintStream;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 /**
@@ -272,10 +274,46 @@ public class SettingsBuilder<CI extends CommandInvocation,
         return apply(c -> c.settings.setScanForCommandPackages(packages));
     }
 
+    public SettingsBuilder<CI,CO,COM,VI,OA,CA> scanIndexFile(File file) {
+        return apply(c -> c.settings.setScanIndexFile(file));
+    }
+
     public SettingsBuilder<CI,CO,COM,VI,OA,CA> enableSearchInPaging(boolean enable) {
         return apply(c -> c.settings.setEnableSearchInPaging(enable));
     }
 
+    public SettingsBuilder<CI,CO,COM,VI,OA,CA> pagingMemoryLimit(long limit) {
+        return apply(c -> c.settings.setPagingMemoryLimit(limit));
+    }
+
+    public SettingsBuilder<CI,CO,COM,VI,OA,CA> pagingSearchMode(PageSearch.Mode mode) {
+        return apply(c -> c.settings.setPagingSearchMode(mode));
+    }
+
+    public SettingsBuilder<CI,CO,COM,VI,OA,CA> completerTimeout(long timeout) {
+        return apply(c -> c.settings.setCompleterTimeout(timeout));
+    }
+
+    public SettingsBuilder<CI,CO,COM,VI,OA,CA> completionCache(boolean completionCache) {
+        return apply(c -> c.settings.setCompletionCache(completionCache));
+    }
+
+    public SettingsBuilder<CI,CO,COM,VI,OA,CA> lazyCompletion(boolean lazyCompletion) {
+        return apply(c -> c.settings.setLazyCompletion(lazyCompletion));
+    }
+
+    public SettingsBuilder<CI,CO,COM,VI,OA,CA> pipeBufferSize(int size) {
+        return apply(c -> c.settings.setPipeBufferSize(size));
+    }
+
+    public SettingsBuilder<CI,CO,COM,VI,OA,CA> processExecutor(Executor executor) {
+        return apply(c -> c.settings.setProcessExecutor(executor));
+    }
+
+    public SettingsBuilder<CI,CO,COM,VI,OA,CA> processExecutor(Executor executor, boolean shutdownOnStop) {
+        return apply(c -> c.settings.setProcessExecutor(executor, shutdownOnStop));
+    }
+
     public Settings<CI,CO,COM,VI,OA,CA> build() {
         if(settings.logging())
             LoggerUtil.doLog();
@@ -304,7 +342,8 @@ public class SettingsBuilder<CI extends CommandInvocation,
         if(settings.invocationProviders() == null)
             settings.setInvocationProviders(new AeshInvocationProviders(settings.converterInvocationProvider(),
                     settings.completerInvocationProvider(), settings.validatorInvocationProvider(),
-                    settings.optionActivatorProvider(), settings.commandActivatorProvider()));
+                    settings.optionActivatorProvider(), settings.commandActivatorProvider(),
+                    settings.completerTimeout(), settings.lazyCompletion()));
 
         return settings;
     }
@@ -39,17 +39,20 @@ import org.aesh.command.completer.CompleterInvocationProvider;
 import org.aesh.command.converter.ConverterInvocationProvider;
 import org.aesh.io.FileResource;
 import org.aesh.readline.DefaultAeshContext;
+import org.aesh.readline.PagingSupport;
 import org.aesh.readline.alias.AliasManager;
 import org.aesh.readline.editing.EditMode;
 import org.aesh.readline.editing.EditModeBuilder;
 import org.aesh.terminal.Connection;
 import org.aesh.terminal.utils.Config;
+import org.aesh.util.PageSearch;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.io.PrintStream;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 /**
@@ -107,9 +110,18 @@ public class SettingsImpl<CI extends CommandInvocation,
     private boolean echoCtrl = true;
     private Consumer<Void> interruptHandler;
     private String[] scanPackages;
+    private File scanIndexFile;
     private boolean enableSearchPaging;
+    private long pagingMemoryLimit = PagingSupport.DEFAULT_MEMORY_LIMIT;
+    private PageSearch.Mode pagingSearchMode = PageSearch.Mode.LITERAL;
     private AliasManager aliasManager;
     private Consumer<Void> connectionClosedHandler;
+    private long completerTimeout = 0;
+    private boolean completionCache = false;
+    private boolean lazyCompletion = false;
+    private int pipeBufferSize = 0;
+    private Executor processExecutor;
+    private boolean shutdownProcessExecutor = false;
 
     SettingsImpl() {
     }
@@ -143,6 +155,7 @@ public class SettingsImpl<CI extends CommandInvocation,
         setResource(baseSettings.resource());
         setExportUsesSystemEnvironment(baseSettings.exportUsesSystemEnvironment());
         setExecuteAtStart(baseSettings.executeAtStart());
+        setExecuteFileAtStart(baseSettings.executeFileAtStart());
         setCommandActivatorProvider(baseSettings.commandActivatorProvider());
         setOptionActivatorProvider(baseSettings.optionActivatorProvider());
         setCommandRegistry(baseSettings.commandRegistry());
@@ -159,9 +172,17 @@ public class SettingsImpl<CI extends CommandInvocation,
         redrawPromptOnInterrupt(baseSettings.isRedrawPromptOnInterrupt());
         setInterruptHandler(baseSettings.getInterruptHandler());
         setScanForCommandPackages(baseSettings.getScanForCommandPackages());
+        setScanIndexFile(baseSettings.scanIndexFile());
         setEnableSearchInPaging(baseSettings.enableSearchInPaging());
+        setPagingMemoryLimit(baseSettings.pagingMemoryLimit());
+        setPagingSearchMode(baseSettings.pagingSearchMode());
         setAliasManager(baseSettings.aliasManager());
         setConnectionClosedHandler(baseSettings.connectionClosedHandler());
+        setCompleterTimeout(baseSettings.completerTimeout());
+        setCompletionCache(baseSettings.completionCache());
+        setLazyCompletion(baseSettings.lazyCompletion());
+        setPipeBufferSize(baseSettings.pipeBufferSize());
+        setProcessExecutor(baseSettings.processExecutor(), baseSettings.shutdownProcessExecutor());
     }
 
     public void resetToDefaults() {
@@ -816,6 +837,16 @@ public class SettingsImpl<CI extends CommandInvocation,
         return scanPackages;
     }
 
+    @Override
+    public void setScanIndexFile(File file) {
+        scanIndexFile = file;
+    }
+
+    @Override
+    public File scanIndexFile() {
+        return scanIndexFile;
+    }
+
     @Override
     public void setEnableSearchInPaging(boolean enable) {
         enableSearchPaging = enable;
@@ -825,4 +856,85 @@ public class SettingsImpl<CI extends CommandInvocation,
     public boolean enableSearchInPaging() {
         return enableSearchPaging;
     }
+
+    @Override
+    public void setPagingMemoryLimit(long limit) {
+        pagingMemoryLimit = limit;
+    }
+
+    @Override
+    public long pagingMemoryLimit() {
+        return pagingMemoryLimit;
+    }
+
+    @Override
+    public void setPagingSearchMode(PageSearch.Mode mode) {
+        pagingSearchMode = mode;
+    }
+
+    @Override
+    public PageSearch.Mode pagingSearchMode() {
+        return pagingSearchMode;
+    }
+
+    @Override
+    public void setCompleterTimeout(long timeout) {
+        completerTimeout = timeout;
+    }
+
+    @Override
+    public long completerTimeout() {
+        return completerTimeout;
+    }
+
+    @Override
+    public void setCompletionCache(boolean completionCache) {
+        this.completionCache = completionCache;
+    }
+
+    @Override
+    public boolean completionCache() {
+        return completionCache;
+    }
+
+    @Override
+    public void setLazyCompletion(boolean lazyCompletion) {
+        this.lazyCompletion = lazyCompletion;
+    }
+
+    @Override
+    public boolean lazyCompletion() {
+        return lazyCompletion;
+    }
+
+    @Override
+    public void setPipeBufferSize(int size) {
+        pipeBufferSize = size;
+    }
+
+    @Override
+    public int pipeBufferSize() {
+        return pipeBufferSize;
+    }
+
+    @Override
+    public void setProcessExecutor(Executor executor) {
+        setProcessExecutor(executor, false);
+    }
+
+    @Override
+    public void setProcessExecutor(Executor executor, boolean shutdownOnStop) {
+        processExecutor = executor;
+        shutdownProcessExecutor = shutdownOnStop;
+    }
+
+    @Override
+    public Executor processExecutor() {
+        return processExecutor;
+    }
+
+    @Override
+    public boolean shutdownProcessExecutor() {
+        return shutdownProcessExecutor;
+    }
 }
@@ -28,6 +28,9 @@ import org.aesh.readline.completion.CompleteOperationImpl;
 public class AeshCompleteOperation extends CompleteOperationImpl {
 
     private AeshContext context;
+    private boolean incomplete;
+    private boolean truncated;
+    private boolean cacheable = true;
 
     public AeshCompleteOperation(AeshContext context, String buffer, int cursor) {
         super(buffer, cursor);
@@ -43,4 +46,38 @@ public class AeshCompleteOperation extends CompleteOperationImpl {
         return context;
     }
 
+    /**
+     * @param incomplete true if a completer was not done in time and only some of the
+     *                   values are given
+     */
+    public void setIncomplete(boolean incomplete) {
+        this.incomplete = incomplete;
+    }
+
+    public boolean isIncomplete() {
+        return incomplete;
+    }
+
+    /**
+     * @param truncated true if a completer only gave some of the matching values
+     */
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * @param cacheable false if the values can change between two completions of the same buffer
+     */
+    public void setCacheable(boolean cacheable) {
+        this.cacheable = cacheable;
+    }
+
+    public boolean isCacheable() {
+        return cacheable;
+    }
+
 }
@@ -42,4 +42,9 @@ public class AeshGraphicsConfiguration implements GraphicsConfiguration {
     public Graphics getGraphics() {
         return new AeshGraphics(connection, this);
     }
+
+    @Override
+    public Graphics getBufferedGraphics() {
+        return new BufferedGraphics(connection, this);
+    }
 }
@@ -0,0 +1,318 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.graphics;
+
+import org.aesh.readline.terminal.formatting.TerminalColor;
+import org.aesh.readline.terminal.formatting.TerminalTextStyle;
+import org.aesh.terminal.Connection;
+import org.aesh.terminal.tty.Capability;
+import org.aesh.terminal.tty.Size;
+import org.aesh.terminal.utils.ANSI;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A double buffered {@link Graphics}.
+ *
+ * The drawing operations only update a grid of cells (character, color and style).
+ * On {@link #flush()} the grid is compared with the grid of the previous flush and only
+ * the cells that changed are written, together with the cursor moves and color changes
+ * they need, in one write to the connection.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public class BufferedGraphics implements Graphics {
+
+    private static final char BLANK = ' ';
+    //the attributes of an empty cell
+    private static final int DEFAULT_ATTRIBUTES = 0;
+    //rewriting a few unchanged cells is cheaper than moving the cursor past them
+    private static final int MAX_GAP = 4;
+
+    private final Connection connection;
+    private final GraphicsConfiguration graphicsConfiguration;
+    private TerminalColor currentColor;
+    private TerminalTextStyle currentStyle;
+
+    //the sgr sequences used by the cells, a cell stores its index
+    private final List<String> attributes = new ArrayList<>();
+    private final Map<String, Integer> attributeIndex = new HashMap<>();
+    private int currentAttributes;
+
+    private int width;
+    private int height;
+    private char[] chars;
+    private int[] cellAttributes;
+    private char[] previousChars;
+    private int[] previousAttributes;
+    //true if the terminal content is not known, eg at start or after a resize
+    private boolean redraw = true;
+    private long bytesWritten;
+
+    BufferedGraphics(Connection connection, GraphicsConfiguration graphicsConfiguration) {
+        this.connection = connection;
+        this.graphicsConfiguration = graphicsConfiguration;
+        attributeIndex(ANSI.RESET);
+        currentColor = new TerminalColor();
+        currentAttributes = attributeIndex(sgr(currentColor, null));
+        resize(graphicsConfiguration.getBounds());
+        connection.put(Capability.cursor_invisible);
+    }
+
+    /**
+     * Write the cells that changed since the last flush.
+     */
+    @Override
+    public void flush() {
+        Size size = graphicsConfiguration.getBounds();
+        if(size.getWidth() != width || size.getHeight() != height)
+            resize(size);
+
+        StringBuilder out = new StringBuilder();
+        int lastAttributes = -1;
+        if(redraw) {
+            out.append(ANSI.RESET).append(ANSI.START).append("2J");
+            lastAttributes = DEFAULT_ATTRIBUTES;
+            Arrays.fill(previousChars, BLANK);
+            Arrays.fill(previousAttributes, DEFAULT_ATTRIBUTES);
+            redraw = false;
+        }
+        int cursorX = -1;
+        int cursorY = -1;
+        for(int y = 0; y < height; y++) {
+            int row = y * width;
+            for(int x = 0; x < width; x++) {
+                int cell = row + x;
+                if(chars[cell] == previousChars[cell] && cellAttributes[cell] == previousAttributes[cell])
+                    continue;
+                if(cursorY != y || cursorX != x) {
+                    if(cursorY == y && x > cursorX && canBridge(row + cursorX, cell, lastAttributes))
+                        out.append(chars, row + cursorX, x - cursorX);
+                    else
+                        moveCursor(out, x, y);
+                }
+                if(cellAttributes[cell] != lastAttributes) {
+                    lastAttributes = cellAttributes[cell];
+                    out.append(attributes.get(lastAttributes));
+                }
+                out.append(chars[cell]);
+                cursorX = x + 1;
+                cursorY = y;
+            }
+        }
+        if(out.length() > 0) {
+            if(lastAttributes != DEFAULT_ATTRIBUTES)
+                out.append(ANSI.RESET);
+            connection.write(out.toString());
+            bytesWritten += utf8Length(out);
+        }
+        System.arraycopy(chars, 0, previousChars, 0, chars.length);
+        System.arraycopy(cellAttributes, 0, previousAttributes, 0, cellAttributes.length);
+    }
+
+    /**
+     * @return number of bytes, encoded as UTF-8, written to the connection by all the flushes
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    private static int utf8Length(CharSequence out) {
+        int length = 0;
+        for(int i = 0; i < out.length(); i++) {
+            char c = out.charAt(i);
+            if(c < 0x80)
+                length++;
+            else if(c < 0x800)
+                length += 2;
+            else if(Character.isHighSurrogate(c) && i + 1 < out.length() && Character.isLowSurrogate(out.charAt(i + 1))) {
+                length += 4;
+                i++;
+            }
+            else
+                length += 3;
+        }
+        return length;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The screen is cleared on the next flush.
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(chars, BLANK);
+        Arrays.fill(cellAttributes, DEFAULT_ATTRIBUTES);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clearAndShowCursor() {
+        clear();
+        redraw = true;
+        connection.write(ANSI.RESET);
+        connection.put(Capability.clear_screen);
+        connection.put(Capability.cursor_normal);
+    }
+
+    @Override
+    public TerminalColor getColor() {
+        return currentColor;
+    }
+
+    @Override
+    public void setColor(TerminalColor color) {
+        this.currentColor = color;
+        currentAttributes = attributeIndex(sgr(currentColor, currentStyle));
+    }
+
+    @Override
+    public TerminalTextStyle getTextStyle() {
+        return currentStyle;
+    }
+
+    @Override
+    public void setTextStyle(TerminalTextStyle textStyle) {
+        this.currentStyle = textStyle;
+        currentAttributes = attributeIndex(sgr(currentColor, currentStyle));
+    }
+
+    @Override
+    public void drawRect(int x, int y, int width, int height) {
+        drawHorizontalLine(x, y, width);
+        drawHorizontalLine(x, y+height, width);
+        for(int i = 1; i < height; i++) {
+            put(x, y+i, '|');
+            put(x+width-1, y+i, '|');
+        }
+    }
+
+    @Override
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        int dx = x2 - x1;
+        int dy = y2 - y1;
+        for(int i = x1; i < x2; i++)
+            put(i, y1 + dy * (i - x1) / dx, 'x');
+    }
+
+    @Override
+    public void drawString(String str, int x, int y) {
+        for(int i = 0; i < str.length(); i++)
+            put(x+i, y, str.charAt(i));
+    }
+
+    @Override
+    public void fillRect(int x, int y, int width, int height) {
+        for(int j = 0; j < height; j++)
+            for(int i = 0; i < width; i++)
+                put(x+i, y+j, BLANK);
+    }
+
+    @Override
+    public void drawCircle(int x0, int y0, int radius) {
+        int x = radius, y = 0;
+        int radiusError = 1-x;
+
+        while(x >= y) {
+            put(x + x0, y + y0, 'x');
+            put(y + x0, x + y0, 'x');
+            put(-x + x0, y + y0, 'x');
+            put(-y + x0, x + y0, 'x');
+            put(-x + x0, -y + y0, 'x');
+            put(-y + x0, -x + y0, 'x');
+            put(x + x0, -y + y0, 'x');
+            put(y + x0, -x + y0, 'x');
+
+            y++;
+            if(radiusError<0)
+                radiusError+=2*y+1;
+            else {
+                x--;
+                radiusError+=2*(y-x+1);
+            }
+        }
+    }
+
+    private void drawHorizontalLine(int x, int y, int width) {
+        for(int i = 0; i < width; i++)
+            put(x+i, y, (i == 0 || i == width - 1) ? 'x' : '-');
+    }
+
+    private void put(int x, int y, char c) {
+        if(x < 0 || y < 0 || x >= width || y >= height)
+            return;
+        int cell = y * width + x;
+        chars[cell] = c;
+        cellAttributes[cell] = currentAttributes;
+    }
+
+    /**
+     * The unchanged cells between the cursor and the next changed cell can be written
+     * instead of moving the cursor if they are few and use the current attributes.
+     */
+    private boolean canBridge(int from, int to, int lastAttributes) {
+        if(to - from > MAX_GAP)
+            return false;
+        for(int cell = from; cell < to; cell++)
+            if(cellAttributes[cell] != lastAttributes)
+                return false;
+        return true;
+    }
+
+    private void moveCursor(StringBuilder out, int x, int y) {
+        out.append(ANSI.START).append(y+1).append(';').append(x+1).append('H');
+    }
+
+    private void resize(Size size) {
+        width = Math.max(size.getWidth(), 0);
+        height = Math.max(size.getHeight(), 0);
+        chars = new char[width * height];
+        cellAttributes = new int[width * height];
+        previousChars = new char[width * height];
+        previousAttributes = new int[width * height];
+        Arrays.fill(chars, BLANK);
+        redraw = true;
+    }
+
+    private int attributeIndex(String sgr) {
+        Integer index = attributeIndex.get(sgr);
+        if(index == null) {
+            index = attributes.size();
+            attributes.add(sgr);
+            attributeIndex.put(sgr, index);
+        }
+        return index;
+    }
+
+    private static String sgr(TerminalColor color, TerminalTextStyle style) {
+        StringBuilder builder = new StringBuilder(ANSI.RESET);
+        if(style != null)
+            builder.append(ANSI.START).append(style.getValueString()).append('m');
+        if(color != null)
+            builder.append(color.fullString());
+        return builder.toString();
+    }
+}
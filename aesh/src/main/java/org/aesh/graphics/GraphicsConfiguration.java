@@ -30,4 +30,11 @@ public interface GraphicsConfiguration {
 
     Graphics getGraphics();
 
+    /**
+     * @return a Graphics that only writes the cells that changed since the last flush
+     */
+    default Graphics getBufferedGraphics() {
+        return getGraphics();
+    }
+
 }
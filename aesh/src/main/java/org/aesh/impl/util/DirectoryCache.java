@@ -0,0 +1,192 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.impl.util;
+
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache of directory listings used when completing file names.
+ * A directory is listed in one pass and the names are sorted once, so prefix queries are answered
+ * with a binary search. Whether an entry is a directory is only read for the entries that are
+ * completed, and is kept in the listing.
+ * A listing is used until the modification time of the directory changes. Listings taken
+ * less than {@link #RACY_MILLIS} after the last modification are not trusted, since a change
+ * within the same timestamp granularity would not be detected.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public final class DirectoryCache {
+
+    static final long RACY_MILLIS = 2000;
+
+    private static final DirectoryCache DEFAULT = new DirectoryCache(32);
+
+    private final Map<Path, Listing> listings;
+
+    /**
+     * @param maxDirectories number of directory listings that are kept
+     */
+    public DirectoryCache(int maxDirectories) {
+        listings = new LinkedHashMap<Path, Listing>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, Listing> eldest) {
+                return size() > maxDirectories;
+            }
+        };
+    }
+
+    /**
+     * @return the cache shared by the file completers
+     */
+    public static DirectoryCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @return the sorted entries of the directory, null if it is not a directory or can not be read
+     */
+    public Listing list(Path dir) {
+        long modified;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(dir, BasicFileAttributes.class);
+            if (!attributes.isDirectory()) {
+                invalidate(dir);
+                return null;
+            }
+            modified = attributes.lastModifiedTime().toMillis();
+        }
+        catch (IOException e) {
+            invalidate(dir);
+            return null;
+        }
+        synchronized (listings) {
+            Listing listing = listings.get(dir);
+            if (listing != null && listing.modified == modified && listing.listed - modified >= RACY_MILLIS)
+                return listing;
+        }
+        Listing listing = read(dir, modified);
+        synchronized (listings) {
+            if (listing == null)
+                listings.remove(dir);
+            else
+                listings.put(dir, listing);
+        }
+        return listing;
+    }
+
+    public void invalidate(Path dir) {
+        synchronized (listings) {
+            listings.remove(dir);
+        }
+    }
+
+    public void clear() {
+        synchronized (listings) {
+            listings.clear();
+        }
+    }
+
+    private static Listing read(Path dir, long modified) {
+        long listed = System.currentTimeMillis();
+        List<String> names = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path entry : stream)
+                names.add(entry.getFileName().toString());
+        }
+        catch (IOException | DirectoryIteratorException e) {
+            return null;
+        }
+        String[] sorted = names.toArray(new String[0]);
+        Arrays.sort(sorted);
+        return new Listing(dir, sorted, modified, listed);
+    }
+
+    /**
+     * Sorted listing of a directory
+     */
+    public static final class Listing {
+        private static final byte UNKNOWN = 0;
+        private static final byte FILE = 1;
+        private static final byte DIRECTORY = 2;
+
+        private final Path dir;
+        private final String[] names;
+        // the kind of an entry is read the first time it is needed
+        private final byte[] kinds;
+        private final long modified;
+        private final long listed;
+
+        private Listing(Path dir, String[] names, long modified, long listed) {
+            this.dir = dir;
+            this.names = names;
+            this.kinds = new byte[names.length];
+            this.modified = modified;
+            this.listed = listed;
+        }
+
+        public int size() {
+            return names.length;
+        }
+
+        public String getName(int index) {
+            return names[index];
+        }
+
+        public boolean isDirectory(int index) {
+            if (kinds[index] == UNKNOWN)
+                kinds[index] = Files.isDirectory(dir.resolve(names[index])) ? DIRECTORY : FILE;
+            return kinds[index] == DIRECTORY;
+        }
+
+        /**
+         * @return index of the first entry starting with the prefix
+         */
+        public int first(String prefix) {
+            int index = Arrays.binarySearch(names, prefix);
+            return index < 0 ? -index - 1 : index;
+        }
+
+        /**
+         * @return index after the last entry starting with the prefix
+         */
+        public int end(String prefix) {
+            int low = first(prefix);
+            int high = names.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (names[mid].startsWith(prefix))
+                    low = mid + 1;
+                else
+                    high = mid;
+            }
+            return low;
+        }
+    }
+}
@@ -20,35 +20,66 @@
 package org.aesh.impl.util;
 
 import java.io.File;
+import java.nio.file.InvalidPathException;
 import java.util.Collections;
 import java.util.List;
 import java.util.logging.Logger;
 import org.aesh.command.impl.converter.FileConverter;
 
 import org.aesh.io.Resource;
+import org.aesh.io.filter.AllResourceFilter;
+import org.aesh.io.filter.ResourceFilter;
 import org.aesh.readline.util.LoggerUtil;
 import org.aesh.readline.util.Parser;
 import org.aesh.terminal.utils.Config;
 
 /**
  * Helper class to list possible files during a complete operation.
+ * The directory listings are read from the {@link DirectoryCache}.
  *
  * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
  */
 public class FileLister {
 
+    /**
+     * Default max number of candidates returned
+     */
+    public static final int DEFAULT_MAX_CANDIDATES = 5000;
+
     private final String token;
     private final Resource cwd;
+    private final ResourceFilter filter;
+    private final int maxCandidates;
+    private boolean truncated;
 
     private static final Logger LOGGER = LoggerUtil.getLogger(FileLister.class.getName());
 
     public FileLister(String token, Resource cwd) {
+        this(token, cwd, new AllResourceFilter());
+    }
+
+    public FileLister(String token, Resource cwd, ResourceFilter filter) {
+        this(token, cwd, filter, DEFAULT_MAX_CANDIDATES);
+    }
+
+    /**
+     * @param filter only the files accepted by the filter are candidates
+     * @param maxCandidates max number of candidates, if there are more the last candidate
+     *                      is kept so the common prefix of the candidates is still correct
+     */
+    public FileLister(String token, Resource cwd, ResourceFilter filter, int maxCandidates) {
         if (token == null)
             throw new IllegalArgumentException("Incoming directory cannot be null");
         if (cwd == null)
             throw new IllegalArgumentException("Current working directory cannot be null");
+        if (filter == null)
+            throw new IllegalArgumentException("Filter cannot be null");
+        if (maxCandidates < 2)
+            throw new IllegalArgumentException("Max candidates must be at least 2");
         this.token = Parser.switchEscapedSpacesToSpacesInWord(token);
         this.cwd = cwd;
+        this.filter = filter;
+        this.maxCandidates = maxCandidates;
     }
 
     @Override
@@ -58,6 +89,13 @@ public class FileLister {
                 + ", cwd=" + cwd + '}';
     }
 
+    /**
+     * @return true if there were more matches than max candidates
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
     public int findMatchingDirectories(List<String> candidates) {
         int result = getCandidates(token, candidates);
         Collections.sort(candidates);
@@ -80,29 +118,70 @@ public class FileLister {
             dir = f.getParentFile();
         }
 
-        final File[] entries = (dir == null) ? new File[0] : dir.listFiles();
-        return matchFiles(buffer, translated, entries, candidates);
-    }
-
-    private int matchFiles(String buffer, String translated, File[] entries, List<String> candidates) {
-        if (entries == null) {
+        // inline only the subpath from last File.separator or 0.
+        int index = buffer.lastIndexOf(File.separatorChar) + 1;
+        if (dir == null) {
+            return index;
+        }
+        DirectoryCache.Listing listing;
+        try {
+            listing = DirectoryCache.getDefault().list(dir.toPath());
+        }
+        catch (InvalidPathException e) {
+            listing = null;
+        }
+        if (listing == null) {
             return -1;
         }
+        matchFiles(translated, dir, listing, candidates);
+        return index;
+    }
 
-        boolean isDirectory = false;
-        for (int i = 0; i < entries.length; i++) {
-            if (entries[i].getAbsolutePath().startsWith(translated)) {
-                isDirectory = entries[i].isDirectory();
-                if (isDirectory) {
-                    candidates.add(entries[i].getName() + File.separator);
-                } else {
-                    candidates.add(entries[i].getName());
+    private void matchFiles(String translated, File dir, DirectoryCache.Listing listing, List<String> candidates) {
+        String dirPath = dir.getAbsolutePath();
+        if (!dirPath.endsWith(File.separator)) {
+            dirPath += File.separator;
+        }
+        if (!translated.startsWith(dirPath)) {
+            return;
+        }
+        String prefix = translated.substring(dirPath.length());
+        int end = listing.end(prefix);
+        int count = 0;
+        int last = -1;
+        for (int i = listing.first(prefix); i < end; i++) {
+            if (accept(dir, listing, i)) {
+                if (count == maxCandidates - 1) {
+                    last = i;
+                    break;
                 }
+                candidates.add(candidate(listing, i));
+                count++;
             }
         }
-        // inline only the subpath from last File.separator or 0.
-        int index = buffer.lastIndexOf(File.separatorChar) + 1;
-        return index;
+        if (last >= 0) {
+            truncated = true;
+            // add the last match, the common prefix of a sorted range is the prefix of its first and last entry
+            for (int i = end - 1; i >= last; i--) {
+                if (i == last || accept(dir, listing, i)) {
+                    candidates.add(candidate(listing, i));
+                    break;
+                }
+            }
+        }
+    }
+
+    private boolean accept(File dir, DirectoryCache.Listing listing, int index) {
+        return filter instanceof AllResourceFilter ||
+                filter.accept(cwd.newInstance(new File(dir, listing.getName(index)).getPath()));
+    }
+
+    private static String candidate(DirectoryCache.Listing listing, int index) {
+        if (listing.isDirectory(index)) {
+            return listing.getName(index) + File.separator;
+        } else {
+            return listing.getName(index);
+        }
     }
 
     private static String escapeQuotes(String name) {
@@ -28,12 +28,16 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -168,9 +172,22 @@ public class FileResource implements Resource {
 
     @Override
     public InputStream read() throws FileNotFoundException {
+        expandHome();
+        return new FileInputStream(file);
+    }
+
+    /**
+     * @return a FileChannel, so the content can be transferred without copying through the heap
+     */
+    @Override
+    public ReadableByteChannel readChannel() throws IOException {
+        expandHome();
+        return FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    }
+
+    private void expandHome() {
         if(file.getPath().startsWith("~"+File.separatorChar))
             file = new File(System.getProperty("user.home") + file.getPath().substring(1));
-        return new FileInputStream(file);
     }
 
     @Override
@@ -183,6 +200,18 @@ public class FileResource implements Resource {
         return new FileOutputStream(file, append);
     }
 
+    /**
+     * @return a FileChannel, so the content can be transferred without copying through the heap
+     */
+    @Override
+    public WritableByteChannel writeChannel(boolean append) throws IOException {
+        if(append)
+            return FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        else
+            return FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
     @Override
     public String toString() {
         return file.toString();
@@ -0,0 +1,289 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A compiled glob pattern that expands to the paths it matches.
+ *
+ * The pattern is split on the path separator. The leading segments without
+ * any wildcards form the base directory, every other segment is matched
+ * against the names of one directory level with its own {@link PathMatcher}
+ * (supporting *, ?, [..] and {..}). A segment that is exactly ** matches
+ * zero or more directory levels.
+ * Only directories that can lead to a match are listed, eg: for a/?/b only
+ * a is listed and b is looked up directly in each of the matching children.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public final class Glob {
+
+    private static final String GLOBSTAR = "**";
+
+    private final Path base;
+    private final String[] segments;
+    private final PathMatcher[] matchers;
+    private final boolean recursive;
+    private final boolean distinct;
+
+    private Glob(Path base, String[] segments) {
+        this.base = base;
+        this.segments = segments;
+        matchers = new PathMatcher[segments.length];
+        int globstars = 0;
+        for(int i = 0; i < segments.length; i++) {
+            if(segments[i].equals(GLOBSTAR))
+                globstars++;
+            else if(hasWildcards(segments[i]))
+                matchers[i] = FileSystems.getDefault().getPathMatcher("glob:" + segments[i]);
+        }
+        recursive = globstars > 0;
+        //with more than one ** the same path can be reached in several ways
+        distinct = globstars > 1;
+    }
+
+    /**
+     * @param path path
+     * @return true if the path contains any of the glob characters *, ?, [ or {
+     */
+    public static boolean hasWildcards(String path) {
+        for(int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if(c == '*' || c == '?' || c == '[' || c == '{')
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Compile the given pattern. A relative pattern is expanded relative to
+     * the current working directory of the process.
+     *
+     * @param pattern glob pattern
+     * @return compiled glob
+     */
+    public static Glob compile(String pattern) {
+        String[] parts = pattern.split(Pattern.quote(File.separator), -1);
+        int literal = 0;
+        while(literal < parts.length && !hasWildcards(parts[literal]))
+            literal++;
+
+        String prefix = String.join(File.separator, Arrays.copyOf(parts, literal));
+        //keep the separator of a root, eg: / or C:\
+        if(literal > 0 && (prefix.isEmpty() || prefix.endsWith(":")))
+            prefix = prefix + File.separator;
+
+        List<String> segments = new ArrayList<>(parts.length - literal);
+        for(int i = literal; i < parts.length; i++) {
+            //ignore empty segments (a//b) and collapse repeated **
+            if(parts[i].isEmpty() ||
+                    (parts[i].equals(GLOBSTAR) && !segments.isEmpty() &&
+                            segments.get(segments.size() - 1).equals(GLOBSTAR)))
+                continue;
+            segments.add(parts[i]);
+        }
+        return new Glob(Paths.get(prefix), segments.toArray(new String[0]));
+    }
+
+    /**
+     * @return the directory the expansion starts from
+     */
+    public Path getBase() {
+        return base;
+    }
+
+    /**
+     * @return true if the pattern contains a ** segment
+     */
+    public boolean isRecursive() {
+        return recursive;
+    }
+
+    /**
+     * Lazily expand the pattern. Directories are listed as the stream is
+     * consumed and matches are returned in depth first, sorted order.
+     *
+     * @return matching paths
+     */
+    public Stream<Path> stream() {
+        Stream<Path> stream = StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                new Expander(), Spliterator.ORDERED | Spliterator.NONNULL), false);
+        return distinct ? stream.distinct() : stream;
+    }
+
+    /**
+     * Expand the pattern listing the directories in parallel on the given pool.
+     * Useful for ** patterns on large trees, the paths are returned in the same
+     * order as {@link #stream()}.
+     *
+     * @param pool fork join pool, eg: {@link ForkJoinPool#commonPool()}
+     * @return matching paths
+     */
+    public List<Path> expand(ForkJoinPool pool) {
+        List<Path> result = pool.invoke(new ExpandTask(new Frame(base, 0, false, false)));
+        return distinct ? new ArrayList<>(new LinkedHashSet<>(result)) : result;
+    }
+
+    private boolean isMatch(Frame frame) {
+        return frame.index == segments.length &&
+                (frame.exists || Files.exists(frame.path));
+    }
+
+    /**
+     * Add the frames that follow the given one, in the order they should be visited.
+     */
+    private void expandFrame(Frame frame, List<Frame> next) {
+        String segment = segments[frame.index];
+        if(segment.equals(GLOBSTAR)) {
+            boolean last = frame.index == segments.length - 1;
+            //do not follow links below the ** directory to avoid cycles
+            boolean directory = !frame.nested || Files.isDirectory(frame.path, LinkOption.NOFOLLOW_LINKS);
+            if(directory || last)
+                next.add(new Frame(frame.path, frame.index + 1, frame.exists, false));
+            if(directory)
+                for(Path child : list(frame.path, null))
+                    next.add(new Frame(child, frame.index, true, true));
+        }
+        else if(matchers[frame.index] == null)
+            next.add(new Frame(frame.path.resolve(segment), frame.index + 1, false, false));
+        else
+            for(Path child : list(frame.path, matchers[frame.index]))
+                next.add(new Frame(child, frame.index + 1, true, false));
+    }
+
+    private static List<Path> list(Path dir, PathMatcher matcher) {
+        List<Path> children = new ArrayList<>();
+        try(DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for(Path child : stream)
+                if(matcher == null || matcher.matches(child.getFileName()))
+                    children.add(child);
+        }
+        catch(IOException | SecurityException e) {
+            //not a directory or not readable, nothing matches below it
+            return children;
+        }
+        Collections.sort(children);
+        return children;
+    }
+
+    private static class Frame {
+        private final Path path;
+        private final int index;
+        private final boolean exists;
+        private final boolean nested;
+
+        Frame(Path path, int index, boolean exists, boolean nested) {
+            this.path = path;
+            this.index = index;
+            this.exists = exists;
+            this.nested = nested;
+        }
+    }
+
+    private class Expander implements Iterator<Path> {
+        private final Deque<Frame> stack = new ArrayDeque<>();
+        private final List<Frame> next = new ArrayList<>();
+        private Path current;
+
+        Expander() {
+            stack.push(new Frame(base, 0, false, false));
+        }
+
+        @Override
+        public boolean hasNext() {
+            while(current == null && !stack.isEmpty()) {
+                Frame frame = stack.pop();
+                if(frame.index == segments.length) {
+                    if(isMatch(frame))
+                        current = frame.path;
+                }
+                else {
+                    expandFrame(frame, next);
+                    for(int i = next.size() - 1; i > -1; i--)
+                        stack.push(next.get(i));
+                    next.clear();
+                }
+            }
+            return current != null;
+        }
+
+        @Override
+        public Path next() {
+            if(!hasNext())
+                throw new NoSuchElementException();
+            Path path = current;
+            current = null;
+            return path;
+        }
+    }
+
+    private class ExpandTask extends RecursiveTask<List<Path>> {
+        private final Frame frame;
+
+        ExpandTask(Frame frame) {
+            this.frame = frame;
+        }
+
+        @Override
+        protected List<Path> compute() {
+            List<Path> found = new ArrayList<>();
+            if(frame.index == segments.length) {
+                if(isMatch(frame))
+                    found.add(frame.path);
+                return found;
+            }
+            List<Frame> next = new ArrayList<>();
+            expandFrame(frame, next);
+            List<ExpandTask> tasks = new ArrayList<>(next.size());
+            for(Frame f : next)
+                tasks.add(new ExpandTask(f));
+            invokeAll(tasks);
+            //join in the order the frames are visited, to keep the depth first order
+            for(ExpandTask task : tasks)
+                found.addAll(task.join());
+            return found;
+        }
+    }
+}
@@ -22,24 +22,19 @@ package org.aesh.io;
 import org.aesh.terminal.utils.Config;
 
 import java.io.File;
-import java.io.IOException;
-import java.nio.file.DirectoryStream;
-import java.nio.file.FileSystems;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.PathMatcher;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
- * Resolve a file that might contain (~,*,?) to its proper parentPath
- * Returns a list of files.
+ * Resolve a file that might contain (~,*,?,[..],**) to its proper parentPath
+ * Returns a list of files, wildcards are expanded with {@link Glob}.
  * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
  */
 public class PathResolver {
 
-    private static final char SEPARATOR = Config.getPathSeparator().charAt(0);
     private static final char TILDE = '~';
     private static final String TILDE_WITH_SEPARATOR = "~"+Config.getPathSeparator();
     private static final char STAR = '*';
@@ -52,7 +47,7 @@ public class PathResolver {
     private static final String SEPARATOR_WITH_CURRENT = Config.getPathSeparator()+".";
     private static final String SEPARATOR_CURRENT_SEPARATOR = Config.getPathSeparator()+"."+Config.getPathSeparator();
     private static final String CURRENT = ".";
-    private static final Pattern starPattern = Pattern.compile("[\\*]+");
+    private static final String SEPARATOR_WITH_STAR = Config.getPathSeparator()+"*";
 
     /**
      * 1. find the absolute root directory
@@ -62,8 +57,12 @@ public class PathResolver {
      * @param cwd
      * @return
      */
-    @SuppressWarnings("IndexOfReplaceableByContains")
     public static List<File> resolvePath(File incPath, File cwd) {
+        return resolvePathStream(incPath, cwd).collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("IndexOfReplaceableByContains")
+    private static Stream<File> resolvePathStream(File incPath, File cwd) {
         if(cwd == null)
             cwd = new File(Config.getHomeDir());
 
@@ -135,163 +134,35 @@ public class PathResolver {
                 incPath = new File(Config.getPathSeparator());
         }
 
-        if( incPath.toString().indexOf(STAR) > -1 || incPath.toString().indexOf(WILDCARD) > -1) {
-            PathCriteria pathCriteria = parsePath(incPath);
-            if(incPath.toString().indexOf(SEPARATOR) > -1) {
-                List<File> foundFiles  = null;
-                if(pathCriteria.getCriteria().equals(String.valueOf(STAR))) {
-                    foundFiles = new ArrayList<>();
-                    foundFiles.add(new File(pathCriteria.getParentPath()));
-                }
-                else
-                    foundFiles = findFiles(new File(pathCriteria.parentPath), pathCriteria.getCriteria(), false);
-                if(pathCriteria.childPath.length() == 0)
-                    return foundFiles;
-                else {
-                    List<File> outFiles = new ArrayList<>();
-                    for(File f : foundFiles)
-                        if(new File(f+Config.getPathSeparator()+pathCriteria.childPath).exists())
-                            outFiles.add(new File(f+Config.getPathSeparator()+pathCriteria.childPath));
-
-                    return outFiles;
-                }
-            }
-            //just wildcard without separators
-            else {
-                if(incPath.toString().length() == 1) {
-                    List<File> foundFiles = findFiles(new File(pathCriteria.parentPath), pathCriteria.getCriteria(), false);
-                    if(pathCriteria.childPath.length() == 0)
-                        return foundFiles;
-                }
-
-                return new ArrayList<File>();
-            }
-        }
-        else {
+        if(Glob.hasWildcards(incPath.toString()))
+            return expand(incPath.toString());
+        else
             //no wildcards
-            ArrayList<File> fileList = new ArrayList<>(1);
-            fileList.add(incPath);
-            return fileList;
-        }
-    }
-
-    private static List<File> parseWildcard(File incPath) {
-        ArrayList<File> files = new ArrayList<>();
-        int index = -1;
-        while(incPath.toString().indexOf(STAR) > -1) {
-
-        }
-
-        return files;
-    }
-
-    private static List<File> findFiles(File incPath, String searchArgument, boolean findDirectory) {
-        ArrayList<File> files = new ArrayList<>();
-
-        final PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:**");
-        /*
-         DirectoryStream.Filter<Path> filter = new DirectoryStream.Filter<Path>() {
-            @Override
-            public boolean accept(Path entry)  {
-                return matcher.matches(entry.getFileName());
-            }
-        };
-        */
-
-        if(starPattern.matcher(searchArgument).matches()) {
-            try (DirectoryStream<Path> stream = findDirectory ?
-                         Files.newDirectoryStream(incPath.toPath(), new DirectoryFilter()) :
-                    Files.newDirectoryStream(incPath.toPath(), new FileFilter())) {
-                for(Path p : stream)
-                    files.add(p.toFile());
-                return files;
-            }
-            catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
-        else {
-            try (DirectoryStream<Path> stream = Files.newDirectoryStream(incPath.toPath(), searchArgument)) {
-                if(findDirectory) {
-                    for(Path p : stream)
-                        if(Files.isDirectory(p))
-                            files.add(p.toFile());
-                }
-                else {
-                    for(Path p : stream)
-                        files.add(p.toFile());
-                }
-                return files;
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
-
-        return files;
-    }
-
-    private static class DirectoryFilter implements DirectoryStream.Filter<Path> {
-        @Override
-        public boolean accept(Path entry) throws IOException {
-            return Files.isDirectory(entry);
-        }
-    }
-
-    private static class FileFilter implements DirectoryStream.Filter<Path> {
-        @Override
-        public boolean accept(Path entry) throws IOException {
-            return Files.exists(entry);
-        }
-    }
-
-    //todo: path criteria need to check if separator is in the path
-    private static PathCriteria parsePath(File path) {
-        int starIndex = path.toString().indexOf(STAR);
-        int wildcardIndex = path.toString().indexOf(WILDCARD);
-
-        int index = (starIndex < wildcardIndex || wildcardIndex < 0) ? starIndex : wildcardIndex;
-
-        if(index == 0 && path.toString().length() == 1)
-            return new PathCriteria(String.valueOf(SEPARATOR), "", path.toString());
-        else {
-            int parentSeparatorIndex = index-1;
-            while(path.toString().charAt(parentSeparatorIndex) != SEPARATOR && parentSeparatorIndex > -1)
-                parentSeparatorIndex--;
-
-            int childSeparatorIndex = index+1;
-            if(childSeparatorIndex < path.toString().length())
-                while(path.toString().charAt(childSeparatorIndex) != SEPARATOR && parentSeparatorIndex < path.toString().length())
-                    childSeparatorIndex++;
-
-            String parentPath = path.toString().substring(0, parentSeparatorIndex);
-            String criteria = path.toString().substring(parentSeparatorIndex+1, childSeparatorIndex);
-            String childPath = path.toString().substring(childSeparatorIndex, path.toString().length());
-
-            return new PathCriteria(parentPath, childPath, criteria);
-        }
+            return Stream.of(incPath);
     }
 
-    static class PathCriteria {
-        private final String parentPath;
-        private final String childPath;
-        private final String criteria;
-
-        PathCriteria(String parentPath, String childPath, String criteria) {
-            this.parentPath = parentPath;
-            this.childPath = childPath;
-            this.criteria = criteria;
-        }
-
-        public String getParentPath() {
-            return parentPath;
-        }
-
-        public String getCriteria() {
-            return criteria;
-        }
-
-        public String getChildPath() {
-            return childPath;
-        }
+    private static Stream<File> expand(String path) {
+        //relative paths are only left as is when cwd is the root
+        if(path.indexOf(ROOT) != 0 && path.indexOf(DRIVER_SEPARATOR) == -1)
+            path = ROOT + path;
+        //a trailing * resolves to its directory, eg: ls *
+        if(path.endsWith(SEPARATOR_WITH_STAR)) {
+            String parent = path.substring(0, path.length() - SEPARATOR_WITH_STAR.length());
+            //keep the separator of a root, eg: / or C:\
+            if(parent.isEmpty() || parent.endsWith(DRIVER_SEPARATOR))
+                parent = parent + ROOT;
+            return Glob.hasWildcards(parent) ? expand(parent) : Stream.of(new File(parent));
+        }
+
+        if(path.indexOf(STAR) == -1 && path.indexOf(WILDCARD) == -1) {
+            //only [ or { in the path, if nothing matches it is a plain file name
+            List<File> files = Glob.compile(path).stream().map(Path::toFile).collect(Collectors.toList());
+            return files.isEmpty() ? Stream.of(new File(path)) : files.stream();
+        }
+        Glob glob = Glob.compile(path);
+        //a ** pattern can walk a large tree, the directories are listed in parallel
+        if(glob.isRecursive())
+            return glob.expand(ForkJoinPool.commonPool()).stream().map(Path::toFile);
+        return glob.stream().map(Path::toFile);
     }
 }
@@ -25,6 +25,9 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.LinkOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.List;
@@ -175,6 +178,33 @@ public interface Resource {
      */
     InputStream read() throws FileNotFoundException;
 
+    /**
+     * Channel that will be written to this resource
+     *
+     * @return channel
+     * @throws IOException if the resource cannot be written to
+     * @param append
+     */
+    default WritableByteChannel writeChannel(boolean append) throws IOException {
+        OutputStream out = write(append);
+        if(out == null)
+            throw new IOException("Resource "+getName()+" cannot be written to");
+        return Channels.newChannel(out);
+    }
+
+    /**
+     * Channel from this resource
+     *
+     * @return channel
+     * @throws IOException if the resource cannot be read
+     */
+    default ReadableByteChannel readChannel() throws IOException {
+        InputStream in = read();
+        if(in == null)
+            throw new IOException("Resource "+getName()+" cannot be read");
+        return Channels.newChannel(in);
+    }
+
 
     <A extends BasicFileAttributes> A readAttributes(Class<A> type, LinkOption... options) throws IOException;
 
@@ -31,10 +31,12 @@ import java.net.JarURLConnection;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -241,6 +243,77 @@ public final class AnnotationDetector {
      * @see #detect(File...)
      */
     public void detect(final String... packageNames) throws IOException {
+        final String[] pkgNameFilter = packageFilter(packageNames);
+        final Set<File> files = packageFiles(pkgNameFilter);
+        if (!files.isEmpty()) {
+            // see http://shipilev.net/blog/2016/arrays-wisdom-ancients/#_conclusion
+            detect(new ClassFileIterator(files.toArray(new File[0]), pkgNameFilter));
+        }
+    }
+
+    /**
+     * Report all Java ClassFile files available on the class path within
+     * the specified packages and sub packages, using the given index.
+     * Only the jar files and directories that changed since they were indexed are scanned,
+     * the type annotations of the others are reported from the index.
+     * The index is updated, but not saved.
+     * <p>
+     * Field and method annotations are not indexed, if they are reported everything is scanned.
+     *
+     * @see #detect(String...)
+     */
+    public void detect(final ScanIndex index, final String... packageNames) throws IOException {
+        if (index == null || fieldReporter != null || methodReporter != null) {
+            detect(packageNames);
+            return;
+        }
+        final String[] pkgNameFilter = packageFilter(packageNames);
+        final String[] annotationNames = annotations.keySet().toArray(new String[0]);
+        for (final File file : packageFiles(pkgNameFilter)) {
+            final String key = ScanIndex.key(file, pkgNameFilter, annotationNames);
+            final String fingerprint = ScanIndex.fingerprint(file);
+            List<String> found = index.lookup(key, fingerprint);
+            if (found == null) {
+                found = scan(file, pkgNameFilter);
+                index.update(key, fingerprint, found);
+            } else {
+                for (final String value : found) {
+                    final int separator = value.indexOf('=');
+                    final Class<? extends Annotation> annotation =
+                            annotations.get(value.substring(0, separator));
+                    if (annotation != null) {
+                        typeReporter.reportTypeAnnotation(annotation, value.substring(separator + 1));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Scan all Java ClassFile ({@code *.class}) files available in the specified files
+     * and/or directories.
+     * <p>
+     * In Java, the
+     * <a href="http://docs.oracle.com/javase/8/docs/technotes/tools/unix/classpath.html">
+     * Class path</a> contains directories (top level directory as package root) and/or
+     * jar files (including zip files).
+     * <p>
+     * Note that non-class files (files, not starting with the magic number
+     * {@code CAFEBABE} are silently ignored.
+     *
+     * @param filesOrDirectories Valid files are: jar files, Java *.class files (all other
+     * files are silently ignored) and directories which are package root directories
+     */
+    public void detect(final File... filesOrDirectories) throws IOException {
+        if (DEBUG) {
+            print("detectFilesOrDirectories: %s", (Object)filesOrDirectories);
+        }
+        detect(new ClassFileIterator(filesOrDirectories, null));
+    }
+
+    // private
+
+    private String[] packageFilter(final String... packageNames) {
         final String[] pkgNameFilter = new String[packageNames.length];
         for (int i = 0; i < pkgNameFilter.length; ++i) {
             pkgNameFilter[i] = packageNames[i].replace('.', '/');
@@ -248,6 +321,13 @@ public final class AnnotationDetector {
                 pkgNameFilter[i] = pkgNameFilter[i].concat("/");
             }
         }
+        return pkgNameFilter;
+    }
+
+    /**
+     * Return the package directories and jar files containing the given packages.
+     */
+    private Set<File> packageFiles(final String[] pkgNameFilter) throws IOException {
         final Set<File> files = new HashSet<>();
         final ClassLoader loader = Thread.currentThread().getContextClassLoader();
         for (final String packageName : pkgNameFilter) {
@@ -274,36 +354,35 @@ public final class AnnotationDetector {
         if (DEBUG) {
             print("Files to scan: %s", files);
         }
-        if (!files.isEmpty()) {
-            // see http://shipilev.net/blog/2016/arrays-wisdom-ancients/#_conclusion
-            detect(new ClassFileIterator(files.toArray(new File[0]), pkgNameFilter));
-        }
+        return files;
     }
 
     /**
-     * Scan all Java ClassFile ({@code *.class}) files available in the specified files
-     * and/or directories.
-     * <p>
-     * In Java, the
-     * <a href="http://docs.oracle.com/javase/8/docs/technotes/tools/unix/classpath.html">
-     * Class path</a> contains directories (top level directory as package root) and/or
-     * jar files (including zip files).
-     * <p>
-     * Note that non-class files (files, not starting with the magic number
-     * {@code CAFEBABE} are silently ignored.
-     *
-     * @param filesOrDirectories Valid files are: jar files, Java *.class files (all other
-     * files are silently ignored) and directories which are package root directories
+     * Scan a single jar file or directory, the reported type annotations are returned as well.
      */
-    public void detect(final File... filesOrDirectories) throws IOException {
-        if (DEBUG) {
-            print("detectFilesOrDirectories: %s", (Object)filesOrDirectories);
+    private List<String> scan(final File file, final String[] pkgNameFilter) throws IOException {
+        final List<String> found = new ArrayList<>();
+        final TypeReporter reporter = typeReporter;
+        typeReporter = new TypeReporter() {
+            @Override
+            public void reportTypeAnnotation(Class<? extends Annotation> annotation, String className) {
+                found.add("L" + annotation.getName().replace('.', '/') + ";=" + className);
+                reporter.reportTypeAnnotation(annotation, className);
+            }
+
+            @Override
+            public Class<? extends Annotation>[] annotations() {
+                return reporter.annotations();
+            }
+        };
+        try {
+            detect(new ClassFileIterator(new File[] {file}, pkgNameFilter));
+        } finally {
+            typeReporter = reporter;
         }
-        detect(new ClassFileIterator(filesOrDirectories, null));
+        return found;
     }
 
-    // private
-
     private File toFile(final URL url) {
         // only correct way to convert the URL to a File object, also see issue #16
         // Do not use URLDecoder
@@ -0,0 +1,202 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.io.scanner;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A persistent index of the type annotations found by {@link AnnotationDetector}.
+ * Every scanned jar file or package directory is stored with a fingerprint
+ * (size and modification time of the jar, or of every file in the directory),
+ * a later scan only reads the class files of the entries with a changed fingerprint.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public final class ScanIndex {
+
+    private static final String HEADER = "#aesh scan index 1";
+
+    private final File file;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private boolean modified;
+
+    private ScanIndex(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Read the index from the given file. A missing or unreadable file gives an empty index.
+     */
+    public static ScanIndex load(File file) {
+        ScanIndex index = new ScanIndex(file);
+        if(file.isFile()) {
+            try(BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                if(HEADER.equals(reader.readLine())) {
+                    String line;
+                    while((line = reader.readLine()) != null) {
+                        String[] values = line.split("\t", -1);
+                        if(values.length >= 2)
+                            index.entries.put(values[0], new Entry(values[1],
+                                    new ArrayList<>(Arrays.asList(values).subList(2, values.length))));
+                    }
+                }
+            }
+            catch(IOException e) {
+                //everything will be scanned
+                index.entries.clear();
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return the stored annotations (annotation name '=' class name) of the key,
+     *         null if the key is not indexed or the fingerprint changed
+     */
+    List<String> lookup(String key, String fingerprint) {
+        Entry entry = entries.get(key);
+        if(entry == null || !entry.fingerprint.equals(fingerprint))
+            return null;
+        return entry.annotations;
+    }
+
+    void update(String key, String fingerprint, List<String> annotations) {
+        if(key.indexOf('\t') > -1 || key.indexOf('\n') > -1)
+            return;
+        entries.put(key, new Entry(fingerprint, annotations));
+        modified = true;
+    }
+
+    /**
+     * Remove all entries, eg if the index is found to be stale.
+     */
+    public void clear() {
+        entries.clear();
+        modified = true;
+    }
+
+    /**
+     * Write the index if it changed, entries for files that no longer exist are removed.
+     */
+    public void save() throws IOException {
+        Iterator<String> keys = entries.keySet().iterator();
+        while(keys.hasNext()) {
+            if(!new File(path(keys.next())).exists()) {
+                keys.remove();
+                modified = true;
+            }
+        }
+        if(!modified)
+            return;
+
+        File parent = file.getAbsoluteFile().getParentFile();
+        if(parent != null && !parent.isDirectory())
+            Files.createDirectories(parent.toPath());
+        File tmp = new File(parent, file.getName() + ".tmp");
+        try(BufferedWriter writer = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for(Map.Entry<String, Entry> entry : entries.entrySet()) {
+                writer.write(entry.getKey());
+                writer.write('\t');
+                writer.write(entry.getValue().fingerprint);
+                for(String annotation : entry.getValue().annotations) {
+                    writer.write('\t');
+                    writer.write(annotation);
+                }
+                writer.newLine();
+            }
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        modified = false;
+    }
+
+    /**
+     * @return the key of a scanned file or directory, the package filter and annotations
+     *         are part of the key since they change the result of a scan
+     */
+    static String key(File file, String[] pkgNameFilter, String[] annotations) {
+        String[] filter = pkgNameFilter.clone();
+        String[] names = annotations.clone();
+        Arrays.sort(filter);
+        Arrays.sort(names);
+        return file.getAbsolutePath() + '|' + String.join(",", filter) + '|' + String.join(",", names);
+    }
+
+    private static String path(String key) {
+        return key.substring(0, key.indexOf('|'));
+    }
+
+    /**
+     * A jar is identified by size and modification time, a directory by the number, sizes and
+     * modification times of all its files and sub directories.
+     */
+    static String fingerprint(File file) {
+        if(file.isFile())
+            return file.length() + ":" + file.lastModified();
+        long count = 0;
+        long size = 0;
+        long time = 0;
+        List<File> directories = new ArrayList<>();
+        directories.add(file);
+        while(!directories.isEmpty()) {
+            File directory = directories.remove(directories.size() - 1);
+            //a removed file only changes the modification time of its directory
+            time = time * 31 + directory.lastModified();
+            File[] files = directory.listFiles();
+            if(files == null)
+                continue;
+            Arrays.sort(files);
+            for(File current : files) {
+                if(current.isDirectory())
+                    directories.add(current);
+                else {
+                    count++;
+                    size += current.length();
+                    time = time * 31 + current.lastModified();
+                }
+            }
+        }
+        return count + ":" + size + ":" + Long.toHexString(time);
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final List<String> annotations;
+
+        private Entry(String fingerprint, List<String> annotations) {
+            this.fingerprint = fingerprint;
+            this.annotations = Collections.unmodifiableList(annotations);
+        }
+    }
+}
@@ -49,7 +49,13 @@ public class LineParser {
     private boolean ternaryQuote = false;
     private boolean haveCurlyBracket = false;
     private boolean haveSquareBracket = false;
-    private StringBuilder builder = new StringBuilder();
+    //the current word is the slice line[wordStart, wordStart+wordLength) of the input
+    //until an escape or quote makes it differ, then it is copied to builder
+    private final StringBuilder builder = new StringBuilder();
+    private String line;
+    private int wordStart;
+    private int wordLength;
+    private boolean copied;
     private char prev = NULL_CHAR;
     private int index = 0;
     private int cursorWord = -1;
@@ -62,6 +68,28 @@ public class LineParser {
     private OperatorType currentOperator;
     private int startIndex;
 
+    private static final ThreadLocal<LineParser> PARSERS = ThreadLocal.withInitial(LineParser::new);
+
+    /**
+     * A parser that is reused by the calling thread, its settings are cleared.
+     * The returned ParsedLine and ParsedWord objects do not depend on the parser,
+     * so they can be kept after the next parse.
+     *
+     * @return parser for the current thread
+     */
+    public static LineParser threadLocal() {
+        return PARSERS.get().clear();
+    }
+
+    private LineParser clear() {
+        text = null;
+        cursor = -1;
+        parseBrackets = false;
+        operators = null;
+        line = null;
+        return this;
+    }
+
     public LineParser input(String text) {
         this.text = text;
         return this;
@@ -96,6 +124,65 @@ public class LineParser {
             return null;
     }
 
+    /**
+     * Create a line from arguments that are already split, eg the arguments given to a main method.
+     * Each argument is one word, quotes, escapes and operators are not parsed.
+     *
+     * @param args arguments
+     * @return aeshline with all the arguments as words
+     */
+    public static ParsedLine parseArguments(String... args) {
+        List<ParsedWord> words = new ArrayList<>(args.length);
+        StringBuilder builder = new StringBuilder();
+        for(String arg : args) {
+            if(builder.length() > 0)
+                builder.append(SPACE_CHAR);
+            words.add(new ParsedWord(arg, builder.length()));
+            builder.append(arg);
+        }
+        return new ParsedLine(builder.toString(), words, -1, -1, -1, ParserStatus.OK, "", OperatorType.NONE);
+    }
+
+    /**
+     * Join arguments that are already split into a line that is parsed back into the same words.
+     * Arguments with spaces, quotes or operators are quoted, empty arguments are dropped.
+     *
+     * @param args arguments
+     * @return line
+     */
+    public static String joinArguments(String... args) {
+        StringBuilder builder = new StringBuilder();
+        for(String arg : args) {
+            if(arg.isEmpty())
+                continue;
+            if(builder.length() > 0)
+                builder.append(SPACE_CHAR);
+            appendQuoted(builder, arg);
+        }
+        return builder.toString();
+    }
+
+    private static void appendQuoted(StringBuilder builder, String arg) {
+        boolean quote = false;
+        for(int i = 0; i < arg.length() && !quote; i++)
+            quote = Character.isWhitespace(arg.charAt(i)) || "\"'\\|<>&;{}()".indexOf(arg.charAt(i)) >= 0;
+        if(!quote)
+            builder.append(arg);
+        //inside quotes a backslash is kept, but it would escape the closing quote
+        else if(arg.indexOf(DOUBLE_QUOTE) < 0 && arg.charAt(arg.length()-1) != BACK_SLASH)
+            builder.append(DOUBLE_QUOTE).append(arg).append(DOUBLE_QUOTE);
+        else if(arg.indexOf(SINGLE_QUOTE) < 0 && arg.charAt(arg.length()-1) != BACK_SLASH)
+            builder.append(SINGLE_QUOTE).append(arg).append(SINGLE_QUOTE);
+        else {
+            for(int i = 0; i < arg.length(); i++) {
+                char c = arg.charAt(i);
+                if(c == SPACE_CHAR || c == DOUBLE_QUOTE || c == SINGLE_QUOTE || c == BACK_SLASH)
+                    builder.append(BACK_SLASH);
+                builder.append(c);
+            }
+        }
+    }
+
     /**
      * Split up the text into words, escaped spaces and quotes are handled
      *
@@ -113,6 +200,7 @@ public class LineParser {
     public ParsedLine parseLine(String text, int cursor, boolean parseCurlyAndSquareBrackets) {
         //first reset all values
         reset();
+        line = text;
         if (cursor > text.length())
             cursor = text.length();
         return doParseLine(text, cursor, parseCurlyAndSquareBrackets);
@@ -125,17 +213,17 @@ public class LineParser {
             //if the previous char was a space, there is no word "connected" to cursor
             if(cursor == index && (prev != SPACE_CHAR || haveEscape)) {
                 cursorWord = textList.size();
-                if(haveEscape) //if we have escape the builder is shorter than cursor
-                    wordCursor = builder.length()+1;
+                if(haveEscape) //if we have escape the word is shorter than cursor
+                    wordCursor = wordLength+1;
                 else
-                    wordCursor = builder.length();
+                    wordCursor = wordLength;
             }
             if (c == SPACE_CHAR) {
                 c = handleSpace(c);
             }
             else if (c == BACK_SLASH) {
                 if (haveEscape || ternaryQuote || haveDoubleQuote || haveSingleQuote) {
-                    builder.append(c);
+                    append(c);
                     haveEscape = false;
                 }
                 else
@@ -157,7 +245,7 @@ public class LineParser {
                 handleEscape(c);
             }
             else
-                builder.append(c);
+                append(c);
             prev = c;
             index++;
         }
@@ -173,6 +261,7 @@ public class LineParser {
        else {
            //first reset all values
            reset();
+           line = text;
            currentOperator = null;
            startIndex = 0;
            return doParseLine(text, cursor, parseCurlyAndSquareBrackets, operators);
@@ -187,14 +276,14 @@ public class LineParser {
             //if the previous char was a space, there is no word "connected" to cursor
             if(cursor == index && (prev != SPACE_CHAR || haveEscape)) {
                 cursorWord = textList.size();
-                wordCursor = builder.length();
+                wordCursor = wordLength;
             }
             if (c == SPACE_CHAR) {
                 c = handleSpace(c);
             }
             else if (c == BACK_SLASH) {
                 if (haveEscape || ternaryQuote || haveDoubleQuote || haveSingleQuote) {
-                    builder.append(c);
+                    append(c);
                     haveEscape = false;
                 }
                 else
@@ -219,9 +308,9 @@ public class LineParser {
                     // Do not add the \ that was a way to escape an operator.
                 }
                 else {
-                    builder.append(BACK_SLASH);
+                    append(BACK_SLASH);
                 }
-                builder.append(c);
+                append(c);
                 haveEscape = false;
             }
             else if(!haveEscape && !isQuoted() &&
@@ -239,7 +328,7 @@ public class LineParser {
                 }
             }
             else
-                builder.append(c);
+                append(c);
 
             //if current operator is set, we need to handle index/prev specially
             if (currentOperator != null && currentOperator != OperatorType.NONE) {
@@ -254,8 +343,8 @@ public class LineParser {
             }
         }
 
-        if(builder.length() > 0 || !textList.isEmpty() || startIndex < index)
-            lines.add(endOfLineProcessing(text.substring(startIndex, index), cursor, startIndex, text.length()));
+        if(wordLength > 0 || !textList.isEmpty() || startIndex < index)
+            lines.add(endOfLineProcessing(text, cursor, startIndex, text.length()));
 
         return lines;
     }
@@ -272,29 +361,32 @@ public class LineParser {
     }
 
     private OperatorType matchesOperators(Set<OperatorType> operators, String text, int index) {
+        //most chars can not start an operator, no need to check every operator for them
+        if(!OperatorType.canStartOperator(text.charAt(index)))
+            return OperatorType.NONE;
         return OperatorType.matches(operators, text, index);
     }
 
     private ParsedLine endOfLineProcessing(String text, int cursor,
                                            int startIndex, int totalTextLength) {
-        // if the escape was the last char, add it to the builder
+        // if the escape was the last char, add it to the word
         if (haveEscape)
-            builder.append(BACK_SLASH);
+            append(BACK_SLASH);
 
-        if (builder.length() > 0) {
+        if (wordLength > 0) {
             if(haveDoubleQuote || haveSingleQuote)
-                textList.add(new ParsedWord(builder.toString(), index - builder.length(), ParsedWord.Status.OPEN_QUOTE));
+                textList.add(takeWord(ParsedWord.Status.OPEN_QUOTE));
             else if(haveSquareBracket || haveCurlyBracket)
-                textList.add(new ParsedWord(builder.toString(), index - builder.length(), ParsedWord.Status.OPEN_BRACKET));
+                textList.add(takeWord(ParsedWord.Status.OPEN_BRACKET));
             else
-                textList.add(new ParsedWord(builder.toString(), index - builder.length()));
+                textList.add(takeWord(ParsedWord.Status.OK));
         }
 
         if (cursor == totalTextLength &&
                 (prev != SPACE_CHAR || (haveEscape || isQuoted()))) {
             cursorWord = textList.size() - 1;
             if (textList.size() > 0)
-                wordCursor = textList.get(textList.size() - 1).word().length();
+                wordCursor = textList.get(textList.size() - 1).length();
         }
 
         ParserStatus status = ParserStatus.OK;
@@ -303,7 +395,7 @@ public class LineParser {
         else if (haveSingleQuote || haveDoubleQuote || haveCurlyBracket)
             status = ParserStatus.UNCLOSED_QUOTE;
 
-        return new ParsedLine(text, textList,
+        return new ParsedLine(text, startIndex, index, textList,
                 startIndex <= cursor && cursor <= index ? cursor-startIndex : -1,
                 cursorWord, wordCursor, status, "", OperatorType.NONE);
     }
@@ -314,7 +406,7 @@ public class LineParser {
         else {
             haveCurlyBracket = false;
         }
-        builder.append(c);
+        append(c);
     }
 
     private void handleCurlyStart(char c) {
@@ -324,27 +416,27 @@ public class LineParser {
         else if(!haveSingleQuote && !haveDoubleQuote){
             haveCurlyBracket = true;
         }
-        builder.append(c);
+        append(c);
     }
 
     private void handleDoubleQuote(char c) {
         //already quoted and prev is escape, just add the quote
         if (ternaryQuote || haveDoubleQuote || haveSingleQuote) {
             if (prev == BACK_SLASH) {
-                builder.append(c);
+                append(c);
                 return;
             }
         }
 
         if (haveEscape || (ternaryQuote && prev != DOUBLE_QUOTE)) {
-            builder.append(c);
+            append(c);
             haveEscape = false;
         }
         else if (haveDoubleQuote) {
             handleHaveDoubleQuote();
         }
         else if(haveSingleQuote || haveCurlyBracket)
-            builder.append(c);
+            append(c);
         else
             haveDoubleQuote = true;
     }
@@ -353,19 +445,16 @@ public class LineParser {
         if (!ternaryQuote && prev == DOUBLE_QUOTE)
             ternaryQuote = true;
         else if (ternaryQuote && prev == DOUBLE_QUOTE) {
-            if (builder.length() > 0) {
-                builder.deleteCharAt(builder.length() - 1);
-                textList.add(new ParsedWord(builder.toString(), index-builder.length()));
-                builder = new StringBuilder();
+            if (wordLength > 0) {
+                deleteLastChar();
+                textList.add(takeWord(ParsedWord.Status.OK));
             }
             haveDoubleQuote = false;
             ternaryQuote = false;
         }
         else {
-            if (builder.length() > 0) {
-                textList.add(new ParsedWord(builder.toString(), index-builder.length()));
-                builder = new StringBuilder();
-            }
+            if (wordLength > 0)
+                textList.add(takeWord(ParsedWord.Status.OK));
             haveDoubleQuote = false;
         }
     }
@@ -374,43 +463,40 @@ public class LineParser {
         //already quoted and prev is escape, just add the quote
         if (ternaryQuote || haveDoubleQuote || haveSingleQuote) {
             if (prev == BACK_SLASH) {
-                builder.append(c);
+                append(c);
                 return;
             }
         }
         if (haveEscape || ternaryQuote) {
-            builder.append(c);
+            append(c);
             haveEscape = false;
         }
         else if (haveSingleQuote) {
-            if (builder.length() > 0) {
-                textList.add(new ParsedWord(builder.toString(), index-builder.length()));
-                builder = new StringBuilder();
-            }
+            if (wordLength > 0)
+                textList.add(takeWord(ParsedWord.Status.OK));
             haveSingleQuote = false;
         }
         else if(haveDoubleQuote) {
-            builder.append(c);
+            append(c);
         }
         else if(haveCurlyBracket)
-            builder.append(c);
+            append(c);
         else
             haveSingleQuote = true;
     }
 
     private char handleSpace(char c) {
         if (haveEscape) {
-            builder.append(c);
+            append(c);
             haveEscape = false;
             //since we escape it, we need to set it to a different value other than space
             c = NULL_CHAR;
         }
         else if (haveSingleQuote || haveDoubleQuote || haveCurlyBracket) {
-            builder.append(c);
+            append(c);
         }
-        else if (builder.length() > 0) {
-            textList.add(new ParsedWord(builder.toString(), index-builder.length()));
-            builder = new StringBuilder();
+        else if (wordLength > 0) {
+            textList.add(takeWord(ParsedWord.Status.OK));
         }
 
         return c;
@@ -419,9 +505,8 @@ public class LineParser {
     private void handleFoundOperator(List<ParsedLine> lines, String text, int cursor) {
         ParserStatus parserStatus = ParserStatus.OK;
         String errorMessage = "";
-        if (builder.length() > 0) {
-            textList.add(new ParsedWord(builder.toString(), index-builder.length()));
-            builder = new StringBuilder();
+        if (wordLength > 0) {
+            textList.add(takeWord(ParsedWord.Status.OK));
         }
         //if textList.size == 0, we have an empty line before the operator
         else if(textList.size() == 0){
@@ -433,11 +518,11 @@ public class LineParser {
         if (cursor == text.length()-1) {
             cursorWord = textList.size() - 1;
             if(textList.size() > 0)
-                wordCursor = textList.get(textList.size() - 1).word().length();
+                wordCursor = textList.get(textList.size() - 1).length();
         }
 
         lines.add(
-                new ParsedLine(text.substring(startIndex, index), textList,
+                new ParsedLine(text, startIndex, index, textList,
                         startIndex <= cursor && cursor <= index ? cursor-startIndex : -1,
                         cursorWord, wordCursor, parserStatus, errorMessage, currentOperator));
 
@@ -448,8 +533,8 @@ public class LineParser {
     }
 
     private void handleEscape(char c) {
-        builder.append(BACK_SLASH);
-        builder.append(c);
+        append(BACK_SLASH);
+        append(c);
         haveEscape = false;
     }
 
@@ -461,10 +546,45 @@ public class LineParser {
         ternaryQuote = false;
         haveCurlyBracket = false;
         haveSquareBracket = false;
-        builder = new StringBuilder();
+        builder.setLength(0);
+        wordLength = 0;
+        copied = false;
         prev = NULL_CHAR;
         index = 0;
         cursorWord = -1;
         wordCursor = -1;
     }
+
+    private void append(char c) {
+        if(!copied) {
+            if(wordLength == 0)
+                wordStart = index;
+            int next = wordStart + wordLength;
+            //as long as the word matches the input it stays a slice of it
+            if(next < line.length() && line.charAt(next) == c) {
+                wordLength++;
+                return;
+            }
+            builder.setLength(0);
+            builder.append(line, wordStart, next);
+            copied = true;
+        }
+        builder.append(c);
+        wordLength++;
+    }
+
+    private void deleteLastChar() {
+        wordLength--;
+        if(copied)
+            builder.setLength(wordLength);
+    }
+
+    private ParsedWord takeWord(ParsedWord.Status status) {
+        ParsedWord word = copied ?
+                new ParsedWord(builder.toString(), index - wordLength, status) :
+                new ParsedWord(line, wordStart, wordStart + wordLength, index - wordLength, status);
+        wordLength = 0;
+        copied = false;
+        return word;
+    }
 }
@@ -41,7 +41,11 @@ import java.util.List;
  */
 public class ParsedLine {
 
-    private final String originalInput;
+    //the line is a slice of the input, only copied when asked for
+    private String originalInput;
+    private final String input;
+    private final int inputStart;
+    private final int inputEnd;
     private final String errorMessage;
     private final List<ParsedWord> words;
     private final ParserStatus status;
@@ -54,7 +58,17 @@ public class ParsedLine {
     public ParsedLine(String originalInput, List<ParsedWord> words,
                       int cursor, int cursorWord, int wordCursor,
                       ParserStatus status, String errorMessage, OperatorType operator) {
+        this(originalInput, 0, originalInput.length(), words, cursor, cursorWord, wordCursor,
+                status, errorMessage, operator);
         this.originalInput = originalInput;
+    }
+
+    ParsedLine(String input, int inputStart, int inputEnd, List<ParsedWord> words,
+               int cursor, int cursorWord, int wordCursor,
+               ParserStatus status, String errorMessage, OperatorType operator) {
+        this.input = input;
+        this.inputStart = inputStart;
+        this.inputEnd = inputEnd;
         this.cursor = cursor;
         this.cursorWord = cursorWord;
         this.wordCursor = wordCursor;
@@ -120,6 +134,8 @@ public class ParsedLine {
      * @return original input
      */
     public String line() {
+        if(originalInput == null)
+            originalInput = input.substring(inputStart, inputEnd);
         return originalInput;
     }
 
@@ -175,27 +191,27 @@ public class ParsedLine {
     }
 
     public boolean cursorAtEnd() {
-        return cursor == originalInput.length();
+        return cursor == inputEnd - inputStart;
     }
 
     public boolean spaceAtEnd() {
-        if(originalInput.length() > 1) {
-            return originalInput.charAt(originalInput.length()-1) == ' ' &&
-                   originalInput.charAt(originalInput.length()-2) != '\\' ;
+        if(inputEnd - inputStart > 1) {
+            return input.charAt(inputEnd-1) == ' ' &&
+                   input.charAt(inputEnd-2) != '\\' ;
         }
         else
-            return (originalInput.length() > 0 &&
-                    originalInput.charAt(originalInput.length()-1) == ' ');
+            return (inputEnd - inputStart > 0 &&
+                    input.charAt(inputEnd-1) == ' ');
     }
 
     public boolean isCursorAtEndOfSelectedWord() {
-        return cursor() == (selectedWord().lineIndex()+selectedWord().word().length());
+        return cursor() == (selectedWord().lineIndex()+selectedWord().length());
     }
 
     @Override
     public String toString() {
         return "ParsedLine{" +
-                "originalInput='" + originalInput + '\'' +
+                "originalInput='" + line() + '\'' +
                 ", errorMessage='" + errorMessage + '\'' +
                 ", words=" + words +
                 ", status=" + status +
@@ -19,6 +19,8 @@
  */
 package org.aesh.parser;
 
+import java.nio.CharBuffer;
+
 /**
  * Representing a "word" parsed by LineParser and used in ParsedLine.
  * A word is a collection of letters separated by space.
@@ -29,18 +31,31 @@ package org.aesh.parser;
  */
 public class ParsedWord {
 
-    private final String word;
+    //a word that is a slice of the parsed line is only copied when asked for
+    private String word;
+    private final String line;
+    private final int start;
+    private final int end;
     private final int lineIndex;
     private final Status status;
 
     public ParsedWord(String word, int lineIndex) {
-        this.word = word;
-        this.lineIndex = lineIndex;
-        this.status = Status.OK;
+        this(word, lineIndex, Status.OK);
     }
 
     public ParsedWord(String word, int lineIndex, Status status) {
         this.word = word;
+        this.line = null;
+        this.start = 0;
+        this.end = word != null ? word.length() : 0;
+        this.lineIndex = lineIndex;
+        this.status = status;
+    }
+
+    ParsedWord(String line, int start, int end, int lineIndex, Status status) {
+        this.line = line;
+        this.start = start;
+        this.end = end;
         this.lineIndex = lineIndex;
         this.status = status;
     }
@@ -54,9 +69,28 @@ public class ParsedWord {
     }
 
     public String word() {
+        if(word == null && line != null)
+            word = line.substring(start, end);
         return word;
     }
 
+    /**
+     * The word without copying it out of the parsed line.
+     * @return word
+     */
+    public CharSequence wordSequence() {
+        if(word != null || line == null)
+            return word;
+        return CharBuffer.wrap(line, start, end);
+    }
+
+    /**
+     * @return length of the word
+     */
+    public int length() {
+        return end - start;
+    }
+
     public Status status() {
         return status;
     }
@@ -67,6 +101,6 @@ public class ParsedWord {
 
     @Override
     public String toString() {
-        return word;
+        return word();
     }
 }
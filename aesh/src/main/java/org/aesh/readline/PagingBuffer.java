@@ -0,0 +1,293 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2018 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.readline;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Buffer of the output collected for paging.
+ * The content is indexed by line while it is added, lines are split on the same
+ * line breaks as '\R'. Lines are only wrapped to the terminal width when a row is read.
+ * When the content is larger than the memory limit it is moved to a temp file,
+ * stored as UTF-16 so that any part of it can be read from memory-mapped segments.
+ * The buffer is thread safe, so the rows can be searched while output is added.
+ *
+ * @author jdenise@redhat.com
+ */
+class PagingBuffer implements Closeable {
+
+    // chars in one memory-mapped segment of the temp file
+    private static final int SEGMENT_SIZE = 1 << 24;
+
+    private final long memoryLimit;
+    private final int segmentSize;
+
+    // content in memory, or the part not yet written to the temp file
+    private StringBuilder memory = new StringBuilder();
+    private Path spillFile;
+    private FileChannel channel;
+    private long flushed;
+    private final List<CharBuffer> segments = new ArrayList<>();
+
+    // start of every line and length of its line break
+    private long[] starts = new long[256];
+    private byte[] breaks = new byte[256];
+    private int lineCount = 1;
+    private long length;
+    private boolean pendingCR;
+    private boolean complete;
+
+    // rows[i] is the number of wrapped rows before line i, computed on demand
+    private int width = Integer.MAX_VALUE;
+    private int[] rows = new int[257];
+    private int wrapped;
+
+    PagingBuffer() {
+        this(PagingSupport.DEFAULT_MEMORY_LIMIT);
+    }
+
+    PagingBuffer(long memoryLimit) {
+        this(memoryLimit, SEGMENT_SIZE);
+    }
+
+    PagingBuffer(long memoryLimit, int segmentSize) {
+        this.memoryLimit = memoryLimit;
+        this.segmentSize = segmentSize;
+    }
+
+    synchronized void append(String content) {
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            long offset = length + i;
+            if (pendingCR) {
+                pendingCR = false;
+                if (c == '\n') {
+                    breaks[lineCount - 2] = 2;
+                    starts[lineCount - 1] = offset + 1;
+                    continue;
+                }
+            }
+            if (isLineBreak(c)) {
+                breaks[lineCount - 1] = 1;
+                newLine(offset + 1);
+                pendingCR = c == '\r';
+            }
+        }
+        length += content.length();
+        memory.append(content);
+        try {
+            if (channel == null && memory.length() > memoryLimit) {
+                spill();
+            }
+            else if (channel != null && memory.length() >= segmentSize) {
+                flush();
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * No more content will be added, the last line is complete.
+     */
+    synchronized void complete() {
+        complete = true;
+    }
+
+    synchronized boolean isComplete() {
+        return complete;
+    }
+
+    synchronized boolean isSpilled() {
+        return channel != null;
+    }
+
+    synchronized long length() {
+        return length;
+    }
+
+    /**
+     * @return number of lines, until the content is complete only the lines ending with a line break
+     */
+    synchronized int lineCount() {
+        return complete ? lineCount : lineCount - 1;
+    }
+
+    synchronized String line(int index) {
+        return read(starts[index], lineEnd(index));
+    }
+
+    synchronized void setWidth(int width) {
+        width = Math.max(1, width);
+        if (width != this.width) {
+            this.width = width;
+            wrapped = 0;
+        }
+    }
+
+    /**
+     * @return number of rows when the lines are wrapped to the width
+     */
+    synchronized int rowCount() {
+        int count = lineCount();
+        wrap(count);
+        return rows[count];
+    }
+
+    synchronized String row(int index) {
+        wrap(lineCount());
+        int line = Arrays.binarySearch(rows, 0, wrapped + 1, index);
+        if (line < 0) {
+            line = -line - 2;
+        }
+        long start = starts[line] + (long) (index - rows[line]) * width;
+        return read(start, Math.min(lineEnd(line), start + width));
+    }
+
+    @Override
+    public synchronized void close() {
+        memory = new StringBuilder();
+        segments.clear();
+        if (channel != null) {
+            try {
+                channel.close();
+                Files.deleteIfExists(spillFile);
+            }
+            catch (IOException e) {
+                // the mapped segments might still prevent deleting the file
+                spillFile.toFile().deleteOnExit();
+            }
+            channel = null;
+        }
+    }
+
+    private static boolean isLineBreak(char c) {
+        return c == '\n' || c == '\r' || c == '\u000B' || c == '\f'
+                || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private void newLine(long start) {
+        if (lineCount == starts.length) {
+            starts = Arrays.copyOf(starts, lineCount * 2);
+            breaks = Arrays.copyOf(breaks, lineCount * 2);
+        }
+        starts[lineCount++] = start;
+    }
+
+    private long lineEnd(int index) {
+        return index == lineCount - 1 ? length : starts[index + 1] - breaks[index];
+    }
+
+    private void wrap(int count) {
+        if (rows.length < count + 1) {
+            rows = Arrays.copyOf(rows, Math.max(count + 1, rows.length * 2));
+        }
+        for (; wrapped < count; wrapped++) {
+            long lineLength = lineEnd(wrapped) - starts[wrapped];
+            long lineRows = lineLength == 0 ? 1 : (lineLength + width - 1) / width;
+            rows[wrapped + 1] = (int) Math.min(Integer.MAX_VALUE, rows[wrapped] + lineRows);
+        }
+    }
+
+    private void spill() throws IOException {
+        spillFile = Files.createTempFile("aesh-paging", ".tmp");
+        channel = FileChannel.open(spillFile, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+        flush();
+    }
+
+    private void flush() throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(memory.length() * 2);
+        bytes.asCharBuffer().put(memory.toString());
+        while (bytes.hasRemaining()) {
+            channel.write(bytes, flushed * 2 + bytes.position());
+        }
+        flushed += memory.length();
+        memory.setLength(0);
+    }
+
+    private String read(long start, long end) {
+        if (start >= end) {
+            return "";
+        }
+        if (start >= flushed) {
+            return memory.substring((int) (start - flushed), (int) (end - flushed));
+        }
+        StringBuilder builder = new StringBuilder((int) (end - start));
+        try {
+            long position = start;
+            while (position < end && position < flushed) {
+                int segment = (int) (position / segmentSize);
+                long segmentStart = (long) segment * segmentSize;
+                long segmentEnd = Math.min(Math.min(segmentStart + segmentSize, flushed), end);
+                int from = (int) (position - segmentStart);
+                int to = (int) (segmentEnd - segmentStart);
+                if (segmentStart + segmentSize <= flushed) {
+                    CharBuffer buffer = segment(segment).duplicate();
+                    buffer.position(from).limit(to);
+                    builder.append(buffer);
+                }
+                else {
+                    ByteBuffer bytes = ByteBuffer.allocate((to - from) * 2);
+                    while (bytes.hasRemaining()) {
+                        if (channel.read(bytes, position * 2 + bytes.position()) < 0) {
+                            throw new IOException("Unexpected end of " + spillFile);
+                        }
+                    }
+                    bytes.flip();
+                    builder.append(bytes.asCharBuffer());
+                }
+                position = segmentEnd;
+            }
+            if (position < end) {
+                builder.append(memory, (int) (position - flushed), (int) (end - flushed));
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return builder.toString();
+    }
+
+    private CharBuffer segment(int index) throws IOException {
+        while (segments.size() <= index) {
+            segments.add(null);
+        }
+        CharBuffer buffer = segments.get(index);
+        if (buffer == null) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, (long) index * segmentSize * 2,
+                    (long) segmentSize * 2).asCharBuffer();
+            segments.set(index, buffer);
+        }
+        return buffer;
+    }
+}
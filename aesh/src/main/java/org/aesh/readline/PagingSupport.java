@@ -20,11 +20,10 @@
 package org.aesh.readline;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.EnumMap;
-import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.function.Consumer;
+import java.util.regex.PatternSyntaxException;
 import org.aesh.readline.action.ActionDecoder;
 import org.aesh.readline.history.History;
 import org.aesh.readline.history.InMemoryHistory;
@@ -37,6 +36,7 @@ import org.aesh.terminal.tty.Signal;
 import org.aesh.terminal.tty.Size;
 import org.aesh.terminal.utils.ANSI;
 import org.aesh.terminal.utils.Config;
+import org.aesh.util.PageSearch;
 
 /**
  *
@@ -51,22 +51,17 @@ public class PagingSupport {
         private int currentLine;
         private int allLines;
         private int lastScrolledLines;
-        private List<String> lines;
-        private final String[] splitLines;
         private int jumpIndex = -1;
-        private String pattern;
+        private PageSearch pageSearch;
         private int max;
         private boolean paging;
 
         // Starting Windows 10, alternate buffer is supported.
         private final boolean alternateSupported;
 
-        Paging(String output, Size termSize) {
-            // '\R' will match any line break.
-            // -1 to keep empty lines at the end of content.
-            splitLines = output.split("\\R", -1);
-            lines = buildLines(termSize);
-            lastScrolledLines = lines.size();
+        Paging(Size termSize) {
+            buffer.setWidth(pagingWidth(termSize));
+            lastScrolledLines = size();
             max = termSize.getHeight() - 1;
             if (Config.isWindows()) {
                 // forcePaging is used by tests.
@@ -74,7 +69,7 @@ public class PagingSupport {
             } else {
                 alternateSupported = true;
             }
-            if (lines.size() > max) {
+            if (size() > max) {
                 if (alternateSupported) {
                     getConnection().write(ANSI.ALTERNATE_BUFFER);
                     clearScreen();
@@ -83,18 +78,11 @@ public class PagingSupport {
             }
         }
 
-        private List<String> buildLines(Size size) {
-            List<String> lst = new ArrayList<>();
-            int width = Config.isWindows() ? size.getWidth() - 1 : size.getWidth();
-            for (String l : splitLines) {
-                String remaining = l;
-                do {
-                    String st = remaining.substring(0, Math.min(remaining.length(), width));
-                    lst.add(st);
-                    remaining = remaining.substring(Math.min(remaining.length(), width));
-                } while (!remaining.isEmpty());
-            }
-            return lst;
+        /**
+         * @return number of rows, the lines are wrapped to the terminal width
+         */
+        private int size() {
+            return buffer.rowCount();
         }
 
         int getMax() {
@@ -102,6 +90,7 @@ public class PagingSupport {
         }
 
         void pagingDone() {
+            closeSearch();
             if (paging && alternateSupported) {
                 //Print the output to main buffer (from start until the last scrolled position)
                 getConnection().write(ANSI.MAIN_BUFFER);
@@ -114,13 +103,15 @@ public class PagingSupport {
         }
 
         boolean inWorkflow() {
-            return allLines < lines.size() || searchingMode;
+            return allLines < size() || searchingMode;
         }
 
         void exit() {
             lastScrolledLines = allLines;
-            allLines = lines.size();
+            allLines = size();
             searchingMode = false;
+            // the output that is still to come is not displayed
+            discard = true;
         }
 
         void pageDown() {
@@ -154,14 +145,13 @@ public class PagingSupport {
             }
             if (!searchingMode && searchHistory.size() != 0) {
                 int[] p = searchHistory.get(searchHistory.size() - 1);
-                pattern = Parser.fromCodePoints(p);
-                searchingMode = true;
+                searchingMode = newSearch(Parser.fromCodePoints(p));
             }
             if (searchingMode) {
                 if (allLines <= getMax()) {
                     notFound = true;
                 }
-                int previous = previousMatch(pattern, lines, allLines - getMax() - 1);
+                int previous = previousMatch(allLines - getMax() - 1);
                 if (previous >= 0) {
                     jumpIndex = allLines - previous - 1;
                     notFound = false;
@@ -172,16 +162,9 @@ public class PagingSupport {
             }
         }
 
-        private int previousMatch(String pattern, List<String> lines, int currentLine) {
-            int previous = 0;
-            for (int i = currentLine; i >= 0; i--) {
-                String l = lines.get(i);
-                if (l.contains(pattern)) {
-                    return previous;
-                }
-                previous += 1;
-            }
-            return -1;
+        private int previousMatch(int currentLine) {
+            int previous = pageSearch.previousLine(currentLine + 1);
+            return previous >= 0 ? currentLine - previous : -1;
         }
 
         private void nextMatch() {
@@ -193,11 +176,11 @@ public class PagingSupport {
                     notFound = true;
                 } else {
                     int start = allLines - getMax() < 0 ? 0 : allLines - getMax();
-                    int next = nextMatch(pattern, lines, start + 1);
+                    int next = nextMatch(start + 1);
                     if (next >= 0) {
                         // We need to redraw everything from start in case
                         // some matches are already displayed and need highlighting
-                        jumpIndex = Math.min(allLines + next + 1, lines.size());
+                        jumpIndex = Math.min(allLines + next + 1, size());
                         notFound = false;
                         resetScreen();
                     } else {
@@ -210,16 +193,31 @@ public class PagingSupport {
             }
         }
 
-        private int nextMatch(String pattern, List<String> lines, int currentLine) {
-            int next = 0;
-            for (int i = currentLine; i < lines.size(); i++) {
-                String l = lines.get(i);
-                if (l.contains(pattern)) {
-                    return next;
-                }
-                next += 1;
+        private int nextMatch(int currentLine) {
+            int next = pageSearch.nextLine(currentLine - 1);
+            return next >= 0 ? next - currentLine : -1;
+        }
+
+        /**
+         * Start a search of the rows in the background.
+         *
+         * @return false if the pattern is not a valid regex
+         */
+        private boolean newSearch(String pattern) {
+            closeSearch();
+            try {
+                pageSearch = new PageSearch(pattern, searchMode, buffer::row, buffer::rowCount);
+                return true;
+            } catch (PatternSyntaxException e) {
+                return false;
+            }
+        }
+
+        private void closeSearch() {
+            if (pageSearch != null) {
+                pageSearch.close();
+                pageSearch = null;
             }
-            return -1;
         }
 
         private void search() throws InterruptedException, IOException {
@@ -235,18 +233,21 @@ public class PagingSupport {
             if (pattern == null || pattern.isEmpty()) {
                 // needed to redraw in order to clear pattern prompt.
                 jumpIndex = allLines;
+            } else if (!newSearch(pattern)) {
+                searchingMode = false;
+                notFound = true;
+                jumpIndex = allLines;
             } else {
-                this.pattern = pattern;
                 int start = allLines - getMax() < 0 ? 0 : allLines - getMax();
-                int next = nextMatch(pattern, lines, start);
+                int next = nextMatch(start);
                 if (next >= 0) {
-                    jumpIndex = Math.min(allLines + next, lines.size());
+                    jumpIndex = Math.min(allLines + next, size());
                     searchingMode = true;
                     notFound = false;
                 } else {
                     notFound = true;
                     // do we have something from the beginning
-                    int n = nextMatch(pattern, lines, 0);
+                    int n = nextMatch(0);
                     if (n >= 0) {
                         searchingMode = true;
                     }
@@ -280,11 +281,11 @@ public class PagingSupport {
         }
 
         private int getPercentage() {
-            return (allLines * 100) / lines.size();
+            return (allLines * 100) / size();
         }
 
         private String nextCurrentLine() {
-            String line = lines.get(allLines);
+            String line = buffer.row(allLines);
             currentLine += 1;
             allLines += 1;
             if (jumpIndex == allLines) {
@@ -295,7 +296,7 @@ public class PagingSupport {
         }
 
         private boolean endBuffer() {
-            return allLines == lines.size();
+            return allLines == size();
         }
 
         private void redraw(Size size) {
@@ -304,13 +305,17 @@ public class PagingSupport {
             }
             int oldMax = max;
             max = size.getHeight() - 1;
-            lines = buildLines(size);
-            if (lines.size() > max) {
+            buffer.setWidth(pagingWidth(size));
+            if (pageSearch != null) {
+                // the rows have changed
+                newSearch(pageSearch.getPattern());
+            }
+            if (size() > max) {
                 jumpIndex = allLines + (max - oldMax);
             } else {
                 jumpIndex = -1;
             }
-            lastScrolledLines = lines.size();
+            lastScrolledLines = size();
             resetScreen();
             while (inWorkflow() && !needPrompt()) {
                 printCurrentLine();
@@ -320,9 +325,11 @@ public class PagingSupport {
         }
 
         private void printCurrentLine() {
+            int row = allLines;
             String l = nextCurrentLine();
             if (searchingMode) {
-                displayHightlighted(pattern, l);
+                getConnection().write(pageSearch.highlight(row, l, ANSI.INVERT_BACKGROUND, ANSI.RESET)
+                        + Config.getLineSeparator());
             } else {
                 getConnection().write(l + Config.getLineSeparator());
             }
@@ -331,7 +338,7 @@ public class PagingSupport {
         private void printScrolledLines() {
             //Print the output to main buffer (from start until the last scrolled position)
             for (int i = 0; i < lastScrolledLines; i++) {
-                String l = lines.get(i);
+                String l = buffer.row(i);
                 getConnection().write(l + Config.getLineSeparator());
             }
         }
@@ -342,7 +349,7 @@ public class PagingSupport {
                 getConnection().write("Pattern not found");
                 getConnection().write(ANSI.RESET);
             } else {
-                getConnection().write("--More(" + getPercentage() + "%)--");
+                getConnection().write(buffer.isComplete() ? "--More(" + getPercentage() + "%)--" : "--More--");
             }
         }
 
@@ -358,8 +365,8 @@ public class PagingSupport {
             notFound = false;
             // Jump to the size - 1 line to not exit
             // the paging.
-            if (allLines < lines.size() - 1) {
-                jumpIndex = lines.size() - 1;
+            if (allLines < size() - 1) {
+                jumpIndex = size() - 1;
             }
         }
 
@@ -378,22 +385,47 @@ public class PagingSupport {
                 Integer.MAX_VALUE);
     }
 
+    /**
+     * Default number of characters of output kept in memory before it is moved to a temp file.
+     */
+    public static final long DEFAULT_MEMORY_LIMIT = 16 * 1024 * 1024;
+
     private final History searchHistory = new InMemoryHistory();
     private Paging paging;
     private final Connection connection;
     private final Readline readline;
-    private StringBuilder outputCollector;
     private final boolean search;
+    private final long memoryLimit;
+    private PagingBuffer buffer;
+    // set when the user has left the pager, the rest of the output is not displayed
+    private boolean discard;
+    // lines printed and lines on the current screen when not searching
+    private int printedLines;
+    private int currentLines;
+    private PageSearch.Mode searchMode = PageSearch.Mode.LITERAL;
 
     public PagingSupport(Connection connection, boolean search) {
-        this(connection, null, search);
+        this(connection, search, DEFAULT_MEMORY_LIMIT);
+    }
+
+    /**
+     * @param memoryLimit number of characters of output kept in memory, above that the output
+     *                    is moved to a temp file
+     */
+    public PagingSupport(Connection connection, boolean search, long memoryLimit) {
+        this(connection, null, search, memoryLimit);
     }
 
     @Deprecated
     public PagingSupport(Connection connection, Readline readline, boolean search) {
+        this(connection, readline, search, DEFAULT_MEMORY_LIMIT);
+    }
+
+    private PagingSupport(Connection connection, Readline readline, boolean search, long memoryLimit) {
         this.connection = connection;
         this.readline = readline;
         this.search = search;
+        this.memoryLimit = memoryLimit;
         Consumer<Size> consumer = connection.getSizeHandler();
         connection.setSizeHandler(new Consumer<Size>() {
             @Override
@@ -408,19 +440,41 @@ public class PagingSupport {
         });
     }
 
+    /**
+     * Set how the search pattern entered in the pager is matched.
+     */
+    public void setSearchMode(PageSearch.Mode searchMode) {
+        this.searchMode = searchMode;
+    }
+
     public boolean isPagingOutputActive() {
         return paging != null && paging.paging;
     }
 
     public void reset() {
-        outputCollector = null;
+        if (buffer != null) {
+            buffer.close();
+            buffer = null;
+        }
+        paging = null;
+        discard = false;
+        printedLines = 0;
+        currentLines = 0;
     }
 
+    /**
+     * Add output, the output is displayed as soon as the lines are complete.
+     * If the output fill the screen the call blocks until the user has paged through it.
+     */
     public void addContent(String content) {
-        if (outputCollector == null) {
-            outputCollector = new StringBuilder();
+        if (discard) {
+            return;
+        }
+        if (buffer == null) {
+            buffer = new PagingBuffer(memoryLimit);
         }
-        outputCollector.append(content);
+        buffer.append(content);
+        printAvailableOutput();
     }
 
     private Connection getConnection() {
@@ -431,8 +485,8 @@ public class PagingSupport {
         return readline == null ? new Readline() : readline;
     }
 
-    private StringBuilder getOutputCollector() {
-        return outputCollector;
+    private static int pagingWidth(Size size) {
+        return Config.isWindows() ? size.getWidth() - 1 : size.getWidth();
     }
 
     private void clearScreen() {
@@ -441,54 +495,47 @@ public class PagingSupport {
         }
     }
 
-    private void displayHightlighted(String pattern, String l) {
-        int index = l.indexOf(pattern);
-        while (index >= 0) {
-            getConnection().write(l.substring(0, index));
-            getConnection().write(ANSI.INVERT_BACKGROUND);
-            getConnection().write(pattern);
-            getConnection().write(ANSI.RESET);
-            l = l.substring(index + pattern.length());
-            index = l.indexOf(pattern);
-        }
-        getConnection().write(l + Config.getLineSeparator());
-    }
-
     public void printCollectedOutput() {
-        if (getOutputCollector() == null || getOutputCollector().length() == 0) {
+        if (buffer == null) {
             return;
         }
-        String line = getOutputCollector().toString();
-        if (line.isEmpty()) {
-            return;
+        try {
+            if (!discard && buffer.length() > 0) {
+                buffer.complete();
+                printAvailableOutput();
+            }
+        } finally {
+            reset();
         }
+    }
+
+    private void printAvailableOutput() {
         if (search) {
-            printAndSearchCollectedOuput(line);
+            printAndSearchCollectedOuput();
         } else {
-            printCollectedOutput(line);
+            printCollectedLines();
         }
-
     }
 
-    private void printCollectedOutput(String line) {
+    private void printCollectedLines() {
+        boolean waiting = false;
         try {
-            // '\R' will match any line break.
-            // -1 to keep empty lines at the end of content.
-            String[] lines = line.split("\\R", -1);
             int max = connection.size().getHeight();
-            int currentLines = 0;
-            int allLines = 0;
-            while (allLines < lines.length) {
+            while (!discard && printedLines < buffer.lineCount()) {
                 if (currentLines > max - 2) {
                     try {
                         connection.write(ANSI.CURSOR_SAVE);
-                        int percentage = (allLines * 100) / lines.length;
-                        connection.write("--More(" + percentage + "%)--");
+                        if (buffer.isComplete()) {
+                            int percentage = (printedLines * 100) / buffer.lineCount();
+                            connection.write("--More(" + percentage + "%)--");
+                        } else {
+                            connection.write("--More--");
+                        }
                         Key k = read();
                         connection.write(ANSI.CURSOR_RESTORE);
                         connection.stdoutHandler().accept(ANSI.ERASE_LINE_FROM_CURSOR);
                         if (k == null) { // interrupted, exit.
-                            allLines = lines.length;
+                            discard = true;
                         } else {
                             switch (k) {
                                 case SPACE: {
@@ -501,7 +548,7 @@ public class PagingSupport {
                                     break;
                                 }
                                 case q: {
-                                    allLines = lines.length;
+                                    discard = true;
                                     break;
                                 }
                             }
@@ -511,12 +558,12 @@ public class PagingSupport {
                         throw new RuntimeException(ex);
                     }
                 } else {
-                    String l = lines[allLines];
+                    String l = buffer.line(printedLines);
                     currentLines += 1;
-                    allLines += 1;
+                    printedLines += 1;
                     // Do not add an extra \n
                     // The \n has been added by the previous line.
-                    if (allLines == lines.length) {
+                    if (printedLines == buffer.lineCount() && buffer.isComplete()) {
                         if (l.isEmpty()) {
                             continue;
                         }
@@ -524,15 +571,33 @@ public class PagingSupport {
                     connection.write(l + Config.getLineSeparator());
                 }
             }
+            // the rest of the lines are printed when more output is added
+            waiting = !discard && !buffer.isComplete();
         } finally {
-            outputCollector = null;
+            if (!waiting) {
+                discard = true;
+            }
         }
     }
 
-    private void printAndSearchCollectedOuput(String line) {
+    private void printAndSearchCollectedOuput() {
+        if (paging == null) {
+            Size size = getConnection().size();
+            buffer.setWidth(pagingWidth(size));
+            // start paging when the output fill the screen or is complete
+            if (!buffer.isComplete() && buffer.rowCount() < size.getHeight()) {
+                return;
+            }
+            paging = new Paging(size);
+        }
+        boolean waiting = false;
         try {
-            paging = new Paging(line, getConnection().size());
             while (paging.inWorkflow()) {
+                if (!buffer.isComplete() && paging.endBuffer()) {
+                    // the next rows are printed when more output is added
+                    waiting = true;
+                    return;
+                }
                 if (paging.needPrompt()) {
                     try {
                         getConnection().write(ANSI.CURSOR_SAVE);
@@ -615,9 +680,11 @@ public class PagingSupport {
                 }
             }
         } finally {
-            paging.pagingDone();
-            paging = null;
-            outputCollector = null;
+            if (!waiting) {
+                paging.pagingDone();
+                paging = null;
+                discard = true;
+            }
         }
     }
 
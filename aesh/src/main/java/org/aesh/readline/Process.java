@@ -21,6 +21,7 @@ package org.aesh.readline;
 
 import org.aesh.command.CommandResult;
 import org.aesh.command.Execution;
+import org.aesh.command.Pipeline;
 import org.aesh.command.CommandException;
 import org.aesh.command.invocation.CommandInvocation;
 import org.aesh.command.parser.CommandLineParserException;
@@ -31,38 +32,56 @@ import org.aesh.command.validator.CommandValidatorException;
 import org.aesh.terminal.Connection;
 import org.aesh.readline.util.LoggerUtil;
 
+import java.util.Collections;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
+ * Runs a pipeline of commands.
+ *
+ * By default the process is started as its own thread. If the console has a process executor,
+ * {@link #run()} is called on one of the executor threads instead and this thread is never started,
+ * so {@link #pid()} and Ctrl-C refer to the thread that is actually executing the commands.
+ *
  * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
  */
 public class Process extends Thread implements Consumer<Signal> {
 
     private final Connection conn;
+    private final Pipeline<? extends CommandInvocation> pipeline;
     private final Execution<? extends CommandInvocation> execution;
     private final ProcessManager manager;
     private volatile boolean running;
+    private Thread worker;
 
     private static final Logger LOGGER = LoggerUtil.getLogger(Process.class.getName());
     private int pid;
 
     public Process(ProcessManager manager, Connection conn,
                    Execution<? extends CommandInvocation> execution) {
+        this(manager, conn, new Pipeline<>(Collections.singletonList(execution)));
+    }
+
+    public Process(ProcessManager manager, Connection conn,
+                   Pipeline<? extends CommandInvocation> pipeline) {
         this.manager = manager;
         this.conn = conn;
-        this.execution = execution;
+        this.pipeline = pipeline;
+        this.execution = pipeline.getLastStage();
     }
 
     @Override
     public void accept(Signal signal) {
         switch (signal) {
             case INT:
-                if (running) {
-                    // Ctrl-C interrupt : we use Thread interrupts to signal the command to stop
-                    LOGGER.info("got interrupted in Task");
-                    interrupt();
+                synchronized (this) {
+                    if (running) {
+                        // Ctrl-C interrupt : we use Thread interrupts to signal the command to stop
+                        LOGGER.info("got interrupted in Task");
+                        pipeline.cancel();
+                        worker.interrupt();
+                    }
                 }
         }
     }
@@ -73,11 +92,17 @@ public class Process extends Thread implements Consumer<Signal> {
         Consumer<Signal> prev = conn.getSignalHandler();
         Consumer<int[]> prevIn = conn.getStdinHandler();
         conn.setSignalHandler(this);
-        running = true;
-        pid = (int) Thread.currentThread().getId();
+        synchronized (this) {
+            worker = Thread.currentThread();
+            running = true;
+        }
+        pid = (int) worker.getId();
 
+        boolean completed = false;
         try {
+            pipeline.start();
             execution.execute();
+            completed = true;
         }
         catch (CommandValidatorException | CommandException  | OptionValidatorException | CommandLineParserException e ) {
             execution.setResut(CommandResult.FAILURE);
@@ -93,7 +118,15 @@ public class Process extends Thread implements Consumer<Signal> {
             LOGGER.log(Level.WARNING, "Uncaught exception when executing the command: "+execution.getCommand().toString(), e);
         }
         finally {
-            running = false;
+            pipeline.finish(completed);
+            if(pipeline.getFailure() != null)
+                conn.write(pipeline.getFailure().getMessage()+ Config.getLineSeparator());
+            synchronized (this) {
+                running = false;
+                worker = null;
+            }
+            // the thread might be reused for another process, don't let a late Ctrl-C leak into it
+            Thread.interrupted();
             conn.setSignalHandler(prev);
             conn.setStdinHandler(prevIn);
             manager.processFinished(this);
@@ -0,0 +1,78 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.readline;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.aesh.readline.util.LoggerUtil;
+
+/**
+ * Execution strategies for the processes started by {@link ProcessManager}.
+ * By default every command is executed on a new thread, these strategies
+ * avoid the cost of creating and tearing down a thread for each command.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public final class ProcessExecutors {
+
+    private static final Logger LOGGER = LoggerUtil.getLogger(ProcessExecutors.class.getName());
+
+    private ProcessExecutors() {
+    }
+
+    /**
+     * @return an executor that reuses idle worker threads and creates new ones when needed
+     */
+    public static ExecutorService pooled() {
+        return Executors.newCachedThreadPool(new ProcessThreadFactory());
+    }
+
+    /**
+     * @return an executor that runs every process on a new virtual thread if the JDK
+     * supports it, otherwise a pooled executor
+     */
+    public static ExecutorService virtualThreads() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        }
+        catch (ReflectiveOperationException e) {
+            LOGGER.log(Level.FINE, "Virtual threads are not supported, using a thread pool", e);
+            return pooled();
+        }
+    }
+
+    private static class ProcessThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "aesh-process-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -31,8 +31,18 @@ public class ProcessManager {
     private Connection conn;
     private final Console console;
     private Executor<? extends CommandInvocation> executor;
+    private final java.util.concurrent.Executor processExecutor;
+
     public ProcessManager(Console console) {
+        this(console, null);
+    }
+
+    /**
+     * @param processExecutor used to run the processes, if null every process is run on a new thread
+     */
+    public ProcessManager(Console console, java.util.concurrent.Executor processExecutor) {
         this.console = console;
+        this.processExecutor = processExecutor;
     }
 
     public void execute(Executor<? extends CommandInvocation> executor, Connection conn) {
@@ -62,7 +72,11 @@ public class ProcessManager {
 
     public void executeNext() {
         if(hasNext()) {
-            new Process(this, conn, executor.getNextExecution()).start();
+            Process process = new Process(this, conn, executor.getNextPipeline());
+            if(processExecutor != null)
+                processExecutor.execute(process);
+            else
+                process.start();
         }
     }
 }
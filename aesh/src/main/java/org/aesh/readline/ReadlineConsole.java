@@ -45,6 +45,7 @@ import org.aesh.command.operator.OperatorType;
 import org.aesh.command.parser.CommandLineParserException;
 import org.aesh.command.registry.CommandRegistryException;
 import org.aesh.command.registry.MutableCommandRegistry;
+import org.aesh.command.script.ScriptReader;
 import org.aesh.command.settings.Settings;
 import org.aesh.command.settings.SettingsBuilder;
 import org.aesh.command.validator.CommandValidatorException;
@@ -53,6 +54,7 @@ import org.aesh.command.validator.ValidatorInvocation;
 import org.aesh.complete.AeshCompleteOperation;
 import org.aesh.io.scanner.AnnotationDetector;
 import org.aesh.io.scanner.CommandDefinitionReporter;
+import org.aesh.io.scanner.ScanIndex;
 import org.aesh.readline.alias.AliasCompletion;
 import org.aesh.readline.alias.AliasManager;
 import org.aesh.readline.alias.AliasPreProcessor;
@@ -70,12 +72,17 @@ import org.aesh.terminal.tty.Signal;
 import org.aesh.terminal.utils.Config;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
 import java.nio.charset.Charset;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.logging.Level;
@@ -100,6 +107,8 @@ public class ReadlineConsole implements Console, Consumer<Connection> {
     private AeshCompletionHandler completionHandler;
     private CommandRuntime<? extends CommandInvocation> runtime;
     private ProcessManager processManager;
+    //executeAtStart and executeFileAtStart, read one line at the time
+    private final Deque<ScriptReader> startScripts = new ArrayDeque<>();
     private ExportManager exportManager;
     private static List<Function<String, Optional<String>>> preProcessors = new ArrayList<>();
 
@@ -203,6 +212,9 @@ public class ReadlineConsole implements Console, Consumer<Connection> {
             }
             if(aliasManager != null && settings.persistAlias())
                 aliasManager.persist();
+            //running commands are allowed to finish
+            if(settings.shutdownProcessExecutor() && settings.processExecutor() instanceof ExecutorService)
+                ((ExecutorService) settings.processExecutor()).shutdown();
         }
     }
 
@@ -238,8 +250,9 @@ public class ReadlineConsole implements Console, Consumer<Connection> {
         }
 
         this.runtime = generateRuntime();
+        processManager = new ProcessManager(this, settings.processExecutor());
+        openStartScripts();
         read(this.connection, readline);
-        processManager = new ProcessManager(this);
         this.connection.openBlocking();
     }
 
@@ -275,6 +288,13 @@ public class ReadlineConsole implements Console, Consumer<Connection> {
         shell.printCollectedOutput();
 
         if(running) {
+            //the start scripts are executed like lines typed by the user
+            String startLine = nextStartLine();
+            if(startLine != null) {
+                shell.startCollectOutput();
+                processLine(startLine, conn);
+                return;
+            }
             readline.readline(conn, prompt, line -> {
                 if (line != null && line.trim().length() > 0) {
                     shell.startCollectOutput();
@@ -294,6 +314,45 @@ public class ReadlineConsole implements Console, Consumer<Connection> {
         }
      }
 
+    private void openStartScripts() {
+        if(settings.executeAtStart() != null)
+            startScripts.add(new ScriptReader(new StringReader(settings.executeAtStart())));
+        if(settings.executeFileAtStart() != null) {
+            try {
+                startScripts.add(new ScriptReader(
+                        new InputStreamReader(settings.executeFileAtStart().read(), Charset.defaultCharset())));
+            }
+            catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to read the start script", e);
+            }
+        }
+    }
+
+    /**
+     * @return the next line of the start scripts, null when they are done
+     */
+    private String nextStartLine() {
+        while(!startScripts.isEmpty()) {
+            ScriptReader script = startScripts.peek();
+            try {
+                String line = script.readLine();
+                if(line != null)
+                    return line;
+            }
+            catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to read the start script", e);
+            }
+            startScripts.poll();
+            try {
+                script.close();
+            }
+            catch (IOException e) {
+                LOGGER.log(Level.FINE, "Failed to close the start script", e);
+            }
+        }
+        return null;
+    }
+
     private void processLine(String line, Connection conn) {
         try {
             Executor<? extends CommandInvocation> executor = runtime.buildExecutor(line);
@@ -383,15 +442,21 @@ public class ReadlineConsole implements Console, Consumer<Connection> {
     private AeshCommandResolver<? extends CommandInvocation> getCommandResolverThroughScan() {
         MutableCommandRegistry<CommandInvocation> registry = new MutableCommandRegistryImpl<>();
 
-        CommandDefinitionReporter reporter = new CommandDefinitionReporter();
-        AnnotationDetector detector = new AnnotationDetector(reporter);
+        ScanIndex index = settings.scanIndexFile() != null ? ScanIndex.load(settings.scanIndexFile()) : null;
         try {
-            detector.detect(settings.getScanForCommandPackages());
-            for(String command : reporter.getCommands()) {
-                //registry.addCommand(Class.forName(command));
-                final Class<Command> clazz = (Class<Command>) Class.forName(command);
-                registry.addCommand(clazz);
+            try {
+                addScannedCommands(registry, index);
+            }
+            catch (ClassNotFoundException e) {
+                if(index == null)
+                    throw e;
+                //the index is stale, scan everything again
+                LOGGER.log(Level.FINE, "Scan index is stale, scanning all command packages", e);
+                index.clear();
+                addScannedCommands(registry, index);
             }
+            if(index != null)
+                index.save();
         }
         catch (IOException e) {
             LOGGER.log(Level.WARNING, "AnnotationDetector failed to scan for CommandDefinition annotations", e);
@@ -403,6 +468,18 @@ public class ReadlineConsole implements Console, Consumer<Connection> {
         return new AeshCommandResolver<>(registry);
     }
 
+    @SuppressWarnings("unchecked")
+    private void addScannedCommands(MutableCommandRegistry<CommandInvocation> registry, ScanIndex index)
+            throws IOException, ClassNotFoundException, CommandRegistryException {
+        CommandDefinitionReporter reporter = new CommandDefinitionReporter();
+        AnnotationDetector detector = new AnnotationDetector(reporter);
+        detector.detect(index, settings.getScanForCommandPackages());
+        for(String command : reporter.getCommands()) {
+            final Class<Command> clazz = (Class<Command>) Class.forName(command);
+            registry.addCommand(clazz);
+        }
+    }
+
     class AeshCompletion implements Completion<AeshCompleteOperation> {
         @Override
         public void complete(AeshCompleteOperation completeOperation) {
@@ -419,7 +496,8 @@ public class ReadlineConsole implements Console, Consumer<Connection> {
     }
 
     private CommandRuntime<? extends CommandInvocation> generateRuntime() {
-        shell = new ShellImpl(connection, settings.enableSearchInPaging());
+        shell = new ShellImpl(connection, settings.enableSearchInPaging(), settings.pagingMemoryLimit());
+        shell.setPagingSearchMode(settings.pagingSearchMode());
         return AeshCommandRuntimeBuilder.builder()
                 .settings(settings)
                 .commandInvocationBuilder(new AeshCommandInvocationBuilder(shell, this))
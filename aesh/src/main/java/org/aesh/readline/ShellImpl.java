@@ -26,6 +26,7 @@ import org.aesh.terminal.Connection;
 import org.aesh.terminal.tty.Capability;
 import org.aesh.terminal.tty.Size;
 import org.aesh.terminal.utils.Config;
+import org.aesh.util.PageSearch;
 
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -45,8 +46,19 @@ public class ShellImpl implements Shell {
     }
 
     public ShellImpl(Connection connection, boolean search) {
+        this(connection, search, PagingSupport.DEFAULT_MEMORY_LIMIT);
+    }
+
+    /**
+     * @param pagingMemoryLimit number of characters of paged output kept in memory
+     */
+    public ShellImpl(Connection connection, boolean search, long pagingMemoryLimit) {
         this.connection = connection;
-        pagingSupport = new PagingSupport(connection, search);
+        pagingSupport = new PagingSupport(connection, search, pagingMemoryLimit);
+    }
+
+    void setPagingSearchMode(PageSearch.Mode mode) {
+        pagingSupport.setSearchMode(mode);
     }
 
     void startCollectOutput() {
@@ -26,6 +26,7 @@ import org.aesh.terminal.utils.ANSI;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
 import static org.aesh.terminal.utils.ANSI.MOVE_LINE_DOWN;
@@ -36,6 +37,8 @@ public class Selector {
     private final SelectorType type;
     private final ArrayList<String> defaultValues;
     private final String message;
+    //values that are read when they are displayed
+    private final Iterator<String> values;
 
     public Selector(SelectorType type, String[] defaultValues, String message) {
        this(type, Arrays.asList(defaultValues), message);
@@ -50,6 +53,20 @@ public class Selector {
            this.defaultValues.addAll(defaultValues);
 
        this.message = message;
+       this.values = null;
+    }
+
+    /**
+     * The values are read when the selector is displayed, large lists are read
+     * lazily by a {@link VirtualSelector}.
+     */
+    public Selector(SelectorType type, Iterator<String> values, String message) {
+        if(type == null)
+            throw new IllegalArgumentException("SelectorType can not be null");
+        this.type = type;
+        this.defaultValues = new ArrayList<>();
+        this.values = values;
+        this.message = message;
     }
 
     public List<String> doSelect(Shell shell) throws InterruptedException {
@@ -65,12 +82,43 @@ public class Selector {
            return new ArrayList<>();
     }
 
+    /**
+     * Lists that do not fit on the screen are displayed by a {@link VirtualSelector}.
+     * Only the values needed to find out if they fit are read from the iterator.
+     */
+    private boolean virtual(Shell shell) {
+        if(values != null)
+            while(values.hasNext() && defaultValues.size()+1 <= shell.size().getHeight())
+                defaultValues.add(values.next());
+        return defaultValues.size()+1 > shell.size().getHeight();
+    }
+
+    private List<String> virtualSelect(Shell shell, boolean multiSelect) {
+        Iterator<String> read = defaultValues.iterator();
+        Iterator<String> source = values == null ? read : new Iterator<String>() {
+            @Override
+            public boolean hasNext() {
+                return read.hasNext() || values.hasNext();
+            }
+
+            @Override
+            public String next() {
+                return read.hasNext() ? read.next() : values.next();
+            }
+        };
+        return new VirtualSelector(shell, source, message, multiSelect).doSelect();
+    }
+
     private List<String> multiSelect(Shell shell) {
+        if(virtual(shell))
+            return virtualSelect(shell, true);
         MultiSelect multiSelect = new MultiSelect(shell, defaultValues, message);
         return multiSelect.doSelect();
     }
 
     private List<String> select(Shell shell) {
+        if(virtual(shell))
+            return virtualSelect(shell, false);
         List<String> out = new ArrayList<>(1);
 
         shell.writeln(message+"  [Use arrow up/down to move and enter/space to select]");
@@ -0,0 +1,173 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.selector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The values of a selector, read lazily from an iterator.
+ *
+ * Values are only read when they are displayed or when they are filtered.
+ * Filtering reads all the values and builds an index of the lower case values,
+ * a filter can be narrowed by filtering the result of the previous filter again.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public class SelectorIndex {
+
+    public enum Mode {
+        /**
+         * The value starts with the filter, ignoring case.
+         */
+        PREFIX,
+        /**
+         * The chars of the filter are found in the value in the same order, ignoring case.
+         */
+        FUZZY
+    }
+
+    private final Iterator<String> source;
+    private final List<String> values = new ArrayList<>();
+    private String[] lowerCase;
+    //value indexes ordered by lower case value, used by the prefix filter
+    private int[] sorted;
+
+    public SelectorIndex(Iterator<String> source) {
+        this.source = source;
+    }
+
+    public SelectorIndex(List<String> values) {
+        this(values.iterator());
+    }
+
+    /**
+     * Read values until count values are loaded or there are no more values.
+     *
+     * @return true if count values are loaded
+     */
+    public boolean load(int count) {
+        while(values.size() < count && source.hasNext())
+            values.add(source.next());
+        return values.size() >= count;
+    }
+
+    /**
+     * Read all the remaining values.
+     */
+    public void loadAll() {
+        while(source.hasNext())
+            values.add(source.next());
+    }
+
+    /**
+     * @return true if all the values are loaded
+     */
+    public boolean isLoaded() {
+        return !source.hasNext();
+    }
+
+    /**
+     * @return number of values loaded so far
+     */
+    public int size() {
+        return values.size();
+    }
+
+    public String get(int index) {
+        return values.get(index);
+    }
+
+    /**
+     * Find the values matching the filter.
+     *
+     * @param filter the filter, matched ignoring case
+     * @param mode how the filter is matched
+     * @param candidates indexes of the values to check in ascending order,
+     *                   eg the result of a shorter filter, null to check all values
+     * @return the indexes of the matching values in ascending order
+     */
+    public int[] filter(String filter, Mode mode, int[] candidates) {
+        buildIndex();
+        String lowerFilter = filter.toLowerCase(Locale.ENGLISH);
+        if(candidates == null && mode == Mode.PREFIX)
+            return prefixRange(lowerFilter);
+
+        int size = candidates == null ? lowerCase.length : candidates.length;
+        int[] matches = new int[size];
+        int found = 0;
+        for(int i = 0; i < size; i++) {
+            int index = candidates == null ? i : candidates[i];
+            if(mode == Mode.PREFIX ? lowerCase[index].startsWith(lowerFilter) :
+                    fuzzyMatch(lowerCase[index], lowerFilter))
+                matches[found++] = index;
+        }
+        return Arrays.copyOf(matches, found);
+    }
+
+    private int[] prefixRange(String prefix) {
+        int low = 0;
+        int high = sorted.length;
+        while(low < high) {
+            int middle = (low + high) >>> 1;
+            if(lowerCase[sorted[middle]].compareTo(prefix) < 0)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        int end = low;
+        while(end < sorted.length && lowerCase[sorted[end]].startsWith(prefix))
+            end++;
+        int[] matches = Arrays.copyOfRange(sorted, low, end);
+        Arrays.sort(matches);
+        return matches;
+    }
+
+    private void buildIndex() {
+        loadAll();
+        if(lowerCase != null && lowerCase.length == values.size())
+            return;
+        lowerCase = new String[values.size()];
+        for(int i = 0; i < lowerCase.length; i++)
+            lowerCase[i] = values.get(i).toLowerCase(Locale.ENGLISH);
+        Integer[] order = new Integer[lowerCase.length];
+        for(int i = 0; i < order.length; i++)
+            order[i] = i;
+        Arrays.sort(order, Comparator.comparing(i -> lowerCase[i]));
+        sorted = new int[order.length];
+        for(int i = 0; i < order.length; i++)
+            sorted[i] = order[i];
+    }
+
+    static boolean fuzzyMatch(String value, String filter) {
+        int position = 0;
+        for(int i = 0; i < filter.length(); i++) {
+            position = value.indexOf(filter.charAt(i), position);
+            if(position < 0)
+                return false;
+            position++;
+        }
+        return true;
+    }
+}
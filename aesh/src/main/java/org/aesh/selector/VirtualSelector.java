@@ -0,0 +1,227 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.selector;
+
+import org.aesh.command.shell.Shell;
+import org.aesh.readline.terminal.Key;
+import org.aesh.terminal.utils.ANSI;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A selector for large lists of values.
+ *
+ * The values are read lazily and only the visible lines are rendered, a line is only
+ * written again when its content has changed. Typing filters the values, see {@link SelectorIndex}.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public class VirtualSelector {
+
+    //the message and the filter line are displayed above the values
+    private static final int HEADER_LINES = 2;
+
+    private final Shell shell;
+    private final Supplier<Iterator<String>> values;
+    private final String message;
+    private final boolean multiSelect;
+    private SelectorIndex.Mode filterMode = SelectorIndex.Mode.PREFIX;
+
+    private SelectorIndex index;
+    private final BitSet selected = new BitSet();
+    private final StringBuilder filter = new StringBuilder();
+    //the matches of each filter length, null when nothing is filtered
+    private final List<int[]> matches = new ArrayList<>();
+    private int focus;
+    private int top;
+    private int width;
+    private int height;
+    private String[] rendered;
+
+    public VirtualSelector(Shell shell, Iterator<String> values, String message, boolean multiSelect) {
+        this(shell, () -> values, message, multiSelect);
+    }
+
+    /**
+     * @param values supplies the values when the selector is displayed
+     */
+    public VirtualSelector(Shell shell, Supplier<Iterator<String>> values, String message, boolean multiSelect) {
+        this.shell = shell;
+        this.values = values;
+        this.message = message;
+        this.multiSelect = multiSelect;
+    }
+
+    public VirtualSelector filterMode(SelectorIndex.Mode filterMode) {
+        this.filterMode = filterMode;
+        return this;
+    }
+
+    public List<String> doSelect() {
+        index = new SelectorIndex(values.get());
+        width = shell.size().getWidth();
+        height = Math.max(shell.size().getHeight(), HEADER_LINES + 1);
+        rendered = new String[height];
+        index.load(visibleLines() + 1);
+
+        shell.write(ANSI.CURSOR_HIDE);
+        shell.write(ANSI.ALTERNATE_BUFFER);
+        shell.write(ANSI.CLEAR_SCREEN);
+        List<String> out = new ArrayList<>();
+        try {
+            render();
+            boolean waitingForEnter = true;
+            while(waitingForEnter) {
+                Key in = shell.read();
+                if(in == null)
+                    break;
+                if(in == Key.ENTER || in == Key.ENTER_2 || in == Key.CTRL_M) {
+                    waitingForEnter = false;
+                    if(multiSelect)
+                        collectSelected(out);
+                    else if(size() > 0)
+                        out.add(index.get(valueAt(focus)));
+                }
+                else if(in == Key.SPACE) {
+                    if(size() > 0) {
+                        if(multiSelect)
+                            selected.flip(valueAt(focus));
+                        else {
+                            waitingForEnter = false;
+                            out.add(index.get(valueAt(focus)));
+                        }
+                    }
+                }
+                else if(in == Key.UP || in == Key.UP_2)
+                    moveFocus(-1);
+                else if(in == Key.DOWN || in == Key.DOWN_2)
+                    moveFocus(1);
+                else if(in == Key.PGUP || in == Key.PGUP_2)
+                    moveFocus(-visibleLines());
+                else if(in == Key.PGDOWN || in == Key.PGDOWN_2)
+                    moveFocus(visibleLines());
+                else if(in == Key.BACKSPACE || in == Key.CTRL_H) {
+                    if(filter.length() > 0) {
+                        filter.setLength(filter.length() - 1);
+                        matches.remove(matches.size() - 1);
+                        resetFocus();
+                    }
+                }
+                else if(isPrintable(in)) {
+                    filter.append((char) in.getFirstValue());
+                    int[] previous = matches.isEmpty() ? null : matches.get(matches.size() - 1);
+                    matches.add(index.filter(filter.toString(), filterMode, previous));
+                    resetFocus();
+                }
+                if(waitingForEnter)
+                    render();
+            }
+        }
+        catch(InterruptedException e) {
+            out.clear();
+        }
+        finally {
+            shell.write(ANSI.MAIN_BUFFER);
+            shell.write(ANSI.CURSOR_SHOW);
+        }
+        return out;
+    }
+
+    private static boolean isPrintable(Key in) {
+        return in.getKeyValues().length == 1 && !Character.isISOControl(in.getFirstValue());
+    }
+
+    private int visibleLines() {
+        return height - HEADER_LINES;
+    }
+
+    /**
+     * @return number of values that can be displayed, only the loaded values if nothing is filtered
+     */
+    private int size() {
+        return matches.isEmpty() ? index.size() : matches.get(matches.size() - 1).length;
+    }
+
+    private int valueAt(int position) {
+        return matches.isEmpty() ? position : matches.get(matches.size() - 1)[position];
+    }
+
+    private void moveFocus(int move) {
+        int wanted = Math.max(focus + move, 0);
+        //load the values needed to display the page the focus is moved to
+        if(matches.isEmpty())
+            index.load(wanted + visibleLines() + 1);
+        focus = Math.min(wanted, Math.max(size() - 1, 0));
+        if(focus < top)
+            top = focus;
+        else if(focus >= top + visibleLines())
+            top = focus - visibleLines() + 1;
+    }
+
+    private void resetFocus() {
+        focus = 0;
+        top = 0;
+    }
+
+    /**
+     * Write the lines that have changed since the last render in one write.
+     */
+    private void render() {
+        StringBuilder builder = new StringBuilder();
+        renderLine(builder, 0, message + "  [Use arrow up/down to move, type to filter and "+
+                (multiSelect ? "space to select. Enter to finish]" : "enter/space to select]"));
+        renderLine(builder, 1, "Filter: " + filter + "  (" + size() +
+                (matches.isEmpty() && !index.isLoaded() ? "+" : "") + ")");
+        for(int line = 0; line < visibleLines(); line++) {
+            int position = top + line;
+            renderLine(builder, HEADER_LINES + line, position < size() ? printValue(position) : "");
+        }
+        if(builder.length() > 0)
+            shell.write(builder.toString());
+    }
+
+    private void renderLine(StringBuilder builder, int row, String line) {
+        if(line.length() > width)
+            line = width > 3 ? line.substring(0, width - 3) + "..." : line.substring(0, width);
+        if(line.equals(rendered[row]))
+            return;
+        rendered[row] = line;
+        builder.append(ANSI.START).append(row + 1).append(";1H")
+                .append(line).append(ANSI.START).append('K');
+    }
+
+    private String printValue(int position) {
+        int value = valueAt(position);
+        char focusMarker = position == focus ? '>' : ' ';
+        if(multiSelect)
+            return focusMarker + (selected.get(value) ? "[*] " : "[ ] ") + index.get(value);
+        else
+            return focusMarker + " " + index.get(value);
+    }
+
+    private void collectSelected(List<String> out) {
+        for(int value = selected.nextSetBit(0); value >= 0; value = selected.nextSetBit(value + 1))
+            out.add(index.get(value));
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Search in paged content.
+ * The lines are scanned on a background thread and the positions of the matches are
+ * stored in line order, so the next and previous match are found with a binary search
+ * and matches are highlighted from the stored offsets.
+ * The number of lines can grow while searching, new lines are scanned when they are
+ * needed by a lookup.
+ *
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public final class PageSearch implements AutoCloseable {
+
+    public enum Mode {
+        LITERAL,
+        IGNORE_CASE,
+        REGEX,
+        REGEX_IGNORE_CASE
+    }
+
+    private static final int BATCH_SIZE = 1024;
+
+    private final String pattern;
+    private final Pattern compiled;
+    private final IntFunction<String> lines;
+    private final IntSupplier lineCount;
+
+    //line, start and end offset of every match, ordered by line
+    private int[] matchLines = new int[64];
+    private int[] matchStarts = new int[64];
+    private int[] matchEnds = new int[64];
+    private int count;
+    private int scanned;
+    private Thread scanner;
+    private volatile boolean closed;
+
+    /**
+     * @param pattern search pattern
+     * @param mode how the pattern is matched
+     * @param lines returns the line at the given index
+     * @param lineCount returns the current number of lines
+     * @throws java.util.regex.PatternSyntaxException if the mode is a regex mode and the pattern is invalid
+     */
+    public PageSearch(String pattern, Mode mode, IntFunction<String> lines, IntSupplier lineCount) {
+        this.pattern = pattern;
+        this.lines = lines;
+        this.lineCount = lineCount;
+        if(mode == Mode.LITERAL)
+            compiled = null;
+        else if(mode == Mode.IGNORE_CASE)
+            compiled = Pattern.compile(pattern, Pattern.LITERAL | Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        else if(mode == Mode.REGEX_IGNORE_CASE)
+            compiled = Pattern.compile(pattern, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        else
+            compiled = Pattern.compile(pattern);
+        update();
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * @return the first line after the given line that has a match, -1 if there is none
+     */
+    public synchronized int nextLine(int line) {
+        while(true) {
+            int index = firstAfter(line);
+            if(index < count)
+                return matchLines[index];
+            update();
+            if(scanner == null || !await())
+                return -1;
+        }
+    }
+
+    /**
+     * @return the last line before the given line that has a match, -1 if there is none
+     */
+    public synchronized int previousLine(int line) {
+        update();
+        while(scanner != null && scanned < line) {
+            if(!await())
+                return -1;
+        }
+        int index = firstAfter(line - 1);
+        return index > 0 ? matchLines[index - 1] : -1;
+    }
+
+    /**
+     * @return true if any line has a match
+     */
+    public synchronized boolean hasMatches() {
+        return nextLine(-1) >= 0;
+    }
+
+    /**
+     * @return all lines with a match, in order
+     */
+    public synchronized List<Integer> getMatchLines() {
+        update();
+        while(scanner != null) {
+            if(!await())
+                break;
+        }
+        List<Integer> result = new ArrayList<>();
+        for(int i = 0; i < count; i++) {
+            if(i == 0 || matchLines[i] != matchLines[i - 1])
+                result.add(matchLines[i]);
+        }
+        return result;
+    }
+
+    /**
+     * @param line index of the line
+     * @param text the text of the line
+     * @param before written before every match
+     * @param after written after every match
+     * @return the text with every match surrounded by before and after
+     */
+    public synchronized String highlight(int line, String text, String before, String after) {
+        update();
+        while(scanner != null && scanned <= line) {
+            if(!await())
+                return text;
+        }
+        int index = firstAfter(line - 1);
+        if(index == count || matchLines[index] != line)
+            return text;
+        StringBuilder builder = new StringBuilder(text.length() + 16);
+        int position = 0;
+        for(; index < count && matchLines[index] == line; index++) {
+            builder.append(text, position, matchStarts[index])
+                    .append(before)
+                    .append(text, matchStarts[index], matchEnds[index])
+                    .append(after);
+            position = matchEnds[index];
+        }
+        return builder.append(text, position, text.length()).toString();
+    }
+
+    /**
+     * Stop the background scan.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        notifyAll();
+    }
+
+    /**
+     * Start scanning the lines added since the last scan
+     */
+    private synchronized void update() {
+        if(scanner == null && !closed && scanned < lineCount.getAsInt()) {
+            scanner = new Thread(this::scan, "aesh-page-search");
+            scanner.setDaemon(true);
+            scanner.start();
+        }
+    }
+
+    private boolean await() {
+        try {
+            wait();
+            return !closed;
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private int firstAfter(int line) {
+        int low = 0;
+        int high = count;
+        while(low < high) {
+            int mid = (low + high) >>> 1;
+            if(matchLines[mid] <= line)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    private void scan() {
+        Matcher matcher = compiled != null ? compiled.matcher("") : null;
+        int[] found = new int[3 * 64];
+        try {
+            while(!closed) {
+                int from;
+                int to;
+                synchronized(this) {
+                    from = scanned;
+                    to = Math.min(lineCount.getAsInt(), from + BATCH_SIZE);
+                    //lines added after this check start a new scan
+                    if(from >= to) {
+                        scanner = null;
+                        notifyAll();
+                        return;
+                    }
+                }
+                int size = 0;
+                for(int line = from; line < to; line++) {
+                    String text = lines.apply(line);
+                    if(matcher != null) {
+                        matcher.reset(text);
+                        while(matcher.find()) {
+                            if(matcher.end() > matcher.start()) {
+                                found = ensureCapacity(found, size + 3);
+                                found[size++] = line;
+                                found[size++] = matcher.start();
+                                found[size++] = matcher.end();
+                            }
+                        }
+                    }
+                    else if(!pattern.isEmpty()) {
+                        int index = text.indexOf(pattern);
+                        while(index >= 0) {
+                            found = ensureCapacity(found, size + 3);
+                            found[size++] = line;
+                            found[size++] = index;
+                            found[size++] = index + pattern.length();
+                            index = text.indexOf(pattern, index + pattern.length());
+                        }
+                    }
+                }
+                synchronized(this) {
+                    add(found, size);
+                    scanned = to;
+                    notifyAll();
+                }
+            }
+        }
+        finally {
+            synchronized(this) {
+                if(scanner == Thread.currentThread())
+                    scanner = null;
+                notifyAll();
+            }
+        }
+    }
+
+    private void add(int[] found, int size) {
+        int added = size / 3;
+        if(count + added > matchLines.length) {
+            int length = Math.max(count + added, matchLines.length * 2);
+            matchLines = Arrays.copyOf(matchLines, length);
+            matchStarts = Arrays.copyOf(matchStarts, length);
+            matchEnds = Arrays.copyOf(matchEnds, length);
+        }
+        for(int i = 0; i < size; i += 3) {
+            matchLines[count] = found[i];
+            matchStarts[count] = found[i + 1];
+            matchEnds[count++] = found[i + 2];
+        }
+    }
+
+    private static int[] ensureCapacity(int[] array, int size) {
+        return size <= array.length ? array : Arrays.copyOf(array, Math.max(size, array.length * 2));
+    }
+}
@@ -23,8 +23,13 @@ import org.aesh.command.Command;
 import org.aesh.command.CommandDefinition;
 import org.aesh.command.CommandResult;
 import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.option.Arguments;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
 
 public class AeshRuntimeRunnerTest {
@@ -52,6 +57,17 @@ public class AeshRuntimeRunnerTest {
 
     }
 
+    @Test
+    public void testArgumentsAreNotParsed() {
+        //a single argument is one value, it is not parsed as a line
+        CommandResult result = AeshRuntimeRunner.builder().command(EchoCommand.class).args("foo --bar | baz").execute();
+        assertEquals(CommandResult.SUCCESS.getResultValue(), result.getResultValue());
+        assertEquals(Collections.singletonList("foo --bar | baz"), EchoCommand.values);
+
+        AeshRuntimeRunner.builder().command(EchoCommand.class).args("foo bar", "baz").execute();
+        assertEquals(Arrays.asList("foo bar", "baz"), EchoCommand.values);
+    }
+
 
     @CommandDefinition(name = "bar1", description = "bar1")
     public static class Bar1Command implements Command {
@@ -69,6 +85,20 @@ public class AeshRuntimeRunnerTest {
         }
     }
 
+    @CommandDefinition(name = "echo", description = "echo")
+    public static class EchoCommand implements Command {
+        private static List<String> values;
+
+        @Arguments
+        private List<String> arguments;
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            values = arguments;
+            return CommandResult.SUCCESS;
+        }
+    }
+
     @CommandDefinition(name = "bar2", description = "bar2")
     public static class Bar2Command implements Command {
         @Override
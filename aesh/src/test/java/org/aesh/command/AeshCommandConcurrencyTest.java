@@ -0,0 +1,217 @@
+package org.aesh.command;
+
+import org.aesh.command.impl.registry.AeshCommandRegistryBuilder;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.option.Option;
+import org.aesh.command.registry.CommandRegistry;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AeshCommandConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int INVOCATIONS = 500;
+
+    @Test
+    public void testConcurrentExecution() throws Exception {
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.builder()
+                .command(SumCommand.class).create();
+        CommandRuntime<CommandInvocation> runtime = AeshCommandRuntimeBuilder.builder()
+                .commandRegistry(registry).concurrent(true).build();
+
+        stress(runtime, "sum");
+    }
+
+    @Test
+    public void testConcurrentExecutionOfSharedCommand() throws Exception {
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.builder()
+                .command(SharedGroupCommand.class).create();
+        CommandRuntime<CommandInvocation> runtime = AeshCommandRuntimeBuilder.builder()
+                .commandRegistry(registry).concurrent(true).build();
+
+        //the sub command instance is shared, the invocations must be serialized
+        stress(runtime, "shared sum");
+    }
+
+    @Test
+    public void testConcurrentExecutionOfInstance() throws Exception {
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.builder()
+                .command(new OffsetCommand(100)).create();
+        CommandRuntime<CommandInvocation> runtime = AeshCommandRuntimeBuilder.builder()
+                .commandRegistry(registry).concurrent(true).build();
+
+        //a copy would not have the offset given to the registered instance
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for(int i = 0; i < 20; i++) {
+                int value = i;
+                results.add(executor.submit(() -> runtime.executeCommand("offset -a "+value).getResultValue()));
+            }
+            for(int i = 0; i < results.size(); i++)
+                assertEquals(i + 100, results.get(i).get(10, TimeUnit.SECONDS).intValue());
+        }
+        finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testNestedExecution() throws Exception {
+        InnerCommand inner = new InnerCommand();
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.builder()
+                .command(new OuterCommand()).command(inner).create();
+        CommandRuntime<CommandInvocation> runtime = AeshCommandRuntimeBuilder.builder()
+                .commandRegistry(registry).concurrent(true).build();
+
+        //neither command can be copied, the nested invocation must not wait for the outer one
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<CommandResult>> results = new ArrayList<>();
+            for(int i = 0; i < 10; i++) {
+                results.add(executor.submit(() -> runtime.executeCommand("outer")));
+                results.add(executor.submit(() -> runtime.executeCommand("inner")));
+            }
+            for(Future<CommandResult> result : results)
+                assertEquals(CommandResult.SUCCESS, result.get(10, TimeUnit.SECONDS));
+            assertEquals(20, inner.executed.get());
+        }
+        finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    private void stress(CommandRuntime<CommandInvocation> runtime, String command) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for(int t = 0; t < THREADS; t++) {
+                tasks.add(() -> {
+                    int failures = 0;
+                    for(int i = 0; i < INVOCATIONS; i++) {
+                        int a = ThreadLocalRandom.current().nextInt(1000);
+                        int b = ThreadLocalRandom.current().nextInt(1000);
+                        String line = (i % 2 == 0) ? command+" -a "+a+" -b "+b : command+" -a "+a+" -b "+b+" --negate";
+                        int expected = (i % 2 == 0) ? a + b : -(a + b);
+                        if(runtime.executeCommand(line).getResultValue() != expected)
+                            failures++;
+                    }
+                    return failures;
+                });
+            }
+            int failures = 0;
+            for(Future<Integer> future : executor.invokeAll(tasks))
+                failures += future.get();
+            assertEquals(0, failures);
+        }
+        finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @CommandDefinition(name = "sum", description = "")
+    public static class SumCommand implements Command<CommandInvocation> {
+
+        @Option(shortName = 'a')
+        private int a;
+
+        @Option(shortName = 'b')
+        private int b;
+
+        @Option(hasValue = false)
+        private boolean negate;
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            int first = a;
+            Thread.yield();
+            int sum = first + b;
+            return CommandResult.valueOf(negate ? -sum : sum);
+        }
+    }
+
+    @CommandDefinition(name = "offset", description = "")
+    public static class OffsetCommand implements Command<CommandInvocation> {
+
+        private final int offset;
+
+        @Option(shortName = 'a')
+        private int a;
+
+        public OffsetCommand() {
+            this(0);
+        }
+
+        public OffsetCommand(int offset) {
+            this.offset = offset;
+        }
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            return CommandResult.valueOf(a + offset);
+        }
+    }
+
+    @CommandDefinition(name = "outer", description = "")
+    public static class OuterCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) throws InterruptedException {
+            try {
+                commandInvocation.executeCommand("inner");
+                return CommandResult.SUCCESS;
+            }
+            catch(InterruptedException e) {
+                throw e;
+            }
+            catch(Exception e) {
+                return CommandResult.FAILURE;
+            }
+        }
+    }
+
+    @CommandDefinition(name = "inner", description = "")
+    public static class InnerCommand implements Command<CommandInvocation> {
+
+        private final AtomicInteger executed = new AtomicInteger();
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            executed.incrementAndGet();
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @GroupCommandDefinition(name = "shared", description = "")
+    public static class SharedGroupCommand implements GroupCommand<CommandInvocation> {
+
+        private static final List<Command<CommandInvocation>> COMMANDS =
+                Collections.singletonList(new SumCommand());
+
+        @Override
+        public List<Command<CommandInvocation>> getCommands() {
+            return COMMANDS;
+        }
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            return CommandResult.FAILURE;
+        }
+    }
+}
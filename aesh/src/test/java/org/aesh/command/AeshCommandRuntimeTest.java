@@ -1,18 +1,31 @@
 package org.aesh.command;
 
+import org.aesh.command.completer.AsyncOptionCompleter;
+import org.aesh.command.completer.CompleterInvocation;
+import org.aesh.command.completer.OptionCompleter;
+import org.aesh.command.converter.Converter;
+import org.aesh.command.converter.ConverterInvocation;
 import org.aesh.command.impl.registry.AeshCommandRegistryBuilder;
 import org.aesh.command.invocation.CommandInvocation;
 import org.aesh.command.option.Argument;
+import org.aesh.command.option.Option;
 import org.aesh.command.parser.CommandLineParserException;
 import org.aesh.command.registry.CommandRegistry;
 import org.aesh.command.registry.CommandRegistryException;
 import org.aesh.command.validator.CommandValidatorException;
 import org.aesh.command.validator.OptionValidatorException;
+import org.aesh.complete.AeshCompleteOperation;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class AeshCommandRuntimeTest {
 
@@ -29,6 +42,227 @@ public class AeshCommandRuntimeTest {
 
     }
 
+    @Test
+    public void executeCommandArgs() throws Exception {
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.builder().command(TestCommand.class).create();
+        CommandRuntime<CommandInvocation> runtime = AeshCommandRuntimeBuilder.builder().commandRegistry(registry).build();
+
+        //the arguments are not parsed again
+        String value = "it's \\ \"quoted\" | > value";
+        builder.setLength(0);
+        runtime.executeCommandArgs("test", value);
+        assertEquals(value, builder.toString());
+
+        builder.setLength(0);
+    }
+
+    @Test
+    public void completionCache() throws CommandRegistryException {
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.builder().command(CompleteCommand.class).create();
+        CommandRuntime<CommandInvocation> runtime = AeshCommandRuntimeBuilder.builder().commandRegistry(registry)
+                .completionCache(true).build();
+        CountingCompleter.count = 0;
+
+        AeshCompleteOperation co = new AeshCompleteOperation(runtime.getAeshContext(), "complete f", 10);
+        runtime.complete(co);
+        assertEquals(2, co.getCompletionCandidates().size());
+        assertEquals(1, CountingCompleter.count);
+
+        //same buffer again
+        co = new AeshCompleteOperation(runtime.getAeshContext(), "complete f", 10);
+        runtime.complete(co);
+        assertEquals(2, co.getCompletionCandidates().size());
+        assertEquals(1, CountingCompleter.count);
+
+        //more chars typed, the cached candidates are narrowed
+        co = new AeshCompleteOperation(runtime.getAeshContext(), "complete foo1", 13);
+        runtime.complete(co);
+        assertEquals(1, co.getCompletionCandidates().size());
+        assertEquals("foo1", co.getCompletionCandidates().get(0).getCharacters());
+        assertEquals(1, CountingCompleter.count);
+
+        co = new AeshCompleteOperation(runtime.getAeshContext(), "complete b", 10);
+        runtime.complete(co);
+        assertEquals(1, co.getCompletionCandidates().size());
+        assertEquals(2, CountingCompleter.count);
+
+        //a truncated result is not narrowed
+        CountingCompleter.truncated = true;
+        runtime.complete(new AeshCompleteOperation(runtime.getAeshContext(), "complete f", 10));
+        assertEquals(3, CountingCompleter.count);
+        co = new AeshCompleteOperation(runtime.getAeshContext(), "complete foo1", 13);
+        runtime.complete(co);
+        assertEquals(1, co.getCompletionCandidates().size());
+        assertEquals(4, CountingCompleter.count);
+        CountingCompleter.truncated = false;
+
+        //a result that is not cacheable is not reused
+        CountingCompleter.cacheable = false;
+        runtime.complete(new AeshCompleteOperation(runtime.getAeshContext(), "complete f", 10));
+        runtime.complete(new AeshCompleteOperation(runtime.getAeshContext(), "complete f", 10));
+        assertEquals(6, CountingCompleter.count);
+        CountingCompleter.cacheable = true;
+
+        //disabled by default
+        runtime = AeshCommandRuntimeBuilder.builder().commandRegistry(registry).build();
+        runtime.complete(new AeshCompleteOperation(runtime.getAeshContext(), "complete f", 10));
+        runtime.complete(new AeshCompleteOperation(runtime.getAeshContext(), "complete f", 10));
+        assertEquals(8, CountingCompleter.count);
+    }
+
+    @Test
+    public void asyncCompleter() throws Exception {
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.builder().command(AsyncCompleteCommand.class).create();
+        CommandRuntime<CommandInvocation> runtime = AeshCommandRuntimeBuilder.builder()
+                .commandRegistry(registry).completerTimeout(100).build();
+        SlowCompleter.release = new CountDownLatch(1);
+
+        //only the values found before the timeout
+        AeshCompleteOperation co = new AeshCompleteOperation(runtime.getAeshContext(), "async f", 7);
+        runtime.complete(co);
+        assertTrue(co.isIncomplete());
+        assertEquals(1, co.getCompletionCandidates().size());
+        assertEquals("foo1", co.getCompletionCandidates().get(0).getCharacters());
+
+        //same input, the request is still running and is waited for again
+        SlowCompleter.release.countDown();
+        co = new AeshCompleteOperation(runtime.getAeshContext(), "async f", 7);
+        runtime.complete(co);
+        assertFalse(co.isIncomplete());
+        assertEquals(2, co.getCompletionCandidates().size());
+
+        //changing the input cancels the request
+        SlowCompleter.release = new CountDownLatch(1);
+        runtime.complete(new AeshCompleteOperation(runtime.getAeshContext(), "async b", 7));
+        CompletableFuture<?> stale = SlowCompleter.last;
+        runtime.complete(new AeshCompleteOperation(runtime.getAeshContext(), "async c", 7));
+        assertTrue(stale.isCancelled());
+        SlowCompleter.release.countDown();
+    }
+
+    @Test
+    public void lazyCompletion() throws CommandRegistryException {
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.builder().command(LazyCompleteCommand.class).create();
+        CommandRuntime<CommandInvocation> runtime = AeshCommandRuntimeBuilder.builder()
+                .commandRegistry(registry).completionCache(false).lazyCompletion(true).build();
+        CountingConverter.count = 0;
+
+        //the completer does not read other values, nothing is converted
+        AeshCompleteOperation co = new AeshCompleteOperation(runtime.getAeshContext(), "lazy --count 2 --name f", 23);
+        runtime.complete(co);
+        assertEquals(2, co.getCompletionCandidates().size());
+        assertEquals(0, CountingConverter.count);
+
+        //the value of count is converted when the completer asks for it
+        co = new AeshCompleteOperation(runtime.getAeshContext(), "lazy --count 2 --repeat f", 25);
+        runtime.complete(co);
+        assertEquals(1, co.getCompletionCandidates().size());
+        assertEquals("f2", co.getCompletionCandidates().get(0).getCharacters());
+        assertEquals(1, CountingConverter.count);
+        //the command is not populated
+        assertNull(RepeatCompleter.command.count);
+    }
+
+    @CommandDefinition(name = "lazy", description = "")
+    public static class LazyCompleteCommand implements Command<CommandInvocation> {
+
+        @Option(converter = CountingConverter.class)
+        private Integer count;
+
+        @Option(completer = CountingCompleter.class)
+        private String name;
+
+        @Option(completer = RepeatCompleter.class)
+        private String repeat;
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    public static class CountingConverter implements Converter<Integer, ConverterInvocation> {
+        private static int count;
+
+        @Override
+        public Integer convert(ConverterInvocation converterInvocation) throws OptionValidatorException {
+            count++;
+            return Integer.parseInt(converterInvocation.getInput());
+        }
+    }
+
+    public static class RepeatCompleter implements OptionCompleter<CompleterInvocation> {
+        private static LazyCompleteCommand command;
+
+        @Override
+        public void complete(CompleterInvocation completerInvocation) {
+            command = (LazyCompleteCommand) completerInvocation.getCommand();
+            Object count = completerInvocation.getOptionValues().option("count");
+            completerInvocation.addCompleterValue(completerInvocation.getGivenCompleteValue() + count);
+        }
+    }
+
+    @CommandDefinition(name = "async", description = "")
+    public static class AsyncCompleteCommand implements Command<CommandInvocation> {
+
+        @Argument(completer = SlowCompleter.class)
+        private String arg;
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    public static class SlowCompleter implements AsyncOptionCompleter<CompleterInvocation> {
+        private static volatile CountDownLatch release;
+        private static volatile CompletableFuture<?> last;
+
+        @Override
+        public CompletionStage<?> completeAsync(CompleterInvocation completerInvocation) {
+            CountDownLatch latch = release;
+            completerInvocation.addCompleterValue("foo1");
+            last = CompletableFuture.runAsync(() -> {
+                try {
+                    latch.await();
+                    completerInvocation.addCompleterValue("foo2");
+                }
+                catch(InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            return last;
+        }
+    }
+
+    @CommandDefinition(name = "complete", description = "")
+    public static class CompleteCommand implements Command<CommandInvocation> {
+
+        @Argument(completer = CountingCompleter.class)
+        private String arg;
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    public static class CountingCompleter implements OptionCompleter<CompleterInvocation> {
+        private static int count;
+        private static boolean truncated;
+        private static boolean cacheable = true;
+
+        @Override
+        public void complete(CompleterInvocation completerInvocation) {
+            count++;
+            completerInvocation.setTruncated(truncated);
+            completerInvocation.setCacheable(cacheable);
+            for(String value : new String[] {"foo1", "foo2", "bar"})
+                if(value.startsWith(completerInvocation.getGivenCompleteValue()))
+                    completerInvocation.addCompleterValue(value);
+        }
+    }
+
     @CommandDefinition(name = "test", description = "")
     public static class TestCommand implements Command<CommandInvocation> {
 
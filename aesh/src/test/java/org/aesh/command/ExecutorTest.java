@@ -0,0 +1,198 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command;
+
+import org.aesh.command.impl.operator.AndOperator;
+import org.aesh.command.impl.operator.EndOperator;
+import org.aesh.command.impl.operator.OrOperator;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.result.ResultHandler;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public class ExecutorTest {
+
+    @Test
+    public void testOperators() throws Exception {
+        // a && b || c ; d
+        List<Execution<CommandInvocation>> executions = new ArrayList<>();
+        TestExecution a = new TestExecution(new AndOperator<>(), CommandResult.FAILURE);
+        TestExecution b = new TestExecution(new OrOperator<>(), CommandResult.SUCCESS);
+        TestExecution c = new TestExecution(new EndOperator<>(), CommandResult.SUCCESS);
+        TestExecution d = new TestExecution(new EndOperator<>(), CommandResult.SUCCESS);
+        executions.add(a);
+        executions.add(b);
+        executions.add(c);
+        executions.add(d);
+        Executor<CommandInvocation> executor = new Executor<>(executions);
+
+        assertSame(a, executor.getNextExecution());
+        //not executed yet, so we should get the same execution
+        assertSame(a, executor.getNextExecution());
+        a.execute();
+        assertSame(c, executor.getNextExecution());
+        assertTrue(executor.hasSkipped());
+        c.execute();
+        assertSame(d, executor.getNextExecution());
+        d.execute();
+        assertFalse(executor.hasNext());
+        assertNull(executor.getNextExecution());
+        assertEquals(CommandResult.SUCCESS, executor.getLastResult());
+
+        executor.clearSkippedListData();
+        assertFalse(b.executed);
+        assertTrue(b.cleared);
+    }
+
+    @Test
+    public void testLongLine() throws Exception {
+        int size = 10000;
+        List<Execution<CommandInvocation>> executions = new ArrayList<>(size);
+        for(int i = 0; i < size; i++)
+            executions.add(new TestExecution(new AndOperator<>(), CommandResult.SUCCESS));
+        Executor<CommandInvocation> executor = new Executor<>(executions);
+
+        int steps = 0;
+        while(executor.hasNext()) {
+            executor.getNextExecution().execute();
+            steps++;
+        }
+        assertEquals(size, steps);
+
+        //every step should only look at the executions at the cursor
+        int lookups = 0;
+        for(Execution<CommandInvocation> execution : executions)
+            lookups += ((TestExecution) execution).resultLookups;
+        assertTrue("Too many lookups: "+lookups, lookups <= 4 * size);
+    }
+
+    @Test
+    public void testFailureInStreamingStage() throws Exception {
+        // a | b, where a fails and b completes
+        List<Execution<CommandInvocation>> executions = new ArrayList<>();
+        CommandException failure = new CommandException("a failed");
+        TestExecution a = new TestExecution(new StreamingOperator(), CommandResult.SUCCESS);
+        a.failure = failure;
+        TestExecution b = new TestExecution(new EndOperator<>(), CommandResult.SUCCESS);
+        executions.add(a);
+        executions.add(b);
+        Executor<CommandInvocation> executor = new Executor<>(executions);
+
+        try {
+            executor.execute();
+            fail("The failure of the first stage should be thrown");
+        }
+        catch(CommandException e) {
+            assertSame(failure, e);
+        }
+        assertTrue(b.executed);
+        assertEquals(CommandResult.FAILURE, a.getResult());
+    }
+
+    private static class StreamingOperator implements Executable<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation ic) {
+            return CommandResult.SUCCESS;
+        }
+
+        @Override
+        public boolean streamsToNext() {
+            return true;
+        }
+    }
+
+    private static class TestExecution implements Execution<CommandInvocation> {
+
+        private final Executable<CommandInvocation> executable;
+        private final CommandResult outcome;
+        private CommandResult result;
+        private boolean executed;
+        private boolean cleared;
+        private int resultLookups;
+        private CommandException failure;
+
+        TestExecution(Executable<CommandInvocation> executable, CommandResult outcome) {
+            this.executable = executable;
+            this.outcome = outcome;
+        }
+
+        @Override
+        public CommandInvocation getCommandInvocation() {
+            return null;
+        }
+
+        @Override
+        public Executable getExecutable() {
+            return executable;
+        }
+
+        @Override
+        public Command<CommandInvocation> getCommand() {
+            return null;
+        }
+
+        @Override
+        public void populateCommand() {
+        }
+
+        @Override
+        public ResultHandler getResultHandler() {
+            return null;
+        }
+
+        @Override
+        public CommandResult execute() throws CommandException {
+            executed = true;
+            if(failure != null)
+                throw failure;
+            result = outcome;
+            return result;
+        }
+
+        @Override
+        public CommandResult getResult() {
+            resultLookups++;
+            return result;
+        }
+
+        @Override
+        public void setResut(CommandResult result) {
+            this.result = result;
+        }
+
+        @Override
+        public void clearQueuedLine() {
+            cleared = true;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl.internal;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public class FieldAccessorTest {
+
+    @Test
+    public void testPrimitives() {
+        Fields fields = new Fields();
+        FieldAccessor.of(Fields.class, "anInt").set(fields, 42);
+        FieldAccessor.of(Fields.class, "aLong").set(fields, 42L);
+        FieldAccessor.of(Fields.class, "aBoolean").set(fields, true);
+        FieldAccessor.of(Fields.class, "aShort").set(fields, (short) 4);
+        FieldAccessor.of(Fields.class, "aDouble").set(fields, 4.2d);
+        assertEquals(42, fields.anInt);
+        assertEquals(42L, fields.aLong);
+        assertTrue(fields.aBoolean);
+        assertEquals(4, fields.aShort);
+        assertEquals(4.2d, fields.aDouble, 0);
+
+        //boxed values are widened to the field type
+        FieldAccessor.of(Fields.class, "aLong").set(fields, 7);
+        assertEquals(7L, fields.aLong);
+    }
+
+    @Test
+    public void testReset() {
+        Fields fields = new Fields();
+        fields.anInt = 1;
+        fields.aShort = 1;
+        fields.aByte = 1;
+        fields.aChar = 'c';
+        fields.aBoolean = true;
+        fields.aBooleanObject = true;
+        fields.list = Collections.emptyList();
+        for(String name : new String[] {"anInt", "aShort", "aByte", "aChar", "aBoolean", "list"})
+            FieldAccessor.of(Fields.class, name).reset(fields, true);
+        FieldAccessor.of(Fields.class, "aBooleanObject").reset(fields, false);
+
+        assertEquals(0, fields.anInt);
+        assertEquals(0, fields.aShort);
+        assertEquals(0, fields.aByte);
+        assertEquals('\u0000', fields.aChar);
+        assertFalse(fields.aBoolean);
+        assertEquals(Boolean.FALSE, fields.aBooleanObject);
+        assertNull(fields.list);
+    }
+
+    @Test
+    public void testSuperClassAndMissingField() {
+        SubFields fields = new SubFields();
+        FieldAccessor accessor = FieldAccessor.of(SubFields.class, "aString");
+        assertTrue(accessor.canAccess(fields));
+        assertFalse(accessor.canAccess("foo"));
+        accessor.set(fields, "bar");
+        assertEquals("bar", fields.aString);
+        assertNull(FieldAccessor.of(SubFields.class, "generatedHelp"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullToPrimitive() {
+        FieldAccessor.of(Fields.class, "anInt").set(new Fields(), null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongType() {
+        FieldAccessor.of(Fields.class, "aString").set(new Fields(), 42);
+    }
+
+    private static class Fields {
+        private int anInt;
+        private long aLong;
+        private short aShort;
+        private byte aByte;
+        private char aChar;
+        private double aDouble;
+        private boolean aBoolean;
+        private Boolean aBooleanObject;
+        private List<String> list;
+        protected String aString;
+    }
+
+    private static class SubFields extends Fields {
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.impl.internal;
+
+import org.aesh.command.Command;
+import org.aesh.command.impl.parser.CommandLineParser;
+import org.aesh.command.impl.parser.CommandLineParserBuilder;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.parser.CommandLineParserException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public class ProcessedCommandOptionIndexTest {
+
+    private static final int OPTIONS = 500;
+
+    @Test
+    public void testLookups() throws CommandLineParserException {
+        ProcessedCommand<Command<CommandInvocation>, CommandInvocation> command = createCommand();
+
+        assertEquals("opt42", command.findLongOption("opt42").name());
+        assertNull(command.findLongOption("opt500"));
+        assertEquals("opt42", command.findOption("x").name());
+        //options are matched in the order they are added
+        assertEquals("opt1", command.startWithLongOption("opt10=foo").name());
+        //without activator check the longest name is used
+        assertEquals("opt10", command.startWithLongOptionNoActivatorCheck("opt10=foo").name());
+        assertEquals("opt42", command.startWithOption("xfoo").name());
+        assertTrue(command.hasLongOption("opt1"));
+        assertFalse(command.hasUniqueLongOption("opt1"));
+        assertTrue(command.hasUniqueLongOption("opt499"));
+        assertEquals("opt499", command.searchAllOptions("--opt499").name());
+    }
+
+    @Test
+    public void testActivator() throws CommandLineParserException {
+        ProcessedCommand<Command<CommandInvocation>, CommandInvocation> command = createCommand();
+        command.addOption(ProcessedOptionBuilder.builder().name("hidden").type(String.class).hasValue(true)
+                .activator(parsedCommand -> false).build());
+
+        assertNull(command.findLongOption("hidden"));
+        assertEquals("hidden", command.findLongOptionNoActivatorCheck("hidden").name());
+        assertNull(command.startWithLongOption("hidden=foo"));
+        assertEquals("hidden", command.startWithLongOptionNoActivatorCheck("hidden=foo").name());
+        assertTrue(command.getParsedCommand() == command.getParsedCommand());
+    }
+
+    @Test
+    public void testParseManyOptions() throws CommandLineParserException {
+        CommandLineParser<CommandInvocation> parser = CommandLineParserBuilder.<Command<CommandInvocation>, CommandInvocation>builder()
+                .processedCommand(createCommand()).create();
+
+        StringBuilder line = new StringBuilder("many");
+        for(int i = 0; i < OPTIONS; i++)
+            line.append(" --opt").append(i).append(' ').append("value").append(i);
+        String input = line.toString();
+
+        parser.parse(input);
+        assertEquals(0, parser.getProcessedCommand().parserExceptions().size());
+
+        //parsing the same line again gives the same values
+        parser.parse(input);
+        assertEquals(0, parser.getProcessedCommand().parserExceptions().size());
+        for(int i = 0; i < OPTIONS; i++)
+            assertEquals("value"+i, parser.getProcessedCommand().findLongOption("opt"+i).getValue());
+    }
+
+    private static ProcessedCommand<Command<CommandInvocation>, CommandInvocation> createCommand() throws CommandLineParserException {
+        ProcessedCommandBuilder<Command<CommandInvocation>, CommandInvocation> builder =
+                ProcessedCommandBuilder.<Command<CommandInvocation>, CommandInvocation>builder().name("many").description("");
+        for(int i = 0; i < OPTIONS; i++) {
+            ProcessedOptionBuilder option = ProcessedOptionBuilder.builder().name("opt"+i).type(String.class).hasValue(true);
+            if(i == 42)
+                option.shortName('x');
+            builder.addOption(option.build());
+        }
+        return builder.create();
+    }
+}
@@ -19,7 +19,9 @@
  */
 package org.aesh.command.operator;
 
+import org.aesh.command.AeshCommandRuntimeBuilder;
 import org.aesh.command.CommandException;
+import org.aesh.command.CommandRuntime;
 import org.aesh.command.activator.CommandActivator;
 import org.aesh.command.activator.OptionActivator;
 import org.aesh.command.completer.CompleterInvocation;
@@ -36,6 +38,7 @@ import org.aesh.command.registry.CommandRegistry;
 import org.aesh.command.CommandResult;
 import org.aesh.command.validator.ValidatorInvocation;
 import org.aesh.io.Resource;
+import org.aesh.readline.ProcessExecutors;
 import org.aesh.readline.ReadlineConsole;
 import org.aesh.tty.TestConnection;
 import org.aesh.terminal.utils.Config;
@@ -44,8 +47,14 @@ import org.junit.Test;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
@@ -77,16 +86,124 @@ public class AeshCommandPipelineTest {
         console.start();
 
         connection.read("pipe | foo" + Config.getLineSeparator());
-        Thread.sleep(100);
+        await(() -> foo.getCounter() > 0);
         assertEquals(1, foo.getCounter());
 
         connection.read("pipe | bar" + Config.getLineSeparator());
-        Thread.sleep(100);
-        connection.assertBufferEndsWith("hello aesh"+Config.getLineSeparator());
+        awaitBufferEndsWith(connection, "hello aesh"+Config.getLineSeparator());
         console.stop();
     }
 
 
+    @Test
+    public void testStreamingPipeline() throws InterruptedException, IOException, CommandRegistryException {
+        TestConnection connection = new TestConnection();
+
+        CommandRegistry registry = AeshCommandRegistryBuilder.builder()
+                .command(ManyLinesCommand.class)
+                .command(CountCommand.class)
+                .create();
+
+        Settings<CommandInvocation, ConverterInvocation, CompleterInvocation,
+                        ValidatorInvocation, OptionActivator, CommandActivator> settings =
+                SettingsBuilder.builder()
+                        .connection(connection)
+                        .enableOperatorParser(true)
+                        .commandRegistry(registry)
+                        .pipeBufferSize(16)
+                        .logging(true)
+                        .build();
+
+        ReadlineConsole console = new ReadlineConsole(settings);
+        console.start();
+
+        //the output is a lot larger than the buffer, so this would block if both sides weren't running concurrently
+        connection.read("many | count" + Config.getLineSeparator());
+        awaitBufferEndsWith(connection, "1000"+Config.getLineSeparator());
+
+        connection.read("many | count | count" + Config.getLineSeparator());
+        awaitBufferEndsWith(connection, "1"+Config.getLineSeparator());
+        console.stop();
+    }
+
+    @Test
+    public void testStreamingPipelineCancelsUpstreamOnFailure() throws Exception {
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.builder()
+                .command(SleepCommand.class)
+                .command(FailCommand.class)
+                .create();
+
+        CommandRuntime<CommandInvocation> runtime = AeshCommandRuntimeBuilder.builder()
+                .commandRegistry(registry)
+                .operators(AeshCommandRuntimeBuilder.ALL_OPERATORS)
+                .pipeBufferSize(16)
+                .build();
+
+        SleepCommand.interrupted = new CountDownLatch(1);
+        try {
+            runtime.executeCommand("sleep | fail");
+            fail("fail should have failed");
+        }
+        catch (CommandException e) {
+            assertEquals("failed", e.getMessage());
+        }
+        //sleep is only interrupted if the pipeline cancelled it
+        assertTrue(SleepCommand.interrupted.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testStreamingPipelineUsesProcessExecutor() throws Exception {
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.builder()
+                .command(ThreadCommand.class)
+                .command(ReadCommand.class)
+                .command(SleepCommand.class)
+                .command(FailCommand.class)
+                .create();
+
+        ExecutorService executor = ProcessExecutors.pooled();
+        CommandRuntime<CommandInvocation> runtime = AeshCommandRuntimeBuilder.builder()
+                .commandRegistry(registry)
+                .operators(AeshCommandRuntimeBuilder.ALL_OPERATORS)
+                .pipeBufferSize(16)
+                .processExecutor(executor)
+                .build();
+
+        ReadCommand.line = null;
+        runtime.executeCommand("thread | read");
+        assertTrue(ReadCommand.line, ReadCommand.line.startsWith("aesh-process-"));
+
+        //cancelling reaches the stages running on the executor
+        SleepCommand.interrupted = new CountDownLatch(1);
+        try {
+            runtime.executeCommand("sleep | fail");
+            fail("fail should have failed");
+        }
+        catch (CommandException e) {
+            assertEquals("failed", e.getMessage());
+        }
+        assertTrue(SleepCommand.interrupted.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    @Test
+    public void testPipedTextIsUtf8() throws Exception {
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.builder()
+                .command(UnicodeCommand.class)
+                .command(ReadCommand.class)
+                .create();
+
+        for(int bufferSize : new int[] {0, 16}) {
+            CommandRuntime<CommandInvocation> runtime = AeshCommandRuntimeBuilder.builder()
+                    .commandRegistry(registry)
+                    .operators(AeshCommandRuntimeBuilder.ALL_OPERATORS)
+                    .pipeBufferSize(bufferSize)
+                    .build();
+            ReadCommand.line = null;
+            runtime.executeCommand("unicode | read");
+            assertEquals(UnicodeCommand.TEXT, ReadCommand.line);
+        }
+    }
+
     @Test
     public void testEmptyBeforeOperator() throws InterruptedException, IOException, CommandRegistryException {
         TestConnection connection = new TestConnection();
@@ -112,11 +229,24 @@ public class AeshCommandPipelineTest {
         console.start();
 
         connection.read("&&" + Config.getLineSeparator());
-        Thread.sleep(100);
-        connection.assertBufferEndsWith("aesh: syntax error near unexpected token \'&&\'"+Config.getLineSeparator());
+        awaitBufferEndsWith(connection, "aesh: syntax error near unexpected token \'&&\'"+Config.getLineSeparator());
         console.stop();
     }
 
+    /**
+     * Wait until the condition is true, or give up after 10 seconds.
+     */
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while(!condition.getAsBoolean() && end - System.nanoTime() > 0)
+            Thread.sleep(10);
+    }
+
+    private static void awaitBufferEndsWith(TestConnection connection, String expected) throws InterruptedException {
+        await(() -> connection.getOutputBuffer().endsWith(expected));
+        assertTrue(connection.getOutputBuffer(), connection.getOutputBuffer().endsWith(expected));
+    }
+
     @CommandDefinition(name ="pipe", description = "")
     public static class PipeCommand implements Command {
 
@@ -130,7 +260,7 @@ public class AeshCommandPipelineTest {
 
     @CommandDefinition(name = "foo", description = "")
     public static class FooCommand implements Command {
-        private int counter = 0;
+        private volatile int counter = 0;
 
         @Override
         public CommandResult execute(CommandInvocation commandInvocation) throws CommandException, InterruptedException {
@@ -153,6 +283,99 @@ public class AeshCommandPipelineTest {
         }
     }
 
+    @CommandDefinition(name = "many", description = "")
+    public static class ManyLinesCommand implements Command {
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) throws CommandException, InterruptedException {
+            for(int i = 0; i < 1000; i++)
+                commandInvocation.println("line " + i);
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "count", description = "")
+    public static class CountCommand implements Command {
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) throws CommandException, InterruptedException {
+            int count = 0;
+            try {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(commandInvocation.getConfiguration().getPipedData()));
+                while(reader.readLine() != null)
+                    count++;
+            }
+            catch (IOException ex) {
+                throw new CommandException(ex);
+            }
+            commandInvocation.println(String.valueOf(count));
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "sleep", description = "")
+    public static class SleepCommand implements Command {
+        static volatile CountDownLatch interrupted = new CountDownLatch(1);
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) throws CommandException, InterruptedException {
+            try {
+                Thread.sleep(10000);
+            }
+            catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "unicode", description = "")
+    public static class UnicodeCommand implements Command {
+        static final String TEXT = "St\u00e5le \u00e6\u00f8\u00e5 \u20ac \ud83d\ude00";
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            commandInvocation.println(TEXT);
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "thread", description = "")
+    public static class ThreadCommand implements Command {
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            commandInvocation.println(Thread.currentThread().getName());
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "read", description = "")
+    public static class ReadCommand implements Command {
+        static volatile String line;
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) throws CommandException {
+            try {
+                line = commandInvocation.getInputReader().readLine();
+            }
+            catch (IOException ex) {
+                throw new CommandException(ex);
+            }
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "fail", description = "")
+    public static class FailCommand implements Command {
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) throws CommandException, InterruptedException {
+            throw new CommandException("failed");
+        }
+    }
+
     @CommandDefinition(name = "bar", description = "")
     public static class BarCommand implements Command {
 
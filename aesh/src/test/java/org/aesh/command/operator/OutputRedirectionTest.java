@@ -0,0 +1,149 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.operator;
+
+import org.aesh.command.impl.operator.AppendOutputRedirectionOperator;
+import org.aesh.command.impl.operator.ConfigurationOperator;
+import org.aesh.command.impl.operator.OutputDelegate;
+import org.aesh.command.impl.operator.OutputRedirectionOperator;
+import org.aesh.io.FileResource;
+import org.aesh.readline.AeshContext;
+import org.aesh.readline.DefaultAeshContext;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public class OutputRedirectionTest {
+
+    private static final int LINES = 1_000_000;
+
+    @Rule
+    public TemporaryFolder tempDir = new TemporaryFolder();
+
+    @Test
+    public void testAnsiCodesAreRemoved() throws IOException {
+        File file = new File(tempDir.getRoot(), "ansi.txt");
+        OutputDelegate output = redirect(new OutputRedirectionOperator(context()), file);
+        output.write("\u001B[1mbold\u001B[0m and \u001B[?25lhidden\u001B[38;5;82m\n");
+        output.write("\u001B]not a sequence \u001B\u001B[2J\n");
+        output.close();
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertEquals("bold and hidden", lines.get(0));
+        assertEquals("\u001B]not a sequence \u001B", lines.get(1));
+    }
+
+    @Test
+    public void testCloseFlushesOutput() throws IOException {
+        File file = new File(tempDir.getRoot(), "close.txt");
+        OutputDelegate output = redirect(new OutputRedirectionOperator(context()), file);
+        output.write("foo\n");
+        //buffered until the buffer is full or the output is closed
+        assertEquals(0, file.length());
+        output.close();
+        assertEquals(4, file.length());
+        output.write("bar\n");
+        output.close();
+        assertEquals(4, file.length());
+    }
+
+    @Test
+    public void testBinaryTransfer() throws IOException {
+        byte[] data = new byte[256 * 1024];
+        for(int i = 0; i < data.length; i++)
+            data[i] = (byte) (i * 31);
+        File source = new File(tempDir.getRoot(), "source.bin");
+        Files.write(source.toPath(), data);
+
+        File file = new File(tempDir.getRoot(), "copy.bin");
+        OutputDelegate output = redirect(new OutputRedirectionOperator(context()), file);
+        output.write("head\n");
+        WritableByteChannel target = output.getChannel();
+        assertTrue(target instanceof FileChannel);
+        try(FileChannel in = (FileChannel) new FileResource(source).readChannel()) {
+            long position = 0;
+            while(position < in.size())
+                position += in.transferTo(position, in.size() - position, target);
+        }
+        output.getOutputStream().write(new byte[]{(byte) 0xff, 0});
+        output.write("tail\n");
+        output.close();
+
+        byte[] copy = Files.readAllBytes(file.toPath());
+        assertEquals(5 + data.length + 2 + 5, copy.length);
+        assertEquals("head\n", new String(copy, 0, 5, StandardCharsets.UTF_8));
+        assertArrayEquals(data, Arrays.copyOfRange(copy, 5, 5 + data.length));
+        assertEquals((byte) 0xff, copy[5 + data.length]);
+        assertEquals("tail\n", new String(copy, copy.length - 5, 5, StandardCharsets.UTF_8));
+
+        output = redirect(new AppendOutputRedirectionOperator(context()), file);
+        output.getOutputStream().write(data, 0, 10);
+        output.close();
+        assertEquals(copy.length + 10, file.length());
+    }
+
+    @Test
+    public void testRedirectMillionLines() throws IOException {
+        File file = new File(tempDir.getRoot(), "out.txt");
+        writeLines(redirect(new OutputRedirectionOperator(context()), file));
+        assertEquals(LINES, countLines(file));
+
+        writeLines(redirect(new AppendOutputRedirectionOperator(context()), file));
+        assertEquals(2 * LINES, countLines(file));
+    }
+
+    private AeshContext context() {
+        return new DefaultAeshContext(new FileResource(tempDir.getRoot()));
+    }
+
+    private static OutputDelegate redirect(ConfigurationOperator operator, File file) throws IOException {
+        operator.setArgument(file.getAbsolutePath());
+        return operator.getConfiguration().getOutputRedirection();
+    }
+
+    private static void writeLines(OutputDelegate output) throws IOException {
+        for(int i = 0; i < LINES; i++)
+            output.write("line number " + i + "\n");
+        output.close();
+    }
+
+    private static long countLines(File file) throws IOException {
+        try(BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return reader.lines().count();
+        }
+    }
+}
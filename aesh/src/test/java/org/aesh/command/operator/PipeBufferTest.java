@@ -0,0 +1,94 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.operator;
+
+import org.aesh.command.impl.operator.PipeBuffer;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public class PipeBufferTest {
+
+    @Test
+    public void testStreamLargerThanCapacity() throws Exception {
+        PipeBuffer pipe = new PipeBuffer(7);
+        byte[] data = new byte[10000];
+        for(int i = 0; i < data.length; i++)
+            data[i] = (byte) i;
+
+        Thread writer = new Thread(() -> {
+            try(OutputStream out = pipe.getOutputStream()) {
+                out.write(data, 0, 5000);
+                for(int i = 5000; i < data.length; i++)
+                    out.write(data[i]);
+            }
+            catch (IOException e) {
+                fail(e.getMessage());
+            }
+        });
+        writer.start();
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        InputStream in = pipe.getInputStream();
+        byte[] buf = new byte[13];
+        int read;
+        while((read = in.read(buf)) != -1)
+            result.write(buf, 0, read);
+        writer.join();
+
+        assertArrayEquals(data, result.toByteArray());
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    public void testWriteFailsWhenReaderIsClosed() throws Exception {
+        PipeBuffer pipe = new PipeBuffer(4);
+        AtomicReference<IOException> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            try {
+                //will block when the buffer is full
+                pipe.getOutputStream().write(new byte[100]);
+            }
+            catch (IOException e) {
+                failure.set(e);
+            }
+        });
+        writer.start();
+
+        assertEquals(0, pipe.getInputStream().read());
+        pipe.getInputStream().close();
+        writer.join(2000);
+
+        assertTrue(pipe.isReaderClosed());
+        assertEquals("Pipe closed", failure.get().getMessage());
+    }
+}
@@ -19,7 +19,13 @@
  */
 package org.aesh.command.registry;
 
+import org.aesh.command.AeshCommandRuntimeBuilder;
+import org.aesh.command.CommandNotFoundException;
+import org.aesh.command.activator.OptionActivator;
+import org.aesh.command.activator.OptionActivatorProvider;
+import org.aesh.command.container.CommandContainer;
 import org.aesh.command.option.Option;
+import org.aesh.command.option.OptionList;
 import org.aesh.command.invocation.CommandInvocation;
 import org.aesh.command.CommandDefinition;
 import org.aesh.command.GroupCommandDefinition;
@@ -34,8 +40,14 @@ import org.junit.Test;
 
 import org.aesh.command.CommandException;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
@@ -84,6 +96,152 @@ public class MutableCommandRegistryTest {
     }
 
 
+    @Test
+    public void testLazyRegistration() throws Exception {
+        MutableCommandRegistryImpl<CommandInvocation> registry = new MutableCommandRegistryImpl<>();
+        registry.setLazy(true);
+        LazyCommand.instances.set(0);
+        registry.addCommand(LazyCommand.class);
+        registry.addCommand(BrokenCommand.class);
+
+        assertTrue(registry.contains("lazy"));
+        assertTrue(registry.contains("lz"));
+        AeshCompleteOperation co = new AeshCompleteOperation(null, "", 0);
+        ParsedLine parsedLine = new LineParser()
+                .input(co.getBuffer())
+                .cursor(co.getCursor())
+                .parseBrackets(true)
+                .parse();
+        registry.completeCommandName(co, parsedLine);
+        assertEquals(2, co.getCompletionCandidates().size());
+        assertEquals(0, LazyCommand.instances.get());
+
+        CommandContainer<CommandInvocation> container = registry.getCommand("lazy", "");
+        assertEquals(1, LazyCommand.instances.get());
+        assertEquals("lazy", container.getParser().getProcessedCommand().name());
+        assertNotNull(container.getParser().getProcessedCommand().findLongOption("value"));
+        assertSame(container, registry.getCommandByAlias("lz"));
+        assertEquals(1, LazyCommand.instances.get());
+
+        //a failed build is not removed by the lookup, it fails every time
+        for(int i = 0; i < 2; i++) {
+            try {
+                registry.getCommand("broken", "");
+                fail("broken command should not be found");
+            }
+            catch(CommandNotFoundException e) {
+                assertTrue(e.getMessage().contains("could not be built"));
+                assertTrue(registry.contains("broken"));
+            }
+        }
+    }
+
+    @Test
+    public void testLazyCommandIsUpdatedWhenBuilt() throws Exception {
+        MutableCommandRegistryImpl<CommandInvocation> registry = new MutableCommandRegistryImpl<>();
+        registry.setLazy(true);
+        LazyCommand.instances.set(0);
+        registry.addCommand(BrokenCommand.class);
+        registry.addCommand(LazyCommand.class);
+        CountingActivatorProvider provider = new CountingActivatorProvider();
+        AeshCommandRuntimeBuilder.builder()
+                .commandRegistry(registry)
+                .optionActivatorProvider(provider)
+                .build();
+
+        //a custom provider does not build the commands when the runtime is created
+        assertEquals(0, LazyCommand.instances.get());
+        assertEquals(0, provider.count);
+
+        //the provider is set when the command is built
+        registry.getCommand("lazy", "");
+        assertEquals(1, LazyCommand.instances.get());
+        assertTrue(provider.count > 0);
+        int count = provider.count;
+        registry.getCommand("lazy", "");
+        assertEquals(count, provider.count);
+
+        try {
+            registry.getCommand("broken", "");
+            fail("broken command should not be found");
+        }
+        catch(CommandNotFoundException e) {
+            assertTrue(e.getMessage().contains("could not be built"));
+        }
+    }
+
+    @Test
+    public void testFindCommand() throws Exception {
+        MutableCommandRegistryImpl<CommandInvocation> registry = new MutableCommandRegistryImpl<>();
+        registry.setLazy(true);
+        registry.addCommand(LazyCommand.class);
+        registry.addCommand(Command2.class);
+        registry.addCommand(GroupCommand1.class);
+
+        assertEquals("lazy", registry.findCommand("lazy", "").getParser().getProcessedCommand().name());
+        assertEquals("lazy", registry.findCommand("lz", "").getParser().getProcessedCommand().name());
+        assertEquals("group", registry.findCommand("group help", "").getParser().getProcessedCommand().name());
+        assertNull(registry.findCommand("foo", ""));
+        assertNull(registry.findCommand("la", ""));
+
+        //names are kept sorted
+        assertEquals("[bar, group, lazy]", registry.getAllCommandNames().toString());
+
+        AeshCompleteOperation co = new AeshCompleteOperation(null, "g", 1);
+        ParsedLine parsedLine = new LineParser()
+                .input(co.getBuffer())
+                .cursor(co.getCursor())
+                .parse();
+        registry.completeCommandName(co, parsedLine);
+        assertEquals(1, co.getCompletionCandidates().size());
+        assertEquals("group", co.getCompletionCandidates().get(0).toString());
+        assertEquals(0, co.getOffset());
+
+        registry.removeCommand("group");
+        assertNull(registry.findCommand("group", ""));
+        co = new AeshCompleteOperation(null, "g", 1);
+        registry.completeCommandName(co, parsedLine);
+        assertTrue(co.getCompletionCandidates().isEmpty());
+    }
+
+    @CommandDefinition(name = "lazy", aliases = {"lz"}, description = "")
+    public static class LazyCommand implements Command<CommandInvocation> {
+        static final AtomicInteger instances = new AtomicInteger();
+
+        @Option
+        private String value;
+
+        public LazyCommand() {
+            instances.incrementAndGet();
+        }
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    public static class CountingActivatorProvider implements OptionActivatorProvider<OptionActivator> {
+        private int count;
+
+        @Override
+        public OptionActivator enhanceOptionActivator(OptionActivator optionActivator) {
+            count++;
+            return optionActivator;
+        }
+    }
+
+    @CommandDefinition(name = "broken", description = "")
+    public static class BrokenCommand implements Command<CommandInvocation> {
+        @OptionList
+        private String values;
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
     @CommandDefinition(name = "foo", description = "")
     public class Command1 implements Command {
         @Override
@@ -0,0 +1,164 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2017 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.command.script;
+
+import org.aesh.command.AeshCommandRuntimeBuilder;
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandNotFoundException;
+import org.aesh.command.CommandResult;
+import org.aesh.command.CommandRuntime;
+import org.aesh.command.impl.registry.AeshCommandRegistryBuilder;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.option.Argument;
+import org.aesh.command.registry.CommandRegistry;
+import org.aesh.command.registry.CommandRegistryException;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public class ScriptRunnerTest {
+
+    private static final AtomicLong sum = new AtomicLong();
+    private static volatile long sumAtCheck;
+    private static volatile String echo;
+
+    @Test
+    public void testCommentsAndContinuations() throws Exception {
+        sum.set(0);
+        List<Integer> lineNumbers = new ArrayList<>();
+        ScriptResult result = new ScriptRunner(createRuntime(false))
+                .lineHandler(line -> lineNumbers.add(line.lineNumber()))
+                .execute(new StringReader("# setup\nadd 1\n\n  # indented comment\nadd \\\n2\necho foo\\\\\n"));
+
+        assertEquals(CommandResult.SUCCESS, result.result());
+        assertEquals(3, result.executedLines());
+        assertEquals(0, result.failedLines());
+        assertEquals(3, sum.get());
+        assertEquals("foo\\", echo);
+        assertEquals(Arrays.asList(2, 5, 7), lineNumbers);
+    }
+
+    @Test
+    public void testFailures() throws Exception {
+        sum.set(0);
+        ScriptResult result = new ScriptRunner(createRuntime(false))
+                .execute(new StringReader("add 1\nadd -1\nadd 5\n"));
+        assertEquals(CommandResult.FAILURE, result.result());
+        assertEquals(2, result.executedLines());
+        assertEquals(2, result.firstFailure().lineNumber());
+        assertEquals(1, sum.get());
+
+        sum.set(0);
+        result = new ScriptRunner(createRuntime(false)).stopOnFailure(false)
+                .execute(new StringReader("add 1\nunknown\nadd -1\nadd 5"));
+        assertEquals(4, result.executedLines());
+        assertEquals(2, result.failedLines());
+        assertTrue(result.firstFailure().failure() instanceof CommandNotFoundException);
+        assertEquals(6, sum.get());
+    }
+
+    @Test
+    public void testParallel() throws Exception {
+        int lines = 2000;
+        StringBuilder script = new StringBuilder();
+        for(int i = 0; i < lines; i++)
+            script.append("add 1\n");
+        script.append("check\n");
+        for(int i = 0; i < lines; i++)
+            script.append("add 1\n");
+
+        sum.set(0);
+        ScriptResult sequential = new ScriptRunner(createRuntime(false))
+                .execute(new StringReader(script.toString()));
+        assertEquals(2 * lines + 1, sequential.executedLines());
+        assertEquals(2 * lines, sum.get());
+        assertEquals(lines, sumAtCheck);
+
+        sum.set(0);
+        sumAtCheck = 0;
+        ScriptResult parallel = new ScriptRunner(createRuntime(true))
+                .parallelism(4)
+                .sharedStateCommands("check")
+                .execute(new StringReader(script.toString()));
+        assertEquals(2 * lines + 1, parallel.executedLines());
+        assertEquals(0, parallel.failedLines());
+        assertEquals(2 * lines, sum.get());
+        //all the lines before check are done, none of the lines after it are started
+        assertEquals(lines, sumAtCheck);
+    }
+
+    private static CommandRuntime<CommandInvocation> createRuntime(boolean concurrent) throws CommandRegistryException {
+        CommandRegistry<CommandInvocation> registry = AeshCommandRegistryBuilder.builder()
+                .command(AddCommand.class)
+                .command(EchoCommand.class)
+                .command(CheckCommand.class)
+                .create();
+        return AeshCommandRuntimeBuilder.builder().commandRegistry(registry).concurrent(concurrent).build();
+    }
+
+    @CommandDefinition(name = "add", description = "")
+    public static class AddCommand implements Command<CommandInvocation> {
+
+        @Argument
+        private int value;
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            if(value < 0)
+                return CommandResult.FAILURE;
+            sum.addAndGet(value);
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "echo", description = "")
+    public static class EchoCommand implements Command<CommandInvocation> {
+
+        @Argument
+        private String value;
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            echo = value;
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "check", description = "")
+    public static class CheckCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            sumAtCheck = sum.get();
+            return CommandResult.SUCCESS;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.graphics;
+
+import org.aesh.readline.terminal.formatting.Color;
+import org.aesh.readline.terminal.formatting.TerminalColor;
+import org.aesh.terminal.tty.Size;
+import org.aesh.tty.TestConnection;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public class BufferedGraphicsTest {
+
+    private static final int FRAMES = 50;
+
+    @Test
+    public void testOnlyChangesAreWritten() {
+        TestConnection connection = new TestConnection(new Size(80, 20), false);
+        Graphics g = new AeshGraphicsConfiguration(connection).getBufferedGraphics();
+        assertTrue(g instanceof BufferedGraphics);
+
+        g.drawString("hello world", 2, 2);
+        g.flush();
+        assertTrue(connection.getOutputBuffer().contains("hello world"));
+
+        connection.clearOutputBuffer();
+        g.drawString("hello world", 2, 2);
+        g.flush();
+        assertEquals("", connection.getOutputBuffer());
+
+        g.drawString("hello there", 2, 2);
+        g.flush();
+        String out = connection.getOutputBuffer();
+        assertTrue(out.contains("there"));
+        assertTrue(!out.contains("hello"));
+
+        connection.clearOutputBuffer();
+        g.clear();
+        g.flush();
+        assertTrue(connection.getOutputBuffer().contains("           "));
+    }
+
+    @Test
+    public void testBytesWritten() {
+        TestConnection connection = new TestConnection(new Size(80, 20), false);
+        BufferedGraphics g = (BufferedGraphics) new AeshGraphicsConfiguration(connection).getBufferedGraphics();
+        g.drawString("St\u00e5le \u2500\u2500", 2, 2);
+        g.flush();
+        String out = connection.getOutputBuffer();
+        assertEquals(out.getBytes(StandardCharsets.UTF_8).length, g.getBytesWritten());
+        assertTrue(g.getBytesWritten() > out.length());
+    }
+
+    @Test
+    public void testDrawingIsClipped() {
+        TestConnection connection = new TestConnection(new Size(10, 5), false);
+        Graphics g = new AeshGraphicsConfiguration(connection).getBufferedGraphics();
+        g.drawString("too long for the screen", 5, 1);
+        g.drawString("below", 0, 7);
+        g.drawRect(-2, -2, 20, 20);
+        g.flush();
+        String out = connection.getOutputBuffer();
+        assertTrue(out.contains("too l"));
+        assertTrue(!out.contains("below"));
+    }
+
+    @Test
+    public void testUnchangedFrames() {
+        TestConnection direct = new TestConnection(new Size(80, 24), false);
+        long directBytes = renderFrames(new AeshGraphicsConfiguration(direct).getGraphics(), direct, false);
+
+        TestConnection buffered = new TestConnection(new Size(80, 24), false);
+        long bufferedBytes = renderFrames(new AeshGraphicsConfiguration(buffered).getBufferedGraphics(), buffered, false);
+
+        assertTrue(bufferedBytes < directBytes);
+        //only the first frame is written
+        assertEquals("", buffered.getOutputBuffer());
+    }
+
+    @Test
+    public void testSmallChanges() {
+        TestConnection direct = new TestConnection(new Size(80, 24), false);
+        long directBytes = renderFrames(new AeshGraphicsConfiguration(direct).getGraphics(), direct, true);
+
+        TestConnection buffered = new TestConnection(new Size(80, 24), false);
+        long bufferedBytes = renderFrames(new AeshGraphicsConfiguration(buffered).getBufferedGraphics(), buffered, true);
+
+        assertTrue(bufferedBytes < directBytes);
+        //the last frame only writes the changed values
+        String last = buffered.getOutputBuffer();
+        assertTrue(last.length() > 0);
+        assertTrue(!last.contains("Dashboard"));
+        assertTrue(!last.contains("worker-"));
+    }
+
+    /**
+     * @param changing if false the same frame is drawn every time
+     * @return bytes written for all the frames, the output of the last frame is left in the connection
+     */
+    private long renderFrames(Graphics g, TestConnection connection, boolean changing) {
+        long bytes = 0;
+        for(int frame = 0; frame < FRAMES; frame++) {
+            connection.clearOutputBuffer();
+            drawDashboard(g, changing ? frame : 0);
+            g.flush();
+            bytes += connection.getOutputBuffer().getBytes(StandardCharsets.UTF_8).length;
+        }
+        return bytes;
+    }
+
+    //a static frame with a few values that change on every frame
+    private void drawDashboard(Graphics g, int frame) {
+        g.setColor(new TerminalColor(Color.DEFAULT, Color.DEFAULT));
+        g.drawRect(0, 0, 80, 23);
+        g.drawString("Dashboard", 35, 1);
+        for(int row = 0; row < 10; row++) {
+            g.setColor(new TerminalColor(Color.DEFAULT, Color.DEFAULT));
+            g.drawString("worker-"+row, 2, 3+row);
+            g.setColor(new TerminalColor(row % 2 == 0 ? Color.GREEN : Color.YELLOW, Color.DEFAULT));
+            g.drawString(String.format("%6d req/s", (frame * 7 + row * 13) % 1000), 20, 3+row);
+        }
+        g.setColor(new TerminalColor(Color.DEFAULT, Color.DEFAULT));
+        g.drawString("frame "+frame, 2, 21);
+    }
+}
@@ -32,6 +32,8 @@ import java.nio.file.attribute.FileAttribute;
 import java.nio.file.attribute.PosixFilePermissions;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -208,6 +210,65 @@ public class PathResolverTest {
     }
 
 
+    @Test
+    public void testGlobs() throws IOException {
+        String sep = Config.getPathSeparator();
+        File child1 = new File(tempDir + sep + "child1");
+        File child2 = new File(tempDir + sep + "child2");
+        File child11 = new File(child1 + sep + "child11");
+        File child21 = new File(child2 + sep + "child21");
+        File foo = new File(child11 + sep + "foo.txt");
+        File bar = new File(child21 + sep + "bar.txt");
+        File baz = new File(tempDir + sep + "baz.txt");
+        Files.createDirectories(child11.toPath());
+        Files.createDirectories(child21.toPath());
+        Files.createFile(foo.toPath());
+        Files.createFile(bar.toPath());
+        Files.createFile(baz.toPath());
+
+        //multiple wildcard segments
+        List<File> actual = PathResolver.resolvePath(new File("child?" + sep + "*1" + sep + "*.txt"), tempDir.toFile());
+        assertEquals(2, actual.size());
+        assertEquals(foo, actual.get(0));
+        assertEquals(bar, actual.get(1));
+
+        //character classes
+        actual = PathResolver.resolvePath(new File("child[1]" + sep + "child?1"), tempDir.toFile());
+        assertEquals(1, actual.size());
+        assertEquals(child11, actual.get(0));
+
+        //** matches zero or more directories
+        actual = PathResolver.resolvePath(new File("**" + sep + "*.txt"), tempDir.toFile());
+        assertEquals(3, actual.size());
+        assertTrue(actual.contains(foo));
+        assertTrue(actual.contains(bar));
+        assertTrue(actual.contains(baz));
+
+        actual = PathResolver.resolvePath(new File("child2" + sep + "**"), tempDir.toFile());
+        assertEquals(3, actual.size());
+        assertEquals(child2, actual.get(0));
+        assertEquals(child21, actual.get(1));
+        assertEquals(bar, actual.get(2));
+
+        //repeated ** do not give duplicates
+        actual = PathResolver.resolvePath(new File("**" + sep + "child*" + sep + "**" + sep + "bar.txt"), tempDir.toFile());
+        assertEquals(1, actual.size());
+        assertEquals(bar, actual.get(0));
+
+        //the parallel walk gives the same paths in the same order
+        Glob glob = Glob.compile(tempDir + sep + "**" + sep + "*.txt");
+        List<Path> parallel = glob.expand(ForkJoinPool.commonPool());
+        assertEquals(glob.stream().collect(Collectors.toList()), parallel);
+        assertEquals(3, parallel.size());
+        glob = Glob.compile(tempDir + sep + "**" + sep + "child*" + sep + "**" + sep + "bar.txt");
+        assertEquals(glob.stream().collect(Collectors.toList()), glob.expand(ForkJoinPool.commonPool()));
+
+        //a [ that does not match anything is a plain file name
+        actual = PathResolver.resolvePath(new File("foo[1]"), tempDir.toFile());
+        assertEquals(1, actual.size());
+        assertEquals(new File(tempDir + sep + "foo[1]"), actual.get(0));
+    }
+
     @Test
     public void testResolveWithWindowsRootPath() throws IOException {
         Resource root = new FileResource("C:\\users\\me");
@@ -3,9 +3,20 @@ package org.aesh.io.scanner;
 import org.aesh.command.CommandDefinition;
 import org.junit.Test;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -27,6 +38,76 @@ public class AnnotationDetectorTest {
 
     }
 
+    @Test
+    public void testScanIndex() throws Exception {
+        File root = Files.createTempDirectory("aesh-scan").toFile();
+        File packageDir = new File(root, "idx/test");
+        assertTrue(packageDir.mkdirs());
+        File classFile = new File(packageDir, "Sample.class");
+        try(InputStream in = IndexedSample.class.getResourceAsStream("AnnotationDetectorTest$IndexedSample.class")) {
+            Files.copy(in, classFile.toPath());
+        }
+        File indexFile = new File(root, "index");
+
+        ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
+        try(URLClassLoader loader = new URLClassLoader(new URL[] {root.toURI().toURL()}, contextLoader)) {
+            Thread.currentThread().setContextClassLoader(loader);
+
+            ScanIndex index = ScanIndex.load(indexFile);
+            IndexReporter reporter = new IndexReporter();
+            new AnnotationDetector(reporter).detect(index, "idx.test");
+            assertEquals(Collections.singletonList(IndexedSample.class.getName()), reporter.classes);
+            index.save();
+            assertTrue(indexFile.isFile());
+
+            //the class file is not read if it did not change, a scan would not find the annotation
+            long modified = classFile.lastModified();
+            byte[] empty = new byte[(int) classFile.length()];
+            Files.write(classFile.toPath(), empty);
+            assertTrue(classFile.setLastModified(modified));
+            reporter = new IndexReporter();
+            new AnnotationDetector(reporter).detect(ScanIndex.load(indexFile), "idx.test");
+            assertEquals(Collections.singletonList(IndexedSample.class.getName()), reporter.classes);
+
+            //a changed directory is scanned again
+            assertTrue(classFile.setLastModified(modified - 10000));
+            reporter = new IndexReporter();
+            new AnnotationDetector(reporter).detect(ScanIndex.load(indexFile), "idx.test");
+            assertTrue(reporter.classes.isEmpty());
+        }
+        finally {
+            Thread.currentThread().setContextClassLoader(contextLoader);
+            classFile.delete();
+            new File(root, "idx/test").delete();
+            new File(root, "idx").delete();
+            indexFile.delete();
+            root.delete();
+        }
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Indexed {
+    }
+
+    @Indexed
+    public static class IndexedSample {
+    }
+
+    public static class IndexReporter implements AnnotationDetector.TypeReporter {
+
+        private final List<String> classes = new ArrayList<>();
+
+        @Override
+        public void reportTypeAnnotation(Class<? extends Annotation> annotation, String className) {
+            classes.add(className);
+        }
+
+        @Override
+        public Class[] annotations() {
+            return new Class[]{ Indexed.class };
+        }
+    }
+
     public static class AnnotationReporter implements AnnotationDetector.TypeReporter {
 
         private boolean foundManCommand = false;
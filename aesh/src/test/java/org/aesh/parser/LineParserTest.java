@@ -23,6 +23,7 @@ package org.aesh.parser;
 import org.aesh.command.operator.OperatorType;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
@@ -529,6 +530,64 @@ public class LineParserTest {
         assertEquals("Try to escape normal char","He\\-o", parseLine("mkdir He\\-o").get(1).word());
     }
 
+    @Test
+    public void testWordSlices() {
+        LineParser lineParser = LineParser.threadLocal();
+        ParsedLine line = lineParser.parseLine("foo \"bar baz\" a\\ b", -1);
+        assertEquals(3, line.size());
+        assertEquals(3, line.words().get(0).length());
+        assertEquals("foo", line.words().get(0).wordSequence().toString());
+        assertEquals("bar baz", line.words().get(1).word());
+        assertEquals("a b", line.words().get(2).word());
+
+        //results are not changed by the next parse of the same parser
+        List<ParsedLine> lines = LineParser.threadLocal().parseLine("ls -l | grep foo", -1, false, EnumSet.allOf(OperatorType.class));
+        assertEquals("foo", line.words().get(0).word());
+        assertEquals("ls -l ", lines.get(0).line());
+        assertEquals(" grep foo", lines.get(1).line());
+        assertEquals("grep", lines.get(1).firstWord().word());
+    }
+
+    @Test
+    public void testJoinArguments() {
+        String[] args = {"cmd", "plain", "with space", "a|b > c", "it's", "say \"hi\"", "both \" '", "end\\", "{x}"};
+        String line = LineParser.joinArguments(args);
+        List<ParsedLine> lines = LineParser.threadLocal().parseLine(line, -1, true, EnumSet.allOf(OperatorType.class));
+        assertEquals(1, lines.size());
+        assertEquals(args.length, lines.get(0).words().size());
+        for(int i = 0; i < args.length; i++)
+            assertEquals(args[i], lines.get(0).words().get(i).word());
+        assertEquals("cmd plain", LineParser.joinArguments("cmd", "", "plain"));
+    }
+
+    @Test
+    public void testReusedParser() {
+        EnumSet<OperatorType> operators = EnumSet.allOf(OperatorType.class);
+        String line = "command --option1 value1 -o \"quoted value\" escaped\\ space | grep foo > out.txt";
+        List<ParsedLine> expected = new LineParser().parseLine(line, -1, false, operators);
+        assertEquals(3, expected.size());
+        assertEquals("quoted value", expected.get(0).words().get(4).word());
+        assertEquals("escaped space", expected.get(0).words().get(5).word());
+
+        //a reused parser is reset between lines, also after an unclosed quote
+        LineParser parser = LineParser.threadLocal();
+        for(String input : new String[] {line, "foo \"bar", line}) {
+            List<ParsedLine> lines = parser.parseLine(input, -1, false, operators);
+            if(input.equals(line)) {
+                assertEquals(expected.size(), lines.size());
+                for(int i = 0; i < expected.size(); i++)
+                    assertEquals(words(expected.get(i)), words(lines.get(i)));
+            }
+        }
+    }
+
+    private static List<String> words(ParsedLine line) {
+        List<String> words = new ArrayList<>();
+        for(ParsedWord word : line.words())
+            words.add(word.word());
+        return words;
+    }
+
     List<ParsedWord> parseLine(String line) {
         LineParser lineParser = new LineParser();
         EnumSet<OperatorType> operators = EnumSet.allOf(OperatorType.class);
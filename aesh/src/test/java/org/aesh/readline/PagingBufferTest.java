@@ -0,0 +1,128 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.readline;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public class PagingBufferTest {
+
+    private static final String[] PARTS = {"a", "bc", "defgh", "ij klmnop", "\n", "\r", "\r\n",
+            " ", "\u000B", "", "0123456789012345678901234567890123456789"};
+
+    @Test
+    public void testLinesAndRows() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            StringBuilder content = new StringBuilder();
+            int parts = random.nextInt(60);
+            for (int p = 0; p < parts; p++) {
+                content.append(PARTS[random.nextInt(PARTS.length)]);
+            }
+            assertContent(content.toString(), random, new PagingBuffer());
+            assertContent(content.toString(), random, new PagingBuffer(random.nextInt(20), 1 + random.nextInt(16)));
+        }
+    }
+
+    @Test
+    public void testIncompleteLine() {
+        PagingBuffer buffer = new PagingBuffer();
+        buffer.append("foo\r");
+        assertEquals(1, buffer.lineCount());
+        assertEquals("foo", buffer.line(0));
+        buffer.append("\nbar");
+        assertEquals(1, buffer.lineCount());
+        buffer.append("\n");
+        assertEquals(2, buffer.lineCount());
+        assertEquals("bar", buffer.line(1));
+        buffer.complete();
+        assertEquals(3, buffer.lineCount());
+        assertEquals("", buffer.line(2));
+    }
+
+    @Test
+    public void testSpill() {
+        PagingBuffer buffer = new PagingBuffer(100, 64);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            String line = "line " + i;
+            buffer.append(line + "\n");
+            expected.append(line).append('\n');
+            if (i == 5) {
+                assertFalse(buffer.isSpilled());
+            }
+        }
+        assertTrue(buffer.isSpilled());
+        buffer.complete();
+        assertEquals(1001, buffer.lineCount());
+        assertEquals("line 0", buffer.line(0));
+        assertEquals("line 999", buffer.line(999));
+        buffer.setWidth(4);
+        assertEquals("line", buffer.row(0));
+        assertEquals(" 0", buffer.row(1));
+        assertEquals(expected.length(), buffer.length());
+        buffer.close();
+    }
+
+    private void assertContent(String content, Random random, PagingBuffer buffer) {
+        int position = 0;
+        while (position < content.length()) {
+            int end = Math.min(content.length(), position + 1 + random.nextInt(10));
+            buffer.append(content.substring(position, end));
+            position = end;
+        }
+        buffer.complete();
+        String[] lines = content.split("\\R", -1);
+        assertEquals(lines.length, buffer.lineCount());
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(lines[i], buffer.line(i));
+        }
+        int width = 1 + random.nextInt(12);
+        buffer.setWidth(width);
+        List<String> rows = wrap(lines, width);
+        assertEquals(rows.size(), buffer.rowCount());
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(rows.get(i), buffer.row(i));
+        }
+        buffer.close();
+    }
+
+    private List<String> wrap(String[] lines, int width) {
+        List<String> rows = new ArrayList<>();
+        for (String l : lines) {
+            String remaining = l;
+            do {
+                rows.add(remaining.substring(0, Math.min(remaining.length(), width)));
+                remaining = remaining.substring(Math.min(remaining.length(), width));
+            } while (!remaining.isEmpty());
+        }
+        return rows;
+    }
+}
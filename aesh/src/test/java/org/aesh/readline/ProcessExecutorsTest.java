@@ -0,0 +1,137 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.readline;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandException;
+import org.aesh.command.CommandResult;
+import org.aesh.command.activator.CommandActivator;
+import org.aesh.command.activator.OptionActivator;
+import org.aesh.command.completer.CompleterInvocation;
+import org.aesh.command.converter.ConverterInvocation;
+import org.aesh.command.impl.registry.AeshCommandRegistryBuilder;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.registry.CommandRegistry;
+import org.aesh.command.registry.CommandRegistryException;
+import org.aesh.command.settings.Settings;
+import org.aesh.command.settings.SettingsBuilder;
+import org.aesh.command.validator.ValidatorInvocation;
+import org.aesh.terminal.tty.Signal;
+import org.aesh.terminal.utils.Config;
+import org.aesh.tty.TestConnection;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ProcessExecutorsTest {
+
+    @Test
+    public void testPooledExecutor() throws InterruptedException, IOException, CommandRegistryException {
+        ExecutorService executor = ProcessExecutors.pooled();
+        runWithExecutor(executor, false);
+        //not created by aesh, the owner shuts it down
+        assertFalse(executor.isShutdown());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testExecutorShutdownOnStop() throws InterruptedException, IOException, CommandRegistryException {
+        ExecutorService executor = ProcessExecutors.pooled();
+        runWithExecutor(executor, true);
+        assertTrue(executor.isShutdown());
+    }
+
+    @Test
+    public void testVirtualThreadExecutor() throws InterruptedException, IOException, CommandRegistryException {
+        ExecutorService executor = ProcessExecutors.virtualThreads();
+        runWithExecutor(executor, false);
+        executor.shutdown();
+    }
+
+    private void runWithExecutor(ExecutorService executor, boolean shutdownOnStop) throws InterruptedException, IOException, CommandRegistryException {
+        TestConnection connection = new TestConnection();
+
+        CommandRegistry registry = AeshCommandRegistryBuilder.builder()
+                .command(HelloCommand.class)
+                .command(WaitCommand.class)
+                .create();
+
+        Settings<CommandInvocation, ConverterInvocation, CompleterInvocation, ValidatorInvocation,
+                OptionActivator, CommandActivator > settings =
+                SettingsBuilder.builder()
+                        .connection(connection)
+                        .commandRegistry(registry)
+                        .processExecutor(executor, shutdownOnStop)
+                        .logging(true)
+                        .build();
+
+        ReadlineConsole console = new ReadlineConsole(settings);
+        console.start();
+
+        for(int i = 0; i < 10; i++) {
+            connection.read("hello"+ Config.getLineSeparator());
+            Thread.sleep(50);
+            connection.assertBufferEndsWith("hello"+Config.getLineSeparator());
+            connection.clearOutputBuffer();
+        }
+
+        WaitCommand.interrupted = false;
+        connection.read("wait"+ Config.getLineSeparator());
+        Thread.sleep(100);
+        //Ctrl-C should interrupt the command even if it is not running on its own thread
+        connection.getSignalHandler().accept(Signal.INT);
+        Thread.sleep(100);
+        assertTrue(WaitCommand.interrupted);
+
+        console.stop();
+    }
+
+    @CommandDefinition(name = "hello", description = "")
+    public static class HelloCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) throws CommandException, InterruptedException {
+            commandInvocation.println("hello");
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "wait", description = "")
+    public static class WaitCommand implements Command<CommandInvocation> {
+        static volatile boolean interrupted;
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) throws CommandException, InterruptedException {
+            try {
+                Thread.sleep(10000);
+            }
+            catch (InterruptedException e) {
+                interrupted = true;
+                throw e;
+            }
+            return CommandResult.SUCCESS;
+        }
+    }
+}
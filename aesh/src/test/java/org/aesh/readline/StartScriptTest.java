@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.readline;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandException;
+import org.aesh.command.CommandResult;
+import org.aesh.command.activator.CommandActivator;
+import org.aesh.command.activator.OptionActivator;
+import org.aesh.command.completer.CompleterInvocation;
+import org.aesh.command.converter.ConverterInvocation;
+import org.aesh.command.impl.registry.AeshCommandRegistryBuilder;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.registry.CommandRegistry;
+import org.aesh.command.settings.Settings;
+import org.aesh.command.settings.SettingsBuilder;
+import org.aesh.command.validator.ValidatorInvocation;
+import org.aesh.terminal.utils.Config;
+import org.aesh.tty.TestConnection;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StartScriptTest {
+
+    @Test
+    public void testStartScriptReadsInput() throws Exception {
+        TestConnection connection = new TestConnection();
+
+        CommandRegistry registry = AeshCommandRegistryBuilder.builder()
+                .command(AskCommand.class)
+                .command(DoneCommand.class)
+                .create();
+
+        Settings<CommandInvocation, ConverterInvocation, CompleterInvocation, ValidatorInvocation,
+                OptionActivator, CommandActivator> settings =
+                SettingsBuilder.builder()
+                        .connection(connection)
+                        .commandRegistry(registry)
+                        .logging(true)
+                        .build();
+        settings.setExecuteAtStart("# asks for a value"+Config.getLineSeparator()+
+                "ask"+Config.getLineSeparator()+"done"+Config.getLineSeparator());
+
+        AskCommand.answer = null;
+        DoneCommand.done = new CountDownLatch(1);
+        ReadlineConsole console = new ReadlineConsole(settings);
+        //the start script must not block the start of the console
+        console.start();
+
+        connection.read("world"+Config.getLineSeparator());
+        assertTrue(DoneCommand.done.await(10, TimeUnit.SECONDS));
+        assertEquals("world", AskCommand.answer);
+
+        console.stop();
+    }
+
+    @CommandDefinition(name = "ask", description = "")
+    public static class AskCommand implements Command<CommandInvocation> {
+        static volatile String answer;
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) throws CommandException, InterruptedException {
+            answer = commandInvocation.inputLine();
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "done", description = "")
+    public static class DoneCommand implements Command<CommandInvocation> {
+        static volatile CountDownLatch done;
+
+        @Override
+        public CommandResult execute(CommandInvocation commandInvocation) {
+            done.countDown();
+            return CommandResult.SUCCESS;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.selector;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public class SelectorIndexTest {
+
+    private static final int VALUES = 100_000;
+
+    @Test
+    public void testLazyLoading() {
+        int[] read = new int[1];
+        Iterator<String> source = IntStream.range(0, VALUES).mapToObj(i -> {
+            read[0]++;
+            return "host-" + i;
+        }).iterator();
+
+        SelectorIndex index = new SelectorIndex(source);
+        assertTrue(index.load(30));
+        assertEquals(30, index.size());
+        assertEquals("host-29", index.get(29));
+        assertFalse(index.isLoaded());
+        assertTrue(read[0] < 100);
+
+        index.loadAll();
+        assertTrue(index.isLoaded());
+        assertEquals(VALUES, index.size());
+        assertFalse(index.load(VALUES + 1));
+    }
+
+    @Test
+    public void testPrefixFilter() {
+        SelectorIndex index = new SelectorIndex(Arrays.asList("Foo", "bar", "foobar", "baz", "FOX", "afoo"));
+        assertArrayEquals(new int[]{0, 2, 4}, index.filter("fo", SelectorIndex.Mode.PREFIX, null));
+        int[] matches = index.filter("f", SelectorIndex.Mode.PREFIX, null);
+        assertArrayEquals(new int[]{0, 2, 4}, matches);
+        assertArrayEquals(new int[]{0, 2}, index.filter("foo", SelectorIndex.Mode.PREFIX, matches));
+        assertArrayEquals(new int[]{1, 3}, index.filter("BA", SelectorIndex.Mode.PREFIX, null));
+        assertArrayEquals(new int[0], index.filter("x", SelectorIndex.Mode.PREFIX, null));
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5}, index.filter("", SelectorIndex.Mode.PREFIX, null));
+    }
+
+    @Test
+    public void testFuzzyFilter() {
+        SelectorIndex index = new SelectorIndex(Arrays.asList("org.aesh.Selector", "org.aesh.MultiSelect",
+                "com.example.Main", "selector"));
+        assertArrayEquals(new int[]{0, 1, 3}, index.filter("sel", SelectorIndex.Mode.FUZZY, null));
+        int[] matches = index.filter("oas", SelectorIndex.Mode.FUZZY, null);
+        assertArrayEquals(new int[]{0, 1}, matches);
+        assertArrayEquals(new int[]{1}, index.filter("oasm", SelectorIndex.Mode.FUZZY, matches));
+        assertArrayEquals(new int[]{2}, index.filter("cem", SelectorIndex.Mode.FUZZY, null));
+    }
+
+    @Test
+    public void testTypeAheadOnLargeList() {
+        List<String> values = new ArrayList<>(VALUES);
+        for(int i = 0; i < VALUES; i++)
+            values.add("artifact-" + Integer.toHexString(i * 7919));
+        SelectorIndex index = new SelectorIndex(values);
+
+        //narrowing the matches while typing gives the same result as filtering all the values
+        int[] matches = null;
+        String typed = "artifact-1a";
+        for(int i = 1; i <= typed.length(); i++)
+            matches = index.filter(typed.substring(0, i), SelectorIndex.Mode.PREFIX, matches);
+        assertTrue(matches.length > 0);
+        for(int match : matches)
+            assertTrue(values.get(match).startsWith(typed));
+        assertArrayEquals(index.filter(typed, SelectorIndex.Mode.PREFIX, null), matches);
+
+        matches = null;
+        typed = "a1f";
+        for(int i = 1; i <= typed.length(); i++)
+            matches = index.filter(typed.substring(0, i), SelectorIndex.Mode.FUZZY, matches);
+        assertTrue(matches.length > 0);
+        assertArrayEquals(index.filter(typed, SelectorIndex.Mode.FUZZY, null), matches);
+    }
+}
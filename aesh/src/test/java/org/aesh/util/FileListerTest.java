@@ -19,13 +19,17 @@
  */
 package org.aesh.util;
 
+import org.aesh.impl.util.DirectoryCache;
 import org.aesh.impl.util.FileLister;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -33,6 +37,8 @@ import org.aesh.comparators.PosixFileNameComparator;
 import org.aesh.readline.AeshContext;
 import org.aesh.io.Resource;
 import org.aesh.io.FileResource;
+import org.aesh.io.filter.AllResourceFilter;
+import org.aesh.io.filter.LeafResourceFilter;
 
 import org.aesh.readline.DefaultAeshContext;
 import org.aesh.terminal.utils.Config;
@@ -196,6 +202,52 @@ public class FileListerTest {
         delete(new FileResource(workingDirFile), false);
     }
 
+    @Test
+    public void testFilterIsApplied() throws IOException {
+        new File(workingDir.toString(), "child").mkdir();
+        Files.createFile(new File(workingDir.toString(), "child.txt").toPath());
+
+        List<String> candidates = new ArrayList<>();
+        new FileLister("ch", workingDir, new LeafResourceFilter()).findMatchingDirectories(candidates);
+        assertEquals(1, candidates.size());
+        assertEquals("child.txt", candidates.get(0));
+    }
+
+    @Test
+    public void testMaxCandidates() throws IOException {
+        for (int i = 0; i < 100; i++) {
+            Files.createFile(new File(workingDir.toString(), "file" + (1000 + i)).toPath());
+        }
+        Files.createFile(new File(workingDir.toString(), "fire").toPath());
+
+        List<String> candidates = new ArrayList<>();
+        new FileLister("fi", workingDir, new AllResourceFilter(), 10).findMatchingDirectories(candidates);
+        assertEquals(10, candidates.size());
+        assertEquals("file1000", candidates.get(0));
+        //the last match is kept so the common prefix is still "fi"
+        assertEquals("fire", candidates.get(9));
+    }
+
+    @Test
+    public void testListingIsInvalidated() throws IOException {
+        File dir = new File(workingDir.toString());
+        Files.createFile(new File(dir, "one").toPath());
+        FileTime old = FileTime.fromMillis(System.currentTimeMillis() - 60_000);
+        Files.setLastModifiedTime(dir.toPath(), old);
+
+        DirectoryCache cache = new DirectoryCache(4);
+        DirectoryCache.Listing listing = cache.list(dir.toPath());
+        assertEquals(1, listing.size());
+        assertSame(listing, cache.list(dir.toPath()));
+
+        Files.createFile(new File(dir, "two").toPath());
+        listing = cache.list(dir.toPath());
+        assertEquals(2, listing.size());
+        assertEquals("two", listing.getName(listing.first("t")));
+        assertEquals(2, listing.end("t"));
+        assertNull(cache.list(new File(dir, "one").toPath()));
+    }
+
     public static boolean delete(Resource file, final boolean recursive) {
         boolean result = false;
         if (recursive) {
@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2014 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.aesh.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author <a href="mailto:stale.pedersen@jboss.org">Ståle W. Pedersen</a>
+ */
+public class PageSearchTest {
+
+    @Test
+    public void testLiteral() {
+        List<String> lines = lines(100_000);
+        try(PageSearch search = new PageSearch("line 9999", PageSearch.Mode.LITERAL, lines::get, lines::size)) {
+            assertEquals(9999, search.nextLine(-1));
+            assertEquals(99990, search.nextLine(9999));
+            assertEquals(99999, search.nextLine(99998));
+            assertEquals(-1, search.nextLine(99999));
+            assertEquals(99998, search.previousLine(99999));
+            assertEquals(9999, search.previousLine(99990));
+            assertEquals(-1, search.previousLine(9999));
+            assertEquals(Arrays.asList(9999, 99990, 99991, 99992, 99993, 99994, 99995, 99996, 99997, 99998, 99999),
+                    search.getMatchLines());
+        }
+    }
+
+    @Test
+    public void testModes() {
+        List<String> lines = Arrays.asList("Foo bar", "foo FOO", "baz", "f00");
+        try(PageSearch search = new PageSearch("foo", PageSearch.Mode.LITERAL, lines::get, lines::size)) {
+            assertEquals(Arrays.asList(1), search.getMatchLines());
+        }
+        try(PageSearch search = new PageSearch("foo", PageSearch.Mode.IGNORE_CASE, lines::get, lines::size)) {
+            assertEquals(Arrays.asList(0, 1), search.getMatchLines());
+            assertEquals("[foo] [FOO]", search.highlight(1, lines.get(1), "[", "]"));
+        }
+        try(PageSearch search = new PageSearch("f[o0]+", PageSearch.Mode.REGEX, lines::get, lines::size)) {
+            assertEquals(Arrays.asList(1, 3), search.getMatchLines());
+            assertEquals("<f00>", search.highlight(3, lines.get(3), "<", ">"));
+            assertEquals("baz", search.highlight(2, lines.get(2), "<", ">"));
+        }
+        try(PageSearch search = new PageSearch("^f.o", PageSearch.Mode.REGEX_IGNORE_CASE, lines::get, lines::size)) {
+            assertEquals(Arrays.asList(0, 1), search.getMatchLines());
+        }
+        try(PageSearch search = new PageSearch("x*", PageSearch.Mode.REGEX, lines::get, lines::size)) {
+            assertFalse(search.hasMatches());
+        }
+    }
+
+    @Test(expected = PatternSyntaxException.class)
+    public void testInvalidRegex() {
+        List<String> lines = lines(10);
+        new PageSearch("line (", PageSearch.Mode.REGEX, lines::get, lines::size);
+    }
+
+    @Test
+    public void testGrowingContent() {
+        List<String> lines = new ArrayList<>(lines(10));
+        try(PageSearch search = new PageSearch("match", PageSearch.Mode.LITERAL, lines::get, lines::size)) {
+            assertFalse(search.hasMatches());
+            lines.add("a match");
+            assertTrue(search.hasMatches());
+            assertEquals(10, search.nextLine(0));
+            assertEquals(10, search.previousLine(11));
+        }
+    }
+
+    private static List<String> lines(int count) {
+        List<String> lines = new ArrayList<>(count);
+        for(int i = 0; i < count; i++)
+            lines.add("line " + i);
+        return lines;
+    }
+}